@@ -0,0 +1,459 @@
+package org.cleverframe.common.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步批量写入器<br/>
+ * 1.业务线程调用offer把数据放入有界无锁环形队列，不做任何IO操作<br/>
+ * 2.后台写入线程按批量大小或者刷新间隔取出数据，调用{@link #flush(List)}批量写入<br/>
+ * 3.队列满时根据{@link OverflowPolicy}丢弃、采样或者阻塞<br/>
+ * 4.统计入队、丢弃、写入成功、写入失败的数据条数<br/>
+ * 5.批量写入失败时逐条重试，只有重试失败的数据计入失败条数<br/>
+ * <b>注意：使用前必须调用start()，关闭时调用stop()会先拒绝新数据入队，再把队列中剩余的数据写完</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 10:20 <br/>
+ *
+ * @param <E> 写入数据类型
+ */
+public abstract class AsyncBatchWriter<E> {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(AsyncBatchWriter.class);
+
+    /**
+     * 队列容量
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 每批写入的最大数据条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 刷新间隔(毫秒)，队列数据不足一批时最多等待的时间
+     */
+    private long flushInterval = 1000L;
+
+    /**
+     * 队列满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * 采样率，SAMPLE策略下每sampleRate条数据保留1条
+     */
+    private int sampleRate = 10;
+
+    /**
+     * SAMPLE策略的高水位(队列使用率百分比)，超过后开始采样
+     */
+    private int sampleHighWaterMark = 75;
+
+    /**
+     * BLOCK策略下最长等待时间(毫秒)
+     */
+    private long offerTimeout = 1000L;
+
+    /**
+     * 写入线程名称
+     */
+    private String threadName = getClass().getSimpleName();
+
+    /**
+     * 数据队列
+     */
+    private volatile RingBufferQueue<E> queue;
+
+    /**
+     * 后台写入线程
+     */
+    private volatile Thread writerThread;
+
+    /**
+     * 是否正在运行
+     */
+    private volatile boolean running = false;
+
+    /**
+     * 是否已停止接收新数据，stop()时先关闭入队再写完剩余数据
+     */
+    private volatile boolean closed = true;
+
+    /**
+     * 正在执行offer的业务线程数，stop()等待其归零后才开始最后一次写入
+     */
+    private final AtomicInteger activeProducers = new AtomicInteger(0);
+
+    /**
+     * 采样计数器
+     */
+    private final AtomicLong sampleCounter = new AtomicLong(0L);
+
+    /**
+     * 入队成功的数据条数
+     */
+    private final AtomicLong queuedCount = new AtomicLong(0L);
+
+    /**
+     * 被丢弃的数据条数
+     */
+    private final AtomicLong droppedCount = new AtomicLong(0L);
+
+    /**
+     * 写入成功的数据条数
+     */
+    private final AtomicLong flushedCount = new AtomicLong(0L);
+
+    /**
+     * 写入失败的数据条数
+     */
+    private final AtomicLong failedCount = new AtomicLong(0L);
+
+    /**
+     * 执行写入的批次数
+     */
+    private final AtomicLong batchCount = new AtomicLong(0L);
+
+    /**
+     * 批量写入数据，由后台写入线程调用
+     *
+     * @param batch 一批数据，不会为空
+     * @throws Exception 写入失败，这一批数据会逐条调用{@link #flushOne(Object)}重试
+     */
+    protected abstract void flush(List<E> batch) throws Exception;
+
+    /**
+     * 写入单条数据，批量写入失败时逐条重试调用，避免一条坏数据导致整批丢失<br/>
+     * 默认实现把单条数据作为一批调用{@link #flush(List)}
+     *
+     * @param element 数据
+     * @throws Exception 写入失败，这条数据计入失败条数
+     */
+    protected void flushOne(E element) throws Exception {
+        flush(Collections.singletonList(element));
+    }
+
+    /**
+     * 启动后台写入线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        queue = new RingBufferQueue<>(bufferSize);
+        running = true;
+        closed = false;
+        writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runLoop();
+            }
+        }, threadName);
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("### [{}]启动, bufferSize={}, batchSize={}, flushInterval={}ms, overflowPolicy={}",
+                threadName, queue.getCapacity(), batchSize, flushInterval, overflowPolicy);
+    }
+
+    /**
+     * 停止后台写入线程，先拒绝新数据入队并等待正在入队的线程结束，再把队列中剩余的数据写完
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(offerTimeout, 1000L));
+        while (activeProducers.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Math.max(flushInterval * 2, 5000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writerThread = null;
+        logger.info("### [{}]停止, queued={}, dropped={}, flushed={}, failed={}",
+                threadName, queuedCount.get(), droppedCount.get(), flushedCount.get(), failedCount.get());
+    }
+
+    /**
+     * 放入一条数据，根据队列状态和处理策略可能会被丢弃
+     *
+     * @param element 数据
+     * @return 入队成功返回true，被丢弃返回false
+     */
+    public boolean offer(E element) {
+        // 先登记再检查closed，stop()在closed之后等待activeProducers归零，保证最后一次写入之后不会再有数据入队
+        activeProducers.incrementAndGet();
+        boolean success;
+        try {
+            RingBufferQueue<E> buffer = queue;
+            if (closed || buffer == null || element == null) {
+                success = false;
+            } else {
+                switch (overflowPolicy) {
+                    case SAMPLE:
+                        success = offerBySample(buffer, element);
+                        break;
+                    case BLOCK:
+                        success = offerByBlock(buffer, element);
+                        break;
+                    default:
+                        success = buffer.offer(element);
+                        break;
+                }
+            }
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+        if (success) {
+            queuedCount.incrementAndGet();
+        } else {
+            droppedCount.incrementAndGet();
+        }
+        return success;
+    }
+
+    /**
+     * 队列使用率超过高水位后按采样率保留数据
+     */
+    private boolean offerBySample(RingBufferQueue<E> buffer, E element) {
+        if (buffer.size() * 100L >= (long) buffer.getCapacity() * sampleHighWaterMark
+                && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            return false;
+        }
+        return buffer.offer(element);
+    }
+
+    /**
+     * 队列满时阻塞等待，超时后丢弃
+     */
+    private boolean offerByBlock(RingBufferQueue<E> buffer, E element) {
+        if (buffer.offer(element)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeout);
+        while (!closed && System.nanoTime() < deadline) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 后台写入线程主循环
+     */
+    private void runLoop() {
+        List<E> batch = new ArrayList<>(batchSize);
+        long lastFlushTime = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long now = System.currentTimeMillis();
+            boolean timeout = now - lastFlushTime >= flushInterval;
+            if (batch.size() >= batchSize || (timeout && !batch.isEmpty()) || (!running && !batch.isEmpty())) {
+                doFlush(batch);
+                batch = new ArrayList<>(batchSize);
+                lastFlushTime = now;
+                continue;
+            }
+            if (timeout) {
+                lastFlushTime = now;
+            }
+            if (running && queue.isEmpty()) {
+                long waitTime = Math.max(1L, flushInterval - (now - lastFlushTime));
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.min(waitTime, 100L)));
+            }
+        }
+        if (!batch.isEmpty()) {
+            doFlush(batch);
+        }
+    }
+
+    /**
+     * 执行一次批量写入，并统计写入结果，批量写入失败时逐条重试
+     */
+    private void doFlush(List<E> batch) {
+        try {
+            flush(batch);
+            flushedCount.addAndGet(batch.size());
+        } catch (Throwable e) {
+            logger.warn("### [" + threadName + "]批量写入失败，逐条重试, 数据条数=" + batch.size(), e);
+            flushOneByOne(batch);
+        } finally {
+            batchCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 逐条写入一批数据，只有写入失败的数据计入失败条数
+     */
+    private void flushOneByOne(List<E> batch) {
+        int failed = 0;
+        Throwable lastError = null;
+        for (E element : batch) {
+            try {
+                flushOne(element);
+                flushedCount.incrementAndGet();
+            } catch (Throwable e) {
+                failed++;
+                lastError = e;
+            }
+        }
+        if (failed > 0) {
+            failedCount.addAndGet(failed);
+            logger.error("### [" + threadName + "]逐条重试写入失败, 失败条数=" + failed + ", 数据条数=" + batch.size(), lastError);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          统计数据
+     * -------------------------------------------------------------*/
+
+    /**
+     * @return 队列中等待写入的数据条数
+     */
+    public int getPendingCount() {
+        RingBufferQueue<E> buffer = queue;
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * @return 入队成功的数据条数
+     */
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * @return 被丢弃的数据条数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return 写入成功的数据条数
+     */
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    /**
+     * @return 写入失败的数据条数
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return 执行写入的批次数
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return 是否正在运行
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("### bufferSize必须大于0");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("### batchSize必须大于0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        if (flushInterval <= 0) {
+            throw new IllegalArgumentException("### flushInterval必须大于0");
+        }
+        this.flushInterval = flushInterval;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP : overflowPolicy;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate <= 0 ? 1 : sampleRate;
+    }
+
+    public int getSampleHighWaterMark() {
+        return sampleHighWaterMark;
+    }
+
+    public void setSampleHighWaterMark(int sampleHighWaterMark) {
+        this.sampleHighWaterMark = Math.max(0, Math.min(100, sampleHighWaterMark));
+    }
+
+    public long getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public void setOfferTimeout(long offerTimeout) {
+        this.offerTimeout = offerTimeout < 0 ? 0 : offerTimeout;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public void setThreadName(String threadName) {
+        this.threadName = threadName;
+    }
+}
@@ -0,0 +1,125 @@
+package org.cleverframe.common.concurrent;
+
+/**
+ * 访问频率估计器(Count-Min Sketch)，用于 TinyLFU 缓存准入策略<br/>
+ * 1.每个计数器4位(最大15)，一个long存储16个计数器，每个Key对应4个计数器，取最小值作为频率<br/>
+ * 2.累计次数达到采样数量(计数器数量的10倍)时所有计数器减半(老化)，使频率反映最近一段时间的访问<br/>
+ * 3.只占用很少的堆内存，不存储Key<br/>
+ * <b>注意：此类不是线程安全的，需要调用者加锁</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:58 <br/>
+ */
+public class FrequencySketch {
+
+    /**
+     * 4个计数器的Hash种子
+     */
+    private static final long[] SEED = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    /**
+     * 计数器减半时使用的掩码
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * 统计奇数计数器数量使用的掩码
+     */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /**
+     * 计数器表，长度为2的n次方
+     */
+    private final long[] table;
+
+    private final int tableMask;
+
+    /**
+     * 累计次数达到此值时老化
+     */
+    private final int sampleSize;
+
+    /**
+     * 累计次数
+     */
+    private int size = 0;
+
+    /**
+     * @param maximumSize 预计缓存的最大数据数量
+     */
+    public FrequencySketch(long maximumSize) {
+        int max = (int) Math.min(Math.max(maximumSize, 16), 1 << 30);
+        table = new long[Integer.highestOneBit(max - 1) << 1];
+        tableMask = table.length - 1;
+        sampleSize = 10 * max;
+    }
+
+    /**
+     * 估计访问频率
+     *
+     * @return 0 ~ 15
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 访问频率加1，达到采样数量时老化
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 第i个long中的第j个计数器加1，已经达到最大值返回false
+     */
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xFL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (count >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEED[i]) * SEED[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
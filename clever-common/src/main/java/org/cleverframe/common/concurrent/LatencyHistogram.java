@@ -0,0 +1,165 @@
+package org.cleverframe.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的耗时分布直方图，用于统计延迟、执行时间的百分位数<br/>
+ * 1.使用对数-线性分桶：小于64的值每个值一个桶，之后每个2的n次方区间分为32个桶，相对误差不超过1/32<br/>
+ * 2.记录数据只做原子自增，不加锁，适合在Quartz工作线程、请求线程中调用<br/>
+ * 3.读取统计数据时不阻塞写入，并发写入时读取的结果是近似值<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:40 <br/>
+ */
+public class LatencyHistogram {
+
+    /**
+     * 每个2的n次方区间的分桶精度(位数)
+     */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /**
+     * 线性分桶的数量
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 每个2的n次方区间的分桶数量
+     */
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * 分桶总数，覆盖[0, Long.MAX_VALUE]
+     */
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT + SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong count = new AtomicLong(0L);
+
+    private final AtomicLong sum = new AtomicLong(0L);
+
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * 记录一个值，负数按0记录
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            Thread.yield();
+        }
+        while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 返回百分位数的近似值(所在分桶的上限，不超过最大值)
+     *
+     * @param percentile 百分位数，取值范围(0, 100]，如：50、99、99.9
+     * @return 没有数据返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = count.get();
+        if (total <= 0) {
+            return 0;
+        }
+        if (percentile > 100) {
+            percentile = 100;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= target) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 清空统计数据
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(Long.MIN_VALUE);
+        min.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * 计算值所在的分桶
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * 分桶能保存的最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+        if (shift + SUB_BUCKET_BITS >= 64) {
+            return Long.MAX_VALUE;
+        }
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * 平均值，没有数据返回0
+     */
+    public double getMean() {
+        long total = count.get();
+        return total <= 0 ? 0 : sum.get() / (double) total;
+    }
+
+    /**
+     * 最大值，没有数据返回0
+     */
+    public long getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * 最小值，没有数据返回0
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+}
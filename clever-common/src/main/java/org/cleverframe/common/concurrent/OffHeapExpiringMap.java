@@ -0,0 +1,524 @@
+package org.cleverframe.common.concurrent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 堆外内存存储的过期Map，Key为String，Value为byte[]<br/>
+ * 1.Value存储在DirectByteBuffer中，不占用Java堆内存，不增加GC压力，堆内只保留很小的索引对象<br/>
+ * 2.内存按页(page)申请，每页只存储一种大小的槽位(slot)，槽位大小为64字节的2的n次方倍，释放的槽位放入空闲列表重复使用<br/>
+ * 3.每个Key可以设置过期时间，过期时间按秒分桶索引，查询、清除过期数据时只需要访问已经过期的桶，不需要扫描所有数据<br/>
+ * 4.使用分段读写锁保证并发读写安全，过期时间索引的桶使用无锁方式增删，清除过期数据时以数据自身的过期时间为准<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 19:20 <br/>
+ */
+public class OffHeapExpiringMap {
+
+    /**
+     * 最小槽位大小(字节)
+     */
+    private static final int MIN_SLOT_SIZE = 64;
+
+    /**
+     * 槽位大小种类数量，最大槽位 64 << 14 = 1MB，超过的数据单独申请内存
+     */
+    private static final int SIZE_CLASS_COUNT = 15;
+
+    /**
+     * 过期时间索引的分桶精度(毫秒)
+     */
+    private static final long BUCKET_MILLIS = 1000L;
+
+    /**
+     * 锁分段数量(2的n次方)
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 每页内存大小(字节)
+     */
+    private final int pageSize;
+
+    /**
+     * 最多使用的堆外内存(字节)
+     */
+    private final long maxMemory;
+
+    /**
+     * Key -> 数据位置
+     */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 过期时间分桶 -> Key集合
+     */
+    private final ConcurrentSkipListMap<Long, Set<String>> expireBuckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * 每种槽位大小的内存分配器
+     */
+    private final SlabAllocator[] allocators = new SlabAllocator[SIZE_CLASS_COUNT];
+
+    /**
+     * 分段读写锁
+     */
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[LOCK_STRIPES];
+
+    /**
+     * 已申请的堆外内存(字节)
+     */
+    private final AtomicLong allocatedBytes = new AtomicLong(0L);
+
+    /**
+     * 已使用的堆外内存(槽位大小之和)
+     */
+    private final AtomicLong usedBytes = new AtomicLong(0L);
+
+    /**
+     * 因过期被清除的数据数量
+     */
+    private final AtomicLong evictedCount = new AtomicLong(0L);
+
+    /**
+     * @param pageSize  每页内存大小(字节)，不能小于最大槽位大小1MB
+     * @param maxMemory 最多使用的堆外内存(字节)
+     */
+    public OffHeapExpiringMap(int pageSize, long maxMemory) {
+        int maxSlotSize = MIN_SLOT_SIZE << (SIZE_CLASS_COUNT - 1);
+        if (pageSize < maxSlotSize) {
+            throw new IllegalArgumentException("pageSize不能小于" + maxSlotSize);
+        }
+        this.pageSize = pageSize;
+        this.maxMemory = maxMemory;
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            allocators[i] = new SlabAllocator(MIN_SLOT_SIZE << i);
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * 保存数据
+     *
+     * @param key      Key
+     * @param value    数据
+     * @param expireAt 过期时间(毫秒时间戳)，小于等于0 表示永不过期
+     * @throws IllegalStateException 堆外内存不足
+     */
+    public void put(String key, byte[] value, long expireAt) {
+        ReentrantReadWriteLock lock = getLock(key);
+        lock.writeLock().lock();
+        try {
+            Entry entry = allocate(value.length);
+            ByteBuffer buffer = entry.buffer.duplicate();
+            buffer.position(entry.offset);
+            buffer.put(value);
+            entry.length = value.length;
+            entry.expireAt = expireAt;
+            Entry old = entries.put(key, entry);
+            if (old != null) {
+                removeExpireIndex(key, old.expireAt);
+                free(old);
+            }
+            addExpireIndex(key, expireAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取数据
+     *
+     * @return 不存在返回null
+     */
+    public byte[] get(String key) {
+        ReentrantReadWriteLock lock = getLock(key);
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            byte[] value = new byte[entry.length];
+            ByteBuffer buffer = entry.buffer.duplicate();
+            buffer.position(entry.offset);
+            buffer.get(value);
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取过期时间
+     *
+     * @return 不存在返回-1，永不过期返回0
+     */
+    public long getExpireAt(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? -1L : entry.expireAt;
+    }
+
+    /**
+     * 只更新过期时间，不修改数据
+     *
+     * @return 不存在返回false
+     */
+    public boolean setExpireAt(String key, long expireAt) {
+        ReentrantReadWriteLock lock = getLock(key);
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return false;
+            }
+            if (getBucket(entry.expireAt) != getBucket(expireAt)) {
+                removeExpireIndex(key, entry.expireAt);
+                addExpireIndex(key, expireAt);
+            }
+            entry.expireAt = expireAt;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除数据
+     *
+     * @return 不存在返回false
+     */
+    public boolean remove(String key) {
+        ReentrantReadWriteLock lock = getLock(key);
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            removeExpireIndex(key, entry.expireAt);
+            free(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取已经过期的Key，只访问已经过期的桶
+     *
+     * @param now      当前时间(毫秒时间戳)
+     * @param maxCount 最多返回的数量
+     */
+    public List<String> getExpiredKeys(long now, int maxCount) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<Long, Set<String>> bucket : expireBuckets.headMap(getBucket(now), true).entrySet()) {
+            for (String key : bucket.getValue()) {
+                long expireAt = getExpireAt(key);
+                // 只认数据当前所在的桶，忽略残留的索引
+                if (expireAt > 0 && expireAt <= now && getBucket(expireAt) == bucket.getKey()) {
+                    keys.add(key);
+                    if (keys.size() >= maxCount) {
+                        return keys;
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 清除已经过期的数据，以数据自身的过期时间为准，同时清除不属于当前桶的残留索引
+     *
+     * @param now 当前时间(毫秒时间戳)
+     * @return 被清除的Key
+     */
+    public List<String> evictExpired(long now) {
+        List<String> evictedKeys = new ArrayList<>();
+        for (Map.Entry<Long, Set<String>> bucket : expireBuckets.headMap(getBucket(now), true).entrySet()) {
+            long bucketKey = bucket.getKey();
+            for (String key : bucket.getValue()) {
+                ReentrantReadWriteLock lock = getLock(key);
+                lock.writeLock().lock();
+                try {
+                    Entry entry = entries.get(key);
+                    if (entry == null || getBucket(entry.expireAt) != bucketKey) {
+                        // 数据已删除或者过期时间已修改，索引是残留的
+                        removeFromBucket(key, bucketKey);
+                    } else if (entry.expireAt <= now) {
+                        entries.remove(key);
+                        removeExpireIndex(key, entry.expireAt);
+                        free(entry);
+                        evictedKeys.add(key);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+        evictedCount.addAndGet(evictedKeys.size());
+        return evictedKeys;
+    }
+
+    /**
+     * 是否包含Key
+     */
+    public boolean containsKey(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * 所有的Key(弱一致性视图)
+     */
+    public Set<String> keySet() {
+        return entries.keySet();
+    }
+
+    /**
+     * 数据数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 删除所有数据，已申请的内存保留重复使用
+     */
+    public void clear() {
+        for (String key : entries.keySet()) {
+            remove(key);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          内存分配
+     * -------------------------------------------------------------*/
+
+    private ReentrantReadWriteLock getLock(String key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * 根据数据长度计算槽位种类，超过最大槽位返回-1
+     */
+    private static int getSizeClass(int length) {
+        int sizeClass = 0;
+        int slotSize = MIN_SLOT_SIZE;
+        while (slotSize < length) {
+            slotSize <<= 1;
+            sizeClass++;
+            if (sizeClass >= SIZE_CLASS_COUNT) {
+                return -1;
+            }
+        }
+        return sizeClass;
+    }
+
+    private Entry allocate(int length) {
+        int sizeClass = getSizeClass(length);
+        if (sizeClass < 0) {
+            // 大数据单独申请内存
+            reserve(length);
+            usedBytes.addAndGet(length);
+            return new Entry(ByteBuffer.allocateDirect(length), -1, 0, -1);
+        }
+        Entry entry = allocators[sizeClass].allocate();
+        usedBytes.addAndGet(allocators[sizeClass].slotSize);
+        return entry;
+    }
+
+    private void free(Entry entry) {
+        if (entry.sizeClass < 0) {
+            usedBytes.addAndGet(-entry.buffer.capacity());
+            allocatedBytes.addAndGet(-entry.buffer.capacity());
+            return;
+        }
+        allocators[entry.sizeClass].free(entry);
+        usedBytes.addAndGet(-allocators[entry.sizeClass].slotSize);
+    }
+
+    /**
+     * 预留内存，超过最大内存时抛出异常
+     */
+    private void reserve(long bytes) {
+        long allocated;
+        do {
+            allocated = allocatedBytes.get();
+            if (allocated + bytes > maxMemory) {
+                throw new IllegalStateException("堆外内存不足, 最大内存=" + maxMemory + ", 已申请=" + allocated + ", 需要=" + bytes);
+            }
+        } while (!allocatedBytes.compareAndSet(allocated, allocated + bytes));
+    }
+
+    private static long getBucket(long expireAt) {
+        return expireAt <= 0 ? Long.MAX_VALUE : expireAt / BUCKET_MILLIS;
+    }
+
+    private void addExpireIndex(String key, long expireAt) {
+        if (expireAt <= 0) {
+            return;
+        }
+        addToBucket(key, getBucket(expireAt));
+    }
+
+    private void removeExpireIndex(String key, long expireAt) {
+        if (expireAt <= 0) {
+            return;
+        }
+        removeFromBucket(key, getBucket(expireAt));
+    }
+
+    /**
+     * 把Key加入桶中，加入后桶已经被移除(其它Key删除时桶为空)则重新加入新的桶，保证Key不会留在被移除的桶中
+     */
+    private void addToBucket(String key, long bucket) {
+        while (true) {
+            Set<String> keys = expireBuckets.get(bucket);
+            if (keys == null) {
+                Set<String> tmp = ConcurrentHashMap.newKeySet();
+                keys = expireBuckets.putIfAbsent(bucket, tmp);
+                if (keys == null) {
+                    keys = tmp;
+                }
+            }
+            keys.add(key);
+            if (expireBuckets.get(bucket) == keys) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 把Key从桶中移除，桶为空时移除桶；移除桶之后有其它Key并发加入了这个桶，则把这些Key重新加入新的桶
+     */
+    private void removeFromBucket(String key, long bucket) {
+        Set<String> keys = expireBuckets.get(bucket);
+        if (keys == null) {
+            return;
+        }
+        keys.remove(key);
+        if (keys.isEmpty() && expireBuckets.remove(bucket, keys)) {
+            for (String other : keys) {
+                addToBucket(other, bucket);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * 已申请的堆外内存(字节)
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * 已使用的堆外内存(字节)
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * 因过期被清除的数据数量
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * 数据位置
+     */
+    private static class Entry {
+        private final ByteBuffer buffer;
+        private final int page;
+        private final int offset;
+        private final int sizeClass;
+        private int length;
+        private volatile long expireAt;
+
+        Entry(ByteBuffer buffer, int page, int offset, int sizeClass) {
+            this.buffer = buffer;
+            this.page = page;
+            this.offset = offset;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    /**
+     * 同一种槽位大小的内存分配器，空闲槽位使用long数组存储(高32位页号，低32位偏移量)，不创建堆内对象
+     */
+    private class SlabAllocator {
+        private final int slotSize;
+        private final int sizeClass;
+
+        /**
+         * 已申请的内存页
+         */
+        private final List<ByteBuffer> pages = new ArrayList<>();
+
+        /**
+         * 空闲槽位栈
+         */
+        private long[] freeSlots = new long[0];
+
+        /**
+         * 空闲槽位数量
+         */
+        private int freeCount = 0;
+
+        SlabAllocator(int slotSize) {
+            this.slotSize = slotSize;
+            this.sizeClass = Integer.numberOfTrailingZeros(slotSize / MIN_SLOT_SIZE);
+        }
+
+        synchronized Entry allocate() {
+            if (freeCount <= 0) {
+                reserve(pageSize);
+                int page = pages.size();
+                pages.add(ByteBuffer.allocateDirect(pageSize));
+                int slotCount = pageSize / slotSize;
+                if (freeSlots.length < slotCount) {
+                    freeSlots = new long[slotCount];
+                }
+                // 倒序入栈，按偏移量从小到大分配
+                for (int i = slotCount - 1; i >= 0; i--) {
+                    freeSlots[freeCount++] = ((long) page << 32) | ((long) i * slotSize);
+                }
+            }
+            long slot = freeSlots[--freeCount];
+            int page = (int) (slot >>> 32);
+            return new Entry(pages.get(page), page, (int) slot, sizeClass);
+        }
+
+        synchronized void free(Entry entry) {
+            if (freeCount >= freeSlots.length) {
+                long[] tmp = new long[Math.max(16, freeSlots.length * 2)];
+                System.arraycopy(freeSlots, 0, tmp, 0, freeCount);
+                freeSlots = tmp;
+            }
+            freeSlots[freeCount++] = ((long) entry.page << 32) | entry.offset;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package org.cleverframe.common.concurrent;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按字节数限制大小的堆外内存缓存，Key为String，Value为byte[]，使用 W-TinyLFU 淘汰策略<br/>
+ * 1.数据存储在 {@link OffHeapExpiringMap} 中(堆外内存)，堆内只保留Key和数据大小<br/>
+ * 2.新数据先进入窗口区(LRU，总大小的1%)，从窗口区淘汰的数据与主区(SLRU)的淘汰候选比较访问频率，频率高的留下<br/>
+ * 3.主区分为试用区和保护区(主区的80%)，试用区的数据再次被访问时进入保护区<br/>
+ * 4.访问频率使用 {@link FrequencySketch} 估计，偶尔访问一次的大量数据不会把热点数据挤出缓存<br/>
+ * 5.超过单个数据最大大小的数据不缓存<br/>
+ * 6.读取数据不加锁：访问记录先写入按线程分段的环形缓冲区(无锁)，缓冲区满时由抢到锁的线程批量更新访问频率和队列顺序；缓冲区满且没有抢到锁时丢弃访问记录，只影响淘汰的准确性<br/>
+ * <b>注意：堆外内存按槽位大小分页申请且不释放，数据大小分布变化很大时可能出现内存不足，此时新数据不会被缓存</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:58 <br/>
+ */
+public class OffHeapLfuCache {
+
+    /**
+     * 堆外内存每页大小(字节)
+     */
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    /**
+     * 槽位大小种类数量，与 {@link OffHeapExpiringMap} 一致
+     */
+    private static final int SIZE_CLASS_COUNT = 15;
+
+    /**
+     * 估计访问频率时使用的平均数据大小(字节)
+     */
+    private static final int AVERAGE_ENTRY_SIZE = 4 * 1024;
+
+    /**
+     * 访问频率估计器的最小容量，容量太小时Hash冲突使访问频率估计不准确
+     */
+    private static final int MIN_SKETCH_SIZE = 1024;
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    /**
+     * 访问记录缓冲区的分段数量(2的n次方)
+     */
+    private static final int READ_BUFFER_STRIPES = ceilingPowerOfTwo(Math.min(64, Runtime.getRuntime().availableProcessors() * 4));
+
+    /**
+     * 缓存数据的总大小上限(字节)
+     */
+    private final long maximumWeight;
+
+    /**
+     * 单个数据最大大小(字节)
+     */
+    private final int maxEntrySize;
+
+    /**
+     * 窗口区大小上限(字节)
+     */
+    private final long windowMaximum;
+
+    /**
+     * 主区大小上限(字节)
+     */
+    private final long mainMaximum;
+
+    /**
+     * 保护区大小上限(字节)
+     */
+    private final long protectedMaximum;
+
+    /**
+     * 数据存储
+     */
+    private final OffHeapExpiringMap store;
+
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 访问记录缓冲区，按线程分段
+     */
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+
+    /**
+     * Key -> 节点，以下集合和访问频率估计器只在持有lock时访问
+     */
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    private final LinkedHashMap<String, Node> windowQueue = new LinkedHashMap<>();
+
+    private final LinkedHashMap<String, Node> probationQueue = new LinkedHashMap<>();
+
+    private final LinkedHashMap<String, Node> protectedQueue = new LinkedHashMap<>();
+
+    private long windowWeight = 0;
+
+    private long probationWeight = 0;
+
+    private long protectedWeight = 0;
+
+    /**
+     * 命中次数
+     */
+    private final AtomicLong hitCount = new AtomicLong(0L);
+
+    /**
+     * 未命中次数
+     */
+    private final AtomicLong missCount = new AtomicLong(0L);
+
+    /**
+     * 命中时返回的字节数
+     */
+    private final AtomicLong hitBytes = new AtomicLong(0L);
+
+    /**
+     * 保存数据次数
+     */
+    private final AtomicLong putCount = new AtomicLong(0L);
+
+    /**
+     * 没有缓存的数据数量(数据太大或者堆外内存不足)
+     */
+    private final AtomicLong rejectCount = new AtomicLong(0L);
+
+    /**
+     * 被淘汰的数据数量(包括没有通过准入比较的新数据)
+     */
+    private final AtomicLong evictionCount = new AtomicLong(0L);
+
+    /**
+     * @param maximumWeight 缓存数据的总大小上限(字节)
+     * @param maxEntrySize  单个数据最大大小(字节)，不能超过总大小上限
+     */
+    public OffHeapLfuCache(long maximumWeight, int maxEntrySize) {
+        if (maximumWeight <= 0 || maxEntrySize <= 0 || maxEntrySize > maximumWeight) {
+            throw new IllegalArgumentException("缓存大小参数错误, maximumWeight=" + maximumWeight + ", maxEntrySize=" + maxEntrySize);
+        }
+        this.maximumWeight = maximumWeight;
+        this.maxEntrySize = maxEntrySize;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.mainMaximum = maximumWeight - windowMaximum;
+        this.protectedMaximum = mainMaximum * 80 / 100;
+        // 槽位大小向上取2的n次方，最多浪费一半内存，另外每种槽位预留一页
+        this.store = new OffHeapExpiringMap(PAGE_SIZE, maximumWeight * 2 + (long) PAGE_SIZE * SIZE_CLASS_COUNT);
+        this.sketch = new FrequencySketch(Math.max(MIN_SKETCH_SIZE, maximumWeight / AVERAGE_ENTRY_SIZE));
+        for (int i = 0; i < readBuffers.length; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    /**
+     * 读取数据，同时记录访问频率
+     *
+     * @return 不存在返回null
+     */
+    public byte[] get(String key) {
+        byte[] value = store.get(key);
+        recordRead(key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+            hitBytes.addAndGet(value.length);
+        }
+        return value;
+    }
+
+    /**
+     * 保存数据，数据先进入窗口区，是否能留在缓存中由访问频率决定
+     *
+     * @return 数据太大或者堆外内存不足返回false
+     */
+    public boolean put(String key, byte[] value) {
+        putCount.incrementAndGet();
+        if (value.length > maxEntrySize) {
+            rejectCount.incrementAndGet();
+            return false;
+        }
+        lock.lock();
+        try {
+            drainReadBuffers();
+            try {
+                store.put(key, value, 0);
+            } catch (IllegalStateException e) {
+                // 堆外内存不足，旧数据保持不变
+                rejectCount.incrementAndGet();
+                return false;
+            }
+            Node node = nodes.get(key);
+            if (node == null) {
+                node = new Node(key, value.length);
+                nodes.put(key, node);
+                addLast(node, WINDOW);
+            } else {
+                int queue = node.queue;
+                remove(node);
+                node.weight = value.length;
+                addLast(node, queue);
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 删除数据
+     */
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            Node node = nodes.remove(key);
+            if (node != null) {
+                remove(node);
+            }
+            store.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除所有数据，已申请的堆外内存保留重复使用
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            nodes.clear();
+            windowQueue.clear();
+            probationQueue.clear();
+            protectedQueue.clear();
+            windowWeight = 0;
+            probationWeight = 0;
+            protectedWeight = 0;
+            store.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否包含Key，不记录访问频率
+     */
+    public boolean containsKey(String key) {
+        return store.containsKey(key);
+    }
+
+    /*--------------------------------------------------------------
+     *          访问记录
+     * -------------------------------------------------------------*/
+
+    /**
+     * 记录一次访问，缓冲区满时尝试获取锁批量处理，获取不到锁时不等待
+     */
+    private void recordRead(String key) {
+        ReadBuffer buffer = readBuffers[stripe()];
+        if (buffer.offer(key)) {
+            return;
+        }
+        if (lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+            buffer.offer(key);
+        }
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 16) & (READ_BUFFER_STRIPES - 1);
+    }
+
+    /**
+     * 处理所有缓冲区中的访问记录，调用时需要持有lock
+     */
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : readBuffers) {
+            buffer.drain(this);
+        }
+    }
+
+    /**
+     * 处理一条访问记录：增加访问频率，缓存中存在时调整队列顺序，调用时需要持有lock
+     */
+    private void onRead(String key) {
+        sketch.increment(key);
+        Node node = nodes.get(key);
+        if (node != null && node.queue >= 0) {
+            onHit(node);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          淘汰策略
+     * -------------------------------------------------------------*/
+
+    /**
+     * 数据被访问：窗口区、保护区移动到队尾；试用区进入保护区，保护区超过上限时把最久没有访问的数据降级到试用区
+     */
+    private void onHit(Node node) {
+        if (node.queue == PROBATION) {
+            remove(node);
+            addLast(node, PROTECTED);
+            while (protectedWeight > protectedMaximum) {
+                Node demoted = first(protectedQueue);
+                remove(demoted);
+                addLast(demoted, PROBATION);
+            }
+        } else {
+            int queue = node.queue;
+            remove(node);
+            addLast(node, queue);
+        }
+    }
+
+    /**
+     * 窗口区超过上限时，把窗口区最久没有访问的数据移到主区，主区超过上限时淘汰访问频率低的数据
+     */
+    private void evict() {
+        while (windowWeight > windowMaximum) {
+            Node candidate = first(windowQueue);
+            remove(candidate);
+            admit(candidate);
+        }
+        // 更新数据大小可能使主区超过上限
+        while (probationWeight + protectedWeight > mainMaximum) {
+            evictNode(victim());
+        }
+    }
+
+    /**
+     * 候选数据与主区淘汰数据比较访问频率，频率高的留下
+     */
+    private void admit(Node candidate) {
+        int candidateFrequency = sketch.frequency(candidate.key);
+        while (probationWeight + protectedWeight + candidate.weight > mainMaximum) {
+            Node victim = victim();
+            if (victim == null || candidateFrequency <= sketch.frequency(victim.key)) {
+                evictNode(candidate);
+                return;
+            }
+            evictNode(victim);
+        }
+        addLast(candidate, PROBATION);
+    }
+
+    /**
+     * 主区淘汰候选：优先试用区，其次保护区
+     */
+    private Node victim() {
+        Node victim = first(probationQueue);
+        return victim != null ? victim : first(protectedQueue);
+    }
+
+    private void evictNode(Node node) {
+        if (node.queue >= 0) {
+            remove(node);
+        }
+        nodes.remove(node.key);
+        store.remove(node.key);
+        evictionCount.incrementAndGet();
+    }
+
+    private static Node first(LinkedHashMap<String, Node> queue) {
+        Iterator<Node> iterator = queue.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private void addLast(Node node, int queue) {
+        node.queue = queue;
+        switch (queue) {
+            case WINDOW:
+                windowQueue.put(node.key, node);
+                windowWeight += node.weight;
+                break;
+            case PROBATION:
+                probationQueue.put(node.key, node);
+                probationWeight += node.weight;
+                break;
+            case PROTECTED:
+                protectedQueue.put(node.key, node);
+                protectedWeight += node.weight;
+                break;
+            default:
+                throw new IllegalArgumentException("queue=" + queue);
+        }
+    }
+
+    private void remove(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                windowQueue.remove(node.key);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probationQueue.remove(node.key);
+                probationWeight -= node.weight;
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node.key);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                break;
+        }
+        node.queue = -1;
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * 缓存数据的总大小(字节)
+     */
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return windowWeight + probationWeight + protectedWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 缓存数据数量
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 已申请的堆外内存(字节)
+     */
+    public long getAllocatedBytes() {
+        return store.getAllocatedBytes();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 命中率，没有访问时返回0
+     */
+    public double getHitRatio() {
+        long hit = hitCount.get();
+        long total = hit + missCount.get();
+        return total == 0 ? 0 : hit / (double) total;
+    }
+
+    /**
+     * 命中时返回的字节数
+     */
+    public long getHitBytes() {
+        return hitBytes.get();
+    }
+
+    public long getPutCount() {
+        return putCount.get();
+    }
+
+    /**
+     * 没有缓存的数据数量(数据太大或者堆外内存不足)
+     */
+    public long getRejectCount() {
+        return rejectCount.get();
+    }
+
+    /**
+     * 被淘汰的数据数量(包括没有通过准入比较的新数据)
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * 访问记录的环形缓冲区，多个线程无锁写入，持有lock的线程读取<br/>
+     * 写入位置使用CAS竞争，竞争失败或者缓冲区已满时丢弃访问记录
+     */
+    private static final class ReadBuffer {
+        private static final int SIZE = 16;
+
+        private static final int MASK = SIZE - 1;
+
+        private final AtomicReferenceArray<String> keys = new AtomicReferenceArray<>(SIZE);
+
+        private final AtomicLong writeCounter = new AtomicLong(0L);
+
+        /**
+         * 只在持有lock时修改
+         */
+        private volatile long readCounter = 0L;
+
+        /**
+         * @return 缓冲区已满返回false
+         */
+        boolean offer(String key) {
+            long tail = writeCounter.get();
+            if (tail - readCounter >= SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                keys.lazySet((int) (tail & MASK), key);
+            }
+            return true;
+        }
+
+        void drain(OffHeapLfuCache cache) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & MASK);
+                String key = keys.get(index);
+                if (key == null) {
+                    // 写入线程已经占用位置但还没有写入数据，下次再处理
+                    break;
+                }
+                keys.lazySet(index, null);
+                cache.onRead(key);
+            }
+            readCounter = head;
+        }
+    }
+
+    /**
+     * 缓存节点，只保存Key和数据大小
+     */
+    private static class Node {
+        private final String key;
+        private int weight;
+        private int queue = -1;
+
+        Node(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+}
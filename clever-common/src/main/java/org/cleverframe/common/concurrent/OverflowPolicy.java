@@ -0,0 +1,26 @@
+package org.cleverframe.common.concurrent;
+
+/**
+ * 异步写入队列已满时的处理策略(背压策略)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 10:12 <br/>
+ *
+ * @see AsyncBatchWriter
+ */
+public enum OverflowPolicy {
+    /**
+     * 直接丢弃新数据，不阻塞调用线程
+     */
+    DROP,
+
+    /**
+     * 队列使用率超过高水位后按采样率保留数据(每N条保留1条)，队列满时丢弃
+     */
+    SAMPLE,
+
+    /**
+     * 阻塞调用线程直到队列有空闲位置(最长等待时间由offerTimeout指定，超时后丢弃)
+     */
+    BLOCK
+}
@@ -0,0 +1,179 @@
+package org.cleverframe.common.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形队列(多生产者、多消费者)<br/>
+ * 1.每个槽位使用序号标识状态，生产者和消费者只通过CAS竞争序号，不使用锁<br/>
+ * 2.容量会向上取整为2的幂次，使用位运算计算槽位下标<br/>
+ * 3.队列满时offer直接返回false，由调用方决定丢弃、采样或者阻塞<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 10:05 <br/>
+ *
+ * @param <E> 队列元素类型
+ */
+public class RingBufferQueue<E> {
+    /**
+     * 最大容量
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * 队列容量(2的幂次)
+     */
+    private final int capacity;
+
+    /**
+     * 槽位下标掩码(capacity - 1)
+     */
+    private final int mask;
+
+    /**
+     * 槽位数据
+     */
+    private final AtomicReferenceArray<E> buffer;
+
+    /**
+     * 槽位序号，用于判断槽位是否可写、可读
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * 下一个写入位置
+     */
+    private final AtomicLong tail = new AtomicLong(0L);
+
+    /**
+     * 下一个读取位置
+     */
+    private final AtomicLong head = new AtomicLong(0L);
+
+    /**
+     * @param capacity 队列容量，会向上取整为2的幂次
+     */
+    public RingBufferQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("### 队列容量必须大于0, capacity=" + capacity);
+        }
+        this.capacity = tableSizeFor(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 向上取整为2的幂次
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * 向队列尾部添加元素，队列满时立即返回
+     *
+     * @param element 元素，不能为null
+     * @return 添加成功返回true，队列已满返回false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("### 队列元素不能为null");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // 槽位还未被消费，队列已满
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 从队列头部取出元素
+     *
+     * @return 队列为空返回null
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    sequences.set(index, position + capacity);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                // 槽位还未被写入，队列为空
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * 批量取出元素
+     *
+     * @param collection  存放取出元素的集合
+     * @param maxElements 最多取出的元素数量
+     * @return 实际取出的元素数量
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        int count = 0;
+        E element;
+        while (count < maxElements && (element = poll()) != null) {
+            collection.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 队列当前元素数量(近似值)
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        if (size < 0) {
+            return 0;
+        }
+        return size > capacity ? capacity : (int) size;
+    }
+
+    /**
+     * @return 队列为空返回true
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return 队列容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
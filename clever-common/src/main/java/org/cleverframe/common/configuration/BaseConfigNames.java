@@ -63,4 +63,103 @@ public class BaseConfigNames {
      * 系统发送邮件帐号的邮件服务器地址，可以为空
      */
     public final static String JAVA_MAIL_SENDER_HOST = "base.JavaMailSender.host";
+
+    // -------------------------------------------------------------------------------------------//
+    // 访问日志异步批量写入配置
+    // -------------------------------------------------------------------------------------------//
+    /**
+     * 访问日志写入队列容量(会向上取整为2的幂次)
+     */
+    public final static String ACCESS_LOG_BUFFER_SIZE = "base.accessLog.bufferSize";
+
+    /**
+     * 访问日志每批写入的最大数据条数
+     */
+    public final static String ACCESS_LOG_BATCH_SIZE = "base.accessLog.batchSize";
+
+    /**
+     * 访问日志刷新间隔(毫秒)
+     */
+    public final static String ACCESS_LOG_FLUSH_INTERVAL = "base.accessLog.flushInterval";
+
+    /**
+     * 访问日志队列满时的处理策略(DROP：丢弃；SAMPLE：采样；BLOCK：阻塞)
+     */
+    public final static String ACCESS_LOG_OVERFLOW_POLICY = "base.accessLog.overflowPolicy";
+
+    /**
+     * 访问日志SAMPLE策略的采样率(每N条保留1条)
+     */
+    public final static String ACCESS_LOG_SAMPLE_RATE = "base.accessLog.sampleRate";
+
+    /**
+     * 访问日志BLOCK策略下最长等待时间(毫秒)
+     */
+    public final static String ACCESS_LOG_OFFER_TIMEOUT = "base.accessLog.offerTimeout";
+
+    // -------------------------------------------------------------------------------------------//
+    // 数据库脚本缓存配置
+    // -------------------------------------------------------------------------------------------//
+    /**
+     * 系统启动时是否批量加载所有数据库脚本
+     */
+    public final static String QLSCRIPT_PRELOAD = "base.qlscript.preload";
+
+    /**
+     * 轮询数据库脚本版本的间隔(秒)，小于等于0 表示不轮询
+     */
+    public final static String QLSCRIPT_POLL_INTERVAL = "base.qlscript.pollInterval";
+
+    // -------------------------------------------------------------------------------------------//
+    // Http连接池配置
+    // -------------------------------------------------------------------------------------------//
+    /**
+     * 连接池最大连接数
+     */
+    public final static String HTTP_CLIENT_MAX_TOTAL = "base.httpClient.maxTotal";
+
+    /**
+     * 每个目标主机的最大连接数
+     */
+    public final static String HTTP_CLIENT_DEFAULT_MAX_PER_ROUTE = "base.httpClient.defaultMaxPerRoute";
+
+    /**
+     * 建立连接超时时间(毫秒)
+     */
+    public final static String HTTP_CLIENT_CONNECT_TIMEOUT = "base.httpClient.connectTimeout";
+
+    /**
+     * 从连接池获取连接的超时时间(毫秒)
+     */
+    public final static String HTTP_CLIENT_CONNECTION_REQUEST_TIMEOUT = "base.httpClient.connectionRequestTimeout";
+
+    /**
+     * 读取数据超时时间(毫秒)
+     */
+    public final static String HTTP_CLIENT_SOCKET_TIMEOUT = "base.httpClient.socketTimeout";
+
+    /**
+     * 服务端没有返回Keep-Alive头时连接保持的时间(毫秒)
+     */
+    public final static String HTTP_CLIENT_KEEP_ALIVE = "base.httpClient.keepAlive";
+
+    /**
+     * 连接空闲超过该时间后被回收(毫秒)
+     */
+    public final static String HTTP_CLIENT_IDLE_TIMEOUT = "base.httpClient.idleTimeout";
+
+    /**
+     * 回收空闲连接的时间间隔(毫秒)，小于等于0 表示不回收
+     */
+    public final static String HTTP_CLIENT_EVICT_INTERVAL = "base.httpClient.evictInterval";
+
+    /**
+     * 异步请求线程数
+     */
+    public final static String HTTP_CLIENT_ASYNC_THREADS = "base.httpClient.asyncThreads";
+
+    /**
+     * 异步请求等待队列大小
+     */
+    public final static String HTTP_CLIENT_ASYNC_QUEUE_SIZE = "base.httpClient.asyncQueueSize";
 }
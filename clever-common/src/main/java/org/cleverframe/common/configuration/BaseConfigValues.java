@@ -63,4 +63,50 @@ public class BaseConfigValues {
      * 系统发送邮件帐号的邮件服务器地址，可以为空
      */
     public final static String JAVA_MAIL_SENDER_HOST = "smtp.163.com";
+
+    // -------------------------------------------------------------------------------------------//
+    // 访问日志异步批量写入配置
+    // -------------------------------------------------------------------------------------------//
+    /**
+     * 访问日志写入队列容量(会向上取整为2的幂次)
+     */
+    public final static String ACCESS_LOG_BUFFER_SIZE = "8192";
+
+    /**
+     * 访问日志每批写入的最大数据条数
+     */
+    public final static String ACCESS_LOG_BATCH_SIZE = "200";
+
+    /**
+     * 访问日志刷新间隔(毫秒)
+     */
+    public final static String ACCESS_LOG_FLUSH_INTERVAL = "1000";
+
+    /**
+     * 访问日志队列满时的处理策略(DROP：丢弃；SAMPLE：采样；BLOCK：阻塞)
+     */
+    public final static String ACCESS_LOG_OVERFLOW_POLICY = "DROP";
+
+    /**
+     * 访问日志SAMPLE策略的采样率(每N条保留1条)
+     */
+    public final static String ACCESS_LOG_SAMPLE_RATE = "10";
+
+    /**
+     * 访问日志BLOCK策略下最长等待时间(毫秒)
+     */
+    public final static String ACCESS_LOG_OFFER_TIMEOUT = "100";
+
+    // -------------------------------------------------------------------------------------------//
+    // 数据库脚本缓存配置
+    // -------------------------------------------------------------------------------------------//
+    /**
+     * 系统启动时是否批量加载所有数据库脚本
+     */
+    public final static String QLSCRIPT_PRELOAD = "true";
+
+    /**
+     * 轮询数据库脚本版本的间隔(秒)，小于等于0 表示不轮询
+     */
+    public final static String QLSCRIPT_POLL_INTERVAL = "30";
 }
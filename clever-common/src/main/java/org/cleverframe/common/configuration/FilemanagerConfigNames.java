@@ -50,4 +50,124 @@ public class FilemanagerConfigNames {
      * FTP服务器密码
      */
     public static final String FTP_PASSWORD = "fileupload.FTP.password";
+
+    /**
+     * FTP连接池，最大连接数
+     */
+    public static final String FTP_POOL_MAX_TOTAL = "fileupload.FTP.pool.maxTotal";
+
+    /**
+     * FTP连接池，最大空闲连接数
+     */
+    public static final String FTP_POOL_MAX_IDLE = "fileupload.FTP.pool.maxIdle";
+
+    /**
+     * FTP连接池，最小空闲连接数
+     */
+    public static final String FTP_POOL_MIN_IDLE = "fileupload.FTP.pool.minIdle";
+
+    /**
+     * FTP连接池，借用连接最大等待时间(毫秒)
+     */
+    public static final String FTP_POOL_MAX_WAIT = "fileupload.FTP.pool.maxWait";
+
+    /**
+     * FTP连接池，连接空闲超过此时间(秒)会被关闭
+     */
+    public static final String FTP_POOL_IDLE_TIMEOUT = "fileupload.FTP.pool.idleTimeout";
+
+    /**
+     * FTP连接池，空闲连接发送NOOP命令(心跳)的时间间隔(秒)
+     */
+    public static final String FTP_POOL_KEEP_ALIVE_INTERVAL = "fileupload.FTP.pool.keepAliveInterval";
+
+    /**
+     * 分片上传，默认分片大小(字节)
+     */
+    public static final String CHUNK_SIZE = "fileupload.chunk.chunkSize";
+
+    /**
+     * 分片上传，最大分片大小(字节)
+     */
+    public static final String MAX_CHUNK_SIZE = "fileupload.chunk.maxChunkSize";
+
+    /**
+     * 分片上传，上传会话超过此时间(秒)没有上传分片就会被清除
+     */
+    public static final String CHUNK_SESSION_TIMEOUT = "fileupload.chunk.sessionTimeout";
+
+    /**
+     * 分片上传，允许上传的最大文件大小(字节)，未配置时使用 {@link #MAX_UPLOAD_SIZE}
+     */
+    public static final String CHUNK_MAX_FILE_SIZE = "fileupload.chunk.maxFileSize";
+
+    /**
+     * 分片上传，所有用户同时存在的最大上传会话数量
+     */
+    public static final String CHUNK_MAX_SESSIONS = "fileupload.chunk.maxSessions";
+
+    /**
+     * 分片上传，每个用户同时存在的最大上传会话数量
+     */
+    public static final String CHUNK_MAX_USER_SESSIONS = "fileupload.chunk.maxUserSessions";
+
+    /**
+     * 内容寻址存储，删除没有引用的文件的时间间隔(秒)
+     */
+    public static final String CAS_GC_INTERVAL = "fileupload.cas.gcInterval";
+
+    /**
+     * 内容寻址存储，没有引用的文件保留时间(秒)，保留期间可以被秒传重新引用
+     */
+    public static final String CAS_GC_RETAIN_TIME = "fileupload.cas.gcRetainTime";
+
+    /**
+     * 带宽限制，所有请求上传总速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_UPLOAD_GLOBAL = "fileupload.bandwidth.upload.global";
+
+    /**
+     * 带宽限制，每个用户上传总速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_UPLOAD_PER_USER = "fileupload.bandwidth.upload.perUser";
+
+    /**
+     * 带宽限制，每个请求上传速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_UPLOAD_PER_REQUEST = "fileupload.bandwidth.upload.perRequest";
+
+    /**
+     * 带宽限制，所有请求下载总速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_DOWNLOAD_GLOBAL = "fileupload.bandwidth.download.global";
+
+    /**
+     * 带宽限制，每个用户下载总速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_DOWNLOAD_PER_USER = "fileupload.bandwidth.download.perUser";
+
+    /**
+     * 带宽限制，每个请求下载速度(字节/秒)，值小于等于0不限制速度
+     */
+    public static final String BANDWIDTH_DOWNLOAD_PER_REQUEST = "fileupload.bandwidth.download.perRequest";
+
+    /**
+     * 热点文件缓存，缓存文件内容的堆外内存总大小(字节)，值小于等于0不缓存文件内容
+     */
+    public static final String HOT_CACHE_MAX_SIZE = "fileupload.hotCache.maxSize";
+
+    /**
+     * 热点文件缓存，只缓存小于等于此大小的文件(字节)
+     */
+    public static final String HOT_CACHE_MAX_ENTRY_SIZE = "fileupload.hotCache.maxEntrySize";
+
+    /**
+     * 热点文件缓存，缓存文件信息(FileInfo)的最大数量，值小于等于0不缓存文件信息
+     */
+    public static final String HOT_CACHE_META_MAX_SIZE = "fileupload.hotCache.metaMaxSize";
+
+    /**
+     * 热点文件缓存，文件信息(FileInfo)缓存过期时间(秒)
+     */
+    public static final String HOT_CACHE_META_EXPIRE = "fileupload.hotCache.metaExpire";
 }
@@ -49,4 +49,124 @@ public class FilemanagerConfigValues {
      * FTP服务器密码
      */
     public static final String FTP_PASSWORD = "123456";
+
+    /**
+     * FTP连接池，最大连接数
+     */
+    public static final String FTP_POOL_MAX_TOTAL = "50";
+
+    /**
+     * FTP连接池，最大空闲连接数
+     */
+    public static final String FTP_POOL_MAX_IDLE = "10";
+
+    /**
+     * FTP连接池，最小空闲连接数
+     */
+    public static final String FTP_POOL_MIN_IDLE = "0";
+
+    /**
+     * FTP连接池，借用连接最大等待时间(毫秒)
+     */
+    public static final String FTP_POOL_MAX_WAIT = "10000";
+
+    /**
+     * FTP连接池，连接空闲超过此时间(秒)会被关闭
+     */
+    public static final String FTP_POOL_IDLE_TIMEOUT = "600";
+
+    /**
+     * FTP连接池，空闲连接发送NOOP命令(心跳)的时间间隔(秒)
+     */
+    public static final String FTP_POOL_KEEP_ALIVE_INTERVAL = "60";
+
+    /**
+     * 分片上传，默认分片大小(字节) 4M
+     */
+    public static final String CHUNK_SIZE = "4194304";
+
+    /**
+     * 分片上传，最大分片大小(字节) 32M
+     */
+    public static final String MAX_CHUNK_SIZE = "33554432";
+
+    /**
+     * 分片上传，上传会话超过此时间(秒)没有上传分片就会被清除 24小时
+     */
+    public static final String CHUNK_SESSION_TIMEOUT = "86400";
+
+    /**
+     * 分片上传，允许上传的最大文件大小(字节) 1G
+     */
+    public static final String CHUNK_MAX_FILE_SIZE = "1073741824";
+
+    /**
+     * 分片上传，所有用户同时存在的最大上传会话数量
+     */
+    public static final String CHUNK_MAX_SESSIONS = "1000";
+
+    /**
+     * 分片上传，每个用户同时存在的最大上传会话数量
+     */
+    public static final String CHUNK_MAX_USER_SESSIONS = "10";
+
+    /**
+     * 内容寻址存储，删除没有引用的文件的时间间隔(秒)
+     */
+    public static final String CAS_GC_INTERVAL = "3600";
+
+    /**
+     * 内容寻址存储，没有引用的文件保留时间(秒)，保留期间可以被秒传重新引用
+     */
+    public static final String CAS_GC_RETAIN_TIME = "3600";
+
+    /**
+     * 带宽限制，所有请求上传总速度(字节/秒)，值小于等于0不限制速度 50M=52428800
+     */
+    public static final String BANDWIDTH_UPLOAD_GLOBAL = "52428800";
+
+    /**
+     * 带宽限制，每个用户上传总速度(字节/秒)，值小于等于0不限制速度 2M=2097152
+     */
+    public static final String BANDWIDTH_UPLOAD_PER_USER = "2097152";
+
+    /**
+     * 带宽限制，每个请求上传速度(字节/秒)，值小于等于0不限制速度 1M=1048576
+     */
+    public static final String BANDWIDTH_UPLOAD_PER_REQUEST = "1048576";
+
+    /**
+     * 带宽限制，所有请求下载总速度(字节/秒)，值小于等于0不限制速度 100M=104857600
+     */
+    public static final String BANDWIDTH_DOWNLOAD_GLOBAL = "104857600";
+
+    /**
+     * 带宽限制，每个用户下载总速度(字节/秒)，值小于等于0不限制速度 2M=2097152
+     */
+    public static final String BANDWIDTH_DOWNLOAD_PER_USER = "2097152";
+
+    /**
+     * 带宽限制，每个请求下载速度(字节/秒)，值小于等于0不限制速度 1M=1048576
+     */
+    public static final String BANDWIDTH_DOWNLOAD_PER_REQUEST = "1048576";
+
+    /**
+     * 热点文件缓存，缓存文件内容的堆外内存总大小(字节)，值小于等于0不缓存文件内容 64M=67108864
+     */
+    public static final String HOT_CACHE_MAX_SIZE = "67108864";
+
+    /**
+     * 热点文件缓存，只缓存小于等于此大小的文件(字节) 1M=1048576
+     */
+    public static final String HOT_CACHE_MAX_ENTRY_SIZE = "1048576";
+
+    /**
+     * 热点文件缓存，缓存文件信息(FileInfo)的最大数量，值小于等于0不缓存文件信息
+     */
+    public static final String HOT_CACHE_META_MAX_SIZE = "10000";
+
+    /**
+     * 热点文件缓存，文件信息(FileInfo)缓存过期时间(秒)
+     */
+    public static final String HOT_CACHE_META_EXPIRE = "300";
 }
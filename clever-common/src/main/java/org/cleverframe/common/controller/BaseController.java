@@ -1,12 +1,12 @@
 package org.cleverframe.common.controller;
 
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.cleverframe.common.attributes.CommonRequestAttributes;
 import org.cleverframe.common.spring.SpringBeanNames;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.common.time.DateTimeUtils;
 import org.cleverframe.common.user.IUserUtils;
 import org.cleverframe.common.vo.response.AjaxMessage;
+import org.cleverframe.common.xss.HtmlEscaper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -90,7 +90,7 @@ public abstract class BaseController {
     /**
      * 增加不需要进行XXS攻击处理的请求地址,不对请求参数进行HTML编码
      *
-     * @param requestUrl 请求地址,不含后缀
+     * @param requestUrl 请求地址,不含后缀,支持Ant风格的路径规则(如：/cleverframe/mvc/core/template/**)
      */
     protected static void addXSSExcludeUrl(String requestUrl) {
         XssExcludeUrlUtils.addXSSExcludeUrl(requestUrl);
@@ -109,7 +109,7 @@ public abstract class BaseController {
                 @Override
                 public void setAsText(String text) {
                     // 可以设置不过滤的url路径，对于某些请求不进行HTML编码
-                    setValue(text == null ? null : StringEscapeUtils.escapeHtml4(text.trim()));
+                    setValue(text == null ? null : HtmlEscaper.escape(text.trim()));
                 }
 
                 @Override
@@ -7,15 +7,23 @@ import org.cleverframe.common.configuration.IConfig;
 import org.cleverframe.common.spring.SpringBeanNames;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.common.utils.HttpServletRequestUtils;
+import org.cleverframe.common.xss.AntPathTrie;
+import org.cleverframe.common.xss.XssExcludeUrlWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.File;
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 管理不需要进行XXS攻击处理的请求URL
+ * 管理不需要进行XXS攻击处理的请求URL<br/>
+ * 1.请求地址支持Ant风格的路径规则，使用不可变的匹配树({@link AntPathTrie})判断，规则变化时重新创建匹配树<br/>
+ * 2.新增的请求地址由后台线程异步追加到文件，请求线程不做文件IO<br/>
+ * 3.Spring容器关闭时调用{@link #shutdown()}把还未写入的请求地址写入文件(见SpringContextRefreshedListener#destroy)<br/>
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016-8-25 18:24 <br/>
@@ -27,15 +35,25 @@ public class XssExcludeUrlUtils {
     private final static Logger logger = LoggerFactory.getLogger(XssExcludeUrlUtils.class);
 
     /**
-     * 不需要进行XXS攻击处理的请求地址,不对请求参数进行HTML编码
+     * 不需要进行XXS攻击处理的请求地址(Ant风格的路径规则),不对请求参数进行HTML编码
      */
-    private final static Set<String> XSS_EXCLUDE_URL = Collections.synchronizedSet(new HashSet<>());
+    private final static Set<String> XSS_EXCLUDE_URL = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * 由{@link #XSS_EXCLUDE_URL}创建的匹配树，规则变化后整体替换，每个请求只读取不加锁
+     */
+    private static volatile AntPathTrie xssExcludeUrlTrie = AntPathTrie.EMPTY;
 
     /**
      * 不需要进行XXS攻击处理的请求地址 数据保存的文件名称
      */
     private final static String XSS_EXCLUDE_URL_SAVE_FILE;
 
+    /**
+     * 异步把新增的请求地址追加到文件，文件配置错误时为null
+     */
+    private final static XssExcludeUrlWriter XSS_EXCLUDE_URL_WRITER;
+
     static {
         IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
         if (config == null) {
@@ -60,9 +78,31 @@ public class XssExcludeUrlUtils {
                 }
             }
         }
+        if (XSS_EXCLUDE_URL_SAVE_FILE == null) {
+            XSS_EXCLUDE_URL_WRITER = null;
+        } else {
+            XSS_EXCLUDE_URL_WRITER = new XssExcludeUrlWriter(new File(XSS_EXCLUDE_URL_SAVE_FILE));
+            XSS_EXCLUDE_URL_WRITER.start();
+        }
         logger.info("XSS_EXCLUDE_URL_SAVE_FILE初始化完毕,值[" + XSS_EXCLUDE_URL_SAVE_FILE + "]");
     }
 
+    /**
+     * 停止后台写入线程，并把还未写入的请求地址写入文件(Spring容器关闭时调用)
+     */
+    public static void shutdown() {
+        if (XSS_EXCLUDE_URL_WRITER != null) {
+            XSS_EXCLUDE_URL_WRITER.stop();
+        }
+    }
+
+    /**
+     * 重新创建匹配树(只在规则变化时调用)
+     */
+    private static synchronized void rebuildTrie() {
+        xssExcludeUrlTrie = AntPathTrie.build(XSS_EXCLUDE_URL);
+    }
+
     /**
      * 从文件中加载 不需要进行XXS攻击处理的请求地址
      *
@@ -75,7 +115,7 @@ public class XssExcludeUrlUtils {
         }
         List<String> lineArray = null;
         try {
-            lineArray = FileUtils.readLines(new File(XSS_EXCLUDE_URL_SAVE_FILE));
+            lineArray = FileUtils.readLines(new File(XSS_EXCLUDE_URL_SAVE_FILE), "UTF-8");
         } catch (Throwable e) {
             logger.error("### 读取文件失败[" + XSS_EXCLUDE_URL_SAVE_FILE + "]", e);
         }
@@ -88,8 +128,11 @@ public class XssExcludeUrlUtils {
                 continue;
             }
             line = StringUtils.trim(line);
-            XSS_EXCLUDE_URL.add(line);
+            if (StringUtils.isNotBlank(line)) {
+                XSS_EXCLUDE_URL.add(line);
+            }
         }
+        rebuildTrie();
         return XSS_EXCLUDE_URL.size();
     }
 
@@ -101,39 +144,37 @@ public class XssExcludeUrlUtils {
     public static void addXSSExcludeUrl(HttpServletRequest request) {
         // 当前请求URL地址
         String requestUrl = HttpServletRequestUtils.getRequestURINotSuffix(request);
-        boolean flag = XSS_EXCLUDE_URL.add(requestUrl);
-        if (flag && StringUtils.isNotBlank(requestUrl)) {
-            if (StringUtils.isBlank(XSS_EXCLUDE_URL_SAVE_FILE)) {
-                logger.error("请配置cleverframe.properties文件的值: [" + FilemanagerConfigNames.FILE_STORAGE_PATH + "]");
-                return;
-            }
-            List<String> lines = new ArrayList<>();
-            lines.add("");
-            lines.add(requestUrl);
-            try {
-                FileUtils.writeLines(new File(XSS_EXCLUDE_URL_SAVE_FILE), lines, true);
-            } catch (Throwable e) {
-                logger.error("### 写文件文件失败[" + XSS_EXCLUDE_URL_SAVE_FILE + "]", e);
-            }
+        if (StringUtils.isBlank(requestUrl) || !XSS_EXCLUDE_URL.add(requestUrl)) {
+            return;
+        }
+        rebuildTrie();
+        if (XSS_EXCLUDE_URL_WRITER == null) {
+            logger.error("请配置cleverframe.properties文件的值: [" + FilemanagerConfigNames.FILE_STORAGE_PATH + "]");
+            return;
+        }
+        if (!XSS_EXCLUDE_URL_WRITER.offer(requestUrl)) {
+            logger.warn("### 写入文件队列已满，请求地址未保存[" + requestUrl + "]");
         }
     }
 
     /**
      * 增加不需要进行XXS攻击处理的请求地址,不对请求参数进行HTML编码
      *
-     * @param requestUrl 请求地址,不含后缀
+     * @param requestUrl 请求地址,不含后缀,支持Ant风格的路径规则(如：/cleverframe/mvc/core/template/**)
      */
     public static void addXSSExcludeUrl(String requestUrl) {
-        XSS_EXCLUDE_URL.add(requestUrl);
+        if (StringUtils.isNotBlank(requestUrl) && XSS_EXCLUDE_URL.add(requestUrl)) {
+            rebuildTrie();
+        }
     }
 
     /**
-     * 判断请求地址是否存在
+     * 判断请求地址是否匹配任意一个不需要进行XXS攻击处理的地址(支持Ant风格的路径规则)
      *
      * @return 存在返回true
      */
     public static boolean existsUrl(String requestUrl) {
-        return XSS_EXCLUDE_URL.contains(requestUrl);
+        return xssExcludeUrlTrie.matches(requestUrl);
     }
 
     /**
@@ -142,6 +183,9 @@ public class XssExcludeUrlUtils {
      * @return 存在返回true
      */
     public static boolean existsUrl(HttpServletRequest request) {
+        if (xssExcludeUrlTrie.isEmpty()) {
+            return false;
+        }
         String requestUrl = HttpServletRequestUtils.getRequestURINotSuffix(request);
         return existsUrl(requestUrl);
     }
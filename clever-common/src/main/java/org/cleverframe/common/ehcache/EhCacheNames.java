@@ -16,6 +16,11 @@ public class EhCacheNames {
      */
     public static final String CountSql = "CountSql";
 
+    /**
+     * 用于缓存分页查询的数据总数(count查询结果)
+     */
+    public static final String PageCountCache = "PageCountCache";
+
     /**
      * 数据库脚本缓存名称
      */
@@ -52,10 +57,5 @@ public class EhCacheNames {
      */
     public static final String ShiroAuthorizationCache = "shiroAuthorizationCache";
 
-    /**
-     * 用于存储登录的用户和其SessionID关系结构数据，用于实现限制一个用户并发登录数量
-     */
-    public static final String ShiroKickOutCache = "shiroKickOutCache";
-
 
 }
@@ -1,19 +1,17 @@
 package org.cleverframe.common.mapper;
 
 
-import org.apache.commons.beanutils.PropertyUtils;
+import org.cleverframe.common.reflection.BeanProperty;
+import org.cleverframe.common.reflection.ClassMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * JavaBean与Map<String,Object>互转工具类<br/>
- * 1.org.apache.commons.beanutils.BeanUtils实现<br/>
+ * 1.使用{@link ClassMetadata}缓存的getter/setter读写属性，不再每次调用Introspector和Method.invoke<br/>
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016-4-30 0:44 <br/>
@@ -33,17 +31,10 @@ public class BeanMapConverter {
      */
     public static boolean toObject(Object bean, Map<String, Object> properties) {
         try {
-            BeanInfo beanInfo = Introspector.getBeanInfo(bean.getClass());
-            PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-            for (PropertyDescriptor property : propertyDescriptors) {
+            for (BeanProperty property : ClassMetadata.forClass(bean.getClass()).getProperties().values()) {
                 String key = property.getName();
-                if (properties.containsKey(key)) {
-                    Object value = properties.get(key);
-                    // 得到property对应的setter方法
-                    Method setter = property.getWriteMethod();
-                    if (setter != null) {
-                        setter.invoke(bean, value);
-                    }
+                if (property.isWritable() && properties.containsKey(key)) {
+                    property.setValue(bean, properties.get(key));
                 }
             }
             // BeanUtils.populate(bean, properties);
@@ -63,7 +54,13 @@ public class BeanMapConverter {
     public static Map<String, Object> toMap(Object bean) {
         Map<String, Object> map = null;
         try {
-            map = PropertyUtils.describe(bean);
+            Map<String, BeanProperty> beanProperties = ClassMetadata.forClass(bean.getClass()).getProperties();
+            map = new HashMap<>(beanProperties.size() * 2);
+            for (BeanProperty property : beanProperties.values()) {
+                if (property.isReadable()) {
+                    map.put(property.getName(), property.getValue(bean));
+                }
+            }
         } catch (Throwable e) {
             logger.error("把JavaBean对象转换成Map出错", e);
         }
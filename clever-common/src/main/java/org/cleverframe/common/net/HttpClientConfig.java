@@ -0,0 +1,161 @@
+package org.cleverframe.common.net;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link PooledHttpClient}的配置(连接池大小、超时时间、空闲连接回收、异步请求线程池)<br/>
+ * 时间单位都是毫秒<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:40 <br/>
+ */
+public class HttpClientConfig {
+
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 每个路由(目标主机)默认的最大连接数
+     */
+    private int defaultMaxPerRoute = 20;
+
+    /**
+     * 单独设置的路由最大连接数，key 为 scheme://host[:port]，如：https://api.weixin.qq.com
+     */
+    private Map<String, Integer> maxPerRoute = new HashMap<>();
+
+    /**
+     * 建立连接超时时间
+     */
+    private int connectTimeout = 5000;
+
+    /**
+     * 从连接池获取连接的超时时间
+     */
+    private int connectionRequestTimeout = 3000;
+
+    /**
+     * 读取数据超时时间(两个数据包之间的最大间隔)
+     */
+    private int socketTimeout = 30000;
+
+    /**
+     * 服务端没有返回Keep-Alive头时连接保持的时间
+     */
+    private long keepAlive = 30000;
+
+    /**
+     * 连接空闲超过该时间后被回收
+     */
+    private long idleTimeout = 60000;
+
+    /**
+     * 回收过期、空闲连接的时间间隔，小于等于0 表示不回收(只在获取连接时检查)
+     */
+    private long evictInterval = 10000;
+
+    /**
+     * 异步请求线程数
+     */
+    private int asyncThreads = 8;
+
+    /**
+     * 异步请求等待队列大小，队列满时异步请求直接失败
+     */
+    private int asyncQueueSize = 1000;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getDefaultMaxPerRoute() {
+        return defaultMaxPerRoute;
+    }
+
+    public void setDefaultMaxPerRoute(int defaultMaxPerRoute) {
+        this.defaultMaxPerRoute = defaultMaxPerRoute;
+    }
+
+    public Map<String, Integer> getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(Map<String, Integer> maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getEvictInterval() {
+        return evictInterval;
+    }
+
+    public void setEvictInterval(long evictInterval) {
+        this.evictInterval = evictInterval;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+}
@@ -2,26 +2,33 @@ package org.cleverframe.common.net;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 import org.cleverframe.common.codec.EncodeDecodeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Http请求工具,使用HttpClient实现
+ * Http请求工具,使用HttpClient实现<br/>
+ * 所有请求共享一个连接池({@link PooledHttpClient})，连接使用Keep-Alive复用，系统启动时可以通过{@link #setClient(PooledHttpClient)}替换连接池配置<br/>
  * <b>参考文档:<a href="http://hc.apache.org/httpcomponents-client-ga/examples.html">查看文档</a></b>
  * <p/>
  * 作者：LiZW <br/>
@@ -38,6 +45,140 @@ public class HttpUtils {
      */
     private final static String responseDefaultCharset = "UTF-8";
 
+    /**
+     * 流式读取响应数据的缓冲区大小
+     */
+    private final static int BUFFER_SIZE = 8192;
+
+    /**
+     * 共享的Http客户端，第一次使用时按默认配置创建
+     */
+    private static volatile PooledHttpClient client;
+
+    // --------------------------------------------------------------------------------------------
+    // 共享的Http客户端
+    // --------------------------------------------------------------------------------------------
+
+    /**
+     * 返回共享的Http客户端，没有设置时使用默认配置创建
+     */
+    public static PooledHttpClient getClient() {
+        PooledHttpClient result = client;
+        if (result == null) {
+            synchronized (HttpUtils.class) {
+                result = client;
+                if (result == null) {
+                    result = new PooledHttpClient(new HttpClientConfig());
+                    client = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 替换共享的Http客户端，原来的客户端会被关闭
+     *
+     * @param pooledHttpClient 新的Http客户端
+     */
+    public static void setClient(PooledHttpClient pooledHttpClient) {
+        PooledHttpClient old;
+        synchronized (HttpUtils.class) {
+            old = client;
+            client = pooledHttpClient;
+        }
+        if (old != null && old != pooledHttpClient) {
+            old.close();
+        }
+    }
+
+    /**
+     * 关闭共享的Http客户端(系统关闭时调用)，之后再请求会重新创建
+     */
+    public static void shutdown() {
+        setClient(null);
+    }
+
+    /**
+     * 返回共享连接池的状态(租用、等待、空闲连接数量)
+     */
+    public static PoolStats getPoolStats() {
+        return getClient().getPoolStats();
+    }
+
+    /**
+     * 读取响应数据转换成字符串
+     */
+    private static ResponseHandler<String> stringHandler(final String defaultCharset) {
+        //noinspection Convert2Lambda
+        return new ResponseHandler<String>() {
+            @Override
+            public String handleResponse(HttpResponse httpResponse) throws IOException {
+                logger.debug("HTTP请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
+                HttpEntity entity = httpResponse.getEntity();
+                if (entity == null) {
+                    return null;
+                }
+                return EntityUtils.toString(entity, StringUtils.isBlank(defaultCharset) ? responseDefaultCharset : defaultCharset);
+            }
+        };
+    }
+
+    /**
+     * 读取响应数据转换成字节数组
+     */
+    private static ResponseHandler<byte[]> byteArrayHandler() {
+        //noinspection Convert2Lambda
+        return new ResponseHandler<byte[]>() {
+            @Override
+            public byte[] handleResponse(HttpResponse httpResponse) throws IOException {
+                logger.debug("HTTP请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
+                HttpEntity entity = httpResponse.getEntity();
+                return entity == null ? null : EntityUtils.toByteArray(entity);
+            }
+        };
+    }
+
+    /**
+     * 把响应数据直接写入输出流，返回写入的字节数
+     */
+    private static ResponseHandler<Long> streamHandler(final OutputStream outputStream) {
+        //noinspection Convert2Lambda
+        return new ResponseHandler<Long>() {
+            @Override
+            public Long handleResponse(HttpResponse httpResponse) throws IOException {
+                logger.debug("HTTP请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
+                HttpEntity entity = httpResponse.getEntity();
+                if (entity == null) {
+                    return 0L;
+                }
+                long count = 0;
+                byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream inputStream = entity.getContent()) {
+                    int length;
+                    while ((length = inputStream.read(buffer)) != -1) {
+                        outputStream.write(buffer, 0, length);
+                        count += length;
+                    }
+                }
+                return count;
+            }
+        };
+    }
+
+    /**
+     * 执行请求，失败返回null
+     */
+    private static <T> T executeQuietly(HttpUriRequest request, ResponseHandler<T> responseHandler) {
+        logger.debug("### 执行请求 - {}", request.getRequestLine());
+        try {
+            return getClient().execute(request, responseHandler);
+        } catch (Throwable e) {
+            logger.error("### Http" + request.getMethod() + "请求异常 - [" + request.getURI() + "]", e);
+            return null;
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     // GET请求
     // --------------------------------------------------------------------------------------------
@@ -68,6 +209,17 @@ public class HttpUtils {
         return param.toString();
     }
 
+    /**
+     * 创建GET请求
+     *
+     * @param url      请求URL地址
+     * @param paramMap 请求参数(会自动编码)
+     */
+    private static HttpGet newHttpGet(String url, Map<String, String> paramMap) {
+        String param = getParamStr(paramMap);
+        return new HttpGet(StringUtils.isBlank(param) ? url : (url + "?" + param));
+    }
+
     /**
      * 使用HTTP GET请求获取数据，支持参数，返回字符串
      *
@@ -77,29 +229,7 @@ public class HttpUtils {
      * @return 成功返回请求结果，失败返回null
      */
     public static String httpGetResultStr(final String url, Map<String, String> paramMap, final String defaultCharset) {
-        String response = null;
-        String param = getParamStr(paramMap);
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        try {
-            HttpGet httpget = new HttpGet(StringUtils.isBlank(param) ? url : (url + "?" + param));
-            logger.debug("### 执行请求 - {}", httpget.getRequestLine());
-            HttpResponse httpResponse = httpclient.execute(httpget);
-            logger.debug("HTTP GET请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
-            if (StringUtils.isBlank(defaultCharset)) {
-                response = EntityUtils.toString(httpResponse.getEntity(), responseDefaultCharset);
-            } else {
-                response = EntityUtils.toString(httpResponse.getEntity(), defaultCharset);
-            }
-        } catch (Throwable e) {
-            logger.error("### HttpGet请求异常 - [" + url + "]", e);
-        } finally {
-            try {
-                httpclient.close();
-            } catch (Throwable e) {
-                logger.error("### CloseableHttpClient.close() 异常", e);
-            }
-        }
-        return response;
+        return executeQuietly(newHttpGet(url, paramMap), stringHandler(defaultCharset));
     }
 
     /**
@@ -131,25 +261,7 @@ public class HttpUtils {
      * @return 成功返回请求结果，失败返回null
      */
     public static byte[] httpGetResultByte(final String url, Map<String, String> paramMap) {
-        byte[] response = null;
-        String param = getParamStr(paramMap);
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        try {
-            HttpGet httpget = new HttpGet(StringUtils.isBlank(param) ? url : (url + "?" + param));
-            logger.debug("### 执行请求 - {}", httpget.getRequestLine());
-            HttpResponse httpResponse = httpclient.execute(httpget);
-            logger.debug("HTTP GET请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
-            response = EntityUtils.toByteArray(httpResponse.getEntity());
-        } catch (Throwable e) {
-            logger.error("### HttpGet请求异常 - [" + url + "]", e);
-        } finally {
-            try {
-                httpclient.close();
-            } catch (Throwable e) {
-                logger.error("### CloseableHttpClient.close() 异常", e);
-            }
-        }
-        return response;
+        return executeQuietly(newHttpGet(url, paramMap), byteArrayHandler());
     }
 
     /**
@@ -162,6 +274,55 @@ public class HttpUtils {
         return httpGetResultByte(url, null);
     }
 
+    /**
+     * 使用HTTP GET请求，使用responseHandler处理响应(可以流式读取响应数据)，处理完成后自动释放连接
+     *
+     * @param url             请求URL地址
+     * @param paramMap        请求参数(会自动编码)
+     * @param responseHandler 响应处理器
+     * @return responseHandler的返回值
+     * @throws IOException 请求失败或者responseHandler抛出的异常
+     */
+    public static <T> T httpGet(final String url, Map<String, String> paramMap, ResponseHandler<T> responseHandler) throws IOException {
+        return getClient().execute(newHttpGet(url, paramMap), responseHandler);
+    }
+
+    /**
+     * 使用HTTP GET请求，把响应数据直接写入输出流(不缓存整个响应，适合下载大文件)
+     *
+     * @param url          请求URL地址
+     * @param paramMap     请求参数(会自动编码)
+     * @param outputStream 输出流(不会关闭)
+     * @return 写入的字节数
+     * @throws IOException 请求失败或者写入输出流失败
+     */
+    public static long httpGetToStream(final String url, Map<String, String> paramMap, OutputStream outputStream) throws IOException {
+        return httpGet(url, paramMap, streamHandler(outputStream));
+    }
+
+    /**
+     * 异步HTTP GET请求，使用responseHandler处理响应(在异步请求线程中执行)
+     *
+     * @param url             请求URL地址
+     * @param paramMap        请求参数(会自动编码)
+     * @param responseHandler 响应处理器
+     * @return 取消Future时中断请求
+     */
+    public static <T> CompletableFuture<T> httpGetAsync(final String url, Map<String, String> paramMap, ResponseHandler<T> responseHandler) {
+        return getClient().executeAsync(newHttpGet(url, paramMap), responseHandler);
+    }
+
+    /**
+     * 异步HTTP GET请求获取数据，返回字符串
+     *
+     * @param url      请求URL地址
+     * @param paramMap 请求参数(会自动编码)
+     * @return 请求失败时Future以异常结束
+     */
+    public static CompletableFuture<String> httpGetResultStrAsync(final String url, Map<String, String> paramMap) {
+        return httpGetAsync(url, paramMap, stringHandler(null));
+    }
+
     // --------------------------------------------------------------------------------------------
     // POST请求
     // --------------------------------------------------------------------------------------------
@@ -188,6 +349,23 @@ public class HttpUtils {
         return nameValuePairList;
     }
 
+    /**
+     * 创建POST请求，请求参数使用表单(application/x-www-form-urlencoded)提交
+     *
+     * @param url      请求URL地址
+     * @param paramMap 请求参数(会自动编码)
+     */
+    private static HttpPost newHttpPost(String url, Map<String, String> paramMap) {
+        HttpPost httpPost = new HttpPost(url);
+        List<NameValuePair> nameValuePairList = getParamList(paramMap);
+        if (nameValuePairList != null && nameValuePairList.size() > 0) {
+            httpPost.setEntity(new UrlEncodedFormEntity(nameValuePairList, Consts.UTF_8));
+        }
+        // httpPost.setHeader("Accept", "application/json");
+        // httpPost.setHeader("Content-type", "application/json");
+        return httpPost;
+    }
+
     /**
      * 使用HTTP POST请求获取数据，支持参数，返回字符串
      *
@@ -197,34 +375,7 @@ public class HttpUtils {
      * @return 成功返回请求结果，失败返回null
      */
     public static String httpPostGetResultStr(String url, Map<String, String> paramMap, final String defaultCharset) {
-        String response = null;
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        List<NameValuePair> nameValuePairList = getParamList(paramMap);
-        try {
-            HttpPost httpPost = new HttpPost(url);
-            if (nameValuePairList != null && nameValuePairList.size() > 0) {
-                httpPost.setEntity(new UrlEncodedFormEntity(nameValuePairList, Consts.UTF_8));
-            }
-            // httpPost.setHeader("Accept", "application/json");
-            // httpPost.setHeader("Content-type", "application/json");
-            logger.debug("### 执行请求 - {}", httpPost.getRequestLine());
-            HttpResponse httpResponse = httpclient.execute(httpPost);
-            logger.debug("HTTP POST请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
-            if (StringUtils.isBlank(defaultCharset)) {
-                response = EntityUtils.toString(httpResponse.getEntity(), responseDefaultCharset);
-            } else {
-                response = EntityUtils.toString(httpResponse.getEntity(), defaultCharset);
-            }
-        } catch (Throwable e) {
-            logger.error("### HttpPost请求异常 - [" + url + "]", e);
-        } finally {
-            try {
-                httpclient.close();
-            } catch (Throwable e) {
-                logger.error("### CloseableHttpClient.close() 异常", e);
-            }
-        }
-        return response;
+        return executeQuietly(newHttpPost(url, paramMap), stringHandler(defaultCharset));
     }
 
     /**
@@ -256,30 +407,7 @@ public class HttpUtils {
      * @return 成功返回请求结果，失败返回null
      */
     public static byte[] httpPostGetResultByte(String url, Map<String, String> paramMap) {
-        byte[] response = null;
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        List<NameValuePair> nameValuePairList = getParamList(paramMap);
-        try {
-            HttpPost httpPost = new HttpPost(url);
-            if (nameValuePairList != null && nameValuePairList.size() > 0) {
-                httpPost.setEntity(new UrlEncodedFormEntity(nameValuePairList, Consts.UTF_8));
-            }
-            // httpPost.setHeader("Accept", "application/json");
-            // httpPost.setHeader("Content-type", "application/json");
-            logger.debug("### 执行请求 - {}", httpPost.getRequestLine());
-            HttpResponse httpResponse = httpclient.execute(httpPost);
-            logger.debug("HTTP POST请求,状态码=" + httpResponse.getStatusLine().getStatusCode());
-            response = EntityUtils.toByteArray(httpResponse.getEntity());
-        } catch (Throwable e) {
-            logger.error("### HttpPost请求异常 - [" + url + "]", e);
-        } finally {
-            try {
-                httpclient.close();
-            } catch (Throwable e) {
-                logger.error("### CloseableHttpClient.close() 异常", e);
-            }
-        }
-        return response;
+        return executeQuietly(newHttpPost(url, paramMap), byteArrayHandler());
     }
 
     /**
@@ -291,4 +419,40 @@ public class HttpUtils {
     public static byte[] httpPostGetResultByte(String url) {
         return httpPostGetResultByte(url, null);
     }
+
+    /**
+     * 使用HTTP POST请求，使用responseHandler处理响应(可以流式读取响应数据)，处理完成后自动释放连接
+     *
+     * @param url             请求URL地址
+     * @param paramMap        请求参数(会自动编码)
+     * @param responseHandler 响应处理器
+     * @return responseHandler的返回值
+     * @throws IOException 请求失败或者responseHandler抛出的异常
+     */
+    public static <T> T httpPost(String url, Map<String, String> paramMap, ResponseHandler<T> responseHandler) throws IOException {
+        return getClient().execute(newHttpPost(url, paramMap), responseHandler);
+    }
+
+    /**
+     * 异步HTTP POST请求，使用responseHandler处理响应(在异步请求线程中执行)
+     *
+     * @param url             请求URL地址
+     * @param paramMap        请求参数(会自动编码)
+     * @param responseHandler 响应处理器
+     * @return 取消Future时中断请求
+     */
+    public static <T> CompletableFuture<T> httpPostAsync(String url, Map<String, String> paramMap, ResponseHandler<T> responseHandler) {
+        return getClient().executeAsync(newHttpPost(url, paramMap), responseHandler);
+    }
+
+    /**
+     * 异步HTTP POST请求获取数据，返回字符串
+     *
+     * @param url      请求URL地址
+     * @param paramMap 请求参数(会自动编码)
+     * @return 请求失败时Future以异常结束
+     */
+    public static CompletableFuture<String> httpPostGetResultStrAsync(String url, Map<String, String> paramMap) {
+        return httpPostAsync(url, paramMap, stringHandler(null));
+    }
 }
@@ -0,0 +1,316 @@
+package org.cleverframe.common.net;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.cleverframe.common.concurrent.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 共享连接池的Http客户端，整个应用使用同一个实例(见{@link HttpUtils#getClient()})<br/>
+ * 1.连接池按路由(目标主机)限制连接数，连接使用Keep-Alive复用，不需要每次请求重新建立TCP连接和TLS握手<br/>
+ * 2.后台线程定时回收过期和空闲的连接<br/>
+ * 3.使用{@link ResponseHandler}处理响应，处理完成后自动释放连接，可以流式读取响应数据而不用缓存整个响应<br/>
+ * 4.异步请求在独立的有界线程池中执行，返回CompletableFuture，取消Future时中断请求<br/>
+ * 5.统计请求数、失败数、请求耗时和连接池状态<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:40 <br/>
+ */
+public class PooledHttpClient implements Closeable {
+    /**
+     * 日志记录器
+     */
+    private final static Logger logger = LoggerFactory.getLogger(PooledHttpClient.class);
+
+    /**
+     * 线程编号
+     */
+    private static final AtomicInteger threadNumber = new AtomicInteger(0);
+
+    private final HttpClientConfig config;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * 回收过期、空闲连接的线程，不回收时为null
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * 异步请求线程池
+     */
+    private final ThreadPoolExecutor asyncExecutor;
+
+    /**
+     * 请求次数
+     */
+    private final AtomicLong requestCount = new AtomicLong(0);
+
+    /**
+     * 请求失败次数(发生IO异常，不包含服务端返回错误状态码)
+     */
+    private final AtomicLong failureCount = new AtomicLong(0);
+
+    /**
+     * 异步请求被拒绝(队列已满)的次数
+     */
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * 请求耗时(毫秒)，包含处理响应数据的时间
+     */
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    public PooledHttpClient(HttpClientConfig config) {
+        this.config = config;
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(config.getDefaultMaxPerRoute());
+        if (config.getMaxPerRoute() != null) {
+            for (Map.Entry<String, Integer> entry : config.getMaxPerRoute().entrySet()) {
+                connectionManager.setMaxPerRoute(toRoute(entry.getKey()), entry.getValue());
+            }
+        }
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(config.getSocketTimeout())
+                .setTcpNoDelay(true)
+                .build());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setConnectionRequestTimeout(config.getConnectionRequestTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .build();
+        final long keepAlive = config.getKeepAlive();
+        //noinspection Convert2Lambda
+        ConnectionKeepAliveStrategy keepAliveStrategy = new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return duration > 0 ? duration : keepAlive;
+            }
+        };
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .build();
+
+        if (config.getEvictInterval() > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(newThreadFactory("HttpClient-Evictor-"));
+            //noinspection Convert2Lambda
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictConnections();
+                }
+            }, config.getEvictInterval(), config.getEvictInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+        asyncExecutor = new ThreadPoolExecutor(
+                config.getAsyncThreads(),
+                config.getAsyncThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(config.getAsyncQueueSize()),
+                newThreadFactory("HttpClient-Async-"));
+        asyncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static ThreadFactory newThreadFactory(final String namePrefix) {
+        //noinspection Convert2Lambda
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * 把 scheme://host[:port] 转换成连接池的路由
+     */
+    private static HttpRoute toRoute(String url) {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase();
+        boolean secure = "https".equals(scheme);
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getHost(), port, scheme), null, secure);
+    }
+
+    /**
+     * 回收过期连接和空闲时间超过{@link HttpClientConfig#getIdleTimeout()}的连接
+     */
+    public void evictConnections() {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(config.getIdleTimeout(), TimeUnit.MILLISECONDS);
+        } catch (Throwable e) {
+            logger.warn("### 回收Http连接失败", e);
+        }
+    }
+
+    /**
+     * 执行请求，使用responseHandler处理响应，处理完成后(包括抛出异常)自动释放连接<br/>
+     * responseHandler可以直接读取响应数据流，不需要缓存整个响应
+     *
+     * @param request         请求
+     * @param responseHandler 响应处理器
+     * @return responseHandler的返回值
+     * @throws IOException 请求失败或者responseHandler抛出的异常
+     */
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException {
+        long start = System.currentTimeMillis();
+        requestCount.incrementAndGet();
+        try {
+            return httpClient.execute(request, responseHandler);
+        } catch (IOException | RuntimeException e) {
+            failureCount.incrementAndGet();
+            throw e;
+        } finally {
+            latencyHistogram.record(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 异步执行请求，取消返回的Future时中断请求<br/>
+     * 异步请求队列已满时返回的Future直接以RejectedExecutionException结束
+     *
+     * @param request         请求
+     * @param responseHandler 响应处理器(在异步请求线程中执行)
+     */
+    public <T> CompletableFuture<T> executeAsync(final HttpUriRequest request, final ResponseHandler<? extends T> responseHandler) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        //noinspection Convert2Lambda
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T result, Throwable throwable) {
+                if (future.isCancelled()) {
+                    request.abort();
+                }
+            }
+        });
+        try {
+            //noinspection Convert2Lambda
+            asyncExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    try {
+                        future.complete(execute(request, responseHandler));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 返回连接池的状态(租用、等待、空闲连接数量)
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * 返回一个路由的连接池状态
+     *
+     * @param url scheme://host[:port]，如：https://api.weixin.qq.com
+     */
+    public PoolStats getRouteStats(String url) {
+        return connectionManager.getStats(toRoute(url));
+    }
+
+    /**
+     * 关闭连接池和后台线程，正在执行的请求会失败
+     */
+    @Override
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        asyncExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (Throwable e) {
+            logger.error("### CloseableHttpClient.close() 异常", e);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public HttpClientConfig getConfig() {
+        return config;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * 等待执行的异步请求数量
+     */
+    public int getAsyncQueueSize() {
+        return asyncExecutor.getQueue().size();
+    }
+
+    /**
+     * 正在执行的异步请求数量
+     */
+    public int getAsyncActiveCount() {
+        return asyncExecutor.getActiveCount();
+    }
+}
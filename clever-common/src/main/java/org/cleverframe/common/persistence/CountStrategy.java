@@ -0,0 +1,34 @@
+package org.cleverframe.common.persistence;
+
+/**
+ * 分页查询时数据总数的统计策略<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 15:02 <br/>
+ *
+ * @see Page#setCountStrategy(CountStrategy)
+ */
+public enum CountStrategy {
+    /**
+     * 每次分页都执行count查询，得到准确的数据总数(默认)
+     */
+    EXACT,
+
+    /**
+     * 缓存count查询结果，以查询语句和查询参数作为缓存Key，在缓存有效期内不再执行count查询<br/>
+     * 数据总数可能存在短暂的误差，适用于频繁刷新的列表页面
+     */
+    CACHED,
+
+    /**
+     * 使用数据库的执行计划(EXPLAIN)估算数据总数，只支持SQL查询和MySQL数据库<br/>
+     * 估算值较小时改用准确的count查询；不支持估算时使用缓存的count查询结果
+     */
+    ESTIMATE,
+
+    /**
+     * 不执行count查询，多查询一条数据判断是否还有下一页<br/>
+     * 此时数据总数只是已知数据量的下限，只能用于“上一页/下一页”形式的分页
+     */
+    HAS_NEXT
+}
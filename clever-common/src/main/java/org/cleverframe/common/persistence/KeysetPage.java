@@ -0,0 +1,484 @@
+package org.cleverframe.common.persistence;
+
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.common.reflection.ReflectionsUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 游标(Keyset/Seek)分页类<br/>
+ * 不使用偏移量(firstResult)分页，而是根据上一页最后一条数据的排序字段值查询下一页数据：<br/>
+ * <pre>
+ *     WHERE (k1 &gt; :v1) OR (k1 = :v1 AND k2 &gt; :v2) ... ORDER BY k1, k2 ...
+ * </pre>
+ * 1.不查询数据总数，翻到很深的页与查询第一页的代价相同<br/>
+ * 2.查询pageSize+1条数据判断是否还有下一页<br/>
+ * 3.游标(after)是对排序字段值编码后的字符串，客户端原样传回即可<br/>
+ * <b>注意：排序字段组合必须唯一(最后一个排序字段一般使用主键ID)，且排序字段值不能为null</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 13:20 <br/>
+ *
+ * @see Page
+ */
+public class KeysetPage<T> {
+    /**
+     * 游标的request请求参数名
+     */
+    public final static String AFTER = "after";
+
+    /**
+     * 游标条件的参数名前缀
+     */
+    public final static String KEYSET_PARAM_PREFIX = "keyset_";
+
+    /**
+     * 游标编码版本
+     */
+    private final static byte CURSOR_VERSION = 1;
+
+    /**
+     * 游标字符串的最大长度，超过的游标直接视为不正确
+     */
+    private final static int MAX_CURSOR_LENGTH = 4096;
+
+    /**
+     * 游标中排序字段值的最大个数
+     */
+    private final static int MAX_CURSOR_VALUES = 16;
+
+    /**
+     * 每页的数据量(最大500)
+     */
+    private int pageSize = 10;
+
+    /**
+     * 上一页最后一条数据的游标，为空表示查询第一页
+     */
+    private String after;
+
+    /**
+     * 排序字段
+     */
+    private final List<SortKey> sortKeys = new ArrayList<>();
+
+    /**
+     * 当前页的数据
+     */
+    private List<T> list = new ArrayList<>();
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasNext = false;
+
+    /**
+     * 下一页的游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * @param pageSize 每页的数据量
+     * @param after    上一页最后一条数据的游标，为空表示查询第一页
+     * @param sortKeys 排序字段，至少一个
+     */
+    public KeysetPage(int pageSize, String after, SortKey... sortKeys) {
+        if (sortKeys == null || sortKeys.length <= 0) {
+            throw new IllegalArgumentException("### 游标分页至少需要一个排序字段");
+        }
+        this.setPageSize(pageSize);
+        this.after = StringUtils.trimToNull(after);
+        Collections.addAll(this.sortKeys, sortKeys);
+    }
+
+    /**
+     * 从request中获取分页信息，读取参数{@link Page#PAGE_SIZE}（每页的数据量）和参数{@link #AFTER}（游标）
+     *
+     * @param sortKeys 排序字段，至少一个
+     */
+    public KeysetPage(HttpServletRequest request, SortKey... sortKeys) {
+        this(10, request.getParameter(AFTER), sortKeys);
+        String size = request.getParameter(Page.PAGE_SIZE);
+        if (StringUtils.isNumeric(size)) {
+            this.setPageSize(Integer.parseInt(size));
+        }
+    }
+
+    /**
+     * 是否是第一页
+     */
+    public boolean isFirstPage() {
+        return after == null;
+    }
+
+    /**
+     * 解码游标，得到上一页最后一条数据的排序字段值
+     *
+     * @return 第一页返回null
+     */
+    public Object[] getAfterValues() {
+        if (after == null) {
+            return null;
+        }
+        Object[] values = decodeCursor(after);
+        if (values.length != sortKeys.size()) {
+            throw new IllegalArgumentException("### 游标与排序字段不匹配, after=" + after);
+        }
+        return values;
+    }
+
+    /**
+     * 生成游标查询条件，并把游标里的排序字段值放入查询参数(参数名：keyset_0、keyset_1...)<br/>
+     * 如：(a.time &lt; :keyset_0) OR (a.time = :keyset_0 AND a.id &lt; :keyset_1)
+     *
+     * @param parameter     查询参数
+     * @param useColumnName true:去掉表别名只使用列名(用于子查询包装的SQL)
+     * @return 第一页返回null
+     */
+    public String getSeekCondition(Parameter parameter, boolean useColumnName) {
+        Object[] values = getAfterValues();
+        if (values == null) {
+            return null;
+        }
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            parameter.put(KEYSET_PARAM_PREFIX + i, values[i]);
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append('(');
+            for (int j = 0; j < i; j++) {
+                condition.append(sortKeys.get(j).getColumn(useColumnName)).append(" = :").append(KEYSET_PARAM_PREFIX).append(j).append(" AND ");
+            }
+            SortKey sortKey = sortKeys.get(i);
+            condition.append(sortKey.getColumn(useColumnName)).append(sortKey.isAsc() ? " > :" : " < :").append(KEYSET_PARAM_PREFIX).append(i);
+            condition.append(')');
+        }
+        return condition.toString();
+    }
+
+    /**
+     * 生成排序子句(不含order by关键字)，如：a.time DESC, a.id DESC
+     *
+     * @param useColumnName true:去掉表别名只使用列名(用于子查询包装的SQL)
+     */
+    public String getOrderBy(boolean useColumnName) {
+        StringBuilder orderBy = new StringBuilder();
+        for (SortKey sortKey : sortKeys) {
+            if (orderBy.length() > 0) {
+                orderBy.append(", ");
+            }
+            orderBy.append(sortKey.getColumn(useColumnName)).append(sortKey.isAsc() ? " ASC" : " DESC");
+        }
+        return orderBy.toString();
+    }
+
+    /**
+     * 设置查询结果，查询时应多查询一条数据(pageSize + 1)用于判断是否还有下一页<br/>
+     * 会自动截取当前页数据并生成下一页游标<br/>
+     *
+     * @param rows 查询结果(最多pageSize + 1条)
+     */
+    public void setPageData(List<T> rows) {
+        if (rows == null) {
+            rows = new ArrayList<>();
+        }
+        hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+        list = rows;
+        nextCursor = null;
+        if (hasNext && rows.size() > 0) {
+            nextCursor = encodeCursor(getSortValues(rows.get(rows.size() - 1)));
+        }
+    }
+
+    /**
+     * 读取一条数据的排序字段值，支持Map和JavaBean
+     */
+    private Object[] getSortValues(T row) {
+        Object[] values = new Object[sortKeys.size()];
+        for (int i = 0; i < sortKeys.size(); i++) {
+            SortKey sortKey = sortKeys.get(i);
+            Object value;
+            if (row instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) row;
+                value = map.get(sortKey.getProperty());
+                if (value == null) {
+                    value = map.get(sortKey.getColumn());
+                }
+            } else {
+                value = ReflectionsUtils.invokeGetter(row, sortKey.getProperty());
+            }
+            if (value == null) {
+                throw new IllegalStateException("### 游标分页的排序字段值不能为null, property=" + sortKey.getProperty());
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    // ------------------------------------------------------------------------
+    // 游标编码、解码
+    // ------------------------------------------------------------------------
+
+    /**
+     * 把排序字段值编码成游标字符串(URL安全的Base64)
+     *
+     * @param values 排序字段值
+     * @return 游标字符串
+     */
+    public static String encodeCursor(Object[] values) {
+        if (values.length <= 0 || values.length > MAX_CURSOR_VALUES) {
+            throw new IllegalArgumentException("### 游标排序字段个数必须在1到" + MAX_CURSOR_VALUES + "之间, 实际个数=" + values.length);
+        }
+        ByteArrayOutputStream byteArray = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(byteArray)) {
+            out.writeByte(CURSOR_VERSION);
+            out.writeByte(values.length);
+            for (Object value : values) {
+                if (value instanceof Long) {
+                    out.writeByte('L');
+                    out.writeLong((Long) value);
+                } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    out.writeByte('I');
+                    out.writeInt(((Number) value).intValue());
+                } else if (value instanceof BigInteger) {
+                    out.writeByte('G');
+                    out.writeUTF(value.toString());
+                } else if (value instanceof BigDecimal) {
+                    out.writeByte('B');
+                    out.writeUTF(((BigDecimal) value).toPlainString());
+                } else if (value instanceof Double || value instanceof Float) {
+                    out.writeByte('F');
+                    out.writeDouble(((Number) value).doubleValue());
+                } else if (value instanceof java.sql.Timestamp) {
+                    out.writeByte('T');
+                    out.writeLong(((java.sql.Timestamp) value).getTime());
+                    out.writeInt(((java.sql.Timestamp) value).getNanos());
+                } else if (value instanceof Date) {
+                    out.writeByte('D');
+                    out.writeLong(((Date) value).getTime());
+                } else if (value instanceof Character) {
+                    out.writeByte('C');
+                    out.writeChar((Character) value);
+                } else if (value instanceof Boolean) {
+                    out.writeByte('Z');
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof String) {
+                    out.writeByte('S');
+                    out.writeUTF((String) value);
+                } else {
+                    throw new IllegalArgumentException("### 游标分页不支持的排序字段类型: " + value.getClass().getName());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("### 游标编码失败", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(byteArray.toByteArray());
+    }
+
+    /**
+     * 解码游标字符串，游标来自客户端请求参数，任何不正确的数据都抛出IllegalArgumentException
+     *
+     * @param cursor 游标字符串
+     * @return 排序字段值
+     * @throws IllegalArgumentException 游标不正确
+     */
+    public static Object[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.length() > MAX_CURSOR_LENGTH) {
+            throw new IllegalArgumentException("### 游标不正确, cursor长度超过" + MAX_CURSOR_LENGTH + "或为空");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != CURSOR_VERSION) {
+                throw new IllegalArgumentException("### 游标版本不正确, cursor=" + cursor);
+            }
+            int count = in.readUnsignedByte();
+            if (count <= 0 || count > MAX_CURSOR_VALUES) {
+                throw new IllegalArgumentException("### 游标排序字段个数不正确, count=" + count);
+            }
+            Object[] values = new Object[count];
+            for (int i = 0; i < values.length; i++) {
+                byte type = in.readByte();
+                switch (type) {
+                    case 'L':
+                        values[i] = in.readLong();
+                        break;
+                    case 'I':
+                        values[i] = in.readInt();
+                        break;
+                    case 'G':
+                        values[i] = new BigInteger(in.readUTF());
+                        break;
+                    case 'B':
+                        values[i] = new BigDecimal(in.readUTF());
+                        break;
+                    case 'F':
+                        values[i] = in.readDouble();
+                        break;
+                    case 'T':
+                        java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                        timestamp.setNanos(in.readInt());
+                        values[i] = timestamp;
+                        break;
+                    case 'D':
+                        values[i] = new Date(in.readLong());
+                        break;
+                    case 'C':
+                        values[i] = in.readChar();
+                        break;
+                    case 'Z':
+                        values[i] = in.readBoolean();
+                        break;
+                    case 'S':
+                        values[i] = in.readUTF();
+                        break;
+                    default:
+                        throw new IllegalArgumentException("### 游标数据不正确, cursor=" + cursor);
+                }
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("### 游标数据不正确(存在多余的数据), cursor=" + cursor);
+            }
+            return values;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("### 游标解码失败, cursor=" + cursor, e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // getter、setter
+    // ------------------------------------------------------------------------
+
+    /**
+     * 每页的数据量(最大500)
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 每页的数据量(最大500，最小1)
+     */
+    private void setPageSize(int pageSize) {
+        if (pageSize > 500) {
+            this.pageSize = 500;
+        } else if (pageSize < 1) {
+            this.pageSize = 1;
+        } else {
+            this.pageSize = pageSize;
+        }
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public List<SortKey> getSortKeys() {
+        return Collections.unmodifiableList(sortKeys);
+    }
+
+    public List<T> getList() {
+        return list;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * 游标分页的排序字段<br/>
+     * column 用于生成查询条件和排序(SQL里是结果集的列名，HQL和Criteria里是实体属性路径)<br/>
+     * property 用于从查询结果中读取排序字段值(Map的key或者JavaBean属性名)
+     */
+    public static class SortKey {
+        /**
+         * 查询里使用的列名或属性路径
+         */
+        private final String column;
+
+        /**
+         * 从查询结果读取值使用的属性名
+         */
+        private final String property;
+
+        /**
+         * 是否升序
+         */
+        private final boolean asc;
+
+        /**
+         * @param column   查询里使用的列名或属性路径
+         * @param property 从查询结果读取值使用的属性名，为空时使用column最后一段(去掉表别名)
+         * @param asc      是否升序
+         */
+        public SortKey(String column, String property, boolean asc) {
+            if (StringUtils.isBlank(column)) {
+                throw new IllegalArgumentException("### 排序字段不能为空");
+            }
+            this.column = column.trim();
+            this.property = StringUtils.isBlank(property) ? StringUtils.substringAfterLast("." + this.column, ".") : property.trim();
+            this.asc = asc;
+        }
+
+        /**
+         * 升序排序字段
+         */
+        public static SortKey asc(String column) {
+            return new SortKey(column, null, true);
+        }
+
+        /**
+         * 升序排序字段
+         */
+        public static SortKey asc(String column, String property) {
+            return new SortKey(column, property, true);
+        }
+
+        /**
+         * 降序排序字段
+         */
+        public static SortKey desc(String column) {
+            return new SortKey(column, null, false);
+        }
+
+        /**
+         * 降序排序字段
+         */
+        public static SortKey desc(String column, String property) {
+            return new SortKey(column, property, false);
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        /**
+         * @param useColumnName true:去掉表别名只返回列名
+         */
+        public String getColumn(boolean useColumnName) {
+            return useColumnName ? StringUtils.substringAfterLast("." + column, ".") : column;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public boolean isAsc() {
+            return asc;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.util.List;
  * 6.总页数：pageCount<br/>
  * 7.当前页第一条数据的位置：firstResult<br/>
  * 8.当前页的数据：list<br/>
+ * 9.数据总数的统计策略：countStrategy，参考{@link CountStrategy}<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-5-11 23:37 <br/>
@@ -70,6 +71,18 @@ public class Page<T> {
      * 当前页的数据
      */
     private List<T> list = new ArrayList<>();
+    /**
+     * 数据总数的统计策略，默认每次都执行count查询
+     */
+    private CountStrategy countStrategy = CountStrategy.EXACT;
+    /**
+     * CACHED策略下count查询结果的缓存时间(秒)，小于等于0 表示使用缓存的默认配置
+     */
+    private int countCacheSeconds = 0;
+    /**
+     * 是否还有下一页(HAS_NEXT策略下使用)
+     */
+    private boolean hasNext = false;
 
     // ------------------------------------------------------------------------
     // 通过计算出来的属性值
@@ -194,7 +207,7 @@ public class Page<T> {
      */
     public void init() {
         this.firstPage = this.getPageNo() <= 1;
-        this.lastPage = this.getPageNo() >= this.getPageCount();
+        this.lastPage = this.isLastPage();
         this.pageCount = (int) (this.getCount() / this.getPageSize() + 1);
         if (this.pageCount <= 1) {
             this.pageCount = 1;
@@ -220,10 +233,34 @@ public class Page<T> {
     /**
      * 分页前是否进行总数统计
      *
-     * @return this.count < 0
+     * @return this.count < 0 或者统计策略为 HAS_NEXT
      */
     public boolean isNotCount() {
-        return this.count < 0;
+        return this.count < 0 || this.countStrategy == CountStrategy.HAS_NEXT;
+    }
+
+    /**
+     * 查询数据时的最大数据量，HAS_NEXT策略下多查询一条数据用于判断是否还有下一页
+     */
+    public int getMaxResults() {
+        return this.countStrategy == CountStrategy.HAS_NEXT ? this.pageSize + 1 : this.pageSize;
+    }
+
+    /**
+     * 设置查询到的数据，查询时的最大数据量应是{@link #getMaxResults()}<br/>
+     * HAS_NEXT策略下会截取当前页数据，并根据是否还有下一页设置数据总数(已知数据量的下限)
+     *
+     * @param rows 查询到的数据
+     */
+    public void setPageData(List<T> rows) {
+        if (this.countStrategy == CountStrategy.HAS_NEXT && !this.isDisabled()) {
+            this.hasNext = rows.size() > this.pageSize;
+            if (this.hasNext) {
+                rows = new ArrayList<>(rows.subList(0, this.pageSize));
+            }
+            this.count = this.getFirstResult() + rows.size() + (this.hasNext ? 1 : 0);
+        }
+        this.setList(rows);
     }
 
     /**
@@ -302,10 +339,49 @@ public class Page<T> {
      * 是否是最后一页
      */
     public boolean isLastPage() {
-        this.lastPage = this.getPageNo() >= this.getPageCount();
+        if (this.countStrategy == CountStrategy.HAS_NEXT) {
+            this.lastPage = !this.hasNext;
+        } else {
+            this.lastPage = this.getPageNo() >= this.getPageCount();
+        }
         return lastPage;
     }
 
+    /**
+     * 是否还有下一页(HAS_NEXT策略下使用)
+     */
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * 数据总数的统计策略
+     */
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * 数据总数的统计策略，为null时使用EXACT
+     */
+    public void setCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy == null ? CountStrategy.EXACT : countStrategy;
+    }
+
+    /**
+     * CACHED策略下count查询结果的缓存时间(秒)
+     */
+    public int getCountCacheSeconds() {
+        return countCacheSeconds;
+    }
+
+    /**
+     * CACHED策略下count查询结果的缓存时间(秒)，小于等于0 表示使用缓存的默认配置
+     */
+    public void setCountCacheSeconds(int countCacheSeconds) {
+        this.countCacheSeconds = countCacheSeconds;
+    }
+
     /**
      * 总页数
      */
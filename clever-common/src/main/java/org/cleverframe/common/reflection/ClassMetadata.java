@@ -0,0 +1,251 @@
+package org.cleverframe.common.reflection;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 一个类的反射元数据缓存，使用ClassValue保存，每个类只创建一次<br/>
+ * 1.JavaBean属性在创建时一次性解析，getter、setter生成调用对象({@link BeanProperty})<br/>
+ * 2.成员变量、方法第一次查找后缓存(包括找不到的结果)，不需要每次沿着父类查找和捕获NoSuchMethodException<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:30 <br/>
+ */
+public final class ClassMetadata {
+
+    /**
+     * 找不到成员变量或方法的缓存标记
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+
+    /**
+     * JavaBean属性(与Introspector的顺序一致，包含getClass对应的class属性)
+     */
+    private final Map<String, BeanProperty> properties;
+
+    /**
+     * 成员变量名称 -> Field 或者 NOT_FOUND
+     */
+    private final ConcurrentMap<String, Object> fields = new ConcurrentHashMap<>();
+
+    /**
+     * 方法签名 -> Method 或者 NOT_FOUND
+     */
+    private final ConcurrentMap<MethodKey, Object> methods = new ConcurrentHashMap<>();
+
+    /**
+     * 方法名称 -> Method 或者 NOT_FOUND
+     */
+    private final ConcurrentMap<String, Object> methodsByName = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        Map<String, BeanProperty> map = new LinkedHashMap<>();
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(type);
+            for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                if (descriptor.getPropertyType() == null) {
+                    // 只有索引读写方法的属性
+                    continue;
+                }
+                map.put(descriptor.getName(), new BeanProperty(
+                        descriptor.getName(),
+                        descriptor.getPropertyType(),
+                        descriptor.getReadMethod(),
+                        descriptor.getWriteMethod()));
+            }
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("解析类[" + type.getName() + "]的属性失败", e);
+        }
+        this.properties = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 返回类的反射元数据
+     */
+    public static ClassMetadata forClass(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * 返回JavaBean属性
+     *
+     * @param name 属性名称，不支持多级
+     * @return 不存在返回null
+     */
+    public BeanProperty getProperty(String name) {
+        return properties.get(name);
+    }
+
+    /**
+     * 在当前类和父类(不含Object)中查找成员变量，找到后设置成可以访问
+     *
+     * @param name 成员变量名称
+     * @return 找不到返回null
+     */
+    public Field getField(String name) {
+        Object field = fields.get(name);
+        if (field == null) {
+            field = findField(name);
+            fields.putIfAbsent(name, field);
+        }
+        return field == NOT_FOUND ? null : (Field) field;
+    }
+
+    /**
+     * 在当前类和父类(不含Object)中查找方法，找到后设置成可以访问
+     *
+     * @param name           方法名称
+     * @param parameterTypes 方法参数类型
+     * @return 找不到返回null
+     */
+    public Method getMethod(String name, Class<?>... parameterTypes) {
+        MethodKey key = new MethodKey(name, parameterTypes);
+        Object method = methods.get(key);
+        if (method == null) {
+            method = findMethod(name, key.parameterTypes);
+            // 保存参数类型的副本，调用者修改数组不影响缓存
+            methods.putIfAbsent(new MethodKey(name, key.parameterTypes.clone()), method);
+        }
+        return method == NOT_FOUND ? null : (Method) method;
+    }
+
+    /**
+     * 在当前类和父类(不含Object)中按名称查找方法(有多个同名方法时返回第一个)，找到后设置成可以访问
+     *
+     * @param name 方法名称
+     * @return 找不到返回null
+     */
+    public Method getMethodByName(String name) {
+        Object method = methodsByName.get(name);
+        if (method == null) {
+            method = findMethodByName(name);
+            methodsByName.putIfAbsent(name, method);
+        }
+        return method == NOT_FOUND ? null : (Method) method;
+    }
+
+    private Object findField(String name) {
+        for (Class<?> searchType = type; searchType != null && searchType != Object.class; searchType = searchType.getSuperclass()) {
+            for (Field field : searchType.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    makeAccessible(field);
+                    return field;
+                }
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private Object findMethod(String name, Class<?>[] parameterTypes) {
+        for (Class<?> searchType = type; searchType != null && searchType != Object.class; searchType = searchType.getSuperclass()) {
+            try {
+                Method method = searchType.getDeclaredMethod(name, parameterTypes);
+                makeAccessible(method);
+                return method;
+            } catch (NoSuchMethodException e) {
+                // Method不在当前类定义,继续向上转型
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private Object findMethodByName(String name) {
+        for (Class<?> searchType = type; searchType != null && searchType != Object.class; searchType = searchType.getSuperclass()) {
+            for (Method method : searchType.getDeclaredMethods()) {
+                if (method.getName().equals(name)) {
+                    makeAccessible(method);
+                    return method;
+                }
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 改变private/protected的方法为public，尽量不调用实际改动的语句，避免JDK的SecurityManager抱怨。
+     */
+    private static void makeAccessible(Method method) {
+        if ((!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) && !method.isAccessible()) {
+            method.setAccessible(true);
+        }
+    }
+
+    /**
+     * 改变private/protected的成员变量为public，尽量不调用实际改动的语句，避免JDK的SecurityManager抱怨。
+     */
+    private static void makeAccessible(Field field) {
+        if ((!Modifier.isPublic(field.getModifiers())
+                || !Modifier.isPublic(field.getDeclaringClass().getModifiers())
+                || Modifier.isFinal(field.getModifiers()))
+                && !field.isAccessible()) {
+            field.setAccessible(true);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 返回所有JavaBean属性(不可修改)
+     */
+    public Map<String, BeanProperty> getProperties() {
+        return properties;
+    }
+
+    /**
+     * 方法签名
+     */
+    private static final class MethodKey {
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hashCode;
+
+        private MethodKey(String name, Class<?>[] parameterTypes) {
+            this.name = name;
+            this.parameterTypes = parameterTypes == null ? new Class<?>[0] : parameterTypes;
+            this.hashCode = 31 * name.hashCode() + Arrays.hashCode(this.parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MethodKey)) {
+                return false;
+            }
+            MethodKey other = (MethodKey) obj;
+            return name.equals(other.name) && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
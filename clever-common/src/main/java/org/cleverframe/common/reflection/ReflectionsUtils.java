@@ -13,6 +13,7 @@ import java.lang.reflect.*;
  * 3.调用私有方法<br/>
  * 4.获取泛型类型Class<br/>
  * 5.被AOP过的真实类等工具函数<br/>
+ * 6.方法、成员变量、getter/setter的查找结果缓存在{@link ClassMetadata}中<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-4-29 23:56 <br/>
@@ -52,35 +53,11 @@ public class ReflectionsUtils {
         return new RuntimeException(e);
     }
 
-    /**
-     * 改变private/protected的方法为public，尽量不调用实际改动的语句，避免JDK的SecurityManager抱怨。
-     *
-     * @param method 目标方法实例
-     */
-    private static void makeAccessible(Method method) {
-        if ((!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) && !method.isAccessible()) {
-            method.setAccessible(true);
-        }
-    }
-
-    /**
-     * 改变private/protected的成员变量为public，尽量不调用实际改动的语句，避免JDK的SecurityManager抱怨。
-     *
-     * @param field 成员变量实例
-     */
-    private static void makeAccessible(Field field) {
-        if ((!Modifier.isPublic(field.getModifiers())
-                || !Modifier.isPublic(field.getDeclaringClass().getModifiers())
-                || Modifier.isFinal(field.getModifiers()))
-                && !field.isAccessible()) {
-            field.setAccessible(true);
-        }
-    }
-
     /**
      * 在给定的对象中查找指定的方法，获取不到就在其父类中找(循环向上转型)，获取到方法之后强行设置成public返回<br/>
      * 如向上转型到Object仍无法找到, 返回null<br/>
      * 用于方法需要被多次调用的情况. 先使用本函数先取得Method,然后调用Method.invoke(Object obj, Object... args)<br/>
+     * 查找结果缓存在{@link ClassMetadata}中<br/>
      *
      * @param obj            目标对象
      * @param methodName     方法名称
@@ -88,25 +65,7 @@ public class ReflectionsUtils {
      * @return 方法实例，获取失败返回null
      */
     private static Method getAccessibleMethod(final Object obj, final String methodName, final Class<?>... parameterTypes) {
-        Class<?> searchType = obj.getClass();
-        while (searchType != Object.class) {
-            try {
-                Method method = searchType.getDeclaredMethod(methodName, parameterTypes);
-                if (method != null) {
-                    // 强制设置方法可以访问(public)
-                    makeAccessible(method);
-                    return method;
-                } else {
-                    continue;
-                }
-            } catch (Throwable e) {
-                logger.error("getAccessibleMethod-反射错误，找不到方法", e);
-                // Method不在当前类定义,继续向上转型
-            }
-            // 获取父类类型，继续查找方法
-            searchType = searchType.getSuperclass();
-        }
-        return null;
+        return ClassMetadata.forClass(obj.getClass()).getMethod(methodName, parameterTypes);
     }
 
     /**
@@ -119,20 +78,7 @@ public class ReflectionsUtils {
      * @return 方法实例，获取失败返回null
      */
     private static Method getAccessibleMethodByName(final Object obj, final String methodName) {
-        Class<?> searchType = obj.getClass();
-        while (searchType != Object.class) {
-            Method[] methods = searchType.getDeclaredMethods();
-            for (Method method : methods) {
-                if (method.getName().equals(methodName)) {
-                    // 强制设置方法可以访问(public)
-                    makeAccessible(method);
-                    return method;
-                }
-            }
-            // 获取父类类型，继续查找方法
-            searchType = searchType.getSuperclass();
-        }
-        return null;
+        return ClassMetadata.forClass(obj.getClass()).getMethodByName(methodName);
     }
 
     /**
@@ -143,25 +89,7 @@ public class ReflectionsUtils {
      * @return 成员变量实例
      */
     private static Field getAccessibleField(final Object obj, final String fieldName) {
-        Class<?> superClass = obj.getClass();
-        while (superClass != Object.class) {
-            try {
-                Field field = superClass.getDeclaredField(fieldName);
-                if (field != null) {
-                    // 强制设置成员变量可以访问(public)
-                    makeAccessible(field);
-                    return field;
-                } else {
-                    continue;
-                }
-            } catch (Throwable e) {
-                logger.error("getAccessibleField-反射错误，找不到字段", e);
-                // Field不在当前类定义,继续向上转型
-            }
-            // 获取父类类型，继续查找字段
-            superClass = superClass.getSuperclass();
-        }
-        return null;
+        return ClassMetadata.forClass(obj.getClass()).getField(fieldName);
     }
 
 
@@ -223,6 +151,11 @@ public class ReflectionsUtils {
         Object object = obj;
         String[] propertyArray = StringUtils.split(propertyName, ".");
         for (String name : propertyArray) {
+            BeanProperty property = ClassMetadata.forClass(object.getClass()).getProperty(name);
+            if (property != null && property.isReadable()) {
+                object = property.getValue(object);
+                continue;
+            }
             String getterMethodName = GETTER_PREFIX + StringUtils.capitalize(name);
             object = invokeMethod(object, getterMethodName, new Class[]{}, new Object[]{});
         }
@@ -240,9 +173,16 @@ public class ReflectionsUtils {
         Object object = obj;
         String[] names = StringUtils.split(propertyName, ".");
         for (int i = 0; i < names.length; i++) {
+            BeanProperty property = ClassMetadata.forClass(object.getClass()).getProperty(names[i]);
             if (i < names.length - 1) {
+                if (property != null && property.isReadable()) {
+                    object = property.getValue(object);
+                    continue;
+                }
                 String getterMethodName = GETTER_PREFIX + StringUtils.capitalize(names[i]);
                 object = invokeMethod(object, getterMethodName, new Class[]{}, new Object[]{});
+            } else if (property != null && property.isWritable()) {
+                property.setValue(object, value);
             } else {
                 String setterMethodName = SETTER_PREFIX + StringUtils.capitalize(names[i]);
                 invokeMethodByName(object, setterMethodName, new Object[]{value});
@@ -5,6 +5,7 @@ import org.cleverframe.common.controller.XssExcludeUrlUtils;
 import org.cleverframe.common.initialize.IHandle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.web.context.ContextLoader;
@@ -16,11 +17,12 @@ import javax.servlet.ServletContext;
 /**
  * Spring容器初始化完毕事件，需要在Spring中注入该Bean<br/>
  * ContextRefreshedEvent 当ApplicationContext初始化或者刷新时触发该事件<br/>
+ * Spring容器关闭时(销毁该Bean)停止XssExcludeUrlUtils的后台写入线程<br/>
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016-5-9 17:44 <br/>
  */
-public class SpringContextRefreshedListener implements ApplicationListener<ContextRefreshedEvent> {
+public class SpringContextRefreshedListener implements ApplicationListener<ContextRefreshedEvent>, DisposableBean {
     /**
      * 日志记录器
      */
@@ -136,6 +138,14 @@ public class SpringContextRefreshedListener implements ApplicationListener<Conte
         }
     }
 
+    /**
+     * Spring容器关闭时把还未写入的XSS排除地址写入文件，并停止后台写入线程(不使用JVM关闭钩子，避免重新部署时ClassLoader泄漏)
+     */
+    @Override
+    public void destroy() {
+        XssExcludeUrlUtils.shutdown();
+    }
+
     public String getAppPath() {
         return appPath;
     }
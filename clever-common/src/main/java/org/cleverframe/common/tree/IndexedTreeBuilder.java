@@ -0,0 +1,279 @@
+package org.cleverframe.common.tree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 使用Hash索引构建对象树结构，不使用递归，每个节点只处理一次<br/>
+ * 1.节点ID建立HashMap索引，查找父节点的时间复杂度O(1)，构建整棵树的时间复杂度O(n)<br/>
+ * 2.支持增量构建：可以逐个增加节点(子节点可以先于父节点增加)，也可以移动已有节点到新的父节点下<br/>
+ * 3.根节点的判断规则与 {@link BuildTreeUtils#bulidTree(Collection)} 一致：节点ID等于节点全路径、父节点ID等于-1、找不到父节点<br/>
+ * 4.子节点与根节点的顺序与增加节点的顺序一致<br/>
+ * 5.不能形成循环引用，增加节点时出现循环引用的节点作为根节点，移动节点时出现循环引用抛出异常<br/>
+ * <b>注意：此类不是线程安全的</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 20:40 <br/>
+ *
+ * @see BuildTreeUtils
+ */
+public class IndexedTreeBuilder {
+    /**
+     * 根节点的父节点ID
+     */
+    public static final long ROOT_PARENT_ID = -1L;
+
+    /**
+     * 所有节点，节点ID -> 节点
+     */
+    private final Map<Long, ITreeNode> nodeMap;
+
+    /**
+     * 已经添加到父节点下的节点，节点ID -> 父节点
+     */
+    private final Map<Long, ITreeNode> parentMap;
+
+    /**
+     * 节点当前的父节点ID(移动节点后与 {@link ITreeNode#getParentId()} 不同)，节点ID -> 父节点ID
+     */
+    private final Map<Long, Long> parentIdMap;
+
+    /**
+     * 还找不到父节点的节点，父节点ID -> 等待父节点的节点
+     */
+    private final Map<Long, List<ITreeNode>> waitParentMap = new HashMap<>();
+
+    /**
+     * 所有根节点(包含还找不到父节点的节点)
+     */
+    private final Set<ITreeNode> rootNodeSet = new LinkedHashSet<>();
+
+    public IndexedTreeBuilder() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的节点数量
+     */
+    public IndexedTreeBuilder(int expectedSize) {
+        int capacity = Math.max(16, (int) (expectedSize / 0.75f) + 1);
+        nodeMap = new HashMap<>(capacity);
+        parentMap = new HashMap<>(capacity);
+        parentIdMap = new HashMap<>(capacity);
+    }
+
+    /**
+     * 构建树结构，可能有多棵树<br/>
+     *
+     * @param nodes 所有要构建树的节点
+     * @return 构建的所有树的根节点
+     */
+    public static List<ITreeNode> build(Collection<? extends ITreeNode> nodes) {
+        IndexedTreeBuilder builder = new IndexedTreeBuilder(nodes.size());
+        builder.addAll(nodes);
+        return builder.getRootNodes();
+    }
+
+    /**
+     * 判断节点数据是否可以构建树，节点、节点ID、父节点ID、节点全路径都不能为null
+     */
+    public static boolean canBulid(ITreeNode node) {
+        return node != null && node.getId() != null && node.getParentId() != null && node.getFullPath() != null;
+    }
+
+    /**
+     * 增加多个节点，不能构建树的节点和ID重复的节点会被忽略<br/>
+     *
+     * @param nodes 节点集合
+     * @return 增加成功的节点数量
+     */
+    public int addAll(Collection<? extends ITreeNode> nodes) {
+        int count = 0;
+        for (ITreeNode node : nodes) {
+            if (add(node)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 增加一个节点，如果父节点已经存在就添加到父节点下，否则作为根节点直到父节点被增加<br/>
+     * 已经增加的节点中有等待当前节点的，会移动到当前节点下<br/>
+     *
+     * @param node 节点
+     * @return 节点不能构建树或者节点ID已经存在返回false
+     */
+    public boolean add(ITreeNode node) {
+        if (!canBulid(node) || nodeMap.containsKey(node.getId())) {
+            return false;
+        }
+        Long id = node.getId();
+        node.setBulid(false);
+        nodeMap.put(id, node);
+        parentIdMap.put(id, node.getParentId());
+
+        // 节点全路径等于节点ID 或者 父节点ID等于-1
+        if (id.toString().equals(node.getFullPath()) || node.getParentId() == ROOT_PARENT_ID) {
+            addRootNode(node);
+        } else {
+            attach(node, node.getParentId());
+        }
+
+        // 等待当前节点的子节点
+        List<ITreeNode> waitNodes = waitParentMap.remove(id);
+        if (waitNodes != null) {
+            for (ITreeNode child : waitNodes) {
+                if (isAncestor(child, node)) {
+                    // 循环引用，子节点继续作为根节点
+                    continue;
+                }
+                rootNodeSet.remove(child);
+                addChildNode(node, child);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 移动节点到新的父节点下，节点的所有子节点跟随移动<br/>
+     * <b>注意：不会修改节点的父节点ID和全路径，需要调用者自己修改</b><br/>
+     *
+     * @param id          节点ID
+     * @param newParentId 新的父节点ID，等于-1表示移动成为根节点，父节点不存在时作为根节点直到父节点被增加
+     * @return 节点不存在返回false
+     * @throws IllegalArgumentException 新的父节点是节点本身或者是节点的子孙节点
+     */
+    public boolean move(Long id, Long newParentId) {
+        ITreeNode node = id == null ? null : nodeMap.get(id);
+        if (node == null || newParentId == null) {
+            return false;
+        }
+        ITreeNode newParent = nodeMap.get(newParentId);
+        if (newParent != null && isAncestor(node, newParent)) {
+            throw new IllegalArgumentException("不能移动节点到自身或子孙节点下, id=" + id + ", newParentId=" + newParentId);
+        }
+        detach(node);
+        parentIdMap.put(id, newParentId);
+        if (newParentId == ROOT_PARENT_ID) {
+            addRootNode(node);
+        } else {
+            attach(node, newParentId);
+        }
+        return true;
+    }
+
+    /**
+     * 根据节点ID获取节点
+     */
+    public ITreeNode get(Long id) {
+        return nodeMap.get(id);
+    }
+
+    /**
+     * 获取节点当前的父节点，根节点返回null
+     */
+    public ITreeNode getParent(Long id) {
+        return parentMap.get(id);
+    }
+
+    /**
+     * 返回所有根节点(包含还找不到父节点的节点)，顺序与节点增加的顺序一致
+     */
+    public List<ITreeNode> getRootNodes() {
+        return new ArrayList<>(rootNodeSet);
+    }
+
+    /**
+     * 还找不到父节点的节点数量
+     */
+    public int getWaitParentCount() {
+        int count = 0;
+        for (List<ITreeNode> waitNodes : waitParentMap.values()) {
+            count += waitNodes.size();
+        }
+        return count;
+    }
+
+    /**
+     * 节点数量
+     */
+    public int size() {
+        return nodeMap.size();
+    }
+
+    /**
+     * 添加节点到父节点下，父节点不存在时作为根节点等待父节点
+     */
+    private void attach(ITreeNode node, Long parentId) {
+        ITreeNode parent = nodeMap.get(parentId);
+        if (parent == null || parent == node) {
+            addRootNode(node);
+            if (parent == null) {
+                List<ITreeNode> waitNodes = waitParentMap.get(parentId);
+                if (waitNodes == null) {
+                    waitNodes = new ArrayList<>(2);
+                    waitParentMap.put(parentId, waitNodes);
+                }
+                waitNodes.add(node);
+            }
+        } else {
+            addChildNode(parent, node);
+        }
+    }
+
+    /**
+     * 从父节点或根节点中移除节点
+     */
+    private void detach(ITreeNode node) {
+        Long id = node.getId();
+        ITreeNode parent = parentMap.remove(id);
+        if (parent != null) {
+            List<ITreeNode> children = parent.getChildren();
+            if (children != null) {
+                children.remove(node);
+            }
+            return;
+        }
+        rootNodeSet.remove(node);
+        Long parentId = parentIdMap.get(id);
+        List<ITreeNode> waitNodes = parentId == null ? null : waitParentMap.get(parentId);
+        if (waitNodes != null) {
+            waitNodes.remove(node);
+            if (waitNodes.isEmpty()) {
+                waitParentMap.remove(parentId);
+            }
+        }
+    }
+
+    private void addRootNode(ITreeNode node) {
+        node.setBulid(true);
+        rootNodeSet.add(node);
+    }
+
+    private void addChildNode(ITreeNode parent, ITreeNode child) {
+        child.setBulid(true);
+        parent.addChildren(child);
+        parentMap.put(child.getId(), parent);
+    }
+
+    /**
+     * 判断ancestor是否是node本身或者node的祖先节点，时间复杂度O(树深度)
+     */
+    private boolean isAncestor(ITreeNode ancestor, ITreeNode node) {
+        ITreeNode current = node;
+        while (current != null) {
+            if (current == ancestor || Objects.equals(current.getId(), ancestor.getId())) {
+                return true;
+            }
+            current = parentMap.get(current.getId());
+        }
+        return false;
+    }
+}
@@ -23,6 +23,64 @@ public class HqlParserUtils {
         return hqlQuery;
     }
 
+    /**
+     * 给HQL增加一个查询条件(与原有条件是AND关系)，并去掉原有的order by子句<br/>
+     * 只处理最外层的where、group by子句，子查询里的不受影响<br/>
+     *
+     * @param hqlQuery  HQL查询字符串
+     * @param condition 查询条件，如：a.id > :id，为空时只去掉order by子句
+     * @return 增加查询条件后的HQL字符串(不含order by)
+     */
+    public static String appendCondition(String hqlQuery, String condition) {
+        String hql = removeOrders(hqlQuery).trim();
+        if (StringUtils.isBlank(condition)) {
+            return hql;
+        }
+        int wherePos = indexOfTopLevelKeyword(hql, "where");
+        int groupPos = indexOfTopLevelKeyword(hql, "group");
+        int insertPos = groupPos >= 0 ? groupPos : hql.length();
+        StringBuilder sb = new StringBuilder(hql.length() + condition.length() + 16);
+        if (wherePos >= 0) {
+            // 原有条件加上括号，避免与OR条件混淆
+            int conditionStart = wherePos + "where".length();
+            sb.append(hql, 0, conditionStart)
+                    .append(" (").append(hql.substring(conditionStart, insertPos).trim()).append(") and (").append(condition).append(") ")
+                    .append(hql.substring(insertPos));
+        } else {
+            sb.append(hql, 0, insertPos).append(" where (").append(condition).append(") ").append(hql.substring(insertPos));
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * 查找最外层(不在括号和字符串里)的关键字位置
+     *
+     * @return 不存在返回-1
+     */
+    private static int indexOfTopLevelKeyword(String ql, String keyword) {
+        int depth = 0;
+        boolean inString = false;
+        int length = ql.length();
+        for (int i = 0; i < length; i++) {
+            char c = ql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (!inString) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (depth == 0
+                        && ql.regionMatches(true, i, keyword, 0, keyword.length())
+                        && (i == 0 || !Character.isJavaIdentifierPart(ql.charAt(i - 1)))
+                        && (i + keyword.length() >= length || !Character.isJavaIdentifierPart(ql.charAt(i + keyword.length())))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * 去除HQL的select子句。
      */
@@ -4,15 +4,16 @@ import com.alibaba.fastjson.JSON;
 import org.apache.commons.beanutils.ConstructorUtils;
 import org.apache.commons.beanutils.MethodUtils;
 import org.apache.commons.beanutils.PropertyUtils;
-import org.cleverframe.common.mapper.BeanMapConverter;
+import org.cleverframe.common.reflection.BeanProperty;
+import org.cleverframe.common.reflection.ClassMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
-import java.util.Set;
 
 /**
  * JavaBean工具，支持通过反射对JavaBean各种操作<br/>
+ * 简单属性名的读写和对象复制使用{@link ClassMetadata}缓存的getter/setter，复杂属性名(多级、List、Map)使用commons-beanutils<br/>
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016-5-1 20:36 <br/>
@@ -23,6 +24,22 @@ public class JavaBeanUtils {
      */
     private final static Logger logger = LoggerFactory.getLogger(JavaBeanUtils.class);
 
+    /**
+     * 返回简单属性名(不含“.”、“[]”、“()”)对应的JavaBean属性，Map和复杂属性名返回null(使用PropertyUtils处理)
+     */
+    private static BeanProperty getSimpleProperty(Object bean, String name) {
+        if (bean == null || name == null || bean instanceof Map) {
+            return null;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '[' || c == '(') {
+                return null;
+            }
+        }
+        return ClassMetadata.forClass(bean.getClass()).getProperty(name);
+    }
+
     /**
      * 获取对象属性值，支持以下场景：<br/>
      * 1.直接根据属性名获取：getProperty(myBean,"code")<br/>
@@ -37,6 +54,10 @@ public class JavaBeanUtils {
     @SuppressWarnings("unchecked")
     public static <T> T getProperty(Object bean, String name) {
         try {
+            BeanProperty property = getSimpleProperty(bean, name);
+            if (property != null && property.isReadable()) {
+                return (T) property.getValue(bean);
+            }
             return (T) PropertyUtils.getProperty(bean, name);
         } catch (Throwable e) {
             logger.error("获取Bean属性失败", e);
@@ -57,6 +78,11 @@ public class JavaBeanUtils {
      */
     public static boolean setProperty(Object bean, String name, Object value) {
         try {
+            BeanProperty property = getSimpleProperty(bean, name);
+            if (property != null && property.isWritable()) {
+                property.setValue(bean, value);
+                return true;
+            }
             PropertyUtils.setProperty(bean, name, value);
             return true;
         } catch (Throwable e) {
@@ -77,6 +103,10 @@ public class JavaBeanUtils {
      */
     public static Class getPropertyType(Object bean, String name) {
         try {
+            BeanProperty property = getSimpleProperty(bean, name);
+            if (property != null) {
+                return property.getType();
+            }
             return PropertyUtils.getPropertyType(bean, name);
         } catch (Throwable e) {
             logger.error("获取Bean属性类型失败", e);
@@ -150,31 +180,28 @@ public class JavaBeanUtils {
      */
     public static boolean copyTo(Object source, Object destinationObject, boolean copyNullField, boolean copyEmptyField) {
         try {
-            Map<String, Object> sourceMap = PropertyUtils.describe(source);
-            Map<String, Object> destinationObjectMap = PropertyUtils.describe(destinationObject);
-            Set<Map.Entry<String, Object>> sourceSet = sourceMap.entrySet();
-            for (Map.Entry<String, Object> entry : sourceSet) {
-                boolean override = true;
-                if (!copyNullField) {
-                    // 不复制空值
-                    if (entry.getValue() == null) {
-                        override = false;
-                    }
+            ClassMetadata destinationMetadata = ClassMetadata.forClass(destinationObject.getClass());
+            for (BeanProperty sourceProperty : ClassMetadata.forClass(source.getClass()).getProperties().values()) {
+                if (!sourceProperty.isReadable()) {
+                    continue;
                 }
-                if (override && !copyEmptyField) {
-                    // 不复制空字符串
-                    if (entry.getValue() != null && entry.getValue() instanceof String && StringUtils.isBlank(entry.getValue().toString())) {
-                        override = false;
-                    }
+                BeanProperty destinationProperty = destinationMetadata.getProperty(sourceProperty.getName());
+                if (destinationProperty == null || !destinationProperty.isWritable()) {
+                    continue;
                 }
-
-                if (override) {
-                    destinationObjectMap.put(entry.getKey(), entry.getValue());
+                Object value = sourceProperty.getValue(source);
+                // 不复制空值
+                if (!copyNullField && value == null) {
+                    continue;
+                }
+                // 不复制空字符串
+                if (!copyEmptyField && value instanceof String && StringUtils.isBlank(value.toString())) {
+                    continue;
                 }
+                destinationProperty.setValue(destinationObject, value);
             }
-            BeanMapConverter.toObject(destinationObject, destinationObjectMap);
         } catch (Throwable e) {
-            logger.error("把JavaBean对象转换成Map出错", e);
+            logger.error("复制JavaBean属性出错", e);
             return false;
         }
         return true;
@@ -4,13 +4,18 @@ import com.alibaba.fastjson.JSON;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.select.*;
 import org.cleverframe.common.ehcache.EhCacheNames;
 import org.cleverframe.common.ehcache.EhCacheUtils;
+import org.cleverframe.common.persistence.KeysetPage;
+import org.cleverframe.common.persistence.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -133,6 +138,60 @@ public class SqlParserUtils {
         return "select count(*) from (" + sql + ") tmp_count";
     }
 
+    /**
+     * 获取估算数据总数的SQL(MySQL的EXPLAIN语句)，会去掉order by子句<br/>
+     * 执行结果中第一行的rows * filtered / 100 即为估算的数据总数
+     *
+     * @param sql 普通SQL查询语句
+     * @return EXPLAIN语句
+     */
+    public static String getEstimateCountSql(String sql) {
+        isSupportedSql(sql);
+        try {
+            Statement stmt = CCJSqlParserUtil.parse(sql);
+            Select select = (Select) stmt;
+            processSelectBody(select.getSelectBody());
+            processWithItemsList(select.getWithItemsList());
+            return "EXPLAIN " + select.toString();
+        } catch (Throwable e) {
+            logger.warn("去除order by子句失败，SQL语句：" + sql, e);
+            return "EXPLAIN " + sql;
+        }
+    }
+
+    /**
+     * 获取游标(Keyset)分页的SQL：增加游标查询条件(与原有条件是AND关系)并替换order by子句<br/>
+     * 能解析的简单查询直接修改最外层的where子句，使数据库能利用排序字段的索引；<br/>
+     * 不能解析或者是union等复杂查询时，使用子查询包装(此时条件和排序使用去掉表别名的列名)<br/>
+     *
+     * @param sql       普通SQL查询语句
+     * @param page      游标分页对象
+     * @param parameter 查询参数，游标条件的参数值会放到此对象中
+     * @return 游标分页SQL
+     */
+    public static String getKeysetSql(String sql, KeysetPage<?> page, Parameter parameter) {
+        isSupportedSql(sql);
+        try {
+            Statement stmt = CCJSqlParserUtil.parse(sql);
+            if (stmt instanceof Select && ((Select) stmt).getSelectBody() instanceof PlainSelect) {
+                Select select = (Select) stmt;
+                PlainSelect plainSelect = (PlainSelect) select.getSelectBody();
+                plainSelect.setOrderByElements(null);
+                String condition = page.getSeekCondition(parameter, false);
+                if (condition != null) {
+                    Expression keysetWhere = new Parenthesis(CCJSqlParserUtil.parseCondExpression(condition));
+                    Expression where = plainSelect.getWhere();
+                    plainSelect.setWhere(where == null ? keysetWhere : new AndExpression(new Parenthesis(where), keysetWhere));
+                }
+                return select.toString() + " ORDER BY " + page.getOrderBy(false);
+            }
+        } catch (Throwable e) {
+            logger.warn("获取游标分页SQL失败，使用子查询包装，SQL语句：" + sql, e);
+        }
+        String condition = page.getSeekCondition(parameter, true);
+        return "SELECT * FROM (" + sql + ") tmp_keyset" + (condition == null ? "" : " WHERE " + condition) + " ORDER BY " + page.getOrderBy(true);
+    }
+
     /**
      * 将sql转换为count查询
      */
@@ -0,0 +1,237 @@
+package org.cleverframe.common.xss;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按路径段组织的URL匹配树(不可变对象，创建后可以被多个线程同时读取)，支持Ant风格的通配符<br/>
+ * 1.“?”匹配一个字符，“*”匹配一个路径段内的任意字符，“**”匹配任意多个路径段(包括0个)<br/>
+ * 2.不含通配符的路径段使用HashMap直接查找，匹配时间只与请求路径的段数有关，与规则数量基本无关<br/>
+ * 3.规则修改时重新创建整个匹配树({@link #build(Collection)})，然后整体替换引用<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:00 <br/>
+ */
+public final class AntPathTrie {
+
+    /**
+     * 匹配任意多个路径段
+     */
+    private static final String DOUBLE_WILDCARD = "**";
+
+    /**
+     * 空的匹配树，不匹配任何路径
+     */
+    public static final AntPathTrie EMPTY = new AntPathTrie(new BuildNode().freeze(), 0);
+
+    /**
+     * 根节点
+     */
+    private final Node root;
+
+    /**
+     * 规则数量
+     */
+    private final int size;
+
+    private AntPathTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * 创建匹配树
+     *
+     * @param patterns Ant风格的路径规则，如：/cleverframe/mvc/core/template/**、/cleverframe/mvc/*&#47;add*
+     */
+    public static AntPathTrie build(Collection<String> patterns) {
+        BuildNode root = new BuildNode();
+        int size = 0;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.trim().isEmpty()) {
+                continue;
+            }
+            BuildNode node = root;
+            for (String segment : split(pattern.trim())) {
+                node = node.child(segment);
+            }
+            node.terminal = true;
+            size++;
+        }
+        return size == 0 ? EMPTY : new AntPathTrie(root.freeze(), size);
+    }
+
+    /**
+     * 判断路径是否匹配任意一个规则
+     *
+     * @param path 请求路径，如：/cleverframe/mvc/core/template/updateTemplate
+     * @return 匹配返回true
+     */
+    public boolean matches(String path) {
+        if (size == 0 || path == null) {
+            return false;
+        }
+        return match(root, split(path), 0);
+    }
+
+    /**
+     * 规则数量
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static boolean match(Node node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.terminal || (node.doubleWildcard != null && node.doubleWildcard.terminal);
+        }
+        String segment = segments[index];
+        Node literal = node.literals.get(segment);
+        if (literal != null && match(literal, segments, index + 1)) {
+            return true;
+        }
+        for (int i = 0; i < node.wildcards.length; i++) {
+            if (matchSegment(node.wildcards[i], segment) && match(node.wildcardNodes[i], segments, index + 1)) {
+                return true;
+            }
+        }
+        if (node.doubleWildcard != null) {
+            for (int i = index; i <= segments.length; i++) {
+                if (match(node.doubleWildcard, segments, i)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 匹配一个路径段，pattern中“?”匹配一个字符，“*”匹配任意多个字符
+     */
+    static boolean matchSegment(String pattern, String segment) {
+        int p = 0;
+        int s = 0;
+        int starIndex = -1;
+        int starMatch = 0;
+        while (s < segment.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == segment.charAt(s))) {
+                p++;
+                s++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starIndex = p++;
+                starMatch = s;
+            } else if (starIndex >= 0) {
+                p = starIndex + 1;
+                s = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    /**
+     * 把路径拆分成路径段，忽略空的路径段(连续的“/”、开头和结尾的“/”)
+     */
+    private static String[] split(String path) {
+        int count = 0;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(i) != '/' && (i == 0 || path.charAt(i - 1) == '/')) {
+                count++;
+            }
+        }
+        String[] segments = new String[count];
+        int index = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (start >= 0) {
+                    segments[index++] = path.substring(start, i);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isWildcard(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+    }
+
+    /**
+     * 匹配树的节点(创建后不再修改)
+     */
+    private static final class Node {
+        private final Map<String, Node> literals;
+        private final String[] wildcards;
+        private final Node[] wildcardNodes;
+        private final Node doubleWildcard;
+        private final boolean terminal;
+
+        private Node(Map<String, Node> literals, String[] wildcards, Node[] wildcardNodes, Node doubleWildcard, boolean terminal) {
+            this.literals = literals;
+            this.wildcards = wildcards;
+            this.wildcardNodes = wildcardNodes;
+            this.doubleWildcard = doubleWildcard;
+            this.terminal = terminal;
+        }
+    }
+
+    /**
+     * 创建匹配树时使用的节点
+     */
+    private static final class BuildNode {
+        private final Map<String, BuildNode> literals = new HashMap<>();
+        private final Map<String, BuildNode> wildcards = new LinkedHashMap<>();
+        private BuildNode doubleWildcard;
+        private boolean terminal;
+
+        private BuildNode child(String segment) {
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                if (doubleWildcard == null) {
+                    doubleWildcard = new BuildNode();
+                }
+                return doubleWildcard;
+            }
+            Map<String, BuildNode> children = isWildcard(segment) ? wildcards : literals;
+            BuildNode child = children.get(segment);
+            if (child == null) {
+                child = new BuildNode();
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        private Node freeze() {
+            Map<String, Node> literalNodes = new HashMap<>(Math.max(4, literals.size() * 2));
+            for (Map.Entry<String, BuildNode> entry : literals.entrySet()) {
+                literalNodes.put(entry.getKey(), entry.getValue().freeze());
+            }
+            List<String> patterns = new ArrayList<>(wildcards.keySet());
+            Node[] wildcardNodes = new Node[patterns.size()];
+            for (int i = 0; i < wildcardNodes.length; i++) {
+                wildcardNodes[i] = wildcards.get(patterns.get(i)).freeze();
+            }
+            return new Node(
+                    literalNodes,
+                    patterns.toArray(new String[patterns.size()]),
+                    wildcardNodes,
+                    doubleWildcard == null ? null : doubleWildcard.freeze(),
+                    terminal);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.cleverframe.common.xss;
+
+/**
+ * HTML编码，防止XSS攻击<br/>
+ * 1.只编码 &amp; &lt; &gt; &quot; &#39; 五个字符，其它字符(包括中文、重音字母)保持原样<br/>
+ * 2.只遍历一次字符串，不需要编码时直接返回原字符串，不创建任何对象<br/>
+ * 3.需要编码时只创建一个StringBuilder，按连续的区间复制不需要编码的字符<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:00 <br/>
+ */
+public class HtmlEscaper {
+
+    /**
+     * 字符对应的HTML编码，下标是字符，不需要编码为null
+     */
+    private static final String[] REPLACEMENTS = new String['>' + 1];
+
+    static {
+        REPLACEMENTS['&'] = "&amp;";
+        REPLACEMENTS['<'] = "&lt;";
+        REPLACEMENTS['>'] = "&gt;";
+        REPLACEMENTS['"'] = "&quot;";
+        REPLACEMENTS['\''] = "&#39;";
+    }
+
+    /**
+     * HTML编码
+     *
+     * @param text 字符串
+     * @return 不需要编码时返回原字符串，text为null返回null
+     */
+    public static String escape(String text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        int index = 0;
+        while (index < length && replacement(text.charAt(index)) == null) {
+            index++;
+        }
+        if (index == length) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(length + 16);
+        int last = 0;
+        for (; index < length; index++) {
+            String replacement = replacement(text.charAt(index));
+            if (replacement != null) {
+                builder.append(text, last, index).append(replacement);
+                last = index + 1;
+            }
+        }
+        builder.append(text, last, length);
+        return builder.toString();
+    }
+
+    private static String replacement(char c) {
+        return c < REPLACEMENTS.length ? REPLACEMENTS[c] : null;
+    }
+}
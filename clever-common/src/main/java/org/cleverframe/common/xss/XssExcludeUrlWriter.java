@@ -0,0 +1,39 @@
+package org.cleverframe.common.xss;
+
+import org.apache.commons.io.FileUtils;
+import org.cleverframe.common.concurrent.AsyncBatchWriter;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 异步把新增的不需要XSS处理的请求地址追加到文件，请求线程不做文件IO<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:00 <br/>
+ *
+ * @see org.cleverframe.common.controller.XssExcludeUrlUtils
+ */
+public class XssExcludeUrlWriter extends AsyncBatchWriter<String> {
+
+    /**
+     * 保存数据的文件
+     */
+    private final File file;
+
+    public XssExcludeUrlWriter(File file) {
+        this.file = file;
+        setBufferSize(256);
+        setBatchSize(64);
+        setThreadName("XssExcludeUrlWriter");
+    }
+
+    @Override
+    protected void flush(List<String> batch) throws Exception {
+        FileUtils.writeLines(file, "UTF-8", batch, true);
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,174 @@
+package concurrent;
+
+import org.cleverframe.common.concurrent.AsyncBatchWriter;
+import org.cleverframe.common.concurrent.OverflowPolicy;
+import org.cleverframe.common.concurrent.RingBufferQueue;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 11:10 <br/>
+ */
+public class AsyncBatchWriterTest {
+    private final static Logger logger = LoggerFactory.getLogger(AsyncBatchWriterTest.class);
+
+    @Test
+    public void testRingBufferQueue() {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(5);
+        Assert.assertEquals(8, queue.getCapacity());
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(8));
+        Assert.assertEquals(8, queue.size());
+        List<Integer> list = new ArrayList<>();
+        Assert.assertEquals(3, queue.drainTo(list, 3));
+        Assert.assertEquals(Integer.valueOf(0), list.get(0));
+        Assert.assertTrue(queue.offer(8));
+        Assert.assertEquals(Integer.valueOf(3), queue.poll());
+    }
+
+    @Test
+    public void testMultiProducer() throws InterruptedException {
+        final RingBufferQueue<Long> queue = new RingBufferQueue<>(1024);
+        final int threadCount = 4;
+        final int perThread = 100000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (long i = 0; i < perThread; ) {
+                        if (queue.offer(i)) {
+                            i++;
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        long sum = 0;
+        int count = 0;
+        while (count < threadCount * perThread) {
+            Long value = queue.poll();
+            if (value != null) {
+                sum += value;
+                count++;
+            }
+        }
+        latch.await();
+        Assert.assertEquals((long) threadCount * perThread * (perThread - 1) / 2, sum);
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testWriter() throws InterruptedException {
+        final AtomicLong written = new AtomicLong(0L);
+        AsyncBatchWriter<String> writer = new AsyncBatchWriter<String>() {
+            @Override
+            protected void flush(List<String> batch) throws Exception {
+                Assert.assertTrue(batch.size() <= 50);
+                written.addAndGet(batch.size());
+            }
+        };
+        writer.setBufferSize(1024);
+        writer.setBatchSize(50);
+        writer.setFlushInterval(50);
+        writer.setOverflowPolicy(OverflowPolicy.BLOCK);
+        writer.start();
+        for (int i = 0; i < 10000; i++) {
+            writer.offer("log-" + i);
+        }
+        writer.stop();
+        logger.info("queued={}, dropped={}, flushed={}, batch={}",
+                writer.getQueuedCount(), writer.getDroppedCount(), writer.getFlushedCount(), writer.getBatchCount());
+        Assert.assertEquals(writer.getQueuedCount(), written.get());
+        Assert.assertEquals(written.get(), writer.getFlushedCount());
+        Assert.assertEquals(10000, writer.getQueuedCount() + writer.getDroppedCount());
+    }
+
+    @Test
+    public void testWriterDrop() {
+        AsyncBatchWriter<String> writer = new AsyncBatchWriter<String>() {
+            @Override
+            protected void flush(List<String> batch) throws Exception {
+                Thread.sleep(100);
+            }
+        };
+        writer.setBufferSize(16);
+        writer.setOverflowPolicy(OverflowPolicy.DROP);
+        writer.start();
+        for (int i = 0; i < 1000; i++) {
+            writer.offer("log-" + i);
+        }
+        Assert.assertTrue(writer.getDroppedCount() > 0);
+        writer.stop();
+        Assert.assertEquals(1000, writer.getQueuedCount() + writer.getDroppedCount());
+    }
+
+    @Test
+    public void testWriterRetryOneByOne() {
+        final List<String> written = new ArrayList<>();
+        AsyncBatchWriter<String> writer = new AsyncBatchWriter<String>() {
+            @Override
+            protected void flush(List<String> batch) throws Exception {
+                if (batch.contains("bad")) {
+                    throw new IllegalArgumentException("bad");
+                }
+                written.addAll(batch);
+            }
+        };
+        writer.setBatchSize(10);
+        writer.start();
+        writer.offer("log-1");
+        writer.offer("bad");
+        writer.offer("log-2");
+        writer.stop();
+        Assert.assertEquals(2, writer.getFlushedCount());
+        Assert.assertEquals(1, writer.getFailedCount());
+        Assert.assertTrue(written.contains("log-1"));
+        Assert.assertTrue(written.contains("log-2"));
+    }
+
+    @Test
+    public void testWriterStopWithProducers() throws InterruptedException {
+        final AtomicLong written = new AtomicLong(0L);
+        final AsyncBatchWriter<String> writer = new AsyncBatchWriter<String>() {
+            @Override
+            protected void flush(List<String> batch) throws Exception {
+                written.addAndGet(batch.size());
+            }
+        };
+        writer.setBufferSize(1024);
+        writer.setBatchSize(50);
+        writer.setFlushInterval(50);
+        writer.start();
+        final int threadCount = 4;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100000; i++) {
+                        writer.offer("log-" + i);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        Thread.sleep(20);
+        writer.stop();
+        latch.await();
+        // stop()之后入队的数据全部被拒绝，入队成功的数据全部写完
+        Assert.assertEquals(writer.getQueuedCount(), written.get());
+        Assert.assertEquals(threadCount * 100000L, writer.getQueuedCount() + writer.getDroppedCount());
+    }
+}
@@ -0,0 +1,109 @@
+package concurrent;
+
+import org.cleverframe.common.concurrent.OffHeapExpiringMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 20:05 <br/>
+ */
+public class OffHeapExpiringMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        OffHeapExpiringMap map = new OffHeapExpiringMap(1024 * 1024, 16 * 1024 * 1024);
+        map.put("a", "value-a".getBytes(StandardCharsets.UTF_8), 0);
+        map.put("b", new byte[3000], 0);
+        Assert.assertEquals("value-a", new String(map.get("a"), StandardCharsets.UTF_8));
+        Assert.assertEquals(3000, map.get("b").length);
+        Assert.assertEquals(2, map.size());
+
+        // 覆盖旧数据，旧槽位被释放
+        long used = map.getUsedBytes();
+        map.put("a", "new".getBytes(StandardCharsets.UTF_8), 0);
+        Assert.assertEquals("new", new String(map.get("a"), StandardCharsets.UTF_8));
+        Assert.assertEquals(used, map.getUsedBytes());
+
+        // 超过最大槽位的数据单独申请内存
+        map.put("c", new byte[2 * 1024 * 1024], 0);
+        Assert.assertEquals(2 * 1024 * 1024, map.get("c").length);
+        Assert.assertTrue(map.remove("c"));
+        Assert.assertNull(map.get("c"));
+        Assert.assertFalse(map.remove("c"));
+    }
+
+    @Test
+    public void testReuseSlot() {
+        OffHeapExpiringMap map = new OffHeapExpiringMap(1024 * 1024, 2 * 1024 * 1024);
+        for (int i = 0; i < 100000; i++) {
+            map.put("key", new byte[100], 0);
+        }
+        Assert.assertEquals(1024 * 1024, map.getAllocatedBytes());
+        Assert.assertEquals(128, map.getUsedBytes());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMaxMemory() {
+        OffHeapExpiringMap map = new OffHeapExpiringMap(1024 * 1024, 1024 * 1024);
+        map.put("a", new byte[100], 0);
+        map.put("b", new byte[1000], 0);
+    }
+
+    @Test
+    public void testExpire() {
+        OffHeapExpiringMap map = new OffHeapExpiringMap(1024 * 1024, 16 * 1024 * 1024);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key-" + i, new byte[10], i < 100 ? now - 5000 : now + 60000);
+        }
+        map.put("forever", new byte[10], 0);
+        List<String> expiredKeys = map.getExpiredKeys(now, 10000);
+        Assert.assertEquals(100, expiredKeys.size());
+        Assert.assertEquals(10, map.getExpiredKeys(now, 10).size());
+
+        // 延长过期时间后不再过期
+        Assert.assertTrue(map.setExpireAt("key-0", now + 60000));
+        Assert.assertEquals(99, map.evictExpired(now).size());
+        Assert.assertEquals(902, map.size());
+        Assert.assertEquals(99, map.getEvictedCount());
+        Assert.assertEquals(0, map.getExpiredKeys(now, 10000).size());
+        Assert.assertEquals(901, map.evictExpired(now + 120000).size());
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testConcurrentExpireIndex() throws InterruptedException {
+        final OffHeapExpiringMap map = new OffHeapExpiringMap(1024 * 1024, 64 * 1024 * 1024);
+        // 所有数据在同一个过期时间桶中，并发的删除、写入会反复清空、重建这个桶
+        final long expireAt = (System.currentTimeMillis() / 1000 + 10) * 1000;
+        final int threadCount = 8;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 20000; i++) {
+                        String key = "key-" + thread + "-" + (i % 4);
+                        if (i % 3 == 0) {
+                            map.remove(key);
+                        } else {
+                            map.put(key, new byte[16], expireAt + i % 1000);
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        // 每个设置了过期时间的Key都必须能被清除
+        map.evictExpired(expireAt + 1000);
+        Assert.assertEquals(0, map.size());
+        Assert.assertEquals(0, map.getUsedBytes());
+    }
+}
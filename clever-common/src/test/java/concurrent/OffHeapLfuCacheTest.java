@@ -0,0 +1,112 @@
+package concurrent;
+
+import org.cleverframe.common.concurrent.OffHeapLfuCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:58 <br/>
+ */
+public class OffHeapLfuCacheTest {
+
+    @Test
+    public void testPutGetInvalidate() {
+        OffHeapLfuCache cache = new OffHeapLfuCache(1024 * 1024, 64 * 1024);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertTrue(cache.put("a", "value-a".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals("value-a", new String(cache.get("a"), StandardCharsets.UTF_8));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(7, cache.getHitBytes());
+        Assert.assertEquals(0.5, cache.getHitRatio(), 0.0001);
+
+        // 超过单个数据最大大小不缓存
+        Assert.assertFalse(cache.put("b", new byte[64 * 1024 + 1]));
+        Assert.assertFalse(cache.containsKey("b"));
+        Assert.assertEquals(1, cache.getRejectCount());
+
+        cache.invalidate("a");
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        OffHeapLfuCache cache = new OffHeapLfuCache(100 * 1024, 1024);
+        for (int i = 0; i < 10000; i++) {
+            cache.get("key-" + i);
+            cache.put("key-" + i, new byte[1024]);
+            Assert.assertTrue(cache.getWeightedSize() <= 100 * 1024);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertTrue(cache.getEvictionCount() >= 9900);
+    }
+
+    /**
+     * 少量热点数据不会被大量只访问一次的数据挤出缓存
+     */
+    @Test
+    public void testScanResistance() {
+        OffHeapLfuCache cache = new OffHeapLfuCache(100 * 1024, 1024);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                String key = "hot-" + i;
+                if (cache.get(key) == null) {
+                    cache.put(key, new byte[1024]);
+                }
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            String key = "scan-" + i;
+            cache.get(key);
+            cache.put(key, new byte[1024]);
+        }
+        int hit = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey("hot-" + i)) {
+                hit++;
+            }
+        }
+        Assert.assertEquals(50, hit);
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        final OffHeapLfuCache cache = new OffHeapLfuCache(256 * 1024, 4 * 1024);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final long seed = t;
+            //noinspection Convert2Lambda
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        // 偏斜分布，小编号访问更多
+                        int n = (int) Math.abs(random.nextGaussian() * 100);
+                        String key = "key-" + n;
+                        byte[] value = cache.get(key);
+                        if (value == null) {
+                            byte[] data = new byte[512 + n];
+                            data[0] = (byte) n;
+                            cache.put(key, data);
+                        } else {
+                            Assert.assertEquals(512 + n, value.length);
+                            Assert.assertEquals((byte) n, value[0]);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(cache.getWeightedSize() <= 256 * 1024);
+        Assert.assertTrue(cache.getHitRatio() > 0.5);
+    }
+}
@@ -1,12 +1,35 @@
 package net;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.pool.PoolStats;
+import org.cleverframe.common.net.HttpClientConfig;
 import org.cleverframe.common.net.HttpUtils;
+import org.cleverframe.common.net.PooledHttpClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 作者：LiZW <br/>
@@ -15,6 +38,137 @@ import java.util.Map;
 public class HttpUtilsTest {
     private final static Logger logger = LoggerFactory.getLogger(HttpUtilsTest.class);
 
+    /**
+     * 下载测试的响应数据大小
+     */
+    private final static int DOWNLOAD_SIZE = 4 * 1024 * 1024;
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    /**
+     * 服务端收到的请求使用的客户端地址(端口不同说明建立了新连接)
+     */
+    private final Set<String> remoteAddresses = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        //noinspection Convert2Lambda
+        server.createContext("/echo", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                remoteAddresses.add(exchange.getRemoteAddress().toString());
+                String body;
+                try (InputStream inputStream = exchange.getRequestBody()) {
+                    body = IOUtils.toString(inputStream, "UTF-8");
+                }
+                String query = exchange.getRequestURI().getRawQuery();
+                byte[] response = (exchange.getRequestMethod() + "|" + query + "|" + body).getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(response);
+                }
+            }
+        });
+        //noinspection Convert2Lambda
+        server.createContext("/download", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] buffer = new byte[8192];
+                exchange.sendResponseHeaders(200, DOWNLOAD_SIZE);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    for (int i = 0; i < DOWNLOAD_SIZE / buffer.length; i++) {
+                        outputStream.write(buffer);
+                    }
+                }
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        HttpClientConfig config = new HttpClientConfig();
+        config.setDefaultMaxPerRoute(4);
+        config.setAsyncThreads(4);
+        HttpUtils.setClient(new PooledHttpClient(config));
+    }
+
+    @After
+    public void stopServer() {
+        HttpUtils.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetAndPost() {
+        Map<String, String> param = new HashMap<>();
+        param.put("keyword", "电饭煲");
+        String response = HttpUtils.httpGetResultStr(baseUrl + "/echo", param);
+        Assert.assertEquals("GET|keyword=%E7%94%B5%E9%A5%AD%E7%85%B2|", response);
+        response = HttpUtils.httpPostGetResultStr(baseUrl + "/echo", param);
+        Assert.assertEquals("POST|null|keyword=%E7%94%B5%E9%A5%AD%E7%85%B2", response);
+        Assert.assertNull(HttpUtils.httpGetResultStr("http://127.0.0.1:1/echo"));
+    }
+
+    @Test
+    public void testConnectionReuse() {
+        for (int i = 0; i < 20; i++) {
+            Assert.assertNotNull(HttpUtils.httpGetResultStr(baseUrl + "/echo"));
+        }
+        // 顺序请求只使用一个连接
+        Assert.assertEquals(1, remoteAddresses.size());
+        PoolStats poolStats = HttpUtils.getPoolStats();
+        logger.info("### {}", poolStats);
+        Assert.assertEquals(0, poolStats.getLeased());
+        Assert.assertEquals(1, poolStats.getAvailable());
+        Assert.assertEquals(1, HttpUtils.getClient().getRouteStats(baseUrl).getAvailable());
+        Assert.assertEquals(20, HttpUtils.getClient().getRequestCount());
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(DOWNLOAD_SIZE);
+        long count = HttpUtils.httpGetToStream(baseUrl + "/download", null, outputStream);
+        Assert.assertEquals(DOWNLOAD_SIZE, count);
+        Assert.assertEquals(DOWNLOAD_SIZE, outputStream.size());
+
+        // 只读取部分数据，连接也要被释放
+        //noinspection Convert2Lambda
+        int first = HttpUtils.httpGet(baseUrl + "/download", null, new ResponseHandler<Integer>() {
+            @Override
+            public Integer handleResponse(HttpResponse response) throws IOException {
+                return response.getEntity().getContent().read();
+            }
+        });
+        Assert.assertEquals(0, first);
+        Assert.assertEquals(0, HttpUtils.getPoolStats().getLeased());
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Map<String, String> param = new HashMap<>();
+            param.put("i", String.valueOf(i));
+            futures.add(HttpUtils.httpGetResultStrAsync(baseUrl + "/echo", param));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals("GET|i=" + i + "|", futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        // 连接数不超过每个路由的最大连接数
+        Assert.assertTrue(remoteAddresses.size() <= 4);
+
+        CompletableFuture<String> failure = HttpUtils.httpPostGetResultStrAsync("http://127.0.0.1:1/echo", null);
+        try {
+            failure.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(failure.isCompletedExceptionally());
+        }
+        Assert.assertEquals(1, HttpUtils.getClient().getFailureCount());
+    }
+
     @Test
     public void testHttpGet() throws Exception {
         String url = "http://search.jd.com/Search";
@@ -0,0 +1,86 @@
+package persistence;
+
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.common.persistence.KeysetPage;
+import org.cleverframe.common.persistence.Parameter;
+import org.cleverframe.common.utils.HqlParserUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 14:05 <br/>
+ */
+public class KeysetPageTest {
+    private final static Logger logger = LoggerFactory.getLogger(KeysetPageTest.class);
+
+    @Test
+    public void testCursor() {
+        Date date = new Date();
+        Object[] values = new Object[]{100L, "abc中文", date, 3};
+        String cursor = KeysetPage.encodeCursor(values);
+        logger.info("cursor = {}", cursor);
+        Object[] decode = KeysetPage.decodeCursor(cursor);
+        Assert.assertArrayEquals(values, decode);
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        // 版本1、排序字段个数-1(0xFF)
+        String negative = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[]{1, (byte) 0xFF});
+        String[] cursors = new String[]{negative, "%%%", "AQ", "AQE", KeysetPage.encodeCursor(new Object[]{1L}) + "AAAA", StringUtils.repeat("A", 8192)};
+        for (String cursor : cursors) {
+            try {
+                KeysetPage.decodeCursor(cursor);
+                Assert.fail("游标应该不正确: " + cursor);
+            } catch (IllegalArgumentException e) {
+                logger.info("cursor = {}, error = {}", StringUtils.abbreviate(cursor, 32), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testSeekCondition() {
+        KeysetPage<Map<Object, Object>> page = new KeysetPage<>(2, null,
+                KeysetPage.SortKey.desc("a.request_time"), KeysetPage.SortKey.asc("a.id"));
+        Assert.assertNull(page.getSeekCondition(new Parameter(), false));
+
+        List<Map<Object, Object>> rows = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            Map<Object, Object> row = new HashMap<>();
+            row.put("request_time", new Date(1000L - i));
+            row.put("id", i);
+            rows.add(row);
+        }
+        page.setPageData(rows);
+        Assert.assertTrue(page.isHasNext());
+        Assert.assertEquals(2, page.getList().size());
+        Assert.assertNotNull(page.getNextCursor());
+
+        KeysetPage<Map<Object, Object>> next = new KeysetPage<>(2, page.getNextCursor(),
+                KeysetPage.SortKey.desc("a.request_time"), KeysetPage.SortKey.asc("a.id"));
+        Parameter parameter = new Parameter();
+        String condition = next.getSeekCondition(parameter, false);
+        logger.info("condition = {}", condition);
+        Assert.assertEquals(2L, parameter.get(KeysetPage.KEYSET_PARAM_PREFIX + "1"));
+        Assert.assertEquals("a.request_time DESC, a.id ASC", next.getOrderBy(false));
+        Assert.assertEquals("request_time DESC, id ASC", next.getOrderBy(true));
+    }
+
+    @Test
+    public void testAppendCondition() {
+        String hql = HqlParserUtils.appendCondition("from AccessLog a where a.method = :method or a.id in (select b.id from AccessLog b where b.id > 1) group by a.id order by a.id", "a.id > :keyset_0");
+        logger.info("hql = {}", hql);
+        Assert.assertEquals("from AccessLog a where (a.method = :method or a.id in (select b.id from AccessLog b where b.id > 1)) and (a.id > :keyset_0) group by a.id", hql);
+        Assert.assertEquals("from AccessLog a where (a.id > :keyset_0)", HqlParserUtils.appendCondition("from AccessLog a order by a.id", "a.id > :keyset_0"));
+    }
+}
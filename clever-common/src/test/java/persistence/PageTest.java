@@ -0,0 +1,52 @@
+package persistence;
+
+import org.cleverframe.common.persistence.CountStrategy;
+import org.cleverframe.common.persistence.Page;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 15:40 <br/>
+ */
+public class PageTest {
+
+    @Test
+    public void testHasNext() {
+        Page<Integer> page = new Page<>(2, 10);
+        page.setCountStrategy(CountStrategy.HAS_NEXT);
+        Assert.assertTrue(page.isNotCount());
+        Assert.assertEquals(11, page.getMaxResults());
+
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            rows.add(i);
+        }
+        page.setPageData(rows);
+        Assert.assertEquals(10, page.getList().size());
+        Assert.assertTrue(page.isHasNext());
+        Assert.assertFalse(page.isLastPage());
+        Assert.assertEquals(21, page.getCount());
+
+        page = new Page<>(3, 10);
+        page.setCountStrategy(CountStrategy.HAS_NEXT);
+        page.setPageData(rows.subList(0, 5));
+        Assert.assertFalse(page.isHasNext());
+        Assert.assertTrue(page.isLastPage());
+        Assert.assertEquals(25, page.getCount());
+    }
+
+    @Test
+    public void testExact() {
+        Page<Integer> page = new Page<>(1, 10);
+        Assert.assertFalse(page.isNotCount());
+        Assert.assertEquals(10, page.getMaxResults());
+        page.setCount(35);
+        page.setPageData(new ArrayList<Integer>());
+        Assert.assertEquals(4, page.getPageCount());
+        Assert.assertFalse(page.isLastPage());
+    }
+}
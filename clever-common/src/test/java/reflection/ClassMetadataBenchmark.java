@@ -0,0 +1,72 @@
+package reflection;
+
+import model.Student;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.cleverframe.common.mapper.BeanMapConverter;
+import org.cleverframe.common.reflection.BeanProperty;
+import org.cleverframe.common.reflection.ClassMetadata;
+import org.cleverframe.common.utils.JavaBeanUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * ClassMetadata缓存的getter/setter与commons-beanutils、Method.invoke的性能对比<br/>
+ * 运行方式：直接运行main方法，参数(可选)：每轮getter调用次数(copyTo调用次数为其1/10) 轮数<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:00 <br/>
+ *
+ * @see ClassMetadataTest
+ */
+public class ClassMetadataBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Student student = new Student("lizw", 18);
+        Student target = new Student();
+        BeanProperty name = ClassMetadata.forClass(Student.class).getProperty("name");
+        Method getName = Student.class.getMethod("getName");
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            int length = 0;
+            for (int i = 0; i < iterations; i++) {
+                length += ((String) PropertyUtils.getProperty(student, "name")).length();
+            }
+            long propertyUtils = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                length += ((String) getName.invoke(student)).length();
+            }
+            long methodInvoke = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                length += ((String) name.getValue(student)).length();
+            }
+            long generated = System.nanoTime() - start;
+            // 使用结果，避免被JIT优化掉
+            if (length <= 0) {
+                throw new IllegalStateException("length=" + length);
+            }
+            System.out.println(String.format("第%d轮 getter %d次: PropertyUtils=%dms, Method.invoke=%dms, ClassMetadata=%dms",
+                    round + 1, iterations, propertyUtils / 1000000, methodInvoke / 1000000, generated / 1000000));
+
+            int copyIterations = iterations / 10;
+            start = System.nanoTime();
+            for (int i = 0; i < copyIterations; i++) {
+                BeanMapConverter.toObject(target, PropertyUtils.describe(student));
+            }
+            long describeCopy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < copyIterations; i++) {
+                JavaBeanUtils.copyTo(student, target, false, true);
+            }
+            long copyTo = System.nanoTime() - start;
+            System.out.println(String.format("第%d轮 copyTo %d次: PropertyUtils.describe=%dms, ClassMetadata=%dms",
+                    round + 1, copyIterations, describeCopy / 1000000, copyTo / 1000000));
+        }
+    }
+}
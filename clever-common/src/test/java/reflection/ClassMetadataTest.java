@@ -0,0 +1,108 @@
+package reflection;
+
+import model.Student;
+import org.cleverframe.common.mapper.BeanMapConverter;
+import org.cleverframe.common.reflection.BeanProperty;
+import org.cleverframe.common.reflection.ClassMetadata;
+import org.cleverframe.common.reflection.ReflectionsUtils;
+import org.cleverframe.common.utils.JavaBeanUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * ClassMetadata缓存的getter/setter与commons-beanutils、Method.invoke的结果对比，性能对比见{@link ClassMetadataBenchmark}<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:50 <br/>
+ */
+public class ClassMetadataTest {
+    /**
+     * 非public类，使用MethodHandle调用
+     */
+    static class Hidden {
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    public void testProperty() {
+        ClassMetadata metadata = ClassMetadata.forClass(Student.class);
+        Assert.assertSame(metadata, ClassMetadata.forClass(Student.class));
+        Student student = new Student("lizw", 18);
+
+        BeanProperty name = metadata.getProperty("name");
+        Assert.assertEquals("lizw", name.getValue(student));
+        name.setValue(student, "abc");
+        Assert.assertEquals("abc", student.getName());
+
+        BeanProperty age = metadata.getProperty("age");
+        Assert.assertEquals(int.class, age.getType());
+        Assert.assertEquals(18, age.getValue(student));
+        age.setValue(student, 20);
+        Assert.assertEquals(20, student.getAge());
+        try {
+            age.setValue(student, null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(20, student.getAge());
+        }
+        try {
+            age.setValue(student, "20");
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        Assert.assertEquals(false, metadata.getProperty("sex").getValue(student));
+        Assert.assertFalse(metadata.getProperty("class").isWritable());
+        Assert.assertNull(metadata.getProperty("notExists"));
+
+        BeanProperty count = ClassMetadata.forClass(Hidden.class).getProperty("count");
+        Hidden hidden = new Hidden();
+        count.setValue(hidden, 3);
+        Assert.assertEquals(3, count.getValue(hidden));
+    }
+
+    @Test
+    public void testUtils() {
+        Student student = new Student("lizw", 18);
+        Assert.assertEquals("lizw", ReflectionsUtils.invokeGetter(student, "name"));
+        ReflectionsUtils.invokeSetter(student, "age", 19);
+        Assert.assertEquals(19, student.getAge());
+        Assert.assertEquals(19, ReflectionsUtils.getFieldValue(student, "age"));
+
+        Assert.assertEquals("lizw", JavaBeanUtils.getProperty(student, "name"));
+        Assert.assertTrue(JavaBeanUtils.setProperty(student, "height", 1.75));
+        Assert.assertEquals(1.75, student.getHeight(), 0);
+        Assert.assertEquals(double.class, JavaBeanUtils.getPropertyType(student, "height"));
+
+        Student target = new Student("target", 30);
+        target.setBirthday(new Date(0));
+        student.setName("");
+        Assert.assertTrue(JavaBeanUtils.copyTo(student, target, false, false));
+        Assert.assertEquals("target", target.getName());
+        Assert.assertEquals(19, target.getAge());
+        Assert.assertEquals(new Date(0), target.getBirthday());
+        Assert.assertTrue(JavaBeanUtils.copyTo(student, target, true, true));
+        Assert.assertEquals("", target.getName());
+        Assert.assertNull(target.getBirthday());
+
+        Map<String, Object> map = BeanMapConverter.toMap(student);
+        Assert.assertNotNull(map);
+        Assert.assertEquals(19, map.get("age"));
+        Assert.assertEquals(Student.class, map.get("class"));
+        map.put("name", "fromMap");
+        Student fromMap = new Student();
+        Assert.assertTrue(BeanMapConverter.toObject(fromMap, map));
+        Assert.assertEquals("fromMap", fromMap.getName());
+        Assert.assertEquals(19, fromMap.getAge());
+    }
+}
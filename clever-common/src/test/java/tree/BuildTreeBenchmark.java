@@ -0,0 +1,48 @@
+package tree;
+
+import org.cleverframe.common.tree.BuildTreeUtils;
+import org.cleverframe.common.tree.ITreeNode;
+import org.cleverframe.common.tree.IndexedTreeBuilder;
+
+import java.util.List;
+
+/**
+ * 新旧树构建算法性能对比<br/>
+ * 运行方式：直接运行main方法，参数(可选)：节点数量(逗号分隔，默认：1000,10000,100000) 原来的算法测试的最大节点数量(默认10000)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 06:50 <br/>
+ *
+ * @see BuildTreeUtilsTest
+ */
+public class BuildTreeBenchmark {
+
+    public static void main(String[] args) {
+        String treeSizes = args.length > 0 ? args[0] : "1000,10000,100000";
+        int legacyMaxSize = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        for (String tmp : treeSizes.split(",")) {
+            int count = Integer.parseInt(tmp.trim());
+            List<ITreeNode> nodes = BuildTreeUtilsTest.newNodes(count, count);
+            // 预热
+            for (int i = 0; i < 5; i++) {
+                BuildTreeUtilsTest.clearChildren(nodes);
+                IndexedTreeBuilder.build(nodes);
+            }
+            int times = 10;
+            long start = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                BuildTreeUtilsTest.clearChildren(nodes);
+                BuildTreeUtils.bulidTree(nodes);
+            }
+            long indexedTime = (System.nanoTime() - start) / times;
+            long legacyTime = -1;
+            if (count <= legacyMaxSize) {
+                BuildTreeUtilsTest.clearChildren(nodes);
+                start = System.nanoTime();
+                BuildTreeUtilsTest.legacyBulidTree(nodes);
+                legacyTime = System.nanoTime() - start;
+            }
+            System.out.println(String.format("count=%-8d indexed=%.3fms legacy=%.3fms", count, indexedTime / 1000000.0, legacyTime / 1000000.0));
+        }
+    }
+}
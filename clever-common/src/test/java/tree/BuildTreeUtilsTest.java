@@ -0,0 +1,228 @@
+package tree;
+
+import org.cleverframe.common.tree.BuildTreeUtils;
+import org.cleverframe.common.tree.ITreeNode;
+import org.cleverframe.common.tree.IndexedTreeBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 20:55 <br/>
+ */
+public class BuildTreeUtilsTest {
+    static class TreeNode implements ITreeNode {
+        private Long id;
+        private Long parentId;
+        private String fullPath;
+        private boolean isBulid;
+        private List<ITreeNode> children;
+
+        TreeNode(long id, long parentId, String fullPath) {
+            this.id = id;
+            this.parentId = parentId;
+            this.fullPath = fullPath;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public String getFullPath() {
+            return fullPath;
+        }
+
+        @Override
+        public boolean isBulid() {
+            return isBulid;
+        }
+
+        @Override
+        public void setBulid(boolean isBulid) {
+            this.isBulid = isBulid;
+        }
+
+        @Override
+        public List<ITreeNode> getChildren() {
+            return children;
+        }
+
+        @Override
+        public void addChildren(ITreeNode node) {
+            if (children == null) {
+                children = new ArrayList<>();
+            }
+            children.add(node);
+        }
+    }
+
+    /**
+     * 生成随机树节点，每个节点的父节点在前面的节点中随机选择，然后打乱顺序
+     */
+    static List<ITreeNode> newNodes(int count, long seed) {
+        Random random = new Random(seed);
+        List<TreeNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = i + 1;
+            if (i == 0 || random.nextInt(50) == 0) {
+                nodes.add(new TreeNode(id, -1L, String.valueOf(id)));
+            } else {
+                TreeNode parent = nodes.get(random.nextInt(i));
+                nodes.add(new TreeNode(id, parent.getId(), parent.getFullPath() + "-" + id));
+            }
+        }
+        Collections.shuffle(nodes, random);
+        return new ArrayList<ITreeNode>(nodes);
+    }
+
+    static void clearChildren(List<ITreeNode> nodes) {
+        for (ITreeNode node : nodes) {
+            ((TreeNode) node).children = null;
+        }
+    }
+
+    private static final ITreeNode END = new TreeNode(0, 0, "]");
+
+    private static String toString(List<ITreeNode> nodes) {
+        StringBuilder sb = new StringBuilder();
+        List<ITreeNode> stack = new ArrayList<>();
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            stack.add(nodes.get(i));
+        }
+        while (!stack.isEmpty()) {
+            ITreeNode node = stack.remove(stack.size() - 1);
+            if (node == END) {
+                sb.append("]");
+                continue;
+            }
+            sb.append(node.getId()).append(node.getChildren() == null ? ";" : "[");
+            if (node.getChildren() != null) {
+                stack.add(END);
+                for (int i = node.getChildren().size() - 1; i >= 0; i--) {
+                    stack.add(node.getChildren().get(i));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 原来的构建算法，时间复杂度O(n^2)，用于验证结果和性能对比({@link BuildTreeBenchmark})
+     */
+    static List<ITreeNode> legacyBulidTree(Collection<ITreeNode> nodes) {
+        List<ITreeNode> allTreeNodeList = new ArrayList<>();
+        for (ITreeNode node : nodes) {
+            node.setBulid(false);
+            allTreeNodeList.add(node);
+        }
+        List<ITreeNode> rootNodeList = new ArrayList<>();
+        for (ITreeNode node : allTreeNodeList) {
+            boolean flag = node.getId().toString().equals(node.getFullPath()) || node.getParentId() == -1L;
+            if (!flag) {
+                flag = true;
+                for (ITreeNode n : allTreeNodeList) {
+                    if (!node.equals(n) && Objects.equals(node.getParentId(), n.getId())) {
+                        flag = false;
+                        break;
+                    }
+                }
+            }
+            if (flag) {
+                rootNodeList.add(node);
+                node.setBulid(true);
+            }
+        }
+        for (ITreeNode rootNode : rootNodeList) {
+            legacyBuildTree(rootNode, allTreeNodeList);
+        }
+        return rootNodeList;
+    }
+
+    private static void legacyBuildTree(ITreeNode parentNode, List<ITreeNode> noBulidTreeNodeList) {
+        for (ITreeNode node : noBulidTreeNodeList) {
+            if (!node.isBulid() && Objects.equals(node.getParentId(), parentNode.getId())) {
+                node.setBulid(true);
+                parentNode.addChildren(node);
+                legacyBuildTree(node, noBulidTreeNodeList);
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsLegacy() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<ITreeNode> nodes = newNodes(500, seed);
+            // 父节点不存在的节点
+            nodes.add(new TreeNode(100000L, 99999L, "99999-100000"));
+            String expected = toString(legacyBulidTree(nodes));
+            clearChildren(nodes);
+            String actual = toString(BuildTreeUtils.bulidTree(nodes));
+            Assert.assertEquals(expected, actual);
+            for (ITreeNode node : nodes) {
+                Assert.assertTrue(node.isBulid());
+            }
+        }
+    }
+
+    @Test
+    public void testIncremental() {
+        IndexedTreeBuilder builder = new IndexedTreeBuilder();
+        // 子节点先于父节点增加
+        Assert.assertTrue(builder.add(new TreeNode(3L, 2L, "1-2-3")));
+        Assert.assertTrue(builder.add(new TreeNode(2L, 1L, "1-2")));
+        Assert.assertEquals(1, builder.getRootNodes().size());
+        Assert.assertEquals(1, builder.getWaitParentCount());
+        Assert.assertTrue(builder.add(new TreeNode(1L, -1L, "1")));
+        Assert.assertTrue(builder.add(new TreeNode(4L, 1L, "1-4")));
+        Assert.assertFalse(builder.add(new TreeNode(4L, 1L, "1-4")));
+        Assert.assertEquals(0, builder.getWaitParentCount());
+        Assert.assertEquals("1[2[3;]4;]", toString(builder.getRootNodes()));
+
+        // 移动节点，子节点跟随移动
+        Assert.assertTrue(builder.move(2L, 4L));
+        Assert.assertEquals("1[4[2[3;]]]", toString(builder.getRootNodes()));
+        Assert.assertEquals(Long.valueOf(4L), builder.getParent(2L).getId());
+        Assert.assertTrue(builder.move(3L, -1L));
+        Assert.assertEquals("1[4[2[]]]3;", toString(builder.getRootNodes()));
+        Assert.assertFalse(builder.move(10L, 1L));
+
+        // 移动到还不存在的父节点下
+        Assert.assertTrue(builder.move(3L, 5L));
+        Assert.assertEquals(1, builder.getWaitParentCount());
+        Assert.assertTrue(builder.add(new TreeNode(5L, 1L, "1-5")));
+        Assert.assertEquals("1[4[2[]]5[3;]]", toString(builder.getRootNodes()));
+        Assert.assertEquals(5, builder.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveToDescendant() {
+        IndexedTreeBuilder builder = new IndexedTreeBuilder();
+        builder.add(new TreeNode(1L, -1L, "1"));
+        builder.add(new TreeNode(2L, 1L, "1-2"));
+        builder.add(new TreeNode(3L, 2L, "1-2-3"));
+        builder.move(1L, 3L);
+    }
+
+    @Test
+    public void testCycle() {
+        List<ITreeNode> nodes = new ArrayList<>();
+        nodes.add(new TreeNode(1L, 2L, "2-1"));
+        nodes.add(new TreeNode(2L, 1L, "1-2"));
+        nodes.add(new TreeNode(3L, 3L, "3-3"));
+        Assert.assertEquals("1[2;]3;", toString(BuildTreeUtils.bulidTree(nodes)));
+    }
+}
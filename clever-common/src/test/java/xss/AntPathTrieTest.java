@@ -0,0 +1,73 @@
+package xss;
+
+import org.cleverframe.common.xss.AntPathTrie;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:20 <br/>
+ */
+public class AntPathTrieTest {
+
+    @Test
+    public void testLiteral() {
+        AntPathTrie trie = AntPathTrie.build(Arrays.asList(
+                "/cleverframe/mvc/core/qlscript/updateQLScript",
+                "/cleverframe/mvc/core/template/updateTemplate"));
+        Assert.assertEquals(2, trie.size());
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/core/qlscript/updateQLScript"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/core/qlscript/updateQLScript/"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/core/qlscript"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/core/qlscript/updateQLScript/1"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/core/template/addTemplate"));
+        Assert.assertFalse(trie.matches(null));
+    }
+
+    @Test
+    public void testWildcard() {
+        AntPathTrie trie = AntPathTrie.build(Arrays.asList(
+                "/cleverframe/mvc/generator/**",
+                "/cleverframe/mvc/*/template/update*",
+                "/cleverframe/mvc/quartz/trigger/add?Trigger",
+                "/cleverframe/**/monitor/**/zookeeper"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/generator"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/generator/codetemplate/addCodeTemplateCode"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/core/template/updateTemplate"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/sys/template/update"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/core/template/addTemplate"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/a/b/template/updateTemplate"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/quartz/trigger/addCTrigger"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/quartz/trigger/addTrigger"));
+        Assert.assertTrue(trie.matches("/cleverframe/monitor/zookeeper"));
+        Assert.assertTrue(trie.matches("/cleverframe/mvc/monitor/a/b/zookeeper"));
+        Assert.assertFalse(trie.matches("/cleverframe/mvc/monitor/a/b/redis"));
+        Assert.assertFalse(trie.matches("/other/mvc/generator/code"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertSame(AntPathTrie.EMPTY, AntPathTrie.build(Collections.<String>emptyList()));
+        Assert.assertSame(AntPathTrie.EMPTY, AntPathTrie.build(Arrays.asList("", " ")));
+        Assert.assertFalse(AntPathTrie.EMPTY.matches("/"));
+        Assert.assertTrue(AntPathTrie.build(Collections.singletonList("/**")).matches("/"));
+    }
+
+    @Test
+    public void testManyPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            patterns.add("/cleverframe/mvc/module" + (i % 100) + "/controller" + i + "/update");
+        }
+        AntPathTrie trie = AntPathTrie.build(patterns);
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(trie.matches("/cleverframe/mvc/module" + (i % 100) + "/controller" + i + "/update"));
+            Assert.assertFalse(trie.matches("/cleverframe/mvc/module" + ((i + 1) % 100) + "/controller" + i + "/update"));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package xss;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.cleverframe.common.xss.HtmlEscaper;
+
+/**
+ * HtmlEscaper与StringEscapeUtils.escapeHtml4的性能对比<br/>
+ * 运行方式：直接运行main方法，参数(可选)：每轮每个字符串的编码次数 轮数<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 06:40 <br/>
+ *
+ * @see HtmlEscaperTest
+ */
+public class HtmlEscaperBenchmark {
+
+    private static final String[] TEXTS = new String[]{
+            "admin",
+            "电饭煲",
+            "2016-11-13 12:00:00",
+            "这是一段比较长的备注信息，没有需要编码的字符，用于测试普通的表单数据 some plain text 1234567890",
+            "<script>alert(document.cookie)</script>",
+            "<a href=\"http://www.baidu.com/s?wd=1&ie=utf-8\">百度</a>"
+    };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        for (int round = 0; round < rounds; round++) {
+            long escapeHtml4 = run(iterations, true);
+            long htmlEscaper = run(iterations, false);
+            System.out.println(String.format("第%d轮 %d次: StringEscapeUtils.escapeHtml4=%dms, HtmlEscaper.escape=%dms",
+                    round + 1, iterations * TEXTS.length, escapeHtml4, htmlEscaper));
+        }
+    }
+
+    private static long run(int iterations, boolean escapeHtml4) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String text : TEXTS) {
+                String result = escapeHtml4 ? StringEscapeUtils.escapeHtml4(text) : HtmlEscaper.escape(text);
+                length += result.length();
+            }
+        }
+        // 使用结果，避免被JIT优化掉
+        if (length <= 0) {
+            throw new IllegalStateException("length=" + length);
+        }
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
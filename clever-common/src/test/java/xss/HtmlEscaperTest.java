@@ -0,0 +1,28 @@
+package xss;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.cleverframe.common.xss.HtmlEscaper;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * HtmlEscaper与StringEscapeUtils.escapeHtml4的结果对比，性能对比见{@link HtmlEscaperBenchmark}<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 04:20 <br/>
+ */
+public class HtmlEscaperTest {
+    @Test
+    public void testEscape() {
+        Assert.assertNull(HtmlEscaper.escape(null));
+        String text = "电饭煲 rice-cooker 123";
+        Assert.assertSame(text, HtmlEscaper.escape(text));
+        Assert.assertSame("", HtmlEscaper.escape(""));
+        Assert.assertEquals("&lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt;", HtmlEscaper.escape("<script>alert(\"x\")</script>"));
+        Assert.assertEquals("a&amp;b&#39;c", HtmlEscaper.escape("a&b'c"));
+        Assert.assertEquals("&amp;&amp;", HtmlEscaper.escape("&&"));
+        // 与escapeHtml4编码的字符结果一致
+        String html = "<a href=\"x?a=1&b=2\">link</a>";
+        Assert.assertEquals(StringEscapeUtils.escapeHtml4(html), HtmlEscaper.escape(html));
+    }
+}
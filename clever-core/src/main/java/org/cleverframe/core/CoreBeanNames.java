@@ -32,5 +32,8 @@ public class CoreBeanNames implements IBeanNames {
     // Other
     // -------------------------------------------------------------------------------------------//
     public static final String QLScriptTemplateLoader = "core_QLScriptTemplateLoader";
+    public static final String AccessLogBatchWriter = "core_AccessLogBatchWriter";
+    public static final String LogPartitionManager = "core_LogPartitionManager";
+    public static final String PooledHttpClient = "core_PooledHttpClient";
 
 }
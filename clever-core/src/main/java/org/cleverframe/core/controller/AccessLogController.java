@@ -4,7 +4,9 @@ import org.cleverframe.common.controller.BaseController;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.core.CoreBeanNames;
 import org.cleverframe.core.CoreJspUrlPath;
+import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.core.entity.AccessLog;
+import org.cleverframe.core.interceptor.AccessLogBatchWriter;
 import org.cleverframe.core.service.AccessLogService;
 import org.cleverframe.core.vo.request.AccessLogQueryVo;
 import org.cleverframe.webui.easyui.data.DataGridJson;
@@ -19,6 +21,8 @@ import org.springframework.web.servlet.ModelAndView;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -33,6 +37,10 @@ public class AccessLogController extends BaseController {
     @Qualifier(CoreBeanNames.AccessLogService)
     private AccessLogService accessLogService;
 
+    @Autowired
+    @Qualifier(CoreBeanNames.AccessLogBatchWriter)
+    private AccessLogBatchWriter accessLogBatchWriter;
+
     @RequestMapping("/AccessLog" + VIEW_PAGE_SUFFIX)
     public ModelAndView getAccessLogJsp(HttpServletRequest request, HttpServletResponse response) {
         return new ModelAndView(CoreJspUrlPath.AccessLog);
@@ -68,4 +76,25 @@ public class AccessLogController extends BaseController {
         json.setTotal(qLScriptPage.getCount());
         return json;
     }
+
+    /**
+     * 获取访问日志异步写入器的统计数据
+     *
+     * @return 队列容量、等待写入、入队、丢弃、写入成功、写入失败的数据条数
+     */
+    @RequestMapping("/getAccessLogWriterStatus")
+    @ResponseBody
+    public AjaxMessage<Map<String, Object>> getAccessLogWriterStatus(HttpServletRequest request, HttpServletResponse response) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", accessLogBatchWriter.isRunning());
+        status.put("overflowPolicy", accessLogBatchWriter.getOverflowPolicy());
+        status.put("bufferSize", accessLogBatchWriter.getBufferSize());
+        status.put("pendingCount", accessLogBatchWriter.getPendingCount());
+        status.put("queuedCount", accessLogBatchWriter.getQueuedCount());
+        status.put("droppedCount", accessLogBatchWriter.getDroppedCount());
+        status.put("flushedCount", accessLogBatchWriter.getFlushedCount());
+        status.put("failedCount", accessLogBatchWriter.getFailedCount());
+        status.put("batchCount", accessLogBatchWriter.getBatchCount());
+        return new AjaxMessage<>(status, "获取访问日志写入统计成功");
+    }
 }
@@ -26,6 +26,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -136,4 +137,13 @@ public class QLScriptController extends BaseController {
         }
         return message;
     }
+
+    /**
+     * 获取数据库脚本的组装统计数据(组装次数、耗时、是否预编译)<br>
+     */
+    @RequestMapping("/getRenderStats")
+    @ResponseBody
+    public AjaxMessage<Map<String, Map<String, Object>>> getRenderStats(HttpServletRequest request, HttpServletResponse response) {
+        return new AjaxMessage<>(QLScriptUtils.getRenderStats(), "获取数据库脚本组装统计成功");
+    }
 }
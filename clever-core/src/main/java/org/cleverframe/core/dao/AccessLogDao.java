@@ -5,10 +5,15 @@ import org.cleverframe.common.persistence.Parameter;
 import org.cleverframe.core.CoreBeanNames;
 import org.cleverframe.core.entity.AccessLog;
 import org.cleverframe.core.persistence.dao.BaseDao;
+import org.cleverframe.core.retention.LogPartitionManager;
 import org.cleverframe.core.utils.QLScriptUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -17,6 +22,13 @@ import java.util.Date;
 @Repository(CoreBeanNames.AccessLogDao)
 public class AccessLogDao extends BaseDao<AccessLog> {
 
+    /**
+     * 日志表分区维护，用于把查询路由到时间范围内的分区(未配置时查询整个表)
+     */
+    @Autowired(required = false)
+    @Qualifier(CoreBeanNames.LogPartitionManager)
+    private LogPartitionManager logPartitionManager;
+
     /**
      * 模糊查询访问日志，使用分页
      *
@@ -55,7 +67,9 @@ public class AccessLogDao extends BaseDao<AccessLog> {
         param.put("remoteAddr", "%"+ remoteAddr +"%");
         param.put("userAgent", "%" + userAgent + "%");
         param.put("hasException", hasException);
-        String sql = QLScriptUtils.getSQLScript("org.cleverframe.core.dao.AccessLogDao.findByPage");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("partition", logPartitionManager == null ? "" : logPartitionManager.getPartitionClause("core_access_log", requestStartTime, requestEndTime));
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.core.dao.AccessLogDao.findByPage", dataModel);
         return hibernateDao.findBySql(page, sql, param);
     }
 }
@@ -6,8 +6,12 @@ import org.cleverframe.core.CoreBeanNames;
 import org.cleverframe.core.entity.QLScript;
 import org.cleverframe.core.persistence.dao.BaseDao;
 import org.hibernate.SQLQuery;
+import org.hibernate.exception.SQLGrammarException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -18,6 +22,11 @@ import java.util.List;
  */
 @Repository(CoreBeanNames.QLScriptDao)
 public class QLScriptDao extends BaseDao<QLScript> {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(QLScriptDao.class);
+
     /**
      * 根据name查询QLScript，没有按公司隔离数据，参数: <br/>
      * 1.:delFlag delFlag 删除标识<br/>
@@ -45,6 +54,23 @@ public class QLScriptDao extends BaseDao<QLScript> {
      */
     public static final String DELETE_QLSCRIPT_BY_NAME = "DELETE FROM core_qlscript WHERE name = :name";
 
+    /**
+     * 查询数据库脚本的版本信息(版本号、数据总数、最大ID、最后更新时间)<br/>
+     * 版本号由core_qlscript表的触发器在新增、修改、删除数据时加1(单调递增)，同一秒内多次修改也能发现<br/>
+     */
+    public static final String SQL_GET_QLSCRIPT_VERSION = "SELECT (SELECT version FROM core_qlscript_version WHERE id = 1), COUNT(*), MAX(id), MAX(update_date) FROM core_qlscript";
+
+    /**
+     * 查询数据库脚本的版本信息(数据总数、最大ID、最后更新时间)，没有core_qlscript_version表时使用<br/>
+     * 最后更新时间只精确到秒，同一秒内的多次修改只能发现第一次
+     */
+    public static final String SQL_GET_QLSCRIPT_STAT = "SELECT 0, COUNT(*), MAX(id), MAX(update_date) FROM core_qlscript";
+
+    /**
+     * 数据库中是否没有core_qlscript_version表(第一次查询失败后不再查询)
+     */
+    private volatile boolean versionTableMissing = false;
+
     /**
      * 根据脚本名称获取脚本对象，只获取没有被软删除的数据<br/>
      *
@@ -68,6 +94,27 @@ public class QLScriptDao extends BaseDao<QLScript> {
         return hibernateDao.findBySql(SQL_FIND_ALL_QLSCRIPT, param);
     }
 
+    /**
+     * 获取数据库脚本的版本信息(包含软删除的数据)，格式：版本号-数据总数-最大ID-最后更新时间(毫秒)<br/>
+     * 数据库中没有core_qlscript_version表时版本号为0，只能使用数据总数、最大ID、最后更新时间判断版本变化
+     */
+    public String getScriptVersion() {
+        Object[] row = null;
+        if (!versionTableMissing) {
+            try {
+                row = (Object[]) hibernateDao.createSqlQuery(SQL_GET_QLSCRIPT_VERSION, null).uniqueResult();
+            } catch (SQLGrammarException e) {
+                versionTableMissing = true;
+                logger.warn("### 查询core_qlscript_version表失败，改为使用数据总数、最大ID、最后更新时间判断数据库脚本版本(执行database/mysql/core_MySql.sql中的core_qlscript_version脚本)", e);
+            }
+        }
+        if (row == null) {
+            row = (Object[]) hibernateDao.createSqlQuery(SQL_GET_QLSCRIPT_STAT, null).uniqueResult();
+        }
+        Object updateDate = row[3];
+        return row[0] + "-" + row[1] + "-" + row[2] + "-" + (updateDate instanceof Date ? ((Date) updateDate).getTime() : updateDate);
+    }
+
     /**
      * 获取所有的数据库脚本，使用分页
      *
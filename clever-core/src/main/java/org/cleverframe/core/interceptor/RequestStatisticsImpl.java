@@ -3,13 +3,10 @@ package org.cleverframe.core.interceptor;
 import org.cleverframe.common.attributes.CommonApplicationAttributes;
 import org.cleverframe.common.attributes.CommonRequestAttributes;
 import org.cleverframe.common.interceptor.IRequestStatistics;
-import org.cleverframe.common.mapper.BeanMapper;
 import org.cleverframe.common.time.DateTimeUtils;
 import org.cleverframe.common.utils.ConversionUtils;
 import org.cleverframe.common.vo.request.RequestInfo;
 import org.cleverframe.core.CoreBeanNames;
-import org.cleverframe.core.entity.AccessLog;
-import org.cleverframe.core.service.AccessLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -21,6 +18,7 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * 服务所有的请求统计默认实现类，不依赖任何中间件<br/>
  * 使用ApplicationAttributes存储访问统计数据，使用数据库存储请求信息<br/>
+ * 请求信息由AccessLogBatchWriter异步批量写入数据库，不占用请求线程<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-5-19 17:09 <br/>
@@ -28,8 +26,8 @@ import java.util.concurrent.atomic.AtomicLong;
 public class RequestStatisticsImpl implements IRequestStatistics {
 
     @Autowired
-    @Qualifier(CoreBeanNames.AccessLogService)
-    private AccessLogService accessLogService;
+    @Qualifier(CoreBeanNames.AccessLogBatchWriter)
+    private AccessLogBatchWriter accessLogBatchWriter;
 
     /**
      * 服务器本次启动后处理的请求总数,类型:long
@@ -162,15 +160,13 @@ public class RequestStatisticsImpl implements IRequestStatistics {
     }
 
     /**
-     * 存储请求信息
+     * 存储请求信息，只放入异步写入队列，由后台线程批量写入数据库
      *
      * @param requestInfo 请求信息
-     * @return 操作成功返回 true
+     * @return 放入队列成功返回 true，队列已满被丢弃返回 false
      */
     @Override
     public boolean saveRequestInfo(HttpServletRequest request, HttpServletResponse response, RequestInfo requestInfo) {
-        AccessLog accessLog = BeanMapper.mapper(requestInfo, AccessLog.class);
-        accessLogService.addAccessLog(accessLog);
-        return true;
+        return accessLogBatchWriter.offer(requestInfo);
     }
 }
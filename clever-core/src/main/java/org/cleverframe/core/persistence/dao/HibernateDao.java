@@ -1,7 +1,13 @@
 package org.cleverframe.core.persistence.dao;
 
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.Element;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.cleverframe.common.ehcache.EhCacheNames;
+import org.cleverframe.common.ehcache.EhCacheUtils;
 import org.cleverframe.common.exception.ExceptionUtils;
+import org.cleverframe.common.persistence.CountStrategy;
+import org.cleverframe.common.persistence.KeysetPage;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.common.persistence.Parameter;
 import org.cleverframe.common.reflection.ReflectionsUtils;
@@ -17,9 +23,13 @@ import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.SQLQuery;
 import org.hibernate.Session;
+import org.hibernate.criterion.Conjunction;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
 import org.hibernate.internal.CriteriaImpl;
 import org.hibernate.transform.ResultTransformer;
 import org.hibernate.transform.Transformers;
@@ -40,6 +50,8 @@ import java.util.*;
  * 3.HQL操作支持<br/>
  * 4.SQL操作支持<br/>
  * 5.Criteria操作支持<br/>
+ * 6.游标(Keyset)分页支持，不查询总数，深分页与首页代价相同<br/>
+ * 7.分页查询数据总数的统计策略支持：准确、缓存、估算、只判断是否有下一页，参考{@link CountStrategy}<br/>
  * TODO 新增Hibernate Search的支持（考虑使用新的类实现）<br/>
  * <b>注意：若继承该类并重写构造方法的话一定要调用super()</b>
  * <p/>
@@ -54,6 +66,16 @@ public class HibernateDao<T extends Serializable> {
      */
     private final static Logger logger = LoggerFactory.getLogger(HibernateDao.class);
 
+    /**
+     * 估算的数据总数小于此值时改用准确的count查询
+     */
+    private final static long ESTIMATE_EXACT_THRESHOLD = 1000L;
+
+    /**
+     * 分页查询数据总数的缓存(懒加载)
+     */
+    private static volatile Cache pageCountCache;
+
     /**
      * Spring提供的Hibernate的模版类
      */
@@ -558,9 +580,7 @@ public class HibernateDao<T extends Serializable> {
     @SuppressWarnings("unchecked")
     public <E extends Serializable> Page<E> findByHql(Page<E> page, String hqlQuery, Parameter parameter) {
         // 得到数据的总数
-        long count = getCountByHql(hqlQuery, parameter);
-        page.setCount(count);
-        if (count <= 0) {
+        if (!countPage(page, hqlQuery, parameter, false)) {
             return page;
         }
         // 查询数据
@@ -568,9 +588,9 @@ public class HibernateDao<T extends Serializable> {
         // 设置分页数据
         if (!page.isDisabled()) {
             query.setFirstResult(page.getFirstResult());
-            query.setMaxResults(page.getPageSize());
+            query.setMaxResults(page.getMaxResults());
         }
-        page.setList(query.list());
+        page.setPageData(query.list());
         return page;
     }
 
@@ -609,6 +629,37 @@ public class HibernateDao<T extends Serializable> {
         return findByHql(page, hqlQuery, (Parameter) null);
     }
 
+    /**
+     * HQL游标(Keyset)分页查询，不查询数据总数<br/>
+     * <b>注意：HQL中的order by会被忽略，排序由KeysetPage的排序字段决定(排序字段使用实体属性路径，如：a.id)</b><br/>
+     *
+     * @param page      游标分页对象
+     * @param hqlQuery  HQL查询
+     * @param parameter 查询参数
+     * @return 游标分页对象，其实体类型是HQL查询中对应的实体类
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Serializable> KeysetPage<E> findByHql(KeysetPage<E> page, String hqlQuery, Parameter parameter) {
+        Parameter keysetParameter = copyParameter(parameter);
+        String hql = HqlParserUtils.appendCondition(hqlQuery, page.getSeekCondition(keysetParameter, false));
+        Query query = createHqlQuery(hql + " order by " + page.getOrderBy(false), keysetParameter);
+        // 多查询一条数据，判断是否还有下一页
+        query.setMaxResults(page.getPageSize() + 1);
+        page.setPageData(query.list());
+        return page;
+    }
+
+    /**
+     * 复制查询参数，游标条件参数不能写入调用者传入的参数对象
+     */
+    private Parameter copyParameter(Parameter parameter) {
+        Parameter copy = new Parameter();
+        if (parameter != null) {
+            copy.putAll(parameter);
+        }
+        return copy;
+    }
+
     // ----------------------------------------------------------------
     // SQL操作支持
     // ----------------------------------------------------------------
@@ -761,6 +812,125 @@ public class HibernateDao<T extends Serializable> {
         return getCountBySql(sqlQuery, null);
     }
 
+    /**
+     * 使用数据库执行计划估算一条SQL查询数据的总数(只支持MySQL)<br/>
+     * 取执行计划第一行(驱动表)的 rows * filtered / 100 作为估算值
+     *
+     * @param sqlQuery  SQL查询
+     * @param parameter 查询参数
+     * @return 估算的查询结果总数
+     */
+    public long getEstimateCountBySql(String sqlQuery, Parameter parameter) {
+        SQLQuery query = createSqlQuery(SqlParserUtils.getEstimateCountSql(sqlQuery), parameter);
+        query.setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+        List<?> list = query.list();
+        if (list == null || list.isEmpty()) {
+            return 0L;
+        }
+        Map<?, ?> plan = (Map<?, ?>) list.get(0);
+        long rows = plan.get("rows") == null ? 0L : NumberUtils.toLong(plan.get("rows").toString(), 0L);
+        double filtered = plan.get("filtered") == null ? 100D : NumberUtils.toDouble(plan.get("filtered").toString(), 100D);
+        return (long) Math.ceil(rows * filtered / 100D);
+    }
+
+    /**
+     * 根据分页对象的统计策略设置数据总数
+     *
+     * @param page      分页对象
+     * @param qlQuery   HQL或者SQL查询
+     * @param parameter 查询参数
+     * @param isSql     true:SQL查询，false:HQL查询
+     * @return 确定没有数据时返回false(不需要再查询数据)
+     */
+    private boolean countPage(Page<?> page, final String qlQuery, final Parameter parameter, final boolean isSql) {
+        if (page.isNotCount()) {
+            return true;
+        }
+        CountQuery exactCounter = new CountQuery() {
+            @Override
+            public long count() {
+                return isSql ? getCountBySql(qlQuery, parameter) : getCountByHql(qlQuery, parameter);
+            }
+        };
+        long count;
+        switch (page.getCountStrategy()) {
+            case CACHED:
+                count = getCachedCount(page, getCountCacheKey(qlQuery, parameter, isSql), exactCounter);
+                break;
+            case ESTIMATE:
+                count = -1L;
+                if (isSql) {
+                    try {
+                        count = getEstimateCountBySql(qlQuery, parameter);
+                    } catch (Throwable e) {
+                        logger.warn("### 估算数据总数失败，使用缓存的count查询结果，SQL语句：" + qlQuery, e);
+                    }
+                }
+                if (count < 0) {
+                    count = getCachedCount(page, getCountCacheKey(qlQuery, parameter, isSql), exactCounter);
+                } else if (count < ESTIMATE_EXACT_THRESHOLD) {
+                    // 估算值较小时准确的count查询代价也小
+                    count = exactCounter.count();
+                }
+                break;
+            default:
+                count = exactCounter.count();
+                page.setCount(count);
+                return count > 0;
+        }
+        // 缓存和估算的数据总数可能有误差，不能据此跳过数据查询
+        page.setCount(count);
+        return true;
+    }
+
+    /**
+     * 生成数据总数的缓存Key：查询语句 + 按参数名排序的查询参数
+     */
+    private static String getCountCacheKey(String qlQuery, Parameter parameter, boolean isSql) {
+        StringBuilder key = new StringBuilder(isSql ? "sql:" : "hql:").append(qlQuery);
+        if (parameter != null && parameter.size() > 0) {
+            key.append('|').append(new TreeMap<>(parameter).toString());
+        }
+        return key.toString();
+    }
+
+    /**
+     * 读取缓存的数据总数，缓存不存在时执行count查询并缓存结果
+     *
+     * @param page     分页对象，用于读取缓存时间
+     * @param cacheKey 缓存Key
+     * @param counter  执行count查询
+     */
+    private static long getCachedCount(Page<?> page, String cacheKey, CountQuery counter) {
+        Cache cache = pageCountCache;
+        if (cache == null) {
+            synchronized (HibernateDao.class) {
+                if (pageCountCache == null) {
+                    pageCountCache = EhCacheUtils.createCache(EhCacheNames.PageCountCache);
+                }
+                cache = pageCountCache;
+            }
+        }
+        Element element = cache.get(cacheKey);
+        if (element != null) {
+            return (Long) element.getObjectValue();
+        }
+        long count = counter.count();
+        element = new Element(cacheKey, count);
+        if (page.getCountCacheSeconds() > 0) {
+            element.setTimeToLive(page.getCountCacheSeconds());
+        }
+        cache.put(element);
+        return count;
+    }
+
+    /**
+     * 执行count查询的回调
+     */
+    private interface CountQuery {
+        long count();
+    }
+
     /**
      * 通过SQL查找一个实体对象，带参数<br/>
      *
@@ -896,9 +1066,7 @@ public class HibernateDao<T extends Serializable> {
      */
     public Page<Map<Object, Object>> findMapBySql(Page<Map<Object, Object>> page, String sqlQuery, Parameter parameter) {
         // 得到数据的总数
-        long count = getCountBySql(sqlQuery, parameter);
-        page.setCount(count);
-        if (count <= 0) {
+        if (!countPage(page, sqlQuery, parameter, true)) {
             return page;
         }
         // 查询数据
@@ -906,12 +1074,12 @@ public class HibernateDao<T extends Serializable> {
         // 设置分页数据
         if (!page.isDisabled()) {
             query.setFirstResult(page.getFirstResult());
-            query.setMaxResults(page.getPageSize());
+            query.setMaxResults(page.getMaxResults());
         }
         setResultTransformer(query, Map.class);
         @SuppressWarnings("unchecked")
         List<Map<Object, Object>> list = query.list();
-        page.setList(list);
+        page.setPageData(list);
         return page;
     }
 
@@ -927,9 +1095,7 @@ public class HibernateDao<T extends Serializable> {
     @SuppressWarnings("unchecked")
     public <E extends Serializable> Page<E> findBySql(Class<E> entityClass, Page<E> page, String sqlQuery, Parameter parameter) {
         // 得到数据的总数
-        long count = getCountBySql(sqlQuery, parameter);
-        page.setCount(count);
-        if (count <= 0) {
+        if (!countPage(page, sqlQuery, parameter, true)) {
             return page;
         }
         // 查询数据
@@ -937,10 +1103,10 @@ public class HibernateDao<T extends Serializable> {
         // 设置分页数据
         if (!page.isDisabled()) {
             query.setFirstResult(page.getFirstResult());
-            query.setMaxResults(page.getPageSize());
+            query.setMaxResults(page.getMaxResults());
         }
         setResultTransformer(query, entityClass);
-        page.setList(query.list());
+        page.setPageData(query.list());
         return page;
     }
 
@@ -1029,6 +1195,60 @@ public class HibernateDao<T extends Serializable> {
         return findBySql(entityClass, page, sqlQuery, (Parameter) null);
     }
 
+    /**
+     * SQL游标(Keyset)分页查询，不查询数据总数，返回Map数据<br/>
+     * <b>注意：SQL中的order by会被忽略，排序由KeysetPage的排序字段决定</b><br/>
+     *
+     * @param page      游标分页对象
+     * @param sqlQuery  SQL查询
+     * @param parameter 查询参数
+     * @return 游标分页对象
+     */
+    public KeysetPage<Map<Object, Object>> findMapBySql(KeysetPage<Map<Object, Object>> page, String sqlQuery, Parameter parameter) {
+        Parameter keysetParameter = copyParameter(parameter);
+        SQLQuery query = createSqlQuery(SqlParserUtils.getKeysetSql(sqlQuery, page, keysetParameter), keysetParameter);
+        // 多查询一条数据，判断是否还有下一页
+        query.setMaxResults(page.getPageSize() + 1);
+        setResultTransformer(query, Map.class);
+        @SuppressWarnings("unchecked")
+        List<Map<Object, Object>> list = query.list();
+        page.setPageData(list);
+        return page;
+    }
+
+    /**
+     * SQL游标(Keyset)分页查询，不查询数据总数<br/>
+     * <b>注意：SQL中的order by会被忽略，排序由KeysetPage的排序字段决定</b><br/>
+     *
+     * @param entityClass 设置返回实体类类型
+     * @param page        游标分页对象
+     * @param sqlQuery    SQL查询
+     * @param parameter   查询参数
+     * @return 游标分页对象，其实体类是entityClass对应的实体类型
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Serializable> KeysetPage<E> findBySql(Class<E> entityClass, KeysetPage<E> page, String sqlQuery, Parameter parameter) {
+        Parameter keysetParameter = copyParameter(parameter);
+        SQLQuery query = createSqlQuery(SqlParserUtils.getKeysetSql(sqlQuery, page, keysetParameter), keysetParameter);
+        // 多查询一条数据，判断是否还有下一页
+        query.setMaxResults(page.getPageSize() + 1);
+        setResultTransformer(query, entityClass);
+        page.setPageData(query.list());
+        return page;
+    }
+
+    /**
+     * SQL游标(Keyset)分页查询，不查询数据总数<br/>
+     *
+     * @param page      游标分页对象
+     * @param sqlQuery  SQL查询
+     * @param parameter 查询参数
+     * @return 游标分页对象，其实体类是对应Dao的实体类型
+     */
+    public KeysetPage<T> findBySql(KeysetPage<T> page, String sqlQuery, Parameter parameter) {
+        return findBySql(entityClass, page, sqlQuery, parameter);
+    }
+
     // ----------------------------------------------------------------
     // Criteria操作支持，Criteria操作只支持返回当前DAO对应的Entity类型
     // ----------------------------------------------------------------
@@ -1096,12 +1316,23 @@ public class HibernateDao<T extends Serializable> {
      * 使用检索标准对象分页查询，Criteria操作只支持返回当前DAO对应的Entity类型
      */
     @SuppressWarnings("unchecked")
-    public Page<T> findByCriteria(Page<T> page, DetachedCriteria detachedCriteria, ResultTransformer resultTransformer) {
+    public Page<T> findByCriteria(Page<T> page, final DetachedCriteria detachedCriteria, ResultTransformer resultTransformer) {
         // 得到数据的总数
         if (!page.isDisabled() && !page.isNotCount()) {
-            page.setCount(count(detachedCriteria));
-            if (page.getCount() < 1) {
-                return page;
+            if (page.getCountStrategy() == CountStrategy.EXACT) {
+                page.setCount(count(detachedCriteria));
+                if (page.getCount() < 1) {
+                    return page;
+                }
+            } else {
+                // Criteria不支持估算，CACHED、ESTIMATE策略都使用缓存的count查询结果
+                String cacheKey = "criteria:" + entityClass.getName() + ":" + detachedCriteria.toString();
+                page.setCount(getCachedCount(page, cacheKey, new CountQuery() {
+                    @Override
+                    public long count() {
+                        return HibernateDao.this.count(detachedCriteria);
+                    }
+                }));
             }
         }
         Criteria criteria = detachedCriteria.getExecutableCriteria(getSession());
@@ -1109,7 +1340,7 @@ public class HibernateDao<T extends Serializable> {
         // 设置分页查询数据
         if (!page.isDisabled()) {
             criteria.setFirstResult(page.getFirstResult());
-            criteria.setMaxResults(page.getPageSize());
+            criteria.setMaxResults(page.getMaxResults());
         }
         // order by
         // if (StringUtils.isNotBlank(page.getOrderBy()))
@@ -1134,7 +1365,7 @@ public class HibernateDao<T extends Serializable> {
         // }
         // }
         // }
-        page.setList(criteria.list());
+        page.setPageData(criteria.list());
         return page;
     }
 
@@ -1151,4 +1382,44 @@ public class HibernateDao<T extends Serializable> {
     public Page<T> findByCriteria(Page<T> page) {
         return findByCriteria(page, createDetachedCriteria());
     }
+
+    /**
+     * 使用检索标准对象游标(Keyset)分页查询，不查询数据总数，Criteria操作只支持返回当前DAO对应的Entity类型<br/>
+     * <b>注意：会向detachedCriteria中增加游标条件和排序，排序字段使用实体属性名</b>
+     */
+    @SuppressWarnings("unchecked")
+    public KeysetPage<T> findByCriteria(KeysetPage<T> page, DetachedCriteria detachedCriteria, ResultTransformer resultTransformer) {
+        List<KeysetPage.SortKey> sortKeys = page.getSortKeys();
+        Object[] values = page.getAfterValues();
+        if (values != null) {
+            // (k1 > v1) OR (k1 = v1 AND k2 > v2) ...
+            Disjunction disjunction = Restrictions.disjunction();
+            for (int i = 0; i < sortKeys.size(); i++) {
+                Conjunction conjunction = Restrictions.conjunction();
+                for (int j = 0; j < i; j++) {
+                    conjunction.add(Restrictions.eq(sortKeys.get(j).getColumn(), values[j]));
+                }
+                KeysetPage.SortKey sortKey = sortKeys.get(i);
+                conjunction.add(sortKey.isAsc() ? Restrictions.gt(sortKey.getColumn(), values[i]) : Restrictions.lt(sortKey.getColumn(), values[i]));
+                disjunction.add(conjunction);
+            }
+            detachedCriteria.add(disjunction);
+        }
+        for (KeysetPage.SortKey sortKey : sortKeys) {
+            detachedCriteria.addOrder(sortKey.isAsc() ? Order.asc(sortKey.getColumn()) : Order.desc(sortKey.getColumn()));
+        }
+        Criteria criteria = detachedCriteria.getExecutableCriteria(getSession());
+        criteria.setResultTransformer(resultTransformer);
+        // 多查询一条数据，判断是否还有下一页
+        criteria.setMaxResults(page.getPageSize() + 1);
+        page.setPageData(criteria.list());
+        return page;
+    }
+
+    /**
+     * 使用检索标准对象游标(Keyset)分页查询，Criteria操作只支持返回当前DAO对应的Entity类型
+     */
+    public KeysetPage<T> findByCriteria(KeysetPage<T> page, DetachedCriteria detachedCriteria) {
+        return findByCriteria(page, detachedCriteria, Criteria.DISTINCT_ROOT_ENTITY);
+    }
 }
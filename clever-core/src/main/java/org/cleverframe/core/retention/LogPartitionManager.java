@@ -0,0 +1,512 @@
+package org.cleverframe.core.retention;
+
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.core.utils.QLScriptUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志表分区维护(MySQL RANGE COLUMNS分区，每个分区对应一天或一个月)<br/>
+ * 1.提前创建未来的分区：拆分最后的MAXVALUE分区(此时MAXVALUE分区没有数据，不需要移动数据)<br/>
+ * 2.删除超过保留期限的分区：使用DROP PARTITION代替DELETE，不产生大量undo/binlog<br/>
+ * 3.按小时汇总数据：每次重新计算最近几个小时的汇总数据，汇总脚本可以重复执行<br/>
+ * 4.查询路由：DAO根据查询的时间范围取得需要扫描的分区(PARTITION (...)子句)，
+ * 解决查询脚本中“(:x is null or col>=:x)”形式的条件无法触发MySQL分区裁剪的问题<br/>
+ * <p/>
+ * 集群中每个节点都会执行维护，DDL冲突时只打印日志，下一次维护时重新读取分区信息<br/>
+ * 新分区总是提前创建且创建时没有数据，所以各节点缓存的分区信息只要在一个时间段内刷新过就不会漏掉数据，
+ * 维护间隔必须小于分区的时间粒度<br/>
+ * <p/>
+ * 未执行分区DDL的表(未分区或不存在)在第一次读取分区信息时被识别，之后不再维护(不创建分区、不汇总)，
+ * 所有表都未分区时不启动维护线程；执行分区DDL之后需要重启应用<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:00 <br/>
+ */
+public class LogPartitionManager {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(LogPartitionManager.class);
+
+    /**
+     * 读取表的分区信息
+     */
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_METHOD, PARTITION_DESCRIPTION " +
+            "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    /**
+     * 支持的分区方式
+     */
+    private static final String RANGE_COLUMNS = "RANGE COLUMNS";
+
+    /**
+     * 最后一个分区的上界
+     */
+    private static final String MAX_VALUE = "MAXVALUE";
+
+    private static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final long HOUR_MILLIS = 3600 * 1000L;
+
+    /**
+     * 执行DDL、读取分区信息
+     */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 执行汇总脚本
+     */
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 表名称 -> 表配置
+     */
+    private final Map<String, LogPartitionTable> tables = new LinkedHashMap<>();
+
+    /**
+     * 表名称 -> 分区信息(按上界排序)，表未分区时不存在
+     */
+    private final ConcurrentMap<String, List<PartitionRange>> partitionsByTable = new ConcurrentHashMap<>();
+
+    /**
+     * 表名称 -> 最后一次汇总的小时(只在维护线程中使用)
+     */
+    private final Map<String, Long> lastRollupHour = new HashMap<>();
+
+    /**
+     * 未分区(或不存在)不再维护的表名称
+     */
+    private final Set<String> unpartitionedTables = new HashSet<>();
+
+    /**
+     * 是否启用分区维护
+     */
+    private boolean enabled = true;
+
+    /**
+     * 维护间隔(秒)
+     */
+    private long maintenanceInterval = 600;
+
+    /**
+     * 启动后第一次维护的延时(秒)，等待QLScript等组件初始化完成
+     */
+    private long startupDelay = 30;
+
+    /**
+     * 每次维护重新汇总的小时数(不包含当前小时)
+     */
+    private int rollupHours = 2;
+
+    /**
+     * 启动后第一次维护时重新汇总的小时数(不包含当前小时)
+     */
+    private int rollupBackfillHours = 24;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * 读取分区信息并启动维护线程
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        if (!enabled) {
+            logger.info("### [LogPartitionManager]未启用, tables={}", tables.keySet());
+            return;
+        }
+        for (LogPartitionTable table : tables.values()) {
+            try {
+                if (refreshPartitions(table) == null) {
+                    unpartitionedTables.add(table.getTableName());
+                }
+            } catch (Throwable e) {
+                logger.warn("### 读取表[" + table.getTableName() + "]的分区信息失败", e);
+            }
+        }
+        if (!unpartitionedTables.isEmpty()) {
+            logger.info("### [LogPartitionManager]日志表未按时间RANGE COLUMNS分区，不维护分区和汇总数据: {}", unpartitionedTables);
+        }
+        if (unpartitionedTables.size() >= tables.size()) {
+            logger.info("### [LogPartitionManager]没有需要维护的日志表，不启动维护线程");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "LogPartitionManager");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        //noinspection Convert2Lambda
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                maintain();
+            }
+        }, startupDelay, maintenanceInterval, TimeUnit.SECONDS);
+        logger.info("### [LogPartitionManager]启动, tables={}, maintenanceInterval={}s", tables.keySet(), maintenanceInterval);
+    }
+
+    /**
+     * 停止维护线程
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        logger.info("### [LogPartitionManager]停止");
+    }
+
+    /**
+     * 维护所有日志表的分区和汇总数据，一个表失败不影响其它表
+     */
+    public synchronized void maintain() {
+        for (LogPartitionTable table : tables.values()) {
+            if (unpartitionedTables.contains(table.getTableName())) {
+                continue;
+            }
+            try {
+                maintain(table, new Date());
+            } catch (Throwable e) {
+                logger.warn("### 维护日志表[" + table.getTableName() + "]失败", e);
+            }
+        }
+        if (executor != null && unpartitionedTables.size() >= tables.size()) {
+            logger.info("### [LogPartitionManager]没有需要维护的日志表，停止维护线程");
+            stop();
+        }
+    }
+
+    private void maintain(LogPartitionTable table, Date now) {
+        List<PartitionRange> partitions = refreshPartitions(table);
+        if (partitions == null) {
+            unpartitionedTables.add(table.getTableName());
+            logger.warn("### 日志表[{}]未按时间RANGE COLUMNS分区，不再维护分区和汇总数据", table.getTableName());
+            return;
+        }
+        if (createPartitions(table, partitions, now)) {
+            partitions = refreshPartitions(table);
+        }
+        if (dropPartitions(table, partitions, now)) {
+            refreshPartitions(table);
+        }
+        if (StringUtils.isNotBlank(table.getRollupScriptName())) {
+            rollup(table, now);
+        }
+    }
+
+    /**
+     * 重新读取表的分区信息
+     *
+     * @return 表不存在或者未按RANGE COLUMNS分区返回null
+     */
+    private List<PartitionRange> refreshPartitions(LogPartitionTable table) {
+        String tableName = table.getTableName();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(PARTITIONS_SQL, tableName);
+        List<PartitionRange> partitions = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object name = row.get("PARTITION_NAME");
+            if (name == null || !RANGE_COLUMNS.equals(row.get("PARTITION_METHOD"))) {
+                break;
+            }
+            String description = String.valueOf(row.get("PARTITION_DESCRIPTION"));
+            Date upperBound = MAX_VALUE.equals(description) ? null : parseDateTime(StringUtils.strip(description, "'"));
+            partitions.add(new PartitionRange(name.toString(), upperBound));
+        }
+        if (partitions.isEmpty() || partitions.size() != rows.size()) {
+            partitionsByTable.remove(tableName);
+            return null;
+        }
+        partitionsByTable.put(tableName, Collections.unmodifiableList(partitions));
+        return partitions;
+    }
+
+    /**
+     * 创建当前时间段到未来preCreate个时间段的分区
+     *
+     * @return 创建了分区返回true
+     */
+    private boolean createPartitions(LogPartitionTable table, List<PartitionRange> partitions, Date now) {
+        PartitionGranularity granularity = table.getGranularity();
+        PartitionRange last = partitions.get(partitions.size() - 1);
+        Date lastBound = last.upperBound;
+        if (lastBound == null && partitions.size() > 1) {
+            lastBound = partitions.get(partitions.size() - 2).upperBound;
+        }
+        Date current = granularity.bucketStart(now);
+        Date target = granularity.addBuckets(current, Math.max(table.getPreCreate(), 1) + 1);
+        // 第一个新分区同时容纳lastBound之前到保留期限之间的历史数据
+        Date bucket = getCutoff(table, now);
+        if (bucket == null || (lastBound != null && lastBound.after(bucket))) {
+            bucket = lastBound == null ? current : granularity.bucketStart(lastBound);
+        }
+        StringBuilder definitions = new StringBuilder();
+        int count = 0;
+        while (bucket.before(target)) {
+            Date next = granularity.addBuckets(bucket, 1);
+            if (lastBound == null || next.after(lastBound)) {
+                if (count > 0) {
+                    definitions.append(", ");
+                }
+                definitions.append("PARTITION ").append(granularity.partitionName(bucket))
+                        .append(" VALUES LESS THAN ('").append(formatDateTime(next)).append("')");
+                count++;
+            }
+            bucket = next;
+        }
+        if (count <= 0) {
+            return false;
+        }
+        String sql;
+        if (last.upperBound == null) {
+            sql = "ALTER TABLE " + table.getTableName() + " REORGANIZE PARTITION " + last.name + " INTO (" + definitions
+                    + ", PARTITION " + last.name + " VALUES LESS THAN (MAXVALUE))";
+        } else {
+            sql = "ALTER TABLE " + table.getTableName() + " ADD PARTITION (" + definitions + ")";
+        }
+        jdbcTemplate.execute(sql);
+        logger.info("### 日志表[{}]创建分区{}个: {}", table.getTableName(), count, sql);
+        return true;
+    }
+
+    /**
+     * 删除超过保留期限的分区
+     *
+     * @return 删除了分区返回true
+     */
+    private boolean dropPartitions(LogPartitionTable table, List<PartitionRange> partitions, Date now) {
+        Date cutoff = getCutoff(table, now);
+        if (cutoff == null || partitions == null) {
+            return false;
+        }
+        List<String> expired = new ArrayList<>();
+        for (PartitionRange partition : partitions) {
+            if (partition.upperBound != null && !partition.upperBound.after(cutoff)) {
+                expired.add(partition.name);
+            }
+        }
+        // 至少保留一个分区
+        if (expired.isEmpty() || expired.size() >= partitions.size()) {
+            return false;
+        }
+        String sql = "ALTER TABLE " + table.getTableName() + " DROP PARTITION " + StringUtils.join(expired, ", ");
+        jdbcTemplate.execute(sql);
+        logger.info("### 日志表[{}]删除过期分区: {}", table.getTableName(), expired);
+        return true;
+    }
+
+    /**
+     * 重新汇总最近几个小时(包含当前小时)的数据
+     */
+    private void rollup(LogPartitionTable table, Date now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(now);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        long currentHour = calendar.getTimeInMillis();
+        Long lastHour = lastRollupHour.get(table.getTableName());
+        long hour = lastHour == null
+                ? currentHour - rollupBackfillHours * HOUR_MILLIS
+                : Math.min(lastHour, currentHour - rollupHours * HOUR_MILLIS);
+        String sql = QLScriptUtils.getSQLScript(table.getRollupScriptName());
+        int count = 0;
+        for (; hour <= currentHour; hour += HOUR_MILLIS) {
+            MapSqlParameterSource param = new MapSqlParameterSource();
+            param.addValue("hourStart", new Timestamp(hour));
+            param.addValue("hourEnd", new Timestamp(hour + HOUR_MILLIS));
+            namedParameterJdbcTemplate.update(sql, param);
+            count++;
+        }
+        lastRollupHour.put(table.getTableName(), currentHour);
+        logger.debug("### 日志表[{}]汇总最近{}个小时的数据", table.getTableName(), count);
+    }
+
+    /**
+     * 返回保留期限，早于该时间的分区会被删除
+     *
+     * @return 不删除分区返回null
+     */
+    private Date getCutoff(LogPartitionTable table, Date now) {
+        if (table.getRetention() <= 0) {
+            return null;
+        }
+        PartitionGranularity granularity = table.getGranularity();
+        return granularity.addBuckets(granularity.bucketStart(now), 1 - table.getRetention());
+    }
+
+    /**
+     * 返回时间范围[start, end]的数据所在的分区<br/>
+     * 超过保留期限的分区不会返回(数据已过期，分区随时可能被其他节点删除)
+     *
+     * @param tableName 表名称
+     * @param start     开始时间，为null表示不限制
+     * @param end       结束时间，为null表示不限制
+     * @return 表未分区或者需要扫描所有分区时返回null
+     */
+    public List<String> getPartitionNames(String tableName, Date start, Date end) {
+        LogPartitionTable table = tables.get(tableName);
+        List<PartitionRange> partitions = partitionsByTable.get(tableName);
+        if (table == null || partitions == null) {
+            return null;
+        }
+        Date cutoff = getCutoff(table, new Date());
+        if (cutoff != null && (start == null || start.before(cutoff))) {
+            start = cutoff;
+        }
+        List<String> names = new ArrayList<>();
+        Date lowerBound = null;
+        for (PartitionRange partition : partitions) {
+            boolean afterStart = start == null || partition.upperBound == null || partition.upperBound.after(start);
+            boolean beforeEnd = end == null || lowerBound == null || !lowerBound.after(end);
+            if (afterStart && beforeEnd) {
+                names.add(partition.name);
+            }
+            lowerBound = partition.upperBound;
+        }
+        if (names.size() >= partitions.size()) {
+            return null;
+        }
+        // 查询范围内没有分区时也要指定一个分区，查询条件保证不会返回数据
+        if (names.isEmpty()) {
+            names.add(partitions.get(partitions.size() - 1).name);
+        }
+        return names;
+    }
+
+    /**
+     * 返回时间范围[start, end]的数据所在分区的PARTITION子句，用于组装查询脚本
+     *
+     * @return 如：“PARTITION (p202609, p202610)”，不需要按分区路由时返回空字符串
+     * @see #getPartitionNames(String, Date, Date)
+     */
+    public String getPartitionClause(String tableName, Date start, Date end) {
+        List<String> names = getPartitionNames(tableName, start, end);
+        if (names == null) {
+            return "";
+        }
+        return "PARTITION (" + StringUtils.join(names, ", ") + ")";
+    }
+
+    private static String formatDateTime(Date date) {
+        return new SimpleDateFormat(DATE_TIME_PATTERN).format(date);
+    }
+
+    private static Date parseDateTime(String str) {
+        try {
+            return new SimpleDateFormat(DATE_TIME_PATTERN).parse(str);
+        } catch (ParseException e) {
+            throw new RuntimeException("分区上界[" + str + "]格式错误", e);
+        }
+    }
+
+    /**
+     * 分区名称和上界
+     */
+    private static class PartitionRange {
+        private final String name;
+
+        /**
+         * 上界(不包含)，为null表示MAXVALUE
+         */
+        private final Date upperBound;
+
+        PartitionRange(String name, Date upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    /**
+     * 设置数据源
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * 设置需要维护的日志表
+     */
+    public void setTables(List<LogPartitionTable> tables) {
+        this.tables.clear();
+        for (LogPartitionTable table : tables) {
+            this.tables.put(table.getTableName(), table);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+
+    public void setMaintenanceInterval(long maintenanceInterval) {
+        this.maintenanceInterval = maintenanceInterval;
+    }
+
+    public long getStartupDelay() {
+        return startupDelay;
+    }
+
+    public void setStartupDelay(long startupDelay) {
+        this.startupDelay = startupDelay;
+    }
+
+    public int getRollupHours() {
+        return rollupHours;
+    }
+
+    public void setRollupHours(int rollupHours) {
+        this.rollupHours = rollupHours;
+    }
+
+    public int getRollupBackfillHours() {
+        return rollupBackfillHours;
+    }
+
+    public void setRollupBackfillHours(int rollupBackfillHours) {
+        this.rollupBackfillHours = rollupBackfillHours;
+    }
+}
@@ -0,0 +1,82 @@
+package org.cleverframe.core.retention;
+
+/**
+ * 由{@link LogPartitionManager}维护分区的日志表配置<br/>
+ * 日志表必须已经按时间字段使用RANGE COLUMNS分区(见database/mysql/log_partition_MySql.sql)，
+ * 未分区的表只会打印警告，查询时也不会按分区路由<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:00 <br/>
+ */
+public class LogPartitionTable {
+
+    /**
+     * 表名称
+     */
+    private String tableName;
+
+    /**
+     * 分区的时间粒度
+     */
+    private PartitionGranularity granularity = PartitionGranularity.MONTH;
+
+    /**
+     * 保留的时间段数量(包含当前时间段)，更早的分区会被直接删除，小于等于0表示不删除
+     */
+    private int retention = 6;
+
+    /**
+     * 提前创建的时间段数量，至少为1，保证写入新时间段的数据之前分区已经存在
+     */
+    private int preCreate = 2;
+
+    /**
+     * 按小时汇总数据的脚本名称(core_qlscript)，为空表示不汇总<br/>
+     * 脚本使用命名参数 :hourStart、:hourEnd，必须是可以重复执行的INSERT ... ON DUPLICATE KEY UPDATE语句
+     */
+    private String rollupScriptName;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public PartitionGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(PartitionGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+
+    public void setRetention(int retention) {
+        this.retention = retention;
+    }
+
+    public int getPreCreate() {
+        return preCreate;
+    }
+
+    public void setPreCreate(int preCreate) {
+        this.preCreate = preCreate;
+    }
+
+    public String getRollupScriptName() {
+        return rollupScriptName;
+    }
+
+    public void setRollupScriptName(String rollupScriptName) {
+        this.rollupScriptName = rollupScriptName;
+    }
+}
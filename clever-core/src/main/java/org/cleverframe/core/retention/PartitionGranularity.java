@@ -0,0 +1,77 @@
+package org.cleverframe.core.retention;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * 日志表分区的时间粒度<br/>
+ * 每个分区保存一个时间段(一天或一个月)的数据，分区名称使用时间段的开始时间，如：p20261018、p202610<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:00 <br/>
+ */
+public enum PartitionGranularity {
+    /**
+     * 按天分区
+     */
+    DAY("yyyyMMdd", Calendar.DAY_OF_MONTH),
+
+    /**
+     * 按月分区
+     */
+    MONTH("yyyyMM", Calendar.MONTH);
+
+    /**
+     * 分区名称中的日期格式
+     */
+    private final String namePattern;
+
+    /**
+     * 时间段对应的Calendar字段
+     */
+    private final int calendarField;
+
+    PartitionGranularity(String namePattern, int calendarField) {
+        this.namePattern = namePattern;
+        this.calendarField = calendarField;
+    }
+
+    /**
+     * 返回时间所在时间段的开始时间
+     */
+    public Date bucketStart(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (this == MONTH) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+        }
+        return calendar.getTime();
+    }
+
+    /**
+     * 时间段的开始时间加上(或减去)若干个时间段
+     *
+     * @param bucketStart 时间段的开始时间
+     * @param amount      时间段数量，可以为负数
+     */
+    public Date addBuckets(Date bucketStart, int amount) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(bucketStart);
+        calendar.add(calendarField, amount);
+        return calendar.getTime();
+    }
+
+    /**
+     * 返回时间段对应的分区名称
+     *
+     * @param bucketStart 时间段的开始时间
+     */
+    public String partitionName(Date bucketStart) {
+        return "p" + new SimpleDateFormat(namePattern).format(bucketStart);
+    }
+}
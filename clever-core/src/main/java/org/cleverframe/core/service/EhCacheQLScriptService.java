@@ -14,10 +14,16 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据库脚本Service，使用EhCache来缓存数据库脚本<br/>
+ * 1.系统启动时批量加载所有脚本到只读快照中，读取脚本时优先从快照中获取(无锁)<br/>
+ * 2.快照不可变，修改脚本时复制一份新的快照替换(copy-on-write)，每次替换版本号加1<br/>
+ * 3.集群中其它节点修改的脚本由{@link QLScriptVersionWatcher}轮询数据库版本发现，并重新加载快照<br/>
  * <b>注意：不会缓存软删除了的数据</b>
  * <p/>
  * 作者：LiZW <br/>
@@ -35,6 +41,11 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
      */
     private Cache qLScriptCahe = EhCacheUtils.createCache(EhCacheNames.QLScriptCache);
 
+    /**
+     * 数据库脚本快照(不可变)，只在替换时加锁，读取时无锁
+     */
+    private volatile QLScriptSnapshot snapshot = new QLScriptSnapshot(0L, Collections.<String, QLScript>emptyMap(), false);
+
     /**
      * 根据脚本名称获取脚本对象，优先到缓存中获取<br/>
      * 1.到QLScript缓存中获取<br/>
@@ -46,7 +57,11 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
      */
     @Override
     public QLScript getQLScriptByName(String name) {
-        QLScript qLScript = null;
+        QLScriptSnapshot current = snapshot;
+        QLScript qLScript = current.scripts.get(name);
+        if (qLScript != null) {
+            return qLScript;
+        }
         Element element = qLScriptCahe.get(name);
         if (null != element && element.getObjectValue() instanceof QLScript) {
             qLScript = (QLScript) element.getObjectValue();
@@ -76,6 +91,7 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
             if (qLScript.getDelFlag() != null && QLScript.DEL_FLAG_NORMAL == qLScript.getDelFlag()) {
                 Element element = new Element(qLScript.getName(), qLScript);
                 qLScriptCahe.put(element);
+                updateSnapshot(qLScript.getName(), qLScript);
             }
             return true;
         }
@@ -100,6 +116,8 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
             } else {
                 qLScriptCahe.remove(qLScript.getName());
             }
+            // 更新的数据不一定完整(如：只更新部分字段)，从快照中移除，下次读取时重新到数据库获取
+            updateSnapshot(qLScript.getName(), null);
             return true;
         }
         return false;
@@ -116,6 +134,7 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
     @Override
     public boolean deleteQLScript(String name) {
         qLScriptCahe.remove(name);
+        updateSnapshot(name, null);
         return qLScriptDao.deleteQLScript(name);
     }
 
@@ -134,8 +153,10 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
         if (qLScript != null && QLScript.DEL_FLAG_NORMAL.equals(qLScript.getDelFlag())) {
             Element element = new Element(qLScript.getName(), qLScript);
             qLScriptCahe.put(element);
+            updateSnapshot(name, qLScript);
         } else {
             qLScriptCahe.remove(name);
+            updateSnapshot(name, null);
         }
         return qLScript;
     }
@@ -144,24 +165,79 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
      * 从数据库查询所有的QL脚本，并存到QLScript缓存中(只缓存状态正常的数据，如果被软删除就移除缓存数据)<br/>
      * 1.先清空缓存<br/>
      * 2.在从数据库查询所有的QLScript(不包含软删除的数据)，添加到缓存中<br/>
+     * 3.使用查询结果替换数据库脚本快照<br/>
      *
      * @return 所有数据库脚本(不包含软删除的数据)
      */
     @Override
     public List<QLScript> findAllQLScript() {
-        // 先清空缓存
-        qLScriptCahe.removeAll();
-        // 在从数据库查询所有的QLScript(不包含软删除的数据)，添加到缓存中
+        // 在从数据库查询所有的QLScript(不包含软删除的数据)
         List<QLScript> list = qLScriptDao.findAllScript();
+        Map<String, QLScript> scripts = new HashMap<>(list.size() * 4 / 3 + 1);
         for (QLScript script : list) {
-            if (qLScriptCahe.get(script.getName()) == null) {
-                Element element = new Element(script.getName(), script);
-                qLScriptCahe.put(element);
+            // 查询结果按 name, update_date DESC 排序，同名脚本使用最新的
+            if (!scripts.containsKey(script.getName())) {
+                scripts.put(script.getName(), script);
             }
         }
+        // 清空缓存并添加到缓存中
+        qLScriptCahe.removeAll();
+        for (QLScript script : scripts.values()) {
+            qLScriptCahe.put(new Element(script.getName(), script));
+        }
+        synchronized (this) {
+            snapshot = new QLScriptSnapshot(snapshot.version + 1, scripts, true);
+        }
         return list;
     }
 
+    /**
+     * 获取数据库中脚本的版本信息(包含软删除的数据)，脚本被新增、修改、删除后版本信息会变化
+     *
+     * @see QLScriptDao#getScriptVersion()
+     */
+    public String getQLScriptVersion() {
+        return qLScriptDao.getScriptVersion();
+    }
+
+    /**
+     * 当前快照的版本号，每次替换快照加1
+     */
+    public long getSnapshotVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * 当前快照中的脚本数量
+     */
+    public int getSnapshotSize() {
+        return snapshot.scripts.size();
+    }
+
+    /**
+     * 快照是否已经加载过全部脚本
+     */
+    public boolean isSnapshotLoaded() {
+        return snapshot.loaded;
+    }
+
+    /**
+     * 复制一份新的快照并更新一个脚本，qLScript为null表示从快照中移除
+     */
+    private synchronized void updateSnapshot(String name, QLScript qLScript) {
+        QLScriptSnapshot current = snapshot;
+        if (qLScript == null && !current.scripts.containsKey(name)) {
+            return;
+        }
+        Map<String, QLScript> scripts = new HashMap<>(current.scripts);
+        if (qLScript == null) {
+            scripts.remove(name);
+        } else {
+            scripts.put(name, qLScript);
+        }
+        snapshot = new QLScriptSnapshot(current.version + 1, scripts, current.loaded);
+    }
+
     /**
      * 获取数据库脚本，使用分页，同时把查询到的数据放入QLScript缓存(只缓存状态正常的数据，如果被软删除就移除缓存数据)<br/>
      *
@@ -186,4 +262,30 @@ public class EhCacheQLScriptService extends BaseService implements IQLScriptServ
         }
         return page;
     }
+
+    /**
+     * 不可变的数据库脚本快照
+     */
+    private static final class QLScriptSnapshot {
+        /**
+         * 快照版本号
+         */
+        private final long version;
+
+        /**
+         * 脚本名称 --> 脚本
+         */
+        private final Map<String, QLScript> scripts;
+
+        /**
+         * 是否加载过全部脚本
+         */
+        private final boolean loaded;
+
+        private QLScriptSnapshot(long version, Map<String, QLScript> scripts, boolean loaded) {
+            this.version = version;
+            this.scripts = Collections.unmodifiableMap(scripts);
+            this.loaded = loaded;
+        }
+    }
 }
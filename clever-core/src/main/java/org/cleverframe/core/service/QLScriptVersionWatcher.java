@@ -0,0 +1,163 @@
+package org.cleverframe.core.service;
+
+import org.cleverframe.core.entity.QLScript;
+import org.cleverframe.core.utils.QLScriptUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 数据库脚本版本监视器<br/>
+ * 1.Spring容器初始化完成后批量加载所有数据库脚本(预热)，避免系统刚启动时每个脚本单独查询一次数据库<br/>
+ * 2.加载脚本后立即预编译脚本执行计划，组装脚本时不需要再编译<br/>
+ * 3.定时轮询数据库脚本的版本信息(触发器维护的版本号、数据总数、最大ID、最后更新时间)，版本变化时重新加载所有脚本<br/>
+ * 集群中任何一个节点修改了脚本，其它节点最多延迟一个轮询间隔就能使用新脚本，不需要重启<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 17:30 <br/>
+ *
+ * @see EhCacheQLScriptService
+ */
+public class QLScriptVersionWatcher implements ApplicationListener<ContextRefreshedEvent> {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(QLScriptVersionWatcher.class);
+
+    /**
+     * 数据库脚本Service
+     */
+    private EhCacheQLScriptService scriptService;
+
+    /**
+     * 是否在系统启动时批量加载所有脚本
+     */
+    private boolean preload = true;
+
+    /**
+     * 轮询数据库版本的间隔(秒)，小于等于0 表示不轮询
+     */
+    private long pollInterval = 30L;
+
+    /**
+     * 最后一次加载时数据库脚本的版本信息
+     */
+    private volatile String lastVersion;
+
+    /**
+     * 是否已经启动
+     */
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    /**
+     * 轮询线程
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Spring容器初始化完成后启动(父子容器会触发多次，只启动一次)
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (preload) {
+            try {
+                reload();
+            } catch (Throwable e) {
+                logger.error("### 数据库脚本预加载失败", e);
+            }
+        }
+        if (pollInterval > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "QLScriptVersionWatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    checkVersion();
+                }
+            }, pollInterval, pollInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 检查数据库脚本版本，版本变化时重新加载所有脚本
+     */
+    public void checkVersion() {
+        try {
+            String version = scriptService.getQLScriptVersion();
+            if (version != null && !version.equals(lastVersion)) {
+                logger.info("### 数据库脚本版本变化[{} -> {}]，重新加载", lastVersion, version);
+                reload();
+            }
+        } catch (Throwable e) {
+            logger.error("### 检查数据库脚本版本失败", e);
+        }
+    }
+
+    /**
+     * 重新加载所有脚本，并记录当前的版本信息
+     */
+    public synchronized void reload() {
+        // 先读取版本，加载期间的修改会在下一次轮询时发现
+        String version = scriptService.getQLScriptVersion();
+        List<QLScript> scripts = scriptService.findAllQLScript();
+        lastVersion = version;
+        // 脚本执行计划会根据脚本修改时间判断是否过期，只重新编译修改过的脚本
+        int compiled = QLScriptUtils.precompile(scripts);
+        logger.info("### 加载数据库脚本{}个, 预编译{}个, 版本[{}], 快照版本[{}]", scripts.size(), compiled, version, scriptService.getSnapshotVersion());
+    }
+
+    /**
+     * 停止轮询
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getLastVersion() {
+        return lastVersion;
+    }
+
+    public void setScriptService(EhCacheQLScriptService scriptService) {
+        this.scriptService = scriptService;
+    }
+
+    public boolean isPreload() {
+        return preload;
+    }
+
+    public void setPreload(boolean preload) {
+        this.preload = preload;
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+}
@@ -0,0 +1,641 @@
+package org.cleverframe.core.utils;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的数据库脚本执行计划<br/>
+ * 脚本加载或刷新时解析一次，之后每次组装脚本只需要遍历解析好的片段，不需要再经过FreeMarker渲染<br/>
+ * 支持的模版语法(FreeMarker语法的子集)：<br/>
+ * 1.插值：${name}，值使用toString()直接拼接到脚本中(不会像FreeMarker那样按区域格式化数字)<br/>
+ * 2.条件：&lt;#if 条件&gt;、&lt;#elseif 条件&gt;、&lt;#else&gt;、&lt;/#if&gt;，可以嵌套<br/>
+ * 3.条件表达式：name??、name、name == "值"、name != "值"，以及 !、&amp;&amp;、||、括号<br/>
+ * 4.注释：&lt;#-- 注释 --&gt;<br/>
+ * 脚本使用了其它FreeMarker语法时，预编译为FreeMarker的Template对象，组装脚本时使用FreeMarker渲染<br/>
+ * 编译时同时解析出脚本中的命名参数(:name)，组装脚本时按出现顺序返回实际用到的参数名<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 16:10 <br/>
+ *
+ * @see QLScriptUtils#getBoundScript(String, Map)
+ */
+public class QLScriptPlan {
+
+    /**
+     * 脚本名称
+     */
+    private final String name;
+
+    /**
+     * 脚本最后修改时间，用于判断执行计划是否过期
+     */
+    private final long lastModified;
+
+    /**
+     * 原始脚本
+     */
+    private final String source;
+
+    /**
+     * 解析后的脚本片段，使用FreeMarker渲染时为null
+     */
+    private final List<Node> nodes;
+
+    /**
+     * 脚本使用了不支持的语法时，预编译的FreeMarker模版
+     */
+    private final Template template;
+
+    /**
+     * 编译脚本，生成执行计划
+     *
+     * @param name          脚本名称
+     * @param source        脚本内容
+     * @param lastModified  脚本最后修改时间
+     * @param configuration 脚本使用了不支持的语法时，用于编译FreeMarker模版
+     */
+    public static QLScriptPlan compile(String name, String source, long lastModified, Configuration configuration) {
+        List<Node> nodes = null;
+        Template template = null;
+        try {
+            nodes = new Parser(source).parse();
+        } catch (UnsupportedSyntaxException e) {
+            try {
+                template = new Template(name, new StringReader(source), configuration);
+            } catch (Throwable t) {
+                throw new RuntimeException("脚本[" + name + "]编译失败", t);
+            }
+        }
+        return new QLScriptPlan(name, source, lastModified, nodes, template);
+    }
+
+    private QLScriptPlan(String name, String source, long lastModified, List<Node> nodes, Template template) {
+        this.name = name;
+        this.source = source;
+        this.lastModified = lastModified;
+        this.nodes = nodes;
+        this.template = template;
+    }
+
+    /**
+     * 根据模版数据组装脚本
+     *
+     * @param dataModel 模版数据
+     * @return 组装好的脚本和用到的命名参数
+     */
+    public BoundScript render(Map<String, Object> dataModel) {
+        if (dataModel == null) {
+            dataModel = Collections.emptyMap();
+        }
+        if (nodes == null) {
+            StringWriter writer = new StringWriter(source.length());
+            try {
+                template.process(dataModel, writer);
+            } catch (Throwable e) {
+                throw new RuntimeException("脚本[" + name + "]组装失败", e);
+            }
+            String script = writer.toString();
+            return new BoundScript(script, new ArrayList<>(parseParameterNames(script, new LinkedHashSet<String>())));
+        }
+        StringBuilder script = new StringBuilder(source.length());
+        Set<String> parameterNames = new LinkedHashSet<>();
+        renderNodes(nodes, dataModel, script, parameterNames);
+        return new BoundScript(script.toString(), new ArrayList<>(parameterNames));
+    }
+
+    private void renderNodes(List<Node> nodeList, Map<String, Object> dataModel, StringBuilder script, Set<String> parameterNames) {
+        for (Node node : nodeList) {
+            if (node instanceof TextNode) {
+                TextNode textNode = (TextNode) node;
+                script.append(textNode.text);
+                parameterNames.addAll(textNode.parameterNames);
+            } else if (node instanceof VariableNode) {
+                String variable = ((VariableNode) node).variable;
+                Object value = dataModel.get(variable);
+                if (value == null) {
+                    throw new RuntimeException("脚本[" + name + "]组装失败，模版数据[" + variable + "]不存在");
+                }
+                script.append(value);
+            } else {
+                IfNode ifNode = (IfNode) node;
+                for (int i = 0; i < ifNode.conditions.size(); i++) {
+                    if (ifNode.conditions.get(i).test(dataModel)) {
+                        renderNodes(ifNode.branches.get(i), dataModel, script, parameterNames);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 解析脚本中的命名参数(:name)，忽略字符串中的内容和“::”类型转换
+     */
+    static Set<String> parseParameterNames(String ql, Set<String> parameterNames) {
+        boolean inString = false;
+        int length = ql.length();
+        for (int i = 0; i < length; i++) {
+            char c = ql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (!inString && c == ':' && i + 1 < length && Character.isJavaIdentifierStart(ql.charAt(i + 1))
+                    && (i == 0 || ql.charAt(i - 1) != ':')) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(ql.charAt(end))) {
+                    end++;
+                }
+                parameterNames.add(ql.substring(i + 1, end));
+                i = end - 1;
+            }
+        }
+        return parameterNames;
+    }
+
+    /**
+     * 是否是预编译的执行计划(不使用FreeMarker渲染)
+     */
+    public boolean isCompiled() {
+        return nodes != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 组装好的脚本
+     */
+    public static class BoundScript {
+        /**
+         * 组装好的脚本
+         */
+        private final String script;
+
+        /**
+         * 脚本中用到的命名参数名称(按出现顺序，不重复)
+         */
+        private final List<String> parameterNames;
+
+        public BoundScript(String script, List<String> parameterNames) {
+            this.script = script;
+            this.parameterNames = Collections.unmodifiableList(parameterNames);
+        }
+
+        public String getScript() {
+            return script;
+        }
+
+        public List<String> getParameterNames() {
+            return parameterNames;
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          脚本片段
+     * -------------------------------------------------------------*/
+
+    private interface Node {
+    }
+
+    /**
+     * 普通文本片段
+     */
+    private static class TextNode implements Node {
+        private final String text;
+        private final Collection<String> parameterNames;
+
+        private TextNode(String text) {
+            this.text = text;
+            this.parameterNames = parseParameterNames(text, new LinkedHashSet<String>());
+        }
+    }
+
+    /**
+     * 插值片段 ${name}
+     */
+    private static class VariableNode implements Node {
+        private final String variable;
+
+        private VariableNode(String variable) {
+            this.variable = variable;
+        }
+    }
+
+    /**
+     * 条件片段，conditions与branches一一对应，&lt;#else&gt;的条件永远为true
+     */
+    private static class IfNode implements Node {
+        private final List<Condition> conditions = new ArrayList<>();
+        private final List<List<Node>> branches = new ArrayList<>();
+    }
+
+    /*--------------------------------------------------------------
+     *          条件表达式
+     * -------------------------------------------------------------*/
+
+    private interface Condition {
+        boolean test(Map<String, Object> dataModel);
+    }
+
+    /**
+     * &lt;#else&gt;分支
+     */
+    private final static Condition ALWAYS_TRUE = new Condition() {
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            return true;
+        }
+    };
+
+    /**
+     * 表达式 name??
+     */
+    private static class ExistsCondition implements Condition {
+        private final String variable;
+
+        private ExistsCondition(String variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            return dataModel.get(variable) != null;
+        }
+    }
+
+    /**
+     * 表达式 name，值必须是Boolean
+     */
+    private static class BooleanCondition implements Condition {
+        private final String variable;
+
+        private BooleanCondition(String variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            Object value = dataModel.get(variable);
+            if (!(value instanceof Boolean)) {
+                throw new RuntimeException("模版数据[" + variable + "]不是Boolean类型");
+            }
+            return (Boolean) value;
+        }
+    }
+
+    /**
+     * 表达式 name == "值"、name != "值"
+     */
+    private static class EqualsCondition implements Condition {
+        private final String variable;
+        private final String literal;
+        private final boolean equals;
+
+        private EqualsCondition(String variable, String literal, boolean equals) {
+            this.variable = variable;
+            this.literal = literal;
+            this.equals = equals;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            Object value = dataModel.get(variable);
+            if (value == null) {
+                throw new RuntimeException("模版数据[" + variable + "]不存在");
+            }
+            return literal.equals(value.toString()) == equals;
+        }
+    }
+
+    private static class NotCondition implements Condition {
+        private final Condition condition;
+
+        private NotCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            return !condition.test(dataModel);
+        }
+    }
+
+    private static class AndCondition implements Condition {
+        private final Condition left;
+        private final Condition right;
+
+        private AndCondition(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            return left.test(dataModel) && right.test(dataModel);
+        }
+    }
+
+    private static class OrCondition implements Condition {
+        private final Condition left;
+        private final Condition right;
+
+        private OrCondition(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> dataModel) {
+            return left.test(dataModel) || right.test(dataModel);
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          解析器
+     * -------------------------------------------------------------*/
+
+    /**
+     * 脚本使用了不支持的语法
+     */
+    private static class UnsupportedSyntaxException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedSyntaxException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * 只包含标签(或注释)的行，与FreeMarker一致，这样的行会去掉缩进、行尾空白和换行符
+     */
+    private final static Pattern TAG_LINE_PATTERN = Pattern.compile(
+            "^[ \\t]*((?:(?:<#(?:if|elseif)\\s[^>\\r\\n]*>|<#else\\s*>|</#if\\s*>|<#--.*?-->)[ \\t]*)+)(?:\\r\\n|\\n|\\r|$)",
+            Pattern.MULTILINE);
+
+    /**
+     * 模版解析器
+     */
+    private static class Parser {
+        private final String source;
+        private int pos = 0;
+
+        private Parser(String source) {
+            Matcher matcher = TAG_LINE_PATTERN.matcher(source);
+            StringBuffer sb = new StringBuffer(source.length());
+            while (matcher.find()) {
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(matcher.group(1).trim()));
+            }
+            matcher.appendTail(sb);
+            this.source = sb.toString();
+        }
+
+        private List<Node> parse() throws UnsupportedSyntaxException {
+            List<Node> nodes = new ArrayList<>();
+            String end = parseNodes(nodes);
+            if (end != null) {
+                throw new UnsupportedSyntaxException("多余的标签：" + end);
+            }
+            return nodes;
+        }
+
+        /**
+         * 解析脚本片段，遇到&lt;#elseif&gt;、&lt;#else&gt;、&lt;/#if&gt;时返回该标签，解析到结尾返回null
+         */
+        private String parseNodes(List<Node> nodes) throws UnsupportedSyntaxException {
+            StringBuilder text = new StringBuilder();
+            while (pos < source.length()) {
+                if (source.startsWith("<#--", pos)) {
+                    int end = source.indexOf("-->", pos);
+                    if (end < 0) {
+                        throw new UnsupportedSyntaxException("注释未结束");
+                    }
+                    pos = end + 3;
+                } else if (source.startsWith("${", pos)) {
+                    flushText(text, nodes);
+                    int end = source.indexOf('}', pos);
+                    String variable = end < 0 ? "" : source.substring(pos + 2, end).trim();
+                    if (!isIdentifier(variable)) {
+                        throw new UnsupportedSyntaxException("不支持的插值");
+                    }
+                    nodes.add(new VariableNode(variable));
+                    pos = end + 1;
+                } else if (source.startsWith("<#if", pos) && isTagEnd(pos + 4)) {
+                    flushText(text, nodes);
+                    nodes.add(parseIf());
+                } else if (source.startsWith("<#elseif", pos) && isTagEnd(pos + 8)) {
+                    flushText(text, nodes);
+                    return "elseif";
+                } else if (source.startsWith("<#else", pos) && isTagEnd(pos + 6)) {
+                    flushText(text, nodes);
+                    pos = readTag(pos + 6).length() + pos + 7;
+                    return "else";
+                } else if (source.startsWith("</#if>", pos)) {
+                    flushText(text, nodes);
+                    pos += 6;
+                    return "/if";
+                } else if (source.startsWith("<#", pos) || source.startsWith("</#", pos)
+                        || source.startsWith("<@", pos) || source.startsWith("#{", pos)) {
+                    throw new UnsupportedSyntaxException("不支持的指令");
+                } else {
+                    text.append(source.charAt(pos));
+                    pos++;
+                }
+            }
+            flushText(text, nodes);
+            return null;
+        }
+
+        private IfNode parseIf() throws UnsupportedSyntaxException {
+            IfNode ifNode = new IfNode();
+            // 跳过“<#if”
+            int start = pos + 4;
+            String expression = readTag(start);
+            pos = start + expression.length() + 1;
+            Condition condition = new ExpressionParser(expression).parse();
+            while (true) {
+                List<Node> branch = new ArrayList<>();
+                String end = parseNodes(branch);
+                ifNode.conditions.add(condition);
+                ifNode.branches.add(branch);
+                if ("/if".equals(end)) {
+                    return ifNode;
+                } else if ("elseif".equals(end)) {
+                    start = pos + 8;
+                    expression = readTag(start);
+                    pos = start + expression.length() + 1;
+                    condition = new ExpressionParser(expression).parse();
+                } else if ("else".equals(end)) {
+                    condition = ALWAYS_TRUE;
+                } else {
+                    throw new UnsupportedSyntaxException("<#if>标签未结束");
+                }
+            }
+        }
+
+        /**
+         * 读取标签内容直到“&gt;”(忽略字符串中的“&gt;”)
+         */
+        private String readTag(int start) throws UnsupportedSyntaxException {
+            boolean inString = false;
+            for (int i = start; i < source.length(); i++) {
+                char c = source.charAt(i);
+                if (c == '"') {
+                    inString = !inString;
+                } else if (c == '>' && !inString) {
+                    return source.substring(start, i);
+                }
+            }
+            throw new UnsupportedSyntaxException("标签未结束");
+        }
+
+        private boolean isTagEnd(int index) {
+            return index < source.length() && (source.charAt(index) == '>' || Character.isWhitespace(source.charAt(index)));
+        }
+
+        private void flushText(StringBuilder text, List<Node> nodes) {
+            if (text.length() > 0) {
+                nodes.add(new TextNode(text.toString()));
+                text.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * 条件表达式解析器(递归下降)
+     */
+    private static class ExpressionParser {
+        private final String expression;
+        private int pos = 0;
+
+        private ExpressionParser(String expression) {
+            this.expression = expression;
+        }
+
+        private Condition parse() throws UnsupportedSyntaxException {
+            Condition condition = parseOr();
+            skipWhitespace();
+            if (pos != expression.length()) {
+                throw new UnsupportedSyntaxException("不支持的条件表达式：" + expression);
+            }
+            return condition;
+        }
+
+        private Condition parseOr() throws UnsupportedSyntaxException {
+            Condition condition = parseAnd();
+            while (consume("||")) {
+                condition = new OrCondition(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private Condition parseAnd() throws UnsupportedSyntaxException {
+            Condition condition = parseUnary();
+            while (consume("&&")) {
+                condition = new AndCondition(condition, parseUnary());
+            }
+            return condition;
+        }
+
+        private Condition parseUnary() throws UnsupportedSyntaxException {
+            if (consume("!")) {
+                return new NotCondition(parseUnary());
+            }
+            if (consume("(")) {
+                Condition condition = parseOr();
+                if (!consume(")")) {
+                    throw new UnsupportedSyntaxException("括号不匹配：" + expression);
+                }
+                return condition;
+            }
+            String variable = readIdentifier();
+            if (consume("??")) {
+                return new ExistsCondition(variable);
+            }
+            if (consume("==")) {
+                return new EqualsCondition(variable, readString(), true);
+            }
+            if (consume("!=")) {
+                return new EqualsCondition(variable, readString(), false);
+            }
+            return new BooleanCondition(variable);
+        }
+
+        private String readIdentifier() throws UnsupportedSyntaxException {
+            skipWhitespace();
+            int start = pos;
+            while (pos < expression.length() && Character.isJavaIdentifierPart(expression.charAt(pos))) {
+                pos++;
+            }
+            String identifier = expression.substring(start, pos);
+            if (!isIdentifier(identifier)) {
+                throw new UnsupportedSyntaxException("不支持的条件表达式：" + expression);
+            }
+            return identifier;
+        }
+
+        private String readString() throws UnsupportedSyntaxException {
+            skipWhitespace();
+            if (pos >= expression.length() || expression.charAt(pos) != '"') {
+                throw new UnsupportedSyntaxException("不支持的条件表达式：" + expression);
+            }
+            int end = expression.indexOf('"', pos + 1);
+            if (end < 0 || expression.substring(pos + 1, end).indexOf('\\') >= 0) {
+                throw new UnsupportedSyntaxException("不支持的条件表达式：" + expression);
+            }
+            String literal = expression.substring(pos + 1, end);
+            pos = end + 1;
+            return literal;
+        }
+
+        private boolean consume(String token) {
+            skipWhitespace();
+            if (expression.startsWith(token, pos)) {
+                // “!”不能匹配“!=”
+                if ("!".equals(token) && expression.startsWith("!=", pos)) {
+                    return false;
+                }
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    private static boolean isIdentifier(String str) {
+        if (str == null || str.isEmpty() || !Character.isJavaIdentifierStart(str.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < str.length(); i++) {
+            if (!Character.isJavaIdentifierPart(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,6 @@
 package org.cleverframe.core.utils;
 
 import freemarker.template.Configuration;
-import freemarker.template.Template;
 import org.cleverframe.common.exception.ExceptionUtils;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.core.CoreBeanNames;
@@ -11,12 +10,21 @@ import org.cleverframe.core.service.IQLScriptService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.StringWriter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 获取脚本工具类<br/>
+ * 动态脚本在批量加载时({@link #precompile(Collection)})编译成执行计划{@link QLScriptPlan}并缓存，之后组装脚本不再经过FreeMarker渲染<br/>
+ * 没有经过批量加载的脚本(或者脚本被修改、刷新)在第一次使用时编译<br/>
+ * 同时统计每个脚本的组装次数和耗时<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-5-29 10:29 <br/>
@@ -37,6 +45,16 @@ public class QLScriptUtils {
      */
     private static final IQLScriptService QLSCRIPT_SERVICE;
 
+    /**
+     * 脚本执行计划缓存，脚本名称 --> 执行计划
+     */
+    private static final ConcurrentMap<String, QLScriptPlan> PLAN_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 脚本组装耗时统计，脚本名称 --> 统计数据
+     */
+    private static final ConcurrentMap<String, RenderStats> RENDER_STATS = new ConcurrentHashMap<>();
+
     // 生产环境使用
     static {
         try {
@@ -109,17 +127,90 @@ public class QLScriptUtils {
      *
      * @param name      脚本名称，使用包名称+类名+方法名
      * @param dataModel 设置用于组装SQL的数据(模板数据)
-     * @return 返回根据数据组装好的SQL脚本
+     * @return 返回根据数据组装好的SQL脚本，脚本不存在或者组装失败抛出异常
      */
     public static String getSQLScript(String name, Map<String, Object> dataModel) {
-        StringWriter sql = new StringWriter();
-        try {
-            Template template = CONFIGURATION.getTemplate(name);
-            template.process(dataModel, sql);
-        } catch (Throwable e) {
-            logger.error("根据脚本名称和模板数据组装SQL脚本失败", e);
+        return getBoundScript(name, dataModel).getScript();
+    }
+
+    /**
+     * 根据脚本名称和模板数据组装脚本，同时返回组装好的脚本中用到的命名参数<br/>
+     * <b>注意：只能返回没有被软删除的QLScript</b>
+     *
+     * @param name      脚本名称，使用包名称+类名+方法名
+     * @param dataModel 设置用于组装脚本的数据(模板数据)
+     * @return 组装好的脚本，脚本不存在或者组装失败抛出异常
+     */
+    public static QLScriptPlan.BoundScript getBoundScript(String name, Map<String, Object> dataModel) {
+        long start = System.nanoTime();
+        QLScriptPlan.BoundScript boundScript = getPlan(name).render(dataModel);
+        long cost = System.nanoTime() - start;
+        RenderStats stats = RENDER_STATS.get(name);
+        if (stats == null) {
+            RenderStats newStats = new RenderStats();
+            stats = RENDER_STATS.putIfAbsent(name, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        stats.record(cost);
+        return boundScript;
+    }
+
+    /**
+     * 批量预编译脚本的执行计划，在脚本加载(或重新加载)时调用，避免第一次组装脚本时编译<br/>
+     * 编译使用脚本缓存中的最新脚本，执行计划没有过期的脚本不会重新编译
+     *
+     * @param scripts 加载的脚本
+     * @return 编译成功的脚本数量
+     */
+    public static int precompile(Collection<QLScript> scripts) {
+        int count = 0;
+        Set<String> names = new HashSet<>();
+        for (QLScript script : scripts) {
+            if (script == null || !names.add(script.getName())) {
+                continue;
+            }
+            try {
+                getPlan(script.getName());
+                count++;
+            } catch (Throwable e) {
+                // 编译失败不影响其它脚本，组装脚本时会再次编译并抛出异常
+                logger.warn("### 脚本[" + script.getName() + "]预编译失败", e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取脚本的执行计划，执行计划不存在或者脚本已经被修改时重新编译
+     */
+    private static QLScriptPlan getPlan(String name) {
+        QLScript qLScript = QLSCRIPT_SERVICE.getQLScriptByName(name);
+        if (qLScript == null) {
+            PLAN_CACHE.remove(name);
+            throw new RuntimeException("脚本[" + name + "]不存在");
+        }
+        long lastModified = getLastModified(qLScript);
+        QLScriptPlan plan = PLAN_CACHE.get(name);
+        if (plan == null || plan.getLastModified() != lastModified || !plan.getSource().equals(qLScript.getScript())) {
+            plan = QLScriptPlan.compile(name, qLScript.getScript(), lastModified, CONFIGURATION);
+            PLAN_CACHE.put(name, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 脚本最后一次修改的时间
+     */
+    private static long getLastModified(QLScript qLScript) {
+        if (qLScript.getUpdateDate() != null) {
+            return qLScript.getUpdateDate().getTime();
+        } else if (qLScript.getCreateDate() != null) {
+            return qLScript.getCreateDate().getTime();
+        } else {
+            return 0L;
         }
-        return sql.toString();
     }
 
     /**
@@ -143,24 +234,68 @@ public class QLScriptUtils {
      */
     public static QLScript refreshQLScript(String name) {
         QLScript qLScript = QLSCRIPT_SERVICE.refreshQLScript(name);
-        try {
-            CONFIGURATION.removeTemplateFromCache(name);
-        } catch (Throwable e) {
-            logger.error("removeTemplateFromCache异常", e);
-        }
+        removeTemplateCache(name);
         return qLScript;
     }
 
     /**
-     * 根据脚本名称，移除FreeMarker缓存<br/>
+     * 根据脚本名称，移除脚本执行计划缓存和FreeMarker缓存<br/>
      *
      * @param name 脚本名称，使用包名称+类名+方法名
      */
     public static void removeTemplateCache(String name) {
+        PLAN_CACHE.remove(name);
         try {
             CONFIGURATION.removeTemplateFromCache(name);
         } catch (Throwable e) {
             logger.error("根据脚本名称，移除FreeMarker缓存异常", e);
         }
     }
+
+    /**
+     * 返回每个脚本的组装统计数据<br/>
+     * 脚本名称 --> {count:组装次数, totalMicros:总耗时(微秒), avgMicros:平均耗时(微秒), maxMicros:最大耗时(微秒), compiled:是否预编译}
+     */
+    public static Map<String, Map<String, Object>> getRenderStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, RenderStats> entry : RENDER_STATS.entrySet()) {
+            RenderStats stats = entry.getValue();
+            long count = stats.count.get();
+            long totalNanos = stats.totalNanos.get();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("totalMicros", totalNanos / 1000);
+            map.put("avgMicros", count <= 0 ? 0 : totalNanos / count / 1000);
+            map.put("maxMicros", stats.maxNanos.get() / 1000);
+            QLScriptPlan plan = PLAN_CACHE.get(entry.getKey());
+            map.put("compiled", plan != null && plan.isCompiled());
+            result.put(entry.getKey(), map);
+        }
+        return result;
+    }
+
+    /**
+     * 清空脚本的组装统计数据
+     */
+    public static void clearRenderStats() {
+        RENDER_STATS.clear();
+    }
+
+    /**
+     * 脚本组装耗时统计
+     */
+    private static class RenderStats {
+        private final AtomicLong count = new AtomicLong(0L);
+        private final AtomicLong totalNanos = new AtomicLong(0L);
+        private final AtomicLong maxNanos = new AtomicLong(0L);
+
+        private void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+    }
 }
@@ -20,6 +20,8 @@ public class FilemanagerBeanNames implements IBeanNames {
     public static final String LocalStorageService = "filemanager_LocalStorageService";
     public static final String FtpStorageService = "filemanager_FtpStorageService";
     public static final String FastDfsStorageService = "filemanager_FastDfsStorageService";
+    public static final String ChunkUploadService = "filemanager_ChunkUploadService";
+    public static final String ContentAddressedStorageService = "filemanager_ContentAddressedStorageService";
 
 
     // -------------------------------------------------------------------------------------------//
@@ -5,11 +5,21 @@ import org.cleverframe.common.controller.BaseController;
 import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.filemanager.FilemanagerBeanNames;
 import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.service.ChunkUploadService;
+import org.cleverframe.filemanager.service.IRandomAccessStorageService;
 import org.cleverframe.filemanager.service.IStorageService;
+import org.cleverframe.filemanager.utils.BandwidthManager;
+import org.cleverframe.filemanager.utils.RangeDownloadUtils;
+import org.cleverframe.filemanager.vo.request.BandwidthConfigVo;
+import org.cleverframe.filemanager.vo.request.ChunkUploadIdVo;
+import org.cleverframe.filemanager.vo.request.ChunkUploadInitVo;
+import org.cleverframe.filemanager.vo.request.ChunkUploadVo;
 import org.cleverframe.filemanager.vo.request.DeleteFileVo;
 import org.cleverframe.filemanager.vo.request.DownloadFileVo;
 import org.cleverframe.filemanager.vo.request.FileUploadLazyVo;
 import org.cleverframe.filemanager.vo.request.GetFileInfoVo;
+import org.cleverframe.filemanager.vo.response.BandwidthStatusVo;
+import org.cleverframe.filemanager.vo.response.ChunkUploadStatusVo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,8 +58,13 @@ public class FileManagerController extends BaseController {
     @Qualifier(FilemanagerBeanNames.LocalStorageService)
 //    @Qualifier(FilemanagerBeanNames.FtpStorageService)
 //    @Qualifier(FilemanagerBeanNames.FastDfsStorageService)
+//    @Qualifier(FilemanagerBeanNames.ContentAddressedStorageService)
     private IStorageService storageService;
 
+    @Autowired
+    @Qualifier(FilemanagerBeanNames.ChunkUploadService)
+    private ChunkUploadService chunkUploadService;
+
     @RequestMapping("/Demo" + VIEW_PAGE_SUFFIX)
     public ModelAndView getLoginJsp(HttpServletRequest request, HttpServletResponse response) {
         return new ModelAndView("filemanager/Demo");
@@ -184,6 +199,141 @@ public class FileManagerController extends BaseController {
         return message;
     }
 
+    /**
+     * 分片上传(断点续传) - 初始化上传会话<br/>
+     * 传入文件MD5签名时，服务器端存在相同文件直接秒传(complete=true)
+     */
+    @ResponseBody
+    @RequestMapping(value = "/chunk/init", method = RequestMethod.POST)
+    public AjaxMessage<ChunkUploadStatusVo> chunkInit(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid ChunkUploadInitVo chunkUploadInitVo,
+            BindingResult bindingResult) {
+        AjaxMessage<ChunkUploadStatusVo> message = new AjaxMessage<>(true, "初始化分片上传成功", null);
+        if (!beanValidator(bindingResult, message)) {
+            return message;
+        }
+        try {
+            message.setResult(chunkUploadService.init(
+                    chunkUploadInitVo.getFileName(),
+                    chunkUploadInitVo.getFileSize(),
+                    chunkUploadInitVo.getChunkSize(),
+                    chunkUploadInitVo.getFileDigest()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            message.setSuccess(false);
+            message.setFailMessage(e.getMessage());
+        } catch (Throwable e) {
+            logger.error("初始化分片上传失败", e);
+            message.setSuccess(false);
+            message.setFailMessage("初始化分片上传失败，系统异常");
+            message.setException(e);
+        }
+        return message;
+    }
+
+    /**
+     * 分片上传(断点续传) - 上传一个分片，分片可以乱序、并行上传<br/>
+     * 分片数据直接放在请求体中(Content-Type: application/octet-stream)，不使用multipart
+     */
+    @ResponseBody
+    @RequestMapping(value = "/chunk/upload", method = {RequestMethod.PUT, RequestMethod.POST})
+    public AjaxMessage<ChunkUploadStatusVo> chunkUpload(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid ChunkUploadVo chunkUploadVo,
+            BindingResult bindingResult) {
+        AjaxMessage<ChunkUploadStatusVo> message = new AjaxMessage<>(true, "上传分片成功", null);
+        if (!beanValidator(bindingResult, message)) {
+            return message;
+        }
+        try {
+            message.setResult(chunkUploadService.uploadChunk(
+                    chunkUploadVo.getUploadId(),
+                    chunkUploadVo.getIndex(),
+                    request.getInputStream(),
+                    chunkUploadVo.getChunkDigest()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            message.setSuccess(false);
+            message.setFailMessage(e.getMessage());
+        } catch (Throwable e) {
+            logger.error("上传分片失败", e);
+            message.setSuccess(false);
+            message.setFailMessage("上传分片失败，系统异常");
+            message.setException(e);
+        }
+        return message;
+    }
+
+    /**
+     * 分片上传(断点续传) - 查询上传状态(还未上传的分片)
+     */
+    @ResponseBody
+    @RequestMapping("/chunk/status")
+    public AjaxMessage<ChunkUploadStatusVo> chunkStatus(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid ChunkUploadIdVo chunkUploadIdVo,
+            BindingResult bindingResult) {
+        AjaxMessage<ChunkUploadStatusVo> message = new AjaxMessage<>(true, "查询上传状态成功", null);
+        if (!beanValidator(bindingResult, message)) {
+            return message;
+        }
+        try {
+            message.setResult(chunkUploadService.getStatus(chunkUploadIdVo.getUploadId()));
+        } catch (IllegalArgumentException e) {
+            message.setSuccess(false);
+            message.setFailMessage(e.getMessage());
+        }
+        return message;
+    }
+
+    /**
+     * 分片上传(断点续传) - 完成上传，所有分片上传之后调用
+     */
+    @ResponseBody
+    @RequestMapping(value = "/chunk/complete", method = RequestMethod.POST)
+    public AjaxMessage<ChunkUploadStatusVo> chunkComplete(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid ChunkUploadIdVo chunkUploadIdVo,
+            BindingResult bindingResult) {
+        AjaxMessage<ChunkUploadStatusVo> message = new AjaxMessage<>(true, "文件上传成功", null);
+        if (!beanValidator(bindingResult, message)) {
+            return message;
+        }
+        try {
+            message.setResult(chunkUploadService.complete(chunkUploadIdVo.getUploadId(), "TEST"));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            message.setSuccess(false);
+            message.setFailMessage(e.getMessage());
+        } catch (Throwable e) {
+            logger.error("完成分片上传失败", e);
+            message.setSuccess(false);
+            message.setFailMessage("完成分片上传失败，系统异常");
+            message.setException(e);
+        }
+        return message;
+    }
+
+    /**
+     * 分片上传(断点续传) - 取消上传
+     */
+    @ResponseBody
+    @RequestMapping(value = "/chunk/abort", method = RequestMethod.POST)
+    public AjaxMessage<String> chunkAbort(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid ChunkUploadIdVo chunkUploadIdVo,
+            BindingResult bindingResult) {
+        AjaxMessage<String> message = new AjaxMessage<>(true, "取消上传成功", null);
+        if (beanValidator(bindingResult, message) && !chunkUploadService.abort(chunkUploadIdVo.getUploadId())) {
+            message.setSuccess(false);
+            message.setFailMessage("上传会话不存在或已经过期");
+        }
+        return message;
+    }
+
     /**
      * 根据文件UUID，下载文件
      */
@@ -205,9 +355,17 @@ public class FileManagerController extends BaseController {
                 return message;
             }
             // 文件存在，下载文件
-            response.setContentType("multipart/form-data");
             String fileName = EncodeDecodeUtils.browserDownloadFileName(request.getHeader("User-Agent"), fileInfo.getFileName());
             response.setHeader("Content-Disposition", "attachment;fileName=" + fileName);
+            // 支持断点续传、分段下载，直接使用已经查询的文件信息
+            if (storageService instanceof IRandomAccessStorageService) {
+                if (RangeDownloadUtils.download(request, response, fileInfo, (IRandomAccessStorageService) storageService, 0)) {
+                    logger.info("文件下载成功, 文件UUID={}", fileInfo.getUuid());
+                    return null;
+                }
+                return message;
+            }
+            response.setContentType("multipart/form-data");
             response.setHeader("Content-Length", fileInfo.getFileSize().toString());
             OutputStream outputStream = response.getOutputStream();
             fileInfo = storageService.openFileSpeedLimit(downloadFileVo.getUuid(), outputStream, -1);
@@ -288,4 +446,44 @@ public class FileManagerController extends BaseController {
         }
         return message;
     }
+
+    /**
+     * 查询上传、下载带宽令牌桶(全局、用户)的限制速度和传输速度
+     */
+    @ResponseBody
+    @RequestMapping("/bandwidth/status")
+    public AjaxMessage<List<BandwidthStatusVo>> bandwidthStatus(HttpServletRequest request, HttpServletResponse response) {
+        AjaxMessage<List<BandwidthStatusVo>> message = new AjaxMessage<>(true, "查询带宽状态成功", null);
+        message.setResult(BandwidthManager.getInstance().getStatus());
+        return message;
+    }
+
+    /**
+     * 修改上传或下载的带宽限制，立即生效(每个请求的速度只对新的请求生效)
+     */
+    @ResponseBody
+    @RequestMapping(value = "/bandwidth/config", method = RequestMethod.POST)
+    public AjaxMessage<List<BandwidthStatusVo>> bandwidthConfig(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Valid BandwidthConfigVo bandwidthConfigVo,
+            BindingResult bindingResult) {
+        AjaxMessage<List<BandwidthStatusVo>> message = new AjaxMessage<>(true, "修改带宽限制成功", null);
+        if (!beanValidator(bindingResult, message)) {
+            return message;
+        }
+        BandwidthManager bandwidthManager = BandwidthManager.getInstance();
+        BandwidthManager.Direction direction = BandwidthManager.Direction.valueOf(bandwidthConfigVo.getDirection());
+        if (bandwidthConfigVo.getGlobalRate() != null) {
+            bandwidthManager.setGlobalRate(direction, bandwidthConfigVo.getGlobalRate());
+        }
+        if (bandwidthConfigVo.getUserRate() != null) {
+            bandwidthManager.setUserRate(direction, bandwidthConfigVo.getUserRate());
+        }
+        if (bandwidthConfigVo.getRequestRate() != null) {
+            bandwidthManager.setRequestRate(direction, bandwidthConfigVo.getRequestRate());
+        }
+        message.setResult(bandwidthManager.getStatus());
+        return message;
+    }
 }
@@ -0,0 +1,752 @@
+package org.cleverframe.filemanager.service;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cleverframe.common.codec.DigestUtils;
+import org.cleverframe.common.codec.EncodeDecodeUtils;
+import org.cleverframe.common.configuration.FilemanagerConfigNames;
+import org.cleverframe.common.configuration.FilemanagerConfigValues;
+import org.cleverframe.common.configuration.IConfig;
+import org.cleverframe.common.service.BaseService;
+import org.cleverframe.common.spring.SpringBeanNames;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.cleverframe.common.utils.IDCreateUtils;
+import org.cleverframe.filemanager.FilemanagerBeanNames;
+import org.cleverframe.filemanager.dao.FileInfoDao;
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.utils.BandwidthManager;
+import org.cleverframe.filemanager.utils.StoragePathUtils;
+import org.cleverframe.filemanager.vo.response.ChunkUploadStatusVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分片上传(断点续传)Service，上传文件存储到当前服务器<br/>
+ * 1.初始化上传会话(init)，在存储目录下预先分配与文件大小相同的稀疏临时文件<br/>
+ * 2.上传分片(uploadChunk)，分片可以乱序、并行上传，使用FileChannel按位置直接写入临时文件，每个分片计算MD5签名<br/>
+ * 3.查询未上传的分片(getStatus)，客户端断线后只需要上传缺少的分片<br/>
+ * 4.完成上传(complete)，使用整个文件的MD5签名判断服务器端是否有相同文件(秒传)，没有就把临时文件重命名为正式文件<br/>
+ * 5.超过 {@link FilemanagerConfigNames#CHUNK_SESSION_TIMEOUT} 没有上传分片的会话会被定时清除<br/>
+ * 6.限制最大文件大小({@link FilemanagerConfigNames#CHUNK_MAX_FILE_SIZE})、所有用户和每个用户同时存在的上传会话数量，防止耗尽磁盘空间<br/>
+ * 分片数据边读取边写入临时文件，不在内存中缓存整个分片；整个文件的MD5签名在分片写入后按分片顺序从临时文件读取增量计算(刚写入的数据通常还在操作系统页缓存中)，计算时不持有上传会话的锁<br/>
+ * <b>注意：上传会话只保存在当前JVM内存中，集群环境需要会话保持；系统重启后未完成的上传需要重新开始</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:05 <br/>
+ */
+@Service(FilemanagerBeanNames.ChunkUploadService)
+public class ChunkUploadService extends BaseService {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ChunkUploadService.class);
+
+    /**
+     * 分片上传临时文件目录(相对于 {@link LocalStorageService#FILE_STORAGE_PATH})，与正式文件在同一个文件系统，保证可以原子重命名
+     */
+    private static final String CHUNK_TEMP_PATH = File.separator + "chunk";
+
+    /**
+     * 分片上传临时文件的后缀
+     */
+    private static final String CHUNK_TEMP_SUFFIX = ".part";
+
+    /**
+     * 清除过期上传会话的间隔(秒)
+     */
+    private static final long SWEEP_INTERVAL = 60L;
+
+    /**
+     * 读写分片数据的缓冲区大小
+     */
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    @Qualifier(FilemanagerBeanNames.FileInfoDao)
+    private FileInfoDao fileInfoDao;
+
+    @Autowired
+    @Qualifier(FilemanagerBeanNames.LocalStorageService)
+    private IStorageService localStorageService;
+
+    /**
+     * 默认分片大小(字节)
+     */
+    private int chunkSize;
+
+    /**
+     * 最大分片大小(字节)
+     */
+    private int maxChunkSize;
+
+    /**
+     * 上传会话超时时间(毫秒)
+     */
+    private long sessionTimeout;
+
+    /**
+     * 允许上传的最大文件大小(字节)
+     */
+    private long maxFileSize;
+
+    /**
+     * 所有用户同时存在的最大上传会话数量
+     */
+    private int maxSessions;
+
+    /**
+     * 每个用户同时存在的最大上传会话数量
+     */
+    private int maxUserSessions;
+
+    /**
+     * 分片上传临时文件目录
+     */
+    private File tempDir;
+
+    /**
+     * 所有上传会话，上传会话ID -> 上传会话
+     */
+    private final Map<String, ChunkUploadSession> sessionMap = new ConcurrentHashMap<>();
+
+    /**
+     * 每个用户的上传会话数量(包括正在初始化的会话)，用户标识 -> 上传会话数量，读写时需要锁定此对象
+     */
+    private final Map<String, Integer> userSessionCounts = new HashMap<>();
+
+    /**
+     * 所有用户的上传会话数量(包括正在初始化的会话)，读写时需要锁定userSessionCounts
+     */
+    private int sessionCount = 0;
+
+    /**
+     * 清除过期上传会话的线程
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * 上传会话
+     */
+    private static class ChunkUploadSession {
+        private final String uploadId;
+        private final String user;
+        private final String fileName;
+        private final long fileSize;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final String expectDigest;
+        private final long createTime;
+        private final File tempFile;
+        private final FileChannel fileChannel;
+
+        /**
+         * 已经上传的分片
+         */
+        private final BitSet received;
+
+        /**
+         * 正在上传的分片，同一个分片不能同时上传
+         */
+        private final BitSet writing;
+
+        /**
+         * 每个分片的MD5签名
+         */
+        private final String[] chunkDigests;
+
+        /**
+         * 整个文件的MD5签名，按分片顺序增量计算，读写时需要锁定digestLock
+         */
+        private final MessageDigest fileDigest;
+
+        /**
+         * 计算整个文件MD5签名的锁，与上传会话的锁分开，计算签名时不阻塞其它分片的上传和状态查询<br/>
+         * 需要同时锁定时，先锁定digestLock再锁定上传会话
+         */
+        private final Object digestLock = new Object();
+
+        private int receivedCount = 0;
+
+        /**
+         * 下一个需要计算签名的分片序号
+         */
+        private int digestIndex = 0;
+
+        private boolean closed = false;
+
+        private volatile long lastAccessTime;
+
+        ChunkUploadSession(String uploadId, String user, String fileName, long fileSize, int chunkSize, String expectDigest, File tempFile) throws IOException {
+            this.uploadId = uploadId;
+            this.user = user;
+            this.fileName = fileName;
+            this.fileSize = fileSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            this.expectDigest = expectDigest;
+            this.createTime = System.currentTimeMillis();
+            this.lastAccessTime = createTime;
+            this.tempFile = tempFile;
+            this.received = new BitSet(chunkCount);
+            this.writing = new BitSet(chunkCount);
+            this.chunkDigests = new String[chunkCount];
+            try {
+                this.fileDigest = MessageDigest.getInstance(DigestUtils.MD5);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            // 预先分配文件大小(稀疏文件，不会真正写入数据)
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(tempFile, "rw")) {
+                randomAccessFile.setLength(fileSize);
+            }
+            this.fileChannel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        long getChunkPosition(int index) {
+            return (long) index * chunkSize;
+        }
+
+        int getChunkLength(int index) {
+            return (int) Math.min(chunkSize, fileSize - getChunkPosition(index));
+        }
+
+        /**
+         * 分片写入完成，调用时需要锁定上传会话
+         */
+        void onChunkWritten(int index, String chunkDigest) {
+            received.set(index);
+            chunkDigests[index] = chunkDigest;
+            receivedCount++;
+        }
+
+        /**
+         * 按分片顺序从临时文件读取已经写入的分片，增量计算整个文件的签名，调用时不能锁定上传会话
+         */
+        void updateFileDigest() throws IOException {
+            synchronized (digestLock) {
+                byte[] bytes = null;
+                while (true) {
+                    int index;
+                    synchronized (this) {
+                        if (closed || digestIndex >= chunkCount || !received.get(digestIndex)) {
+                            return;
+                        }
+                        index = digestIndex;
+                    }
+                    if (bytes == null) {
+                        bytes = new byte[IO_BUFFER_SIZE];
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    long position = getChunkPosition(index);
+                    long end = position + getChunkLength(index);
+                    try {
+                        while (position < end) {
+                            buffer.clear();
+                            buffer.limit((int) Math.min(bytes.length, end - position));
+                            int count = fileChannel.read(buffer, position);
+                            if (count < 0) {
+                                throw new IOException("读取分片数据失败, uploadId=" + uploadId + ", index=" + index);
+                            }
+                            fileDigest.update(bytes, 0, count);
+                            position += count;
+                        }
+                    } catch (ClosedChannelException e) {
+                        synchronized (this) {
+                            if (closed) {
+                                // 上传会话已经结束(取消上传、过期清除)
+                                return;
+                            }
+                        }
+                        throw e;
+                    }
+                    synchronized (this) {
+                        digestIndex++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 关闭上传会话
+         */
+        void close(boolean deleteTempFile) {
+            closed = true;
+            IOUtils.closeQuietly(fileChannel);
+            if (deleteTempFile) {
+                FileUtils.deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
+        if (config == null) {
+            throw new RuntimeException("### IConfig对象注入失败");
+        }
+        chunkSize = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.CHUNK_SIZE), NumberUtils.toInt(FilemanagerConfigValues.CHUNK_SIZE));
+        maxChunkSize = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.MAX_CHUNK_SIZE), NumberUtils.toInt(FilemanagerConfigValues.MAX_CHUNK_SIZE));
+        sessionTimeout = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.CHUNK_SESSION_TIMEOUT), NumberUtils.toLong(FilemanagerConfigValues.CHUNK_SESSION_TIMEOUT)) * 1000L;
+        maxFileSize = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.CHUNK_MAX_FILE_SIZE), NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.MAX_UPLOAD_SIZE), NumberUtils.toLong(FilemanagerConfigValues.CHUNK_MAX_FILE_SIZE)));
+        maxSessions = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.CHUNK_MAX_SESSIONS), NumberUtils.toInt(FilemanagerConfigValues.CHUNK_MAX_SESSIONS));
+        maxUserSessions = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.CHUNK_MAX_USER_SESSIONS), NumberUtils.toInt(FilemanagerConfigValues.CHUNK_MAX_USER_SESSIONS));
+        tempDir = new File(LocalStorageService.FILE_STORAGE_PATH + CHUNK_TEMP_PATH);
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ChunkUploadSweeper");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sweep();
+                } catch (Throwable e) {
+                    logger.error("### 清除过期的分片上传会话失败", e);
+                }
+            }
+        }, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.SECONDS);
+        logger.info("### [分片上传]临时文件目录[{}], 默认分片大小[{}], 会话超时时间[{}ms], 最大文件大小[{}], 最大会话数量[{}], 每个用户最大会话数量[{}]",
+                tempDir.getPath(), chunkSize, sessionTimeout, maxFileSize, maxSessions, maxUserSessions);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (ChunkUploadSession session : sessionMap.values()) {
+            synchronized (session) {
+                session.close(false);
+            }
+        }
+    }
+
+    private ChunkUploadSession getSession(String uploadId) {
+        ChunkUploadSession session = uploadId == null ? null : sessionMap.get(uploadId);
+        if (session == null) {
+            throw new IllegalArgumentException("上传会话不存在或已经过期, uploadId=" + uploadId);
+        }
+        session.lastAccessTime = System.currentTimeMillis();
+        return session;
+    }
+
+    /**
+     * 占用一个上传会话数量
+     *
+     * @param user 用户标识
+     * @throws IllegalStateException 超过所有用户或者当前用户的最大上传会话数量
+     */
+    private void acquireSession(String user) {
+        synchronized (userSessionCounts) {
+            if (sessionCount >= maxSessions) {
+                throw new IllegalStateException("服务器上传会话数量已达上限(" + maxSessions + ")，请稍后重试");
+            }
+            Integer count = userSessionCounts.get(user);
+            if (count != null && count >= maxUserSessions) {
+                throw new IllegalStateException("同时上传的文件数量不能超过" + maxUserSessions + "个，请先完成或取消之前的上传");
+            }
+            userSessionCounts.put(user, count == null ? 1 : count + 1);
+            sessionCount++;
+        }
+    }
+
+    /**
+     * 释放一个上传会话数量
+     *
+     * @param user 用户标识
+     */
+    private void releaseSession(String user) {
+        synchronized (userSessionCounts) {
+            Integer count = userSessionCounts.get(user);
+            if (count == null || count <= 1) {
+                userSessionCounts.remove(user);
+            } else {
+                userSessionCounts.put(user, count - 1);
+            }
+            sessionCount--;
+        }
+    }
+
+    /**
+     * 移除上传会话并释放上传会话数量
+     *
+     * @return 上传会话已经被移除返回false
+     */
+    private boolean removeSession(ChunkUploadSession session) {
+        if (!sessionMap.remove(session.uploadId, session)) {
+            return false;
+        }
+        releaseSession(session.user);
+        return true;
+    }
+
+    /**
+     * 上传会话状态，调用时需要锁定session
+     */
+    private static ChunkUploadStatusVo toStatus(ChunkUploadSession session) {
+        ChunkUploadStatusVo status = new ChunkUploadStatusVo();
+        status.setUploadId(session.uploadId);
+        status.setFileName(session.fileName);
+        status.setFileSize(session.fileSize);
+        status.setChunkSize(session.chunkSize);
+        status.setChunkCount(session.chunkCount);
+        status.setReceivedCount(session.receivedCount);
+        List<Integer> missingChunks = new ArrayList<>(session.chunkCount - session.receivedCount);
+        for (int i = session.received.nextClearBit(0); i < session.chunkCount; i = session.received.nextClearBit(i + 1)) {
+            missingChunks.add(i);
+        }
+        status.setMissingChunks(missingChunks);
+        return status;
+    }
+
+    /**
+     * 初始化上传会话<br>
+     *
+     * @param fileName   上传文件原名称
+     * @param fileSize   文件大小(字节)
+     * @param chunkSize  分片大小(字节)，为null使用默认分片大小
+     * @param fileDigest 文件的MD5签名(可选)，服务器端存在相同文件时直接返回文件信息(秒传)
+     * @return 上传会话状态，秒传成功时complete=true
+     */
+    public ChunkUploadStatusVo init(String fileName, long fileSize, Integer chunkSize, String fileDigest) throws Exception {
+        if (StringUtils.isBlank(fileName) || fileSize <= 0) {
+            throw new IllegalArgumentException("上传文件原名称不能为空, 文件大小必须大于0");
+        }
+        if (fileSize > maxFileSize) {
+            throw new IllegalArgumentException("上传文件大小不能超过" + maxFileSize + "字节");
+        }
+        int size = chunkSize == null ? this.chunkSize : chunkSize;
+        if (size <= 0 || size > maxChunkSize) {
+            throw new IllegalArgumentException("分片大小取值范围:1~" + maxChunkSize);
+        }
+        if ((fileSize + size - 1) / size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("分片数量太多，请增大分片大小");
+        }
+        if (StringUtils.isNotBlank(fileDigest)) {
+            fileDigest = fileDigest.toLowerCase();
+            FileInfo lazyFileInfo = localStorageService.lazySaveFile(fileName, fileDigest, FileInfo.MD5_DIGEST);
+            if (lazyFileInfo != null) {
+                ChunkUploadStatusVo status = new ChunkUploadStatusVo();
+                status.setFileName(fileName);
+                status.setFileSize(fileSize);
+                status.setComplete(true);
+                status.setFileInfo(lazyFileInfo);
+                return status;
+            }
+        }
+        if (!tempDir.exists() && !tempDir.mkdirs() && !tempDir.exists()) {
+            throw new RuntimeException("创建文件夹[" + tempDir.getPath() + "]失败");
+        }
+        String user = BandwidthManager.getCurrentUser();
+        acquireSession(user);
+        String uploadId = IDCreateUtils.uuid();
+        File tempFile = new File(tempDir, uploadId + CHUNK_TEMP_SUFFIX);
+        ChunkUploadSession session;
+        try {
+            session = new ChunkUploadSession(uploadId, user, fileName, fileSize, size, StringUtils.trimToNull(fileDigest), tempFile);
+        } catch (Throwable e) {
+            releaseSession(user);
+            FileUtils.deleteQuietly(tempFile);
+            throw e;
+        }
+        sessionMap.put(uploadId, session);
+        logger.info("[分片上传]初始化上传会话, uploadId={}, fileName={}, fileSize={}, chunkCount={}", uploadId, fileName, fileSize, session.chunkCount);
+        synchronized (session) {
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 上传一个分片，分片可以乱序、并行上传，已经上传的分片不会重复写入，同一个分片不能同时上传<br>
+     *
+     * @param uploadId    上传会话ID
+     * @param index       分片序号(从0开始)
+     * @param inputStream 分片数据，数据长度必须等于分片长度(最后一个分片可能小于分片大小)
+     * @param chunkDigest 分片的MD5签名(可选)，不为空时校验分片数据
+     * @return 上传会话状态
+     */
+    public ChunkUploadStatusVo uploadChunk(String uploadId, int index, InputStream inputStream, String chunkDigest) throws Exception {
+        ChunkUploadSession session = getSession(uploadId);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("分片序号取值范围:0~" + (session.chunkCount - 1));
+        }
+        synchronized (session) {
+            if (session.closed) {
+                throw new IllegalStateException("上传会话已经结束, uploadId=" + uploadId);
+            }
+            if (session.received.get(index)) {
+                return toStatus(session);
+            }
+            if (session.writing.get(index)) {
+                throw new IllegalStateException("分片[" + index + "]正在上传, uploadId=" + uploadId);
+            }
+            session.writing.set(index);
+        }
+        boolean success = false;
+        String digest = null;
+        try {
+            digest = writeChunk(session, index, inputStream);
+            if (StringUtils.isNotBlank(chunkDigest) && !digest.equalsIgnoreCase(chunkDigest)) {
+                throw new IllegalArgumentException("分片签名校验失败, 分片[" + index + "]的MD5签名是" + digest);
+            }
+            success = true;
+        } finally {
+            synchronized (session) {
+                session.writing.clear(index);
+                if (success && !session.closed && !session.received.get(index)) {
+                    session.onChunkWritten(index, digest);
+                }
+            }
+        }
+        session.updateFileDigest();
+        synchronized (session) {
+            if (session.closed) {
+                throw new IllegalStateException("上传会话已经结束, uploadId=" + uploadId);
+            }
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 边读取边按位置写入临时文件，同时计算分片的MD5签名，多个分片可以并行写入
+     *
+     * @return 分片的MD5签名
+     */
+    private static String writeChunk(ChunkUploadSession session, int index, InputStream inputStream) throws IOException {
+        int length = session.getChunkLength(index);
+        MessageDigest chunkDigest;
+        try {
+            chunkDigest = MessageDigest.getInstance(DigestUtils.MD5);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] bytes = new byte[Math.min(length, IO_BUFFER_SIZE)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = session.getChunkPosition(index);
+        long total = 0;
+        int count;
+        while ((count = inputStream.read(bytes)) != -1) {
+            total += count;
+            if (total > length) {
+                break;
+            }
+            chunkDigest.update(bytes, 0, count);
+            buffer.clear();
+            buffer.limit(count);
+            while (buffer.hasRemaining()) {
+                position += session.fileChannel.write(buffer, position);
+            }
+        }
+        if (total != length) {
+            throw new IllegalArgumentException("分片大小不正确, 分片[" + index + "]的大小应该是" + length + "字节");
+        }
+        return EncodeDecodeUtils.encodeHex(chunkDigest.digest());
+    }
+
+    /**
+     * 查询上传会话状态(包含还未上传的分片序号)<br>
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传会话状态
+     */
+    public ChunkUploadStatusVo getStatus(String uploadId) {
+        ChunkUploadSession session = getSession(uploadId);
+        synchronized (session) {
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 获取已经上传分片的MD5签名，还未上传的分片签名为null<br>
+     *
+     * @param uploadId 上传会话ID
+     * @return 每个分片的MD5签名
+     */
+    public String[] getChunkDigests(String uploadId) {
+        ChunkUploadSession session = getSession(uploadId);
+        synchronized (session) {
+            return session.chunkDigests.clone();
+        }
+    }
+
+    /**
+     * 完成上传，所有分片都上传之后才能调用<br>
+     * 服务器端存在相同文件(MD5签名相同)时删除临时文件并返回已经存在的文件信息，否则把临时文件重命名为正式文件并保存文件信息<br>
+     *
+     * @param uploadId   上传会话ID
+     * @param fileSource 上传文件来源(可以是系统模块名称)
+     * @return 上传会话状态，complete=true
+     */
+    @Transactional(readOnly = false)
+    public ChunkUploadStatusVo complete(String uploadId, String fileSource) throws Exception {
+        ChunkUploadSession session = getSession(uploadId);
+        synchronized (session) {
+            if (session.closed) {
+                throw new IllegalStateException("上传会话已经结束, uploadId=" + uploadId);
+            }
+            if (session.receivedCount < session.chunkCount) {
+                throw new IllegalStateException("还有" + (session.chunkCount - session.receivedCount) + "个分片未上传");
+            }
+        }
+        // 计算还没有计算签名的分片
+        session.updateFileDigest();
+        ChunkUploadStatusVo status;
+        String digest;
+        synchronized (session.digestLock) {
+            synchronized (session) {
+                if (session.closed) {
+                    throw new IllegalStateException("上传会话已经结束, uploadId=" + uploadId);
+                }
+                status = toStatus(session);
+                removeSession(session);
+                session.close(false);
+                digest = EncodeDecodeUtils.encodeHex(session.fileDigest.digest());
+            }
+        }
+        if (session.expectDigest != null && !session.expectDigest.equals(digest)) {
+            FileUtils.deleteQuietly(session.tempFile);
+            throw new IllegalStateException("文件签名校验失败, 上传文件的MD5签名是" + digest);
+        }
+        status.setComplete(true);
+        // 通过文件签名检查服务器端是否有相同文件
+        FileInfo lazyFileInfo = localStorageService.lazySaveFile(session.fileName, digest, FileInfo.MD5_DIGEST);
+        if (lazyFileInfo != null) {
+            FileUtils.deleteQuietly(session.tempFile);
+            status.setFileInfo(lazyFileInfo);
+            return status;
+        }
+        // 服务器端不存在相同文件，临时文件重命名为正式文件
+        String newName = IDCreateUtils.uuid();
+        String fileExtension = FilenameUtils.getExtension(session.fileName);
+        if (StringUtils.isNotBlank(fileExtension)) {
+            newName = newName + "." + fileExtension.toLowerCase();
+        }
+        String filePath = StoragePathUtils.createFilePathByDate("");
+        File file = new File(LocalStorageService.FILE_STORAGE_PATH + filePath + File.separator + newName);
+        long storageStart = System.currentTimeMillis();
+        File parentFile = file.getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs() && !parentFile.exists()) {
+            FileUtils.deleteQuietly(session.tempFile);
+            throw new RuntimeException("创建文件夹[" + parentFile.getPath() + "]失败");
+        }
+        try {
+            Files.move(session.tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            FileUtils.deleteQuietly(session.tempFile);
+            throw e;
+        }
+        long storageEnd = System.currentTimeMillis();
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileSource(fileSource);
+        fileInfo.setUploadTime(storageStart - session.createTime);
+        fileInfo.setFileName(session.fileName);
+        fileInfo.setFileSize(session.fileSize);
+        fileInfo.setDigest(digest);
+        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
+        fileInfo.setStoredType(FileInfo.LOCAL_STORAGE);
+        fileInfo.setNewName(newName);
+        fileInfo.setFilePath(filePath);
+        fileInfo.setStoredTime(storageEnd - storageStart);
+        fileInfoDao.getHibernateDao().save(fileInfo);
+        logger.info("[分片上传]上传完成, uploadId={}, 文件UUID={}, 上传时间[{}ms]", uploadId, fileInfo.getUuid(), fileInfo.getUploadTime());
+        status.setFileInfo(fileInfo);
+        return status;
+    }
+
+    /**
+     * 取消上传，删除临时文件<br>
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传会话不存在返回false
+     */
+    public boolean abort(String uploadId) {
+        ChunkUploadSession session = uploadId == null ? null : sessionMap.get(uploadId);
+        if (session == null || !removeSession(session)) {
+            return false;
+        }
+        synchronized (session) {
+            session.close(true);
+        }
+        logger.info("[分片上传]取消上传, uploadId={}", uploadId);
+        return true;
+    }
+
+    /**
+     * 清除过期的上传会话，以及系统重启之前遗留的临时文件<br>
+     *
+     * @return 清除的上传会话数量
+     */
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (ChunkUploadSession session : sessionMap.values()) {
+            if (now - session.lastAccessTime <= sessionTimeout) {
+                continue;
+            }
+            if (!removeSession(session)) {
+                continue;
+            }
+            synchronized (session) {
+                session.close(true);
+            }
+            count++;
+            logger.info("[分片上传]清除过期的上传会话, uploadId={}, 已上传分片{}/{}", session.uploadId, session.receivedCount, session.chunkCount);
+        }
+        File[] files = tempDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(CHUNK_TEMP_SUFFIX)
+                        && !sessionMap.containsKey(name.substring(0, name.length() - CHUNK_TEMP_SUFFIX.length()))
+                        && now - file.lastModified() > sessionTimeout
+                        && file.delete()) {
+                    logger.info("[分片上传]删除遗留的临时文件[{}]", file.getPath());
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 当前上传会话数量
+     */
+    public int getSessionCount() {
+        return sessionMap.size();
+    }
+}
@@ -0,0 +1,346 @@
+package org.cleverframe.filemanager.service;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cleverframe.common.configuration.FilemanagerConfigNames;
+import org.cleverframe.common.configuration.FilemanagerConfigValues;
+import org.cleverframe.common.configuration.IConfig;
+import org.cleverframe.common.service.BaseService;
+import org.cleverframe.common.spring.SpringBeanNames;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.cleverframe.filemanager.FilemanagerBeanNames;
+import org.cleverframe.filemanager.dao.FileInfoDao;
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.utils.ContentAddressedStore;
+import org.cleverframe.filemanager.utils.HotFileCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传文件按内容寻址存储到当前服务器的Service，参考 {@link ContentAddressedStore}<br/>
+ * 1.文件存储在 {@link LocalStorageService#FILE_STORAGE_PATH}/cas 目录下，按文件MD5签名分目录，文件名就是MD5签名<br/>
+ * 2.判断文件是否已经存在(秒传)只查询本地引用计数索引，不查询数据库<br/>
+ * 3.每次保存文件(包括秒传)都会新增一条文件信息并增加一个引用，删除文件信息时减少一个引用<br/>
+ * 4.没有引用的文件由后台线程定时删除<br/>
+ * 5.引用计数的变化与数据库事务一致：新增文件信息的事务回滚时撤销增加的引用，删除文件信息的事务提交后才减少引用(删除文件)<br/>
+ * 6.存储目录和后台线程在第一次使用时才创建，没有使用内容寻址存储时不会创建<br/>
+ * <b>注意：文件存储位置与 {@link LocalStorageService} 的规则相同，读取文件直接使用 {@link LocalStorageService}</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:20 <br/>
+ */
+@Service(FilemanagerBeanNames.ContentAddressedStorageService)
+public class ContentAddressedStorageService extends BaseService implements IRandomAccessStorageService {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ContentAddressedStorageService.class);
+
+    /**
+     * 内容寻址存储目录(相对于 {@link LocalStorageService#FILE_STORAGE_PATH})
+     */
+    public static final String CAS_PATH = File.separator + "cas";
+
+    /**
+     * 秒传新增的文件信息的文件来源
+     */
+    public static final String LAZY_FILE_SOURCE = "LAZY";
+
+    @Autowired
+    @Qualifier(FilemanagerBeanNames.FileInfoDao)
+    private FileInfoDao fileInfoDao;
+
+    @Autowired
+    @Qualifier(FilemanagerBeanNames.LocalStorageService)
+    private IRandomAccessStorageService localStorageService;
+
+    /**
+     * 内容寻址存储，第一次使用时创建
+     */
+    private volatile ContentAddressedStore store;
+
+    /**
+     * 删除没有引用的文件的时间间隔(秒)
+     */
+    private long gcInterval;
+
+    /**
+     * 没有引用的文件保留时间(毫秒)
+     */
+    private long gcRetainTime;
+
+    /**
+     * 定时删除没有引用的文件
+     */
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    private void init() {
+        IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
+        if (config == null) {
+            throw new RuntimeException("### IConfig对象注入失败");
+        }
+        gcInterval = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.CAS_GC_INTERVAL), NumberUtils.toLong(FilemanagerConfigValues.CAS_GC_INTERVAL));
+        gcRetainTime = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.CAS_GC_RETAIN_TIME), NumberUtils.toLong(FilemanagerConfigValues.CAS_GC_RETAIN_TIME)) * 1000L;
+    }
+
+    /**
+     * 获取内容寻址存储，第一次使用时打开存储目录并启动删除没有引用的文件的后台线程
+     */
+    private ContentAddressedStore getStore() throws IOException {
+        ContentAddressedStore tmp = store;
+        if (tmp != null) {
+            return tmp;
+        }
+        synchronized (this) {
+            if (store != null) {
+                return store;
+            }
+            final ContentAddressedStore newStore = new ContentAddressedStore(new File(LocalStorageService.FILE_STORAGE_PATH + CAS_PATH));
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ContentAddressedStoreGC");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        newStore.gc(gcRetainTime);
+                    } catch (Throwable e) {
+                        logger.error("### [内容寻址存储]删除没有引用的文件失败", e);
+                    }
+                }
+            }, gcInterval, gcInterval, TimeUnit.SECONDS);
+            store = newStore;
+            logger.info("### [内容寻址存储]存储目录[{}], 清理间隔[{}s], 没有引用的文件保留时间[{}ms]", newStore.getRootDir().getPath(), gcInterval, gcRetainTime);
+            return newStore;
+        }
+    }
+
+    @PreDestroy
+    private synchronized void destroy() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * 当前事务回滚后撤销增加的引用，没有事务时不处理
+     *
+     * @return 没有事务返回false
+     */
+    private boolean removeReferenceOnRollback(final String md5) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    store.removeReference(md5, false);
+                } catch (Throwable e) {
+                    logger.error("### [内容寻址存储]事务回滚后撤销文件引用失败，文件签名[" + md5 + "]", e);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行<br/>
+     * 事务提交之前删除文件的话，事务回滚后文件信息指向的文件已经不存在了
+     */
+    private static void afterCommit(final Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * 根据存储文件信息新增文件信息，保存失败或者事务回滚时撤销增加的引用
+     */
+    private FileInfo saveFileInfo(ContentAddressedStore.BlobInfo blobInfo, long uploadTime, String fileSource, String fileName, long storedTime) throws IOException {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileSource(fileSource);
+        fileInfo.setUploadTime(uploadTime);
+        fileInfo.setFileName(fileName);
+        fileInfo.setFileSize(blobInfo.getSize());
+        fileInfo.setDigest(blobInfo.getMd5());
+        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
+        // 上传文件的存储类型：当前服务器硬盘
+        fileInfo.setStoredType(FileInfo.LOCAL_STORAGE);
+        fileInfo.setNewName(blobInfo.getMd5());
+        fileInfo.setFilePath(CAS_PATH + ContentAddressedStore.getRelativeDir(blobInfo.getMd5()));
+        fileInfo.setStoredTime(storedTime);
+        if (removeReferenceOnRollback(blobInfo.getMd5())) {
+            fileInfoDao.getHibernateDao().save(fileInfo);
+            return fileInfo;
+        }
+        try {
+            fileInfoDao.getHibernateDao().save(fileInfo);
+        } catch (RuntimeException e) {
+            getStore().removeReference(blobInfo.getMd5(), false);
+            throw e;
+        }
+        return fileInfo;
+    }
+
+    /**
+     * 只查询本地引用计数索引，文件存在时新增一条文件信息并增加一个引用
+     */
+    @Transactional(readOnly = false)
+    @Override
+    public FileInfo lazySaveFile(String fileName, String fileDigest, Character digestType) throws Exception {
+        if (StringUtils.isBlank(fileDigest) || digestType == null) {
+            return null;
+        }
+        ContentAddressedStore store = getStore();
+        ContentAddressedStore.BlobInfo blobInfo;
+        if (FileInfo.SHA1_DIGEST.equals(digestType)) {
+            blobInfo = store.findBySha1(fileDigest);
+        } else {
+            blobInfo = store.findByMd5(fileDigest);
+        }
+        if (blobInfo != null) {
+            blobInfo = store.addReference(blobInfo.getMd5());
+        }
+        if (blobInfo == null) {
+            logger.debug("[内容寻址存储]秒传失败，文件没有上传过");
+            return null;
+        }
+        logger.info("[内容寻址存储]文件秒传成功，文件签名[{}]", blobInfo.getMd5());
+        return saveFileInfo(blobInfo, 0, LAZY_FILE_SOURCE, fileName, 0);
+    }
+
+    /**
+     * 上传文件只读取一次：写入临时文件的同时计算文件签名，文件已经存在时只增加引用<br>
+     */
+    @Transactional(readOnly = false)
+    @Override
+    public FileInfo saveFile(long uploadTime, String fileSource, MultipartFile multipartFile) throws Exception {
+        long storageStart = System.currentTimeMillis();
+        ContentAddressedStore.BlobInfo blobInfo;
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            blobInfo = getStore().put(inputStream);
+        }
+        long storageEnd = System.currentTimeMillis();
+        FileInfo fileInfo = saveFileInfo(blobInfo, uploadTime, fileSource, multipartFile.getOriginalFilename(), storageEnd - storageStart);
+        logger.info("[内容寻址存储]文件存储所用时间:[{}ms], 文件已存在:[{}], 引用计数:[{}]", fileInfo.getStoredTime(), blobInfo.isDeduplicated(), blobInfo.getRefCount());
+        return fileInfo;
+    }
+
+    /**
+     * 只删除当前文件信息并减少一个引用，不会删除引用同一个文件的其他文件信息<br>
+     * 事务提交之后才减少引用、删除没有引用的文件和清除热点文件缓存，事务回滚时文件和引用计数保持不变<br>
+     *
+     * @param lazy 值为true时，没有引用的文件由后台线程删除；值为false时，没有引用的文件立即删除
+     * @return 1：删除了fileInfo和服务器端文件；2：只删除了fileInfo(文件还有其他引用或者lazy=true)；3：fileInfo不存在
+     */
+    @Transactional(readOnly = false)
+    @Override
+    public int deleteFile(final Serializable fileInfoUuid, final boolean lazy) throws Exception {
+        final FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        if (fileInfo == null) {
+            // FileInfo 不存在或已经被删除
+            return 3;
+        }
+        fileInfoDao.getHibernateDao().delete(fileInfo);
+        final ContentAddressedStore store = getStore();
+        // 事务提交之前只能根据当前引用计数判断文件是否会被删除
+        ContentAddressedStore.BlobInfo blobInfo = store.findByMd5(fileInfo.getNewName());
+        boolean lastReference = blobInfo != null && blobInfo.getRefCount() <= 1;
+        afterCommit(new Runnable() {
+            @Override
+            public void run() {
+                int refCount;
+                try {
+                    refCount = store.removeReference(fileInfo.getNewName(), !lazy);
+                } catch (Throwable e) {
+                    logger.error("### [内容寻址存储]删除文件引用失败，文件签名[" + fileInfo.getNewName() + "]", e);
+                    HotFileCache.getInstance().invalidateFileInfo(fileInfoUuid);
+                    return;
+                }
+                if (refCount == 0) {
+                    HotFileCache.getInstance().invalidate(fileInfo);
+                } else {
+                    HotFileCache.getInstance().invalidateFileInfo(fileInfoUuid);
+                }
+                logger.info("[内容寻址存储]删除文件引用，文件签名[{}]，剩余引用数量[{}]", fileInfo.getNewName(), refCount);
+            }
+        });
+        if (!lazy && lastReference) {
+            return 1;
+        }
+        return 2;
+    }
+
+    @Override
+    public FileInfo isExists(Serializable fileInfoUuid) throws Exception {
+        return localStorageService.isExists(fileInfoUuid);
+    }
+
+    @Override
+    public FileInfo openFile(Serializable fileInfoUuid, OutputStream outputStream) throws Exception {
+        return localStorageService.openFile(fileInfoUuid, outputStream);
+    }
+
+    @Override
+    public FileInfo openFileSpeedLimit(Serializable fileInfoUuid, OutputStream outputStream, long maxSpeed) throws Exception {
+        return localStorageService.openFileSpeedLimit(fileInfoUuid, outputStream, maxSpeed);
+    }
+
+    @Override
+    public long getLastModified(FileInfo fileInfo) throws Exception {
+        return localStorageService.getLastModified(fileInfo);
+    }
+
+    @Override
+    public long openFile(FileInfo fileInfo, long position, long length, OutputStream outputStream, long maxSpeed) throws Exception {
+        return localStorageService.openFile(fileInfo, position, length, outputStream, maxSpeed);
+    }
+
+    /**
+     * 立即删除没有引用并且超过保留时间的文件<br>
+     *
+     * @return 删除的文件数量
+     */
+    public int gc() throws IOException {
+        return getStore().gc(gcRetainTime);
+    }
+}
@@ -1,6 +1,5 @@
 package org.cleverframe.filemanager.service;
 
-import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -10,8 +9,11 @@ import org.cleverframe.fastdfs.protocol.storage.callback.DownloadCallback;
 import org.cleverframe.filemanager.FilemanagerBeanNames;
 import org.cleverframe.filemanager.dao.FileInfoDao;
 import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
+import org.cleverframe.filemanager.utils.BandwidthManager;
 import org.cleverframe.filemanager.utils.FastDfsUtils;
-import org.cleverframe.filemanager.utils.FileDigestUtils;
+import org.cleverframe.filemanager.utils.DigestInputStream;
+import org.cleverframe.filemanager.utils.HotFileCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -62,17 +65,24 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
     @Transactional(readOnly = false)
     @Override
     public FileInfo saveFile(long uploadTime, String fileSource, MultipartFile multipartFile) throws Exception {
-        // 设置文件签名类型 和 文件签名
-        InputStream inputStream = multipartFile.getInputStream();
-        String digest = null;
+        // 上传文件的同时计算文件签名，文件只读取一次
+        long storageStart = System.currentTimeMillis();
+        DigestInputStream inputStream = new DigestInputStream(multipartFile.getInputStream());
+        StorePath storePath;
         try {
-            digest = FileDigestUtils.FileDigestByMD5(inputStream);
+            storePath = FastDfsUtils.uploadFile(inputStream, multipartFile.getSize(), FilenameUtils.getExtension(multipartFile.getOriginalFilename()));
         } finally {
             inputStream.close();
         }
-        // 通过文件签名检查服务器端是否有相同文件
+        long storageEnd = System.currentTimeMillis();
+        // 通过文件签名检查服务器端是否有相同文件，存在就删除刚上传的文件
+        String digest = inputStream.getMD5Hex();
         FileInfo lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), digest, FileInfo.MD5_DIGEST);
+        if (lazyFileInfo == null) {
+            lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), inputStream.getSHA1Hex(), FileInfo.SHA1_DIGEST);
+        }
         if (lazyFileInfo != null) {
+            FastDfsUtils.deleteFile(storePath.getGroup(), storePath.getPath());
             return lazyFileInfo;
         }
         // 服务器端不存在相同文件
@@ -80,21 +90,11 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
         fileInfo.setFileSource(fileSource);
         fileInfo.setUploadTime(uploadTime);
         fileInfo.setFileName(multipartFile.getOriginalFilename());
-        fileInfo.setFileSize(multipartFile.getSize());
+        fileInfo.setFileSize(inputStream.getByteCount());
         fileInfo.setDigest(digest);
         fileInfo.setDigestType(FileInfo.MD5_DIGEST);
         // 上传文件的存储类型：FastDFS服务器
         fileInfo.setStoredType(FileInfo.FASTDFS_STORAGE);
-        // 计算文件的绝对路径，保存文件
-        long storageStart = System.currentTimeMillis();
-        inputStream = multipartFile.getInputStream();
-        StorePath storePath = null;
-        try {
-            storePath = FastDfsUtils.uploadFile(inputStream, multipartFile.getSize(), FilenameUtils.getExtension(multipartFile.getOriginalFilename()));
-        } finally {
-            inputStream.close();
-        }
-        long storageEnd = System.currentTimeMillis();
         // group name
         fileInfo.setFilePath(storePath.getGroup());
         // file name
@@ -116,6 +116,7 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
             return 3;
         }
         int count = fileInfoDao.deleteFileInfo(fileInfo.getFilePath(), fileInfo.getNewName());
+        HotFileCache.getInstance().invalidateAfterCommit(fileInfo);
         logger.info("[FastDFS服务器]删除文件引用数量：{} 条", count);
         if (lazy) {
             // lazy == true:只删除FileInfo
@@ -131,11 +132,11 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
 
     @Override
     public FileInfo isExists(Serializable fileInfoUuid) throws Exception {
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
         if (fileInfo == null) {
             return null;
         }
-        if (FastDfsUtils.existsFile(fileInfo.getFilePath(), fileInfo.getNewName())) {
+        if (HotFileCache.getInstance().containsContent(fileInfo) || FastDfsUtils.existsFile(fileInfo.getFilePath(), fileInfo.getNewName())) {
             return fileInfo;
         }
         return null;
@@ -144,7 +145,10 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
     @SuppressWarnings("Convert2Lambda")
     @Override
     public FileInfo openFile(Serializable fileInfoUuid, OutputStream outputStream) throws Exception {
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
+        if (fileInfo != null && openCachedFile(fileInfo, outputStream, -1)) {
+            return fileInfo;
+        }
         if (fileInfo != null) {
             Boolean success = FastDfsUtils.downloadFile(fileInfo.getFilePath(), fileInfo.getNewName(), outputStream, new DownloadCallback<Boolean>() {
                 @Override
@@ -181,32 +185,88 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
     @SuppressWarnings("Convert2Lambda")
     @Override
     public FileInfo openFileSpeedLimit(Serializable fileInfoUuid, OutputStream outputStream, long maxSpeed) throws Exception {
-        if (maxSpeed <= 0) {
-            maxSpeed = Max_Open_Speed;
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
+        if (fileInfo != null && openCachedFile(fileInfo, outputStream, Math.max(0, maxSpeed))) {
+            return fileInfo;
         }
-        RateLimiter rateLimiter = RateLimiter.create(maxSpeed);
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
         if (fileInfo != null) {
-            Boolean success = FastDfsUtils.downloadFile(fileInfo.getFilePath(), fileInfo.getNewName(), outputStream, new DownloadCallback<Boolean>() {
+            final BandwidthLimiter rateLimiter = BandwidthManager.getInstance().open(BandwidthManager.Direction.DOWNLOAD, maxSpeed);
+            Boolean success;
+            try {
+                success = FastDfsUtils.downloadFile(fileInfo.getFilePath(), fileInfo.getNewName(), outputStream, new DownloadCallback<Boolean>() {
+                    @Override
+                    public Boolean receive(InputStream inputStream) throws IOException {
+                        if (inputStream == null) {
+                            return Boolean.FALSE;
+                        }
+                        byte[] data = new byte[32 * 1024];
+                        int readByte;
+                        double sleepTime;
+                        try {
+                            while (true) {
+                                readByte = inputStream.read(data);
+                                if (readByte <= 0) {
+                                    break;
+                                }
+                                outputStream.write(data, 0, readByte);
+                                sleepTime = rateLimiter.acquire(readByte);
+                                logger.debug("[FastDFS服务器]打开文件UUID:[{}], 读取字节数:[{}], 休眠时间:[{}]秒", fileInfo.getUuid(), readByte, sleepTime);
+                            }
+                            outputStream.flush();
+                            return Boolean.TRUE;
+                        } finally {
+                            IOUtils.closeQuietly(inputStream);
+                        }
+                    }
+                });
+            } finally {
+                rateLimiter.close();
+            }
+            if (!success) {
+                logger.error("[FastDFS服务器]到FastDFS服务器下载文件失败！");
+                throw new Exception("[FastDFS服务器]到FastDFS服务器下载文件失败！");
+            }
+            return fileInfo;
+        }
+        return null;
+    }
+
+    /**
+     * 获取文件信息，优先使用热点文件缓存
+     */
+    private FileInfo getFileInfo(Serializable fileInfoUuid) {
+        HotFileCache hotFileCache = HotFileCache.getInstance();
+        FileInfo fileInfo = hotFileCache.getFileInfo(fileInfoUuid);
+        if (fileInfo == null) {
+            fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+            hotFileCache.putFileInfo(fileInfo);
+        }
+        return fileInfo;
+    }
+
+    /**
+     * 使用热点文件缓存输出小文件，缓存中没有时下载整个文件放入缓存<br>
+     *
+     * @param maxSpeed 最大速度(字节/秒)，值小于0不限制速度，值等于0使用配置的每个请求速度
+     * @return 文件不能缓存返回false
+     */
+    @SuppressWarnings("Convert2Lambda")
+    private boolean openCachedFile(FileInfo fileInfo, OutputStream outputStream, long maxSpeed) throws Exception {
+        HotFileCache hotFileCache = HotFileCache.getInstance();
+        if (!hotFileCache.isCacheable(fileInfo)) {
+            return false;
+        }
+        byte[] content = hotFileCache.getContent(fileInfo);
+        if (content == null) {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream(fileInfo.getFileSize().intValue());
+            Boolean success = FastDfsUtils.downloadFile(fileInfo.getFilePath(), fileInfo.getNewName(), buffer, new DownloadCallback<Boolean>() {
                 @Override
                 public Boolean receive(InputStream inputStream) throws IOException {
                     if (inputStream == null) {
                         return Boolean.FALSE;
                     }
-                    byte[] data = new byte[32 * 1024];
-                    int readByte;
-                    double sleepTime;
                     try {
-                        while (true) {
-                            readByte = inputStream.read(data);
-                            if (readByte <= 0) {
-                                break;
-                            }
-                            outputStream.write(data, 0, readByte);
-                            sleepTime = rateLimiter.acquire(readByte);
-                            logger.debug("[FastDFS服务器]打开文件UUID:[{}], 读取字节数:[{}], 休眠时间:[{}]秒", fileInfo.getUuid(), readByte, sleepTime);
-                        }
-                        outputStream.flush();
+                        IOUtils.copy(inputStream, buffer);
                         return Boolean.TRUE;
                     } finally {
                         IOUtils.closeQuietly(inputStream);
@@ -217,8 +277,10 @@ public class FastDfsStorageService extends BaseService implements IStorageServic
                 logger.error("[FastDFS服务器]到FastDFS服务器下载文件失败！");
                 throw new Exception("[FastDFS服务器]到FastDFS服务器下载文件失败！");
             }
-            return fileInfo;
+            content = buffer.toByteArray();
+            hotFileCache.putContent(fileInfo, content);
         }
-        return null;
+        HotFileCache.writeContent(content, 0, Long.MAX_VALUE, outputStream, maxSpeed);
+        return true;
     }
 }
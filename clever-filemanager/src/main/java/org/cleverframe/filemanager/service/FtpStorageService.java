@@ -1,6 +1,5 @@
 package org.cleverframe.filemanager.service;
 
-import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.cleverframe.common.configuration.FilemanagerConfigNames;
@@ -13,7 +12,9 @@ import org.cleverframe.filemanager.FilemanagerBeanNames;
 import org.cleverframe.filemanager.dao.FileInfoDao;
 import org.cleverframe.filemanager.entity.FileInfo;
 import org.cleverframe.filemanager.utils.FTPClientTemplate;
-import org.cleverframe.filemanager.utils.FileDigestUtils;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
+import org.cleverframe.filemanager.utils.BandwidthManager;
+import org.cleverframe.filemanager.utils.DigestInputStream;
 import org.cleverframe.filemanager.utils.StoragePathUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,10 +62,21 @@ public class FtpStorageService extends BaseService implements IStorageService {
 
     @Override
     public FileInfo lazySaveFile(String fileName, String fileDigest, Character digestType) throws Exception {
-        FileInfo dbFileInfo;
         if (StringUtils.isBlank(fileDigest) || digestType == null) {
             return null;
         }
+        try (FTPClientTemplate ftp = FTPClientTemplate.borrow()) {
+            return lazySaveFile(ftp, fileDigest, digestType);
+        }
+    }
+
+    /**
+     * 使用已经借用的FTP连接判断服务器端是否存在相同文件，避免同时占用两个连接<br>
+     *
+     * @return 存在返回文件信息，不存在返回null
+     */
+    private FileInfo lazySaveFile(FTPClientTemplate ftp, String fileDigest, Character digestType) throws Exception {
+        FileInfo dbFileInfo;
         // 到数据库查找判断此文件是否已经上传过了
         dbFileInfo = fileInfoDao.findFileInfoByDigest(fileDigest, digestType);
         if (dbFileInfo == null || StringUtils.isBlank(dbFileInfo.getFilePath()) || StringUtils.isBlank(dbFileInfo.getNewName())) {
@@ -72,74 +84,78 @@ public class FtpStorageService extends BaseService implements IStorageService {
         } else {
             String filepath = FILE_STORAGE_PATH_BY_FTP + dbFileInfo.getFilePath() + File.separator + dbFileInfo.getNewName();
             filepath = FilenameUtils.separatorsToUnix(filepath);
-            boolean exists;
-            try (FTPClientTemplate ftp = new FTPClientTemplate()) {
-                exists = ftp.existsFile(filepath);
-            }
-            if (!exists) {
+            if (!ftp.existsFile(filepath)) {
                 return null;
             }
         }
         return dbFileInfo;
     }
 
+    /**
+     * 上传文件只读取一次：上传到FTP服务器临时文件的同时计算文件签名(MD5、SHA1)<br>
+     * 服务器端存在相同文件时删除临时文件，否则把临时文件重命名为正式文件<br>
+     */
     @Transactional(readOnly = false)
     @Override
     public FileInfo saveFile(long uploadTime, String fileSource, MultipartFile multipartFile) throws Exception {
-        // 设置文件签名类型 和 文件签名
-        InputStream inputStream = multipartFile.getInputStream();
-        String digest = null;
-        try {
-            digest = FileDigestUtils.FileDigestByMD5(inputStream);
-        } finally {
-            inputStream.close();
-        }
-        // 通过文件签名检查服务器端是否有相同文件
-        FileInfo lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), digest, FileInfo.MD5_DIGEST);
-        if (lazyFileInfo != null) {
-            return lazyFileInfo;
-        }
-        // 服务器端不存在相同文件
-        FileInfo fileInfo = new FileInfo();
-        fileInfo.setFileSource(fileSource);
-        fileInfo.setUploadTime(uploadTime);
-        fileInfo.setFileName(multipartFile.getOriginalFilename());
-        fileInfo.setFileSize(multipartFile.getSize());
-        fileInfo.setDigest(digest);
-        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
-        // 上传文件的存储类型：FTP服务器
-        fileInfo.setStoredType(FileInfo.FTP_STORAGE);
         // 设置文件存储之后的名称：UUID + 后缀名(此操作依赖文件原名称)
         String newName = IDCreateUtils.uuid();
-        String fileExtension = FilenameUtils.getExtension(fileInfo.getFileName());
+        String fileExtension = FilenameUtils.getExtension(multipartFile.getOriginalFilename());
         if (StringUtils.isNotBlank(fileExtension)) {
             newName = newName + "." + fileExtension.toLowerCase();
         }
-        fileInfo.setNewName(newName);
-
         // 上传文件存到FTP服务器的路径(相对路径)
         String filePath = StoragePathUtils.createFilePathByDate("");
-        fileInfo.setFilePath(filePath);
         // 计算文件的绝对路径，保存文件
         String absoluteFilePath = FILE_STORAGE_PATH_BY_FTP + filePath + File.separator + newName;
         absoluteFilePath = FilenameUtils.separatorsToUnix(absoluteFilePath);
+        String tempFilePath = absoluteFilePath + UPLOAD_TEMP_SUFFIX;
         long storageStart = System.currentTimeMillis();
-        FTPClientTemplate ftp = new FTPClientTemplate();
-        boolean success = false;
+        FileInfo lazyFileInfo = null;
+        DigestInputStream inputStream = new DigestInputStream(multipartFile.getInputStream());
+        FTPClientTemplate ftp = FTPClientTemplate.borrow();
+        boolean success;
         try {
-            inputStream = multipartFile.getInputStream();
-            success = ftp.uploadFile(absoluteFilePath, inputStream);
-        } finally {
-            if (inputStream != null) {
-                inputStream.close();
+            success = ftp.uploadFile(tempFilePath, inputStream);
+            if (success) {
+                // 通过文件签名检查服务器端是否有相同文件
+                lazyFileInfo = this.lazySaveFile(ftp, inputStream.getMD5Hex(), FileInfo.MD5_DIGEST);
+                if (lazyFileInfo == null) {
+                    lazyFileInfo = this.lazySaveFile(ftp, inputStream.getSHA1Hex(), FileInfo.SHA1_DIGEST);
+                }
+                if (lazyFileInfo != null) {
+                    ftp.deleteFile(tempFilePath);
+                } else {
+                    success = ftp.rename(tempFilePath, absoluteFilePath);
+                    if (!success) {
+                        ftp.deleteFile(tempFilePath);
+                    }
+                }
             }
+        } finally {
+            inputStream.close();
             ftp.close();
         }
+        if (lazyFileInfo != null) {
+            return lazyFileInfo;
+        }
         long storageEnd = System.currentTimeMillis();
         if (!success) {
             logger.error("[FTP服务器]上传文件到FTP服务器失败！");
             throw new Exception("[FTP服务器]上传文件到FTP服务器失败！");
         }
+        // 服务器端不存在相同文件
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileSource(fileSource);
+        fileInfo.setUploadTime(uploadTime);
+        fileInfo.setFileName(multipartFile.getOriginalFilename());
+        fileInfo.setFileSize(inputStream.getByteCount());
+        fileInfo.setDigest(inputStream.getMD5Hex());
+        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
+        // 上传文件的存储类型：FTP服务器
+        fileInfo.setStoredType(FileInfo.FTP_STORAGE);
+        fileInfo.setNewName(newName);
+        fileInfo.setFilePath(filePath);
         // 设置存储所用的时间
         fileInfo.setStoredTime(storageEnd - storageStart);
         logger.info("[FTP服务器]文件存储所用时间:[{}ms]", fileInfo.getStoredTime());
@@ -167,7 +183,7 @@ public class FtpStorageService extends BaseService implements IStorageService {
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         fullPath = FilenameUtils.separatorsToUnix(fullPath);
         boolean success;
-        try (FTPClientTemplate ftp = new FTPClientTemplate()) {
+        try (FTPClientTemplate ftp = FTPClientTemplate.borrow()) {
             success = ftp.deleteFile(fullPath);
         }
         if (!success) {
@@ -187,7 +203,7 @@ public class FtpStorageService extends BaseService implements IStorageService {
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         fullPath = FilenameUtils.separatorsToUnix(fullPath);
         boolean exists;
-        try (FTPClientTemplate ftp = new FTPClientTemplate()) {
+        try (FTPClientTemplate ftp = FTPClientTemplate.borrow()) {
             exists = ftp.existsFile(fullPath);
         }
         if (!exists) {
@@ -205,7 +221,7 @@ public class FtpStorageService extends BaseService implements IStorageService {
         String fullPath = FILE_STORAGE_PATH_BY_FTP + fileInfo.getFilePath();
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         fullPath = FilenameUtils.separatorsToUnix(fullPath);
-        FTPClientTemplate ftp = new FTPClientTemplate();
+        FTPClientTemplate ftp = FTPClientTemplate.borrow();
         InputStream inputStream = null;
         try {
             inputStream = ftp.downloadFile(fullPath);
@@ -234,10 +250,6 @@ public class FtpStorageService extends BaseService implements IStorageService {
     @SuppressWarnings("Duplicates")
     @Override
     public FileInfo openFileSpeedLimit(Serializable fileInfoUuid, OutputStream outputStream, long maxSpeed) throws Exception {
-        if (maxSpeed <= 0) {
-            maxSpeed = Max_Open_Speed;
-        }
-        RateLimiter rateLimiter = RateLimiter.create(maxSpeed);
         FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
         if (fileInfo == null) {
             return null;
@@ -245,7 +257,8 @@ public class FtpStorageService extends BaseService implements IStorageService {
         String fullPath = FILE_STORAGE_PATH_BY_FTP + fileInfo.getFilePath();
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         fullPath = FilenameUtils.separatorsToUnix(fullPath);
-        FTPClientTemplate ftp = new FTPClientTemplate();
+        FTPClientTemplate ftp = FTPClientTemplate.borrow();
+        BandwidthLimiter rateLimiter = BandwidthManager.getInstance().open(BandwidthManager.Direction.DOWNLOAD, maxSpeed);
         InputStream inputStream = null;
         try {
             inputStream = ftp.downloadFile(fullPath);
@@ -266,6 +279,7 @@ public class FtpStorageService extends BaseService implements IStorageService {
                 return fileInfo;
             }
         } finally {
+            rateLimiter.close();
             if (inputStream != null) {
                 inputStream.close();
             }
@@ -0,0 +1,38 @@
+package org.cleverframe.filemanager.service;
+
+import org.cleverframe.filemanager.entity.FileInfo;
+
+import java.io.OutputStream;
+
+/**
+ * 支持从任意位置读取文件的上传文件存储接口，用于HTTP断点续传、多线程分段下载<br/>
+ * <b>注意：方法参数直接使用已经查询出来的文件信息，不会再查询数据库</b><br/>
+ * <p>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 21:10 <br/>
+ *
+ * @see org.cleverframe.filemanager.utils.RangeDownloadUtils
+ */
+public interface IRandomAccessStorageService extends IStorageService {
+
+    /**
+     * 获取服务端文件的最后修改时间<br>
+     *
+     * @param fileInfo 文件信息
+     * @return 文件不存在返回-1
+     */
+    long getLastModified(FileInfo fileInfo) throws Exception;
+
+    /**
+     * 打开文件的一部分到OutputStream，可以控制打开速度<br>
+     *
+     * @param fileInfo     文件信息
+     * @param position     开始位置(从0开始)
+     * @param length       读取的字节数
+     * @param outputStream 输出流，用于打开文件
+     * @param maxSpeed     最大打开文件速度(字节/秒)，值小于0不限制速度(不经过带宽管理器)，值等于0使用带宽管理器配置的每个请求速度
+     * @return 写入OutputStream的字节数，文件不存在返回-1
+     * @throws Exception 操作失败
+     */
+    long openFile(FileInfo fileInfo, long position, long length, OutputStream outputStream, long maxSpeed) throws Exception;
+}
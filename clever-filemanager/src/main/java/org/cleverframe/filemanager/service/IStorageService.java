@@ -15,10 +15,16 @@ import java.io.Serializable;
 public interface IStorageService {
 
     /**
-     * 文件打开最大速度限制 (1024 * 1024 * 1 = 1MB)
+     * 文件打开最大速度限制 (1024 * 1024 * 1 = 1MB)<br>
+     * 默认速度已经改为使用 {@link org.cleverframe.filemanager.utils.BandwidthManager} 配置的每个请求速度
      */
     long Max_Open_Speed = 1024 * 1024;
 
+    /**
+     * 上传文件时临时文件的后缀，文件写入完成并计算出文件签名之后重命名为正式文件
+     */
+    String UPLOAD_TEMP_SUFFIX = ".uploading";
+
     /**
      * 根据文件签名保存文件，实现文件秒传<br>
      *
@@ -32,6 +38,7 @@ public interface IStorageService {
 
     /**
      * 保存文件，当文件较大时此方法会占用磁盘IO，因为common-fileupload会将上传文件写入硬盘的临时文件<br>
+     * 上传文件只读取一次，存储文件的同时计算文件签名<br>
      * <p>
      * <b>注意：如果上传的文件在服务器端存在(通过文件签名判断)，就不会存储文件只会新增文件引用</b>
      *
@@ -74,11 +81,11 @@ public interface IStorageService {
 
     /**
      * 打开文件到OutputStream(限制打开文件速度，适用于客户端下载文件) 可以控制打开速度<br>
-     * <b>注意：使用此方法会限制打开文件速度(字节/秒)</b>
+     * <b>注意：使用此方法会限制打开文件速度(字节/秒)，同时受带宽管理器的总速度和用户速度限制</b>
      *
      * @param fileInfoUuid 文件信息UUID
      * @param outputStream 输出流，用于打开文件
-     * @param maxSpeed     最大打开文件速度(字节/秒)，值小于等于0，则使用默认限制速度 {@link #Max_Open_Speed}
+     * @param maxSpeed     最大打开文件速度(字节/秒)，值小于等于0，则使用带宽管理器配置的每个请求速度
      * @return FileInfo(文件信息)。 文件不存在返回null
      * @throws Exception 操作失败
      */
@@ -1,8 +1,8 @@
 package org.cleverframe.filemanager.service;
 
-import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.cleverframe.common.configuration.FilemanagerConfigNames;
 import org.cleverframe.common.configuration.FilemanagerConfigValues;
@@ -14,7 +14,10 @@ import org.cleverframe.common.utils.IDCreateUtils;
 import org.cleverframe.filemanager.FilemanagerBeanNames;
 import org.cleverframe.filemanager.dao.FileInfoDao;
 import org.cleverframe.filemanager.entity.FileInfo;
-import org.cleverframe.filemanager.utils.FileDigestUtils;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
+import org.cleverframe.filemanager.utils.BandwidthManager;
+import org.cleverframe.filemanager.utils.DigestInputStream;
+import org.cleverframe.filemanager.utils.HotFileCache;
 import org.cleverframe.filemanager.utils.StoragePathUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +28,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.io.InputStream;
+import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * 上传文件存储到当前服务器的Service<br>
@@ -36,7 +44,7 @@ import java.io.Serializable;
  * 创建时间：2016/11/17 22:17 <br/>
  */
 @Service(FilemanagerBeanNames.LocalStorageService)
-public class LocalStorageService extends BaseService implements IStorageService {
+public class LocalStorageService extends BaseService implements IRandomAccessStorageService {
     /**
      * 日志对象
      */
@@ -93,39 +101,21 @@ public class LocalStorageService extends BaseService implements IStorageService
         return dbFileInfo;
     }
 
+    /**
+     * 上传文件只读取一次：写入存储目录下临时文件的同时计算文件签名(MD5、SHA1)<br>
+     * 服务器端存在相同文件时删除临时文件，否则把临时文件重命名为正式文件<br>
+     */
     @Transactional(readOnly = false)
     @Override
     public FileInfo saveFile(long uploadTime, String fileSource, MultipartFile multipartFile) throws Exception {
-        // 设置文件签名类型 和 文件签名
-        String digest;
-        try (InputStream inputStream = multipartFile.getInputStream()) {
-            digest = FileDigestUtils.FileDigestByMD5(inputStream);
-        }
-        // 通过文件签名检查服务器端是否有相同文件
-        FileInfo lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), digest, FileInfo.MD5_DIGEST);
-        if (lazyFileInfo != null) {
-            return lazyFileInfo;
-        }
-        // 服务器端不存在相同文件
-        FileInfo fileInfo = new FileInfo();
-        fileInfo.setFileSource(fileSource);
-        fileInfo.setUploadTime(uploadTime);
-        fileInfo.setFileName(multipartFile.getOriginalFilename());
-        fileInfo.setFileSize(multipartFile.getSize());
-        fileInfo.setDigest(digest);
-        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
-        // 上传文件的存储类型：当前服务器硬盘
-        fileInfo.setStoredType(FileInfo.LOCAL_STORAGE);
         // 设置文件存储之后的名称：UUID + 后缀名(此操作依赖文件原名称)
         String newName = IDCreateUtils.uuid();
-        String fileExtension = FilenameUtils.getExtension(fileInfo.getFileName());
+        String fileExtension = FilenameUtils.getExtension(multipartFile.getOriginalFilename());
         if (StringUtils.isNotBlank(fileExtension)) {
             newName = newName + "." + fileExtension.toLowerCase();
         }
-        fileInfo.setNewName(newName);
         // 上传文件存储到当前服务器的路径(相对路径，相对于 FILE_STORAGE_PATH)
         String filePath = StoragePathUtils.createFilePathByDate("");
-        fileInfo.setFilePath(filePath);
         // 计算文件的绝对路径，保存文件
         String absoluteFilePath = FILE_STORAGE_PATH + filePath + File.separator + newName;
         File file = new File(absoluteFilePath);
@@ -135,13 +125,50 @@ public class LocalStorageService extends BaseService implements IStorageService
         if (parentFile != null && !parentFile.exists()) {
             if (parentFile.mkdirs()) {
                 logger.info("[本地服务器]创建文件夹：" + parentFile.getPath());
-            } else {
+            } else if (!parentFile.exists()) {
                 throw new RuntimeException("创建文件夹[" + parentFile.getPath() + "]失败");
             }
         }
-        // 如果filePath表示的不是一个路径，文件就会被存到System.getProperty("user.dir")路径下
-        multipartFile.transferTo(file);
+        // 写入临时文件，同时计算文件签名
+        File tempFile = new File(absoluteFilePath + UPLOAD_TEMP_SUFFIX);
+        DigestInputStream inputStream = new DigestInputStream(multipartFile.getInputStream());
+        try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+            IOUtils.copyLarge(inputStream, outputStream, new byte[64 * 1024]);
+        } catch (Exception e) {
+            FileUtils.deleteQuietly(tempFile);
+            throw e;
+        } finally {
+            inputStream.close();
+        }
+        // 通过文件签名检查服务器端是否有相同文件
+        String digest = inputStream.getMD5Hex();
+        FileInfo lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), digest, FileInfo.MD5_DIGEST);
+        if (lazyFileInfo == null) {
+            lazyFileInfo = this.lazySaveFile(multipartFile.getOriginalFilename(), inputStream.getSHA1Hex(), FileInfo.SHA1_DIGEST);
+        }
+        if (lazyFileInfo != null) {
+            FileUtils.deleteQuietly(tempFile);
+            return lazyFileInfo;
+        }
+        // 服务器端不存在相同文件
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            FileUtils.deleteQuietly(tempFile);
+            throw e;
+        }
         long storageEnd = System.currentTimeMillis();
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileSource(fileSource);
+        fileInfo.setUploadTime(uploadTime);
+        fileInfo.setFileName(multipartFile.getOriginalFilename());
+        fileInfo.setFileSize(inputStream.getByteCount());
+        fileInfo.setDigest(digest);
+        fileInfo.setDigestType(FileInfo.MD5_DIGEST);
+        // 上传文件的存储类型：当前服务器硬盘
+        fileInfo.setStoredType(FileInfo.LOCAL_STORAGE);
+        fileInfo.setNewName(newName);
+        fileInfo.setFilePath(filePath);
         // 设置存储所用的时间
         fileInfo.setStoredTime(storageEnd - storageStart);
         logger.info("[本地服务器]文件存储所用时间:[{}ms]", fileInfo.getStoredTime());
@@ -160,6 +187,7 @@ public class LocalStorageService extends BaseService implements IStorageService
             return 3;
         }
         int count = fileInfoDao.deleteFileInfo(fileInfo.getFilePath(), fileInfo.getNewName());
+        HotFileCache.getInstance().invalidateAfterCommit(fileInfo);
         logger.info("[本地服务器]删除文件引用数量：{} 条", count);
         if (lazy) {
             // lazy == true:只删除FileInfo
@@ -181,10 +209,13 @@ public class LocalStorageService extends BaseService implements IStorageService
 
     @Override
     public FileInfo isExists(Serializable fileInfoUuid) throws Exception {
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
         if (fileInfo == null) {
             return null;
         }
+        if (HotFileCache.getInstance().containsContent(fileInfo)) {
+            return fileInfo;
+        }
         String fullPath = FILE_STORAGE_PATH + fileInfo.getFilePath();
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         File file = new File(fullPath);
@@ -197,21 +228,11 @@ public class LocalStorageService extends BaseService implements IStorageService
 
     @Override
     public FileInfo openFile(Serializable fileInfoUuid, OutputStream outputStream) throws Exception {
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
         if (fileInfo == null) {
             return null;
         }
-        String fullPath = FILE_STORAGE_PATH + fileInfo.getFilePath();
-        fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
-        File file = new File(fullPath);
-        if (file.exists() && file.isFile()) {
-            try (InputStream inputStream = FileUtils.openInputStream(file)) {
-                byte[] data = new byte[256 * 1024];
-                while (inputStream.read(data) > -1) {
-                    outputStream.write(data);
-                }
-                outputStream.flush();
-            }
+        if (openFile(fileInfo, 0, Long.MAX_VALUE, outputStream, -1) >= 0) {
             return fileInfo;
         }
         logger.warn("[本地服务器]文件引用[UUID={}]对应的文件不存在", fileInfo.getUuid());
@@ -220,37 +241,105 @@ public class LocalStorageService extends BaseService implements IStorageService
 
     @Override
     public FileInfo openFileSpeedLimit(Serializable fileInfoUuid, OutputStream outputStream, long maxSpeed) throws Exception {
-        if (maxSpeed <= 0) {
-            maxSpeed = Max_Open_Speed;
+        if (maxSpeed < 0) {
+            maxSpeed = 0;
         }
-        RateLimiter rateLimiter = RateLimiter.create(maxSpeed);
-        FileInfo fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+        FileInfo fileInfo = getFileInfo(fileInfoUuid);
         if (fileInfo == null) {
             return null;
         }
+        if (openFile(fileInfo, 0, Long.MAX_VALUE, outputStream, maxSpeed) >= 0) {
+            return fileInfo;
+        }
+        logger.warn("[本地服务器]文件引用[UUID={}]对应的文件不存在", fileInfo.getUuid());
+        return null;
+    }
+
+    @Override
+    public long getLastModified(FileInfo fileInfo) throws Exception {
+        File file = getStorageFile(fileInfo);
+        return file == null ? -1 : file.lastModified();
+    }
+
+    /**
+     * 小文件使用热点文件缓存，缓存中没有时读取整个文件放入缓存<br>
+     * 大文件使用FileChannel按位置读取到一个256KB的缓冲区，整个请求重复使用这个缓冲区写入OutputStream<br>
+     * Servlet的OutputStream不是SocketChannel，FileChannel.transferTo无法使用sendfile，只会退化成每次8KB的临时缓冲区复制，所以不使用transferTo<br>
+     * 限制速度时(使用带宽管理器)每次最多传输32KB<br>
+     */
+    @Override
+    public long openFile(FileInfo fileInfo, long position, long length, OutputStream outputStream, long maxSpeed) throws Exception {
+        HotFileCache hotFileCache = HotFileCache.getInstance();
+        byte[] content = hotFileCache.getContent(fileInfo);
+        if (content != null) {
+            return HotFileCache.writeContent(content, position, length, outputStream, maxSpeed);
+        }
+        File file = getStorageFile(fileInfo);
+        if (file == null) {
+            return -1;
+        }
+        if (hotFileCache.isCacheable(fileInfo) && file.length() == fileInfo.getFileSize()) {
+            content = Files.readAllBytes(file.toPath());
+            hotFileCache.putContent(fileInfo, content);
+            return HotFileCache.writeContent(content, position, length, outputStream, maxSpeed);
+        }
+        BandwidthLimiter rateLimiter = maxSpeed >= 0 ? BandwidthManager.getInstance().open(BandwidthManager.Direction.DOWNLOAD, maxSpeed) : null;
+        byte[] data = new byte[rateLimiter == null ? 256 * 1024 : 32 * 1024];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long end = fileChannel.size();
+            if (length < end - position) {
+                end = position + length;
+            }
+            long current = position;
+            int count;
+            double sleepTime;
+            while (current < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(data.length, end - current));
+                count = fileChannel.read(buffer, current);
+                if (count <= 0) {
+                    break;
+                }
+                outputStream.write(data, 0, count);
+                current += count;
+                if (rateLimiter != null) {
+                    sleepTime = rateLimiter.acquire(count);
+                    logger.debug("[本地服务器]打开文件UUID:[{}], 读取字节数:[{}], 休眠时间:[{}]秒", fileInfo.getUuid(), count, sleepTime);
+                }
+            }
+            outputStream.flush();
+            return Math.max(0, current - position);
+        } finally {
+            if (rateLimiter != null) {
+                rateLimiter.close();
+            }
+        }
+    }
+
+    /**
+     * 获取文件信息，优先使用热点文件缓存
+     */
+    private FileInfo getFileInfo(Serializable fileInfoUuid) {
+        HotFileCache hotFileCache = HotFileCache.getInstance();
+        FileInfo fileInfo = hotFileCache.getFileInfo(fileInfoUuid);
+        if (fileInfo == null) {
+            fileInfo = fileInfoDao.getFileInfoByUuid(fileInfoUuid);
+            hotFileCache.putFileInfo(fileInfo);
+        }
+        return fileInfo;
+    }
+
+    /**
+     * 获取文件信息对应的服务端文件，文件不存在返回null
+     */
+    private File getStorageFile(FileInfo fileInfo) {
         String fullPath = FILE_STORAGE_PATH + fileInfo.getFilePath();
         fullPath = FilenameUtils.concat(fullPath, fileInfo.getNewName());
         File file = new File(fullPath);
         if (file.exists() && file.isFile()) {
-            try (InputStream inputStream = FileUtils.openInputStream(file)) {
-                byte[] data = new byte[32 * 1024];
-                int readByte;
-                double sleepTime;
-                while (true) {
-                    readByte = inputStream.read(data);
-                    if (readByte <= 0) {
-                        break;
-                    }
-                    outputStream.write(data);
-                    sleepTime = rateLimiter.acquire(readByte);
-                    logger.debug("[本地服务器]打开文件UUID:[{}], 读取字节数:[{}], 休眠时间:[{}]秒", fileInfo.getUuid(), readByte, sleepTime);
-                }
-                outputStream.flush();
-            }
-            return fileInfo;
+            return file;
         }
-        logger.warn("[本地服务器]文件引用[UUID={}]对应的文件不存在", fileInfo.getUuid());
         return null;
     }
 }
-
@@ -6,6 +6,8 @@ import org.apache.commons.fileupload.FileUploadBase;
 import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
+import org.cleverframe.filemanager.utils.BandwidthManager;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
@@ -39,8 +41,9 @@ public class SpeedLimitMultipartResolver extends CommonsMultipartResolver {
     protected MultipartParsingResult parseRequest(HttpServletRequest request) throws MultipartException {
         String encoding = determineEncoding(request);
         FileUpload fileUpload = prepareFileUpload(encoding);
-        // 注册文件上传时的上传进度监听器，用于限制上传速度
-        fileUpload.setProgressListener(new SpeedLimitProgressListener());
+        // 注册文件上传时的上传进度监听器，用于限制上传速度(全局、用户、请求三级限制)
+        BandwidthLimiter rateLimiter = BandwidthManager.getInstance().open(BandwidthManager.Direction.UPLOAD, 0);
+        fileUpload.setProgressListener(new SpeedLimitProgressListener(rateLimiter));
         try {
             List<FileItem> fileItems = ((ServletFileUpload) fileUpload).parseRequest(request);
             return parseFileItems(fileItems, encoding);
@@ -50,6 +53,8 @@ public class SpeedLimitMultipartResolver extends CommonsMultipartResolver {
             throw new MaxUploadSizeExceededException(fileUpload.getFileSizeMax(), ex);
         } catch (FileUploadException ex) {
             throw new MultipartException("Failed to parse multipart servlet request", ex);
+        } finally {
+            rateLimiter.close();
         }
     }
 }
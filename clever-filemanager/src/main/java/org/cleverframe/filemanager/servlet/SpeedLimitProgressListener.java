@@ -1,12 +1,12 @@
 package org.cleverframe.filemanager.servlet;
 
-import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.fileupload.ProgressListener;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * 上传文件安读取进度用于限制文件上传最大速度
+ * 上传文件安读取进度用于限制文件上传最大速度，使用 {@link org.cleverframe.filemanager.utils.BandwidthManager} 分配的限速器
  * 作者：LiZW <br/>
  * 创建时间：2016/11/18 14:03 <br/>
  */
@@ -16,32 +16,22 @@ public class SpeedLimitProgressListener implements ProgressListener {
      */
     private final static Logger logger = LoggerFactory.getLogger(SpeedLimitProgressListener.class);
 
-    /**
-     * 文件上传最大速度限制 (1024 * 1024 * 1 = 1MB)
-     */
-    private final static long Max_Upload_Speed = 1024 * 1024;
-
     /**
      * 最后一次读取的字节数
      */
     private long lastBytesRead;
 
     /**
-     * 令牌桶算法 限流
+     * 分层令牌桶限速器(全局、用户、请求)
      */
-    private RateLimiter rateLimiter;
-
-    public SpeedLimitProgressListener() {
-        lastBytesRead = 0;
-        rateLimiter = RateLimiter.create(Max_Upload_Speed);
-    }
+    private BandwidthLimiter rateLimiter;
 
     /**
-     * @param maxUploadSpeed 最大上传速度限制(字节/秒)
+     * @param rateLimiter 限速器，需要调用者关闭
      */
-    public SpeedLimitProgressListener(double maxUploadSpeed) {
+    public SpeedLimitProgressListener(BandwidthLimiter rateLimiter) {
         lastBytesRead = 0;
-        rateLimiter = RateLimiter.create(maxUploadSpeed);
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -60,7 +50,7 @@ public class SpeedLimitProgressListener implements ProgressListener {
         lastBytesRead = pBytesRead;
         double sleepTime = 0;
         if (addReadBytes > 0) {
-            sleepTime = rateLimiter.acquire(addReadBytes.intValue());
+            sleepTime = rateLimiter.acquire(addReadBytes);
         }
         logger.debug("已读取字节数:[{}], 本次请求字节数:[{}], 当前文件数:[{}], 当前读取=[{}], 当前休眠时间:[{}]秒", pBytesRead, pContentLength, pItems, addReadBytes, sleepTime);
     }
@@ -0,0 +1,72 @@
+package org.cleverframe.filemanager.utils;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个请求(一次上传或者下载)使用的限速器，同时受全局、用户、请求三级令牌桶限制<br/>
+ * 由 {@link BandwidthManager#open} 创建，<b>使用完毕一定要调用 {@link #close()}</b><br/>
+ * <b>注意：此类不是线程安全的，只能在一个线程中使用</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:40 <br/>
+ */
+public class BandwidthLimiter implements Closeable {
+
+    private final BandwidthManager.UserBucket userBucket;
+
+    private final TokenBucket globalBucket;
+
+    private final TokenBucket requestBucket;
+
+    private boolean closed = false;
+
+    BandwidthLimiter(TokenBucket globalBucket, BandwidthManager.UserBucket userBucket, TokenBucket requestBucket) {
+        this.globalBucket = globalBucket;
+        this.userBucket = userBucket;
+        this.requestBucket = requestBucket;
+    }
+
+    /**
+     * 传输数据之前(或之后)调用，令牌不足时休眠<br>
+     *
+     * @param bytes 字节数
+     * @return 休眠时间(秒)
+     */
+    public double acquire(long bytes) {
+        if (bytes <= 0) {
+            return 0;
+        }
+        long now = globalBucket.getTicker().read();
+        long wait = globalBucket.reserve(bytes, now);
+        wait = Math.max(wait, userBucket.getBucket().reserve(bytes, now));
+        wait = Math.max(wait, requestBucket.reserve(bytes, now));
+        if (wait <= 0) {
+            return 0;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return wait / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * 当前请求的最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    public long getRate() {
+        return requestBucket.getRate();
+    }
+
+    /**
+     * 结束请求
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            userBucket.release();
+        }
+    }
+}
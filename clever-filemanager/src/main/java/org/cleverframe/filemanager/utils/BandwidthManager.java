@@ -0,0 +1,364 @@
+package org.cleverframe.filemanager.utils;
+
+import com.google.common.base.Ticker;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cleverframe.common.configuration.FilemanagerConfigNames;
+import org.cleverframe.common.configuration.FilemanagerConfigValues;
+import org.cleverframe.common.configuration.IConfig;
+import org.cleverframe.common.service.BaseService;
+import org.cleverframe.common.spring.SpringBeanNames;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.cleverframe.common.user.IUserUtils;
+import org.cleverframe.filemanager.vo.response.BandwidthStatusVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 上传、下载带宽管理，分层令牌桶：全局 -> 用户 -> 请求<br/>
+ * 1.全局令牌桶限制所有请求的总速度，保护服务器网卡<br/>
+ * 2.用户令牌桶限制同一个用户所有请求的总速度，同一个用户并行下载不会得到更多带宽<br/>
+ * 3.请求令牌桶限制单个请求的速度<br/>
+ * 4.上传和下载分别限制，速度可以在运行时修改，可以查询每个令牌桶的传输速度<br/>
+ * 用户使用当前登录用户编码区分，没有登录时使用客户端IP地址<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:40 <br/>
+ *
+ * @see BandwidthLimiter
+ */
+public class BandwidthManager {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(BandwidthManager.class);
+
+    /**
+     * 没有请求的用户令牌桶超过此时间(纳秒)会被清除
+     */
+    private static final long USER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * 无法确定用户时使用的用户标识
+     */
+    private static final String ANONYMOUS_USER = "anonymous";
+
+    /**
+     * 传输方向
+     */
+    public enum Direction {
+        /**
+         * 上传
+         */
+        UPLOAD,
+        /**
+         * 下载
+         */
+        DOWNLOAD
+    }
+
+    /**
+     * 用户令牌桶，记录用户正在进行的请求数
+     */
+    static class UserBucket {
+        private final TokenBucket bucket;
+
+        /**
+         * 正在进行的请求数，只在 {@link ConcurrentHashMap#compute} 中增加，保证不会清除正在使用的令牌桶
+         */
+        private int activeCount = 0;
+
+        UserBucket(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        TokenBucket getBucket() {
+            return bucket;
+        }
+
+        synchronized void release() {
+            activeCount--;
+        }
+
+        synchronized int getActiveCount() {
+            return activeCount;
+        }
+    }
+
+    /**
+     * 一个传输方向的带宽配置和令牌桶
+     */
+    private static class DirectionBuckets {
+        private final TokenBucket globalBucket;
+
+        private final Map<String, UserBucket> userBuckets = new ConcurrentHashMap<>();
+
+        private volatile long userRate;
+
+        private volatile long requestRate;
+
+        DirectionBuckets(long globalRate, long userRate, long requestRate, Ticker ticker) {
+            this.globalBucket = new TokenBucket("global", globalRate, ticker);
+            this.userRate = userRate;
+            this.requestRate = requestRate;
+        }
+    }
+
+    private static volatile BandwidthManager instance;
+
+    /**
+     * 获取使用配置文件中带宽配置的带宽管理器(第一次使用时创建)
+     */
+    public static BandwidthManager getInstance() {
+        if (instance == null) {
+            synchronized (BandwidthManager.class) {
+                if (instance == null) {
+                    instance = createInstance();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 读取配置文件创建带宽管理器
+     */
+    private static BandwidthManager createInstance() {
+        IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
+        if (config == null) {
+            throw new RuntimeException("Spring Bean注入失败, BeanName=" + SpringBeanNames.Config);
+        }
+        BandwidthManager bandwidthManager = new BandwidthManager(
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_UPLOAD_GLOBAL), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_UPLOAD_GLOBAL)),
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_UPLOAD_PER_USER), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_UPLOAD_PER_USER)),
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_UPLOAD_PER_REQUEST), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_UPLOAD_PER_REQUEST)),
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_DOWNLOAD_GLOBAL), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_DOWNLOAD_GLOBAL)),
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_DOWNLOAD_PER_USER), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_DOWNLOAD_PER_USER)),
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.BANDWIDTH_DOWNLOAD_PER_REQUEST), NumberUtils.toLong(FilemanagerConfigValues.BANDWIDTH_DOWNLOAD_PER_REQUEST)));
+        logger.info("### 带宽管理器初始化完成, 上传速度(总/用户/请求)=[{}/{}/{}], 下载速度(总/用户/请求)=[{}/{}/{}]",
+                bandwidthManager.getGlobalRate(Direction.UPLOAD), bandwidthManager.getUserRate(Direction.UPLOAD), bandwidthManager.getRequestRate(Direction.UPLOAD),
+                bandwidthManager.getGlobalRate(Direction.DOWNLOAD), bandwidthManager.getUserRate(Direction.DOWNLOAD), bandwidthManager.getRequestRate(Direction.DOWNLOAD));
+        return bandwidthManager;
+    }
+
+    private final DirectionBuckets upload;
+
+    private final DirectionBuckets download;
+
+    /**
+     * 时钟(纳秒)，所有令牌桶共用
+     */
+    private final Ticker ticker;
+
+    /**
+     * 最后一次清除空闲用户令牌桶的时间(纳秒)
+     */
+    private volatile long lastCleanNanos;
+
+    /**
+     * 所有速度的单位都是字节/秒，值小于等于0不限制速度
+     *
+     * @param uploadGlobal       上传总速度
+     * @param uploadPerUser      每个用户上传总速度
+     * @param uploadPerRequest   每个请求上传速度
+     * @param downloadGlobal     下载总速度
+     * @param downloadPerUser    每个用户下载总速度
+     * @param downloadPerRequest 每个请求下载速度
+     */
+    public BandwidthManager(long uploadGlobal, long uploadPerUser, long uploadPerRequest, long downloadGlobal, long downloadPerUser, long downloadPerRequest) {
+        this(uploadGlobal, uploadPerUser, uploadPerRequest, downloadGlobal, downloadPerUser, downloadPerRequest, Ticker.systemTicker());
+    }
+
+    /**
+     * 使用指定时钟的带宽管理器，测试时可以使用手动推进的时钟
+     *
+     * @param ticker 时钟
+     * @see #BandwidthManager(long, long, long, long, long, long)
+     */
+    public BandwidthManager(long uploadGlobal, long uploadPerUser, long uploadPerRequest, long downloadGlobal, long downloadPerUser, long downloadPerRequest, Ticker ticker) {
+        this.ticker = ticker;
+        this.lastCleanNanos = ticker.read();
+        upload = new DirectionBuckets(uploadGlobal, uploadPerUser, uploadPerRequest, ticker);
+        download = new DirectionBuckets(downloadGlobal, downloadPerUser, downloadPerRequest, ticker);
+    }
+
+    private DirectionBuckets getBuckets(Direction direction) {
+        return direction == Direction.UPLOAD ? upload : download;
+    }
+
+    /**
+     * 开始一个当前用户的请求，在请求线程中调用<br>
+     * <b>注意：使用完毕一定要调用 {@link BandwidthLimiter#close()}</b>
+     *
+     * @param direction   传输方向
+     * @param requestRate 当前请求最大速度(字节/秒)，值小于等于0使用配置的每个请求速度
+     */
+    public BandwidthLimiter open(Direction direction, long requestRate) {
+        return open(direction, getCurrentUser(), requestRate);
+    }
+
+    /**
+     * 开始一个请求<br>
+     * <b>注意：使用完毕一定要调用 {@link BandwidthLimiter#close()}</b>
+     *
+     * @param direction   传输方向
+     * @param user        用户标识
+     * @param requestRate 当前请求最大速度(字节/秒)，值小于等于0使用配置的每个请求速度
+     */
+    public BandwidthLimiter open(Direction direction, final String user, long requestRate) {
+        final DirectionBuckets buckets = getBuckets(direction);
+        cleanIdleUsers();
+        UserBucket userBucket = buckets.userBuckets.compute(user, new BiFunction<String, UserBucket, UserBucket>() {
+            @Override
+            public UserBucket apply(String key, UserBucket value) {
+                if (value == null) {
+                    value = new UserBucket(new TokenBucket("user:" + user, buckets.userRate, ticker));
+                }
+                synchronized (value) {
+                    value.activeCount++;
+                }
+                return value;
+            }
+        });
+        if (requestRate <= 0) {
+            requestRate = buckets.requestRate;
+        }
+        return new BandwidthLimiter(buckets.globalBucket, userBucket, new TokenBucket("request", requestRate, ticker));
+    }
+
+    /**
+     * 清除没有请求并且空闲时间过长的用户令牌桶，最多每隔 {@link #USER_IDLE_NANOS} 执行一次
+     */
+    private void cleanIdleUsers() {
+        final long now = ticker.read();
+        if (now - lastCleanNanos < USER_IDLE_NANOS) {
+            return;
+        }
+        lastCleanNanos = now;
+        for (DirectionBuckets buckets : new DirectionBuckets[]{upload, download}) {
+            for (String user : buckets.userBuckets.keySet()) {
+                buckets.userBuckets.computeIfPresent(user, new BiFunction<String, UserBucket, UserBucket>() {
+                    @Override
+                    public UserBucket apply(String key, UserBucket value) {
+                        if (value.getActiveCount() <= 0 && now - value.getBucket().getLastNanos() >= USER_IDLE_NANOS) {
+                            return null;
+                        }
+                        return value;
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 当前用户标识：登录用户编码，没有登录时使用客户端IP地址(带宽限制、分片上传会话数量限制使用)
+     */
+    public static String getCurrentUser() {
+        String user = null;
+        try {
+            IUserUtils userUtils = BaseService.getUserUtils();
+            if (userUtils != null) {
+                user = userUtils.getUserCode();
+            }
+        } catch (Throwable e) {
+            logger.debug("获取当前用户失败", e);
+        }
+        if (StringUtils.isBlank(user)) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            if (requestAttributes instanceof ServletRequestAttributes) {
+                user = ((ServletRequestAttributes) requestAttributes).getRequest().getRemoteAddr();
+            }
+        }
+        return StringUtils.isBlank(user) ? ANONYMOUS_USER : user;
+    }
+
+    /**
+     * 修改总速度，立即生效<br>
+     *
+     * @param rate 字节/秒，值小于等于0不限制速度
+     */
+    public void setGlobalRate(Direction direction, long rate) {
+        getBuckets(direction).globalBucket.setRate(rate);
+        logger.info("### 修改带宽限制 {} 总速度={}", direction, rate);
+    }
+
+    /**
+     * 修改每个用户的总速度，立即生效<br>
+     *
+     * @param rate 字节/秒，值小于等于0不限制速度
+     */
+    public void setUserRate(Direction direction, long rate) {
+        DirectionBuckets buckets = getBuckets(direction);
+        buckets.userRate = rate;
+        for (UserBucket userBucket : buckets.userBuckets.values()) {
+            userBucket.getBucket().setRate(rate);
+        }
+        logger.info("### 修改带宽限制 {} 每个用户速度={}", direction, rate);
+    }
+
+    /**
+     * 修改每个请求的默认速度，只对新的请求生效<br>
+     *
+     * @param rate 字节/秒，值小于等于0不限制速度
+     */
+    public void setRequestRate(Direction direction, long rate) {
+        getBuckets(direction).requestRate = rate;
+        logger.info("### 修改带宽限制 {} 每个请求速度={}", direction, rate);
+    }
+
+    public long getGlobalRate(Direction direction) {
+        return getBuckets(direction).globalBucket.getRate();
+    }
+
+    public long getUserRate(Direction direction) {
+        return getBuckets(direction).userRate;
+    }
+
+    public long getRequestRate(Direction direction) {
+        return getBuckets(direction).requestRate;
+    }
+
+    /**
+     * 查询所有令牌桶(全局、用户)的状态和传输速度
+     */
+    public List<BandwidthStatusVo> getStatus() {
+        cleanIdleUsers();
+        List<BandwidthStatusVo> statusList = new ArrayList<>();
+        for (Direction direction : Direction.values()) {
+            DirectionBuckets buckets = getBuckets(direction);
+            int activeCount = 0;
+            List<BandwidthStatusVo> userStatusList = new ArrayList<>();
+            for (UserBucket userBucket : buckets.userBuckets.values()) {
+                BandwidthStatusVo status = toStatus(direction, userBucket.getBucket());
+                status.setActiveCount(userBucket.getActiveCount());
+                activeCount += status.getActiveCount();
+                userStatusList.add(status);
+            }
+            BandwidthStatusVo globalStatus = toStatus(direction, buckets.globalBucket);
+            globalStatus.setActiveCount(activeCount);
+            statusList.add(globalStatus);
+            statusList.addAll(userStatusList);
+        }
+        return statusList;
+    }
+
+    private static BandwidthStatusVo toStatus(Direction direction, TokenBucket bucket) {
+        BandwidthStatusVo status = new BandwidthStatusVo();
+        status.setDirection(direction.name().toLowerCase());
+        status.setName(bucket.getName());
+        status.setRate(bucket.getRate());
+        status.setThroughput(bucket.getThroughput());
+        status.setTotalBytes(bucket.getTotalBytes());
+        return status;
+    }
+}
@@ -0,0 +1,526 @@
+package org.cleverframe.filemanager.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.common.utils.IDCreateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按内容寻址(文件MD5签名)存储文件，相同内容的文件只存储一份，使用本地引用计数索引管理文件的引用<br/>
+ * 1.文件存储路径：根目录/MD5前2位/MD5第3、4位/MD5，如：root/9e/10/9e107d9d372bb6826bd81d3542a419d6<br/>
+ * 2.文件先写入根目录下的临时目录(同时计算签名)，再原子重命名为正式文件(发布)，不会读取到写了一半的文件<br/>
+ * 3.判断文件是否已经存在只查询内存中的索引，不需要查询数据库<br/>
+ * 4.索引的每次修改都追加写入日志文件(index.log)，启动时重放日志恢复索引，日志过大时压缩为快照<br/>
+ * 5.引用计数为0的文件超过保留时间后由 {@link #gc(long)} 删除(保留期间可以被秒传重新引用)<br/>
+ * <b>注意：此类线程安全，一个根目录只能被一个ContentAddressedStore对象使用</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:00 <br/>
+ */
+public class ContentAddressedStore implements Closeable {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ContentAddressedStore.class);
+
+    /**
+     * 索引日志文件名
+     */
+    private static final String INDEX_FILE_NAME = "index.log";
+
+    /**
+     * 临时文件目录名
+     */
+    private static final String TEMP_DIR_NAME = "tmp";
+
+    /**
+     * 临时文件后缀
+     */
+    private static final String TEMP_SUFFIX = ".uploading";
+
+    /**
+     * 日志记录类型：快照(MD5 SHA1 文件大小 引用计数 引用计数变为0的时间)
+     */
+    private static final String OP_SNAPSHOT = "=";
+
+    /**
+     * 日志记录类型：增加引用(MD5 SHA1 文件大小)
+     */
+    private static final String OP_ADD = "+";
+
+    /**
+     * 日志记录类型：减少引用(MD5 时间)
+     */
+    private static final String OP_REMOVE = "-";
+
+    /**
+     * 日志记录类型：删除文件(MD5)
+     */
+    private static final String OP_DELETE = "x";
+
+    /**
+     * 日志记录数超过此值并且超过索引数量的2倍时压缩日志
+     */
+    private static final int COMPACT_MIN_RECORDS = 10000;
+
+    /**
+     * 存储文件信息
+     */
+    public static class BlobInfo {
+        private final String md5;
+        private final String sha1;
+        private final long size;
+        private final int refCount;
+        private final boolean deduplicated;
+
+        BlobInfo(String md5, String sha1, long size, int refCount, boolean deduplicated) {
+            this.md5 = md5;
+            this.sha1 = sha1;
+            this.size = size;
+            this.refCount = refCount;
+            this.deduplicated = deduplicated;
+        }
+
+        /**
+         * 文件MD5签名(Hex编码，小写)，也是文件名
+         */
+        public String getMd5() {
+            return md5;
+        }
+
+        /**
+         * 文件SHA1签名(Hex编码，小写)
+         */
+        public String getSha1() {
+            return sha1;
+        }
+
+        /**
+         * 文件大小(字节)
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * 文件引用计数
+         */
+        public int getRefCount() {
+            return refCount;
+        }
+
+        /**
+         * 文件在保存之前已经存在(没有写入新文件)
+         */
+        public boolean isDeduplicated() {
+            return deduplicated;
+        }
+    }
+
+    /**
+     * 索引项
+     */
+    private static class Entry {
+        private String sha1;
+        private long size;
+        private int refCount;
+        /**
+         * 引用计数变为0的时间，引用计数大于0时为0
+         */
+        private long unreferencedTime;
+
+        Entry(String sha1, long size) {
+            this.sha1 = sha1;
+            this.size = size;
+        }
+    }
+
+    /**
+     * 存储根目录
+     */
+    private final File rootDir;
+
+    /**
+     * 临时文件目录，与正式文件在同一个文件系统，保证可以原子重命名
+     */
+    private final File tempDir;
+
+    /**
+     * 索引日志文件
+     */
+    private final File indexFile;
+
+    /**
+     * MD5 -> 索引项
+     */
+    private final Map<String, Entry> index = new HashMap<>();
+
+    /**
+     * SHA1 -> MD5
+     */
+    private final Map<String, String> sha1Index = new HashMap<>();
+
+    /**
+     * 索引日志输出
+     */
+    private Writer indexWriter;
+
+    /**
+     * 索引日志文件中的记录数
+     */
+    private int indexRecords = 0;
+
+    /**
+     * 打开存储目录，重放索引日志恢复索引<br>
+     *
+     * @param rootDir 存储根目录，不存在会创建
+     */
+    public ContentAddressedStore(File rootDir) throws IOException {
+        this.rootDir = rootDir;
+        this.tempDir = new File(rootDir, TEMP_DIR_NAME);
+        this.indexFile = new File(rootDir, INDEX_FILE_NAME);
+        if (!tempDir.isDirectory() && !tempDir.mkdirs() && !tempDir.isDirectory()) {
+            throw new IOException("创建文件夹[" + tempDir.getPath() + "]失败");
+        }
+        synchronized (this) {
+            replay();
+            compact();
+        }
+        logger.info("### [内容寻址存储]打开存储目录[{}], 文件数量[{}]", rootDir.getPath(), index.size());
+    }
+
+    /**
+     * 存储文件(读取输入流的同时计算文件签名)，文件已经存在时只增加引用计数<br>
+     * <b>注意：输入流需要调用者关闭</b>
+     *
+     * @param inputStream 文件输入流
+     * @return 存储文件信息
+     */
+    public BlobInfo put(InputStream inputStream) throws IOException {
+        File tempFile = new File(tempDir, IDCreateUtils.uuid() + TEMP_SUFFIX);
+        DigestInputStream digestInputStream = new DigestInputStream(inputStream);
+        try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+            IOUtils.copyLarge(digestInputStream, outputStream, new byte[64 * 1024]);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(tempFile);
+            throw e;
+        }
+        String md5 = digestInputStream.getMD5Hex().toLowerCase();
+        String sha1 = digestInputStream.getSHA1Hex().toLowerCase();
+        long size = digestInputStream.getByteCount();
+        File blobFile = getBlobFile(md5);
+        synchronized (this) {
+            Entry entry = index.get(md5);
+            boolean deduplicated = entry != null && blobFile.isFile();
+            if (deduplicated || blobFile.isFile()) {
+                // 文件已经存在(没有索引的文件是发布之后写日志之前异常退出留下的，内容与文件名一致可以直接使用)
+                FileUtils.deleteQuietly(tempFile);
+            } else {
+                File parentDir = blobFile.getParentFile();
+                if (!parentDir.isDirectory() && !parentDir.mkdirs() && !parentDir.isDirectory()) {
+                    FileUtils.deleteQuietly(tempFile);
+                    throw new IOException("创建文件夹[" + parentDir.getPath() + "]失败");
+                }
+                try {
+                    Files.move(tempFile.toPath(), blobFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    FileUtils.deleteQuietly(tempFile);
+                    throw e;
+                }
+            }
+            entry = addReference(md5, sha1, size);
+            return new BlobInfo(md5, entry.sha1, entry.size, entry.refCount, deduplicated);
+        }
+    }
+
+    /**
+     * 给已经存在的文件增加一个引用(文件秒传)，只查询内存中的索引<br>
+     *
+     * @param md5 文件MD5签名
+     * @return 文件不存在返回null
+     */
+    public synchronized BlobInfo addReference(String md5) throws IOException {
+        md5 = StringUtils.lowerCase(md5);
+        Entry entry = md5 == null ? null : index.get(md5);
+        if (entry == null || !getBlobFile(md5).isFile()) {
+            return null;
+        }
+        entry = addReference(md5, entry.sha1, entry.size);
+        return new BlobInfo(md5, entry.sha1, entry.size, entry.refCount, true);
+    }
+
+    /**
+     * 减少文件的一个引用<br>
+     *
+     * @param md5          文件MD5签名
+     * @param deleteIfZero 引用计数变为0时是否立即删除文件，值为false时由 {@link #gc(long)} 删除
+     * @return 剩余的引用计数，文件不存在返回-1
+     */
+    public synchronized int removeReference(String md5, boolean deleteIfZero) throws IOException {
+        md5 = StringUtils.lowerCase(md5);
+        Entry entry = md5 == null ? null : index.get(md5);
+        if (entry == null) {
+            return -1;
+        }
+        long now = System.currentTimeMillis();
+        applyRemove(entry, now);
+        appendRecord(OP_REMOVE + " " + md5 + " " + now);
+        if (entry.refCount <= 0 && deleteIfZero) {
+            deleteBlob(md5, entry);
+        }
+        return entry.refCount;
+    }
+
+    /**
+     * 根据文件MD5签名查询文件信息，只查询内存中的索引<br>
+     *
+     * @return 文件不存在返回null
+     */
+    public synchronized BlobInfo findByMd5(String md5) {
+        md5 = StringUtils.lowerCase(md5);
+        Entry entry = md5 == null ? null : index.get(md5);
+        if (entry == null) {
+            return null;
+        }
+        return new BlobInfo(md5, entry.sha1, entry.size, entry.refCount, true);
+    }
+
+    /**
+     * 根据文件SHA1签名查询文件信息，只查询内存中的索引<br>
+     *
+     * @return 文件不存在返回null
+     */
+    public synchronized BlobInfo findBySha1(String sha1) {
+        sha1 = StringUtils.lowerCase(sha1);
+        return sha1 == null ? null : findByMd5(sha1Index.get(sha1));
+    }
+
+    /**
+     * 删除引用计数为0并且超过保留时间的文件，以及超过保留时间的临时文件<br>
+     *
+     * @param retainMillis 引用计数变为0之后文件的保留时间(毫秒)
+     * @return 删除的文件数量
+     */
+    public int gc(long retainMillis) throws IOException {
+        long deadline = System.currentTimeMillis() - retainMillis;
+        List<String> candidates = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Entry> item : index.entrySet()) {
+                Entry entry = item.getValue();
+                if (entry.refCount <= 0 && entry.unreferencedTime <= deadline) {
+                    candidates.add(item.getKey());
+                }
+            }
+        }
+        int count = 0;
+        for (String md5 : candidates) {
+            synchronized (this) {
+                // 重新检查，文件可能已经被重新引用
+                Entry entry = index.get(md5);
+                if (entry != null && entry.refCount <= 0 && entry.unreferencedTime <= deadline) {
+                    deleteBlob(md5, entry);
+                    count++;
+                }
+            }
+        }
+        File[] tempFiles = tempDir.listFiles();
+        if (tempFiles != null) {
+            for (File tempFile : tempFiles) {
+                if (tempFile.lastModified() <= deadline && FileUtils.deleteQuietly(tempFile)) {
+                    logger.info("### [内容寻址存储]删除过期的临时文件[{}]", tempFile.getPath());
+                }
+            }
+        }
+        synchronized (this) {
+            if (needCompact()) {
+                compact();
+            }
+        }
+        if (count > 0) {
+            logger.info("### [内容寻址存储]删除没有引用的文件数量[{}]", count);
+        }
+        return count;
+    }
+
+    /**
+     * 文件的存储目录(相对于存储根目录)，如：/9e/10
+     */
+    public static String getRelativeDir(String md5) {
+        md5 = StringUtils.lowerCase(md5);
+        return File.separator + md5.substring(0, 2) + File.separator + md5.substring(2, 4);
+    }
+
+    /**
+     * 文件的存储位置(文件不一定存在)
+     */
+    public File getBlobFile(String md5) {
+        md5 = StringUtils.lowerCase(md5);
+        return new File(rootDir.getPath() + getRelativeDir(md5) + File.separator + md5);
+    }
+
+    /**
+     * 存储根目录
+     */
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    /**
+     * 索引中的文件数量(包含引用计数为0还未删除的文件)
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * 压缩索引日志并关闭
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (indexWriter == null) {
+            return;
+        }
+        compact();
+        IOUtils.closeQuietly(indexWriter);
+        indexWriter = null;
+    }
+
+    private Entry addReference(String md5, String sha1, long size) throws IOException {
+        Entry entry = applyAdd(md5, sha1, size);
+        appendRecord(OP_ADD + " " + md5 + " " + sha1 + " " + size);
+        return entry;
+    }
+
+    private void deleteBlob(String md5, Entry entry) throws IOException {
+        File blobFile = getBlobFile(md5);
+        if (blobFile.exists() && !blobFile.delete() && blobFile.exists()) {
+            logger.warn("### [内容寻址存储]删除文件失败[{}]", blobFile.getPath());
+            return;
+        }
+        index.remove(md5);
+        sha1Index.remove(entry.sha1);
+        appendRecord(OP_DELETE + " " + md5);
+        logger.debug("### [内容寻址存储]删除文件[{}]", blobFile.getPath());
+    }
+
+    private Entry applyAdd(String md5, String sha1, long size) {
+        Entry entry = index.get(md5);
+        if (entry == null) {
+            entry = new Entry(sha1, size);
+            index.put(md5, entry);
+            sha1Index.put(sha1, md5);
+        }
+        entry.refCount++;
+        entry.unreferencedTime = 0;
+        return entry;
+    }
+
+    private void applyRemove(Entry entry, long time) {
+        if (entry.refCount > 0) {
+            entry.refCount--;
+        }
+        if (entry.refCount <= 0) {
+            entry.unreferencedTime = time;
+        }
+    }
+
+    /**
+     * 追加一条索引日志记录，写入操作系统缓冲区之后返回
+     */
+    private void appendRecord(String record) throws IOException {
+        indexWriter.write(record);
+        indexWriter.write('\n');
+        indexWriter.flush();
+        indexRecords++;
+        if (needCompact()) {
+            compact();
+        }
+    }
+
+    private boolean needCompact() {
+        return indexRecords > COMPACT_MIN_RECORDS && indexRecords > index.size() * 2;
+    }
+
+    /**
+     * 重放索引日志恢复索引，格式错误的记录(如异常退出时写了一半的最后一行)会被忽略
+     */
+    private void replay() throws IOException {
+        index.clear();
+        sha1Index.clear();
+        if (!indexFile.isFile()) {
+            return;
+        }
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] array = StringUtils.split(line, ' ');
+                try {
+                    if (OP_SNAPSHOT.equals(array[0]) && array.length == 6) {
+                        Entry entry = new Entry(array[2], Long.parseLong(array[3]));
+                        entry.refCount = Integer.parseInt(array[4]);
+                        entry.unreferencedTime = Long.parseLong(array[5]);
+                        index.put(array[1], entry);
+                        sha1Index.put(entry.sha1, array[1]);
+                    } else if (OP_ADD.equals(array[0]) && array.length == 4) {
+                        applyAdd(array[1], array[2], Long.parseLong(array[3]));
+                    } else if (OP_REMOVE.equals(array[0]) && array.length == 3) {
+                        Entry entry = index.get(array[1]);
+                        if (entry != null) {
+                            applyRemove(entry, Long.parseLong(array[2]));
+                        }
+                    } else if (OP_DELETE.equals(array[0]) && array.length == 2) {
+                        Entry entry = index.remove(array[1]);
+                        if (entry != null) {
+                            sha1Index.remove(entry.sha1);
+                        }
+                    } else {
+                        logger.warn("### [内容寻址存储]忽略无效的索引记录, 行号[{}]: {}", lineNumber, line);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("### [内容寻址存储]忽略无效的索引记录, 行号[" + lineNumber + "]: " + line, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 把当前索引写入新的快照文件，再原子替换索引日志文件
+     */
+    private void compact() throws IOException {
+        IOUtils.closeQuietly(indexWriter);
+        File snapshotFile = new File(rootDir, INDEX_FILE_NAME + TEMP_SUFFIX);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(snapshotFile), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Entry> item : index.entrySet()) {
+                Entry entry = item.getValue();
+                writer.write(OP_SNAPSHOT + " " + item.getKey() + " " + entry.sha1 + " " + entry.size + " " + entry.refCount + " " + entry.unreferencedTime + "\n");
+            }
+        }
+        Files.move(snapshotFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        indexRecords = index.size();
+        indexWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, true), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package org.cleverframe.filemanager.utils;
+
+import org.cleverframe.common.codec.DigestUtils;
+import org.cleverframe.common.codec.EncodeDecodeUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 读取数据的同时计算MD5和SHA1签名的输入流，文件只需要读取一次就可以存储并得到文件签名<br/>
+ * <b>注意：数据读取完毕之后才能获取文件签名，获取签名之后不能再读取数据</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 21:40 <br/>
+ *
+ * @see FileDigestUtils
+ */
+public class DigestInputStream extends FilterInputStream {
+
+    private final MessageDigest md5;
+
+    private final MessageDigest sha1;
+
+    /**
+     * 已经读取的字节数
+     */
+    private long byteCount = 0;
+
+    private String md5Hex;
+
+    private String sha1Hex;
+
+    public DigestInputStream(InputStream in) {
+        super(in);
+        try {
+            md5 = MessageDigest.getInstance(DigestUtils.MD5);
+            sha1 = MessageDigest.getInstance(DigestUtils.SHA1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int data = in.read();
+        if (data >= 0) {
+            md5.update((byte) data);
+            sha1.update((byte) data);
+            byteCount++;
+        }
+        return data;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = in.read(b, off, len);
+        if (count > 0) {
+            md5.update(b, off, count);
+            sha1.update(b, off, count);
+            byteCount += count;
+        }
+        return count;
+    }
+
+    /**
+     * 不支持跳过数据，跳过的数据也需要计算签名
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] data = new byte[(int) Math.min(8192, Math.max(0, n))];
+        long skip = 0;
+        while (skip < n) {
+            int count = read(data, 0, (int) Math.min(data.length, n - skip));
+            if (count <= 0) {
+                break;
+            }
+            skip += count;
+        }
+        return skip;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * 已经读取的字节数
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * 已经读取数据的MD5签名(Hex编码)
+     */
+    public String getMD5Hex() {
+        if (md5Hex == null) {
+            md5Hex = EncodeDecodeUtils.encodeHex(md5.digest());
+        }
+        return md5Hex;
+    }
+
+    /**
+     * 已经读取数据的SHA1签名(Hex编码)
+     */
+    public String getSHA1Hex() {
+        if (sha1Hex == null) {
+            sha1Hex = EncodeDecodeUtils.encodeHex(sha1.digest());
+        }
+        return sha1Hex;
+    }
+}
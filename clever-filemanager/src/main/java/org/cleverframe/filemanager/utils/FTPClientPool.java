@@ -0,0 +1,392 @@
+package org.cleverframe.filemanager.utils;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.cleverframe.common.configuration.FilemanagerConfigNames;
+import org.cleverframe.common.configuration.FilemanagerConfigValues;
+import org.cleverframe.common.configuration.IConfig;
+import org.cleverframe.common.spring.SpringBeanNames;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FTP连接池，基于commons-pool2，池中的对象是已经登录的 {@link FTPClientTemplate}<br/>
+ * 1.连接池有最大连接数限制，连接池用完之后借用连接会等待，超过最大等待时间抛出异常<br/>
+ * 2.借用连接时验证连接是否可用，连接空闲时间超过心跳间隔时发送NOOP命令验证<br/>
+ * 3.后台线程定时给空闲连接发送NOOP命令(心跳)，防止服务器断开空闲连接；空闲时间过长的连接会被关闭<br/>
+ * 4.每个连接缓存自己的工作目录，重复操作同一个目录时不再发送CWD命令<br/>
+ * 5.统计借用连接的等待时间、创建连接数、销毁连接数等信息<br/>
+ * <b>注意：从连接池借用的连接调用 {@link FTPClientTemplate#close()} 会归还到连接池</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:30 <br/>
+ */
+public class FTPClientPool implements Closeable {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(FTPClientPool.class);
+
+    /**
+     * 使用配置文件中FTP服务器配置的默认连接池
+     */
+    private static volatile FTPClientPool defaultPool;
+
+    /**
+     * 获取使用配置文件中FTP服务器配置的默认连接池(第一次使用时创建)
+     */
+    public static FTPClientPool getDefaultPool() {
+        if (defaultPool == null) {
+            synchronized (FTPClientPool.class) {
+                if (defaultPool == null) {
+                    defaultPool = createDefaultPool();
+                }
+            }
+        }
+        return defaultPool;
+    }
+
+    /**
+     * 读取配置文件创建默认连接池
+     */
+    private static FTPClientPool createDefaultPool() {
+        IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
+        if (config == null) {
+            throw new RuntimeException("Spring Bean注入失败, BeanName=" + SpringBeanNames.Config);
+        }
+        int maxTotal = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.FTP_POOL_MAX_TOTAL), NumberUtils.toInt(FilemanagerConfigValues.FTP_POOL_MAX_TOTAL));
+        int maxIdle = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.FTP_POOL_MAX_IDLE), NumberUtils.toInt(FilemanagerConfigValues.FTP_POOL_MAX_IDLE));
+        int minIdle = NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.FTP_POOL_MIN_IDLE), NumberUtils.toInt(FilemanagerConfigValues.FTP_POOL_MIN_IDLE));
+        long maxWait = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.FTP_POOL_MAX_WAIT), NumberUtils.toLong(FilemanagerConfigValues.FTP_POOL_MAX_WAIT));
+        long idleTimeout = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.FTP_POOL_IDLE_TIMEOUT), NumberUtils.toLong(FilemanagerConfigValues.FTP_POOL_IDLE_TIMEOUT)) * 1000L;
+        long keepAliveInterval = NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.FTP_POOL_KEEP_ALIVE_INTERVAL), NumberUtils.toLong(FilemanagerConfigValues.FTP_POOL_KEEP_ALIVE_INTERVAL)) * 1000L;
+        GenericObjectPoolConfig poolConfig = createPoolConfig(maxTotal, maxIdle, minIdle, maxWait, idleTimeout, keepAliveInterval);
+        FTPClientPool pool = new FTPClientPool(
+                FTPClientTemplate.FTP_HOST,
+                Integer.parseInt(FTPClientTemplate.FTP_PORT),
+                FTPClientTemplate.FTP_USER_NAME,
+                FTPClientTemplate.FTP_PASSWORD,
+                poolConfig,
+                keepAliveInterval);
+        logger.info("FTP连接池初始化完成, maxTotal={}, maxIdle={}, minIdle={}, maxWait={}ms, idleTimeout={}ms, keepAliveInterval={}ms",
+                maxTotal, maxIdle, minIdle, maxWait, idleTimeout, keepAliveInterval);
+        return pool;
+    }
+
+    /**
+     * 创建连接池配置
+     *
+     * @param maxTotal          最大连接数
+     * @param maxIdle           最大空闲连接数
+     * @param minIdle           最小空闲连接数
+     * @param maxWait           借用连接最大等待时间(毫秒)
+     * @param idleTimeout       连接空闲超过此时间(毫秒)会被关闭
+     * @param keepAliveInterval 空闲连接发送NOOP命令(心跳)的时间间隔(毫秒)
+     */
+    public static GenericObjectPoolConfig createPoolConfig(int maxTotal, int maxIdle, int minIdle, long maxWait, long idleTimeout, long keepAliveInterval) {
+        GenericObjectPoolConfig poolConfig = new GenericObjectPoolConfig();
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxIdle);
+        poolConfig.setMinIdle(minIdle);
+        poolConfig.setBlockWhenExhausted(true);
+        poolConfig.setMaxWaitMillis(maxWait);
+        // 借用连接时验证，空闲时间短的连接只检查Socket状态，不会发送NOOP命令
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestOnReturn(false);
+        // 后台线程验证空闲连接(发送NOOP命令)并关闭空闲时间过长的连接
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setTimeBetweenEvictionRunsMillis(keepAliveInterval);
+        poolConfig.setMinEvictableIdleTimeMillis(idleTimeout);
+        poolConfig.setNumTestsPerEvictionRun(-1);
+        poolConfig.setJmxEnabled(false);
+        return poolConfig;
+    }
+
+    /**
+     * 创建连接、验证连接、销毁连接的工厂
+     */
+    private class FTPClientFactory extends BasePooledObjectFactory<FTPClientTemplate> {
+        @Override
+        public FTPClientTemplate create() throws Exception {
+            FTPClientTemplate ftp = new FTPClientTemplate(host, port, username, password);
+            if (!ftp.isAvailable()) {
+                throw new IOException("连接FTP服务器失败, host=" + host + ", port=" + port);
+            }
+            createCount.incrementAndGet();
+            return ftp;
+        }
+
+        @Override
+        public PooledObject<FTPClientTemplate> wrap(FTPClientTemplate ftp) {
+            return new DefaultPooledObject<>(ftp);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<FTPClientTemplate> pooledObject) throws Exception {
+            destroyCount.incrementAndGet();
+            pooledObject.getObject().destroy();
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<FTPClientTemplate> pooledObject) {
+            FTPClientTemplate ftp = pooledObject.getObject();
+            boolean valid;
+            if (!ftp.isAvailable()) {
+                valid = false;
+            } else if (System.currentTimeMillis() - pooledObject.getLastReturnTime() < keepAliveInterval) {
+                // 刚使用过的连接不需要发送NOOP命令
+                valid = true;
+            } else {
+                try {
+                    valid = ftp.sendNoOp();
+                    keepAliveCount.incrementAndGet();
+                } catch (IOException e) {
+                    valid = false;
+                }
+            }
+            if (!valid) {
+                validateFailCount.incrementAndGet();
+                logger.debug("FTP连接验证失败, host={}, port={}", host, port);
+            }
+            return valid;
+        }
+    }
+
+    private final String host;
+
+    private final int port;
+
+    private final String username;
+
+    private final String password;
+
+    /**
+     * 空闲连接发送NOOP命令(心跳)的时间间隔(毫秒)
+     */
+    private final long keepAliveInterval;
+
+    private final GenericObjectPool<FTPClientTemplate> pool;
+
+    /**
+     * 借用连接次数
+     */
+    private final AtomicLong borrowCount = new AtomicLong(0);
+
+    /**
+     * 借用连接失败次数
+     */
+    private final AtomicLong borrowFailCount = new AtomicLong(0);
+
+    /**
+     * 借用连接等待的总时间(纳秒)
+     */
+    private final AtomicLong borrowWaitNanos = new AtomicLong(0);
+
+    /**
+     * 借用连接等待的最大时间(纳秒)
+     */
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong(0);
+
+    /**
+     * 创建连接数
+     */
+    private final AtomicLong createCount = new AtomicLong(0);
+
+    /**
+     * 销毁连接数
+     */
+    private final AtomicLong destroyCount = new AtomicLong(0);
+
+    /**
+     * 连接验证失败次数
+     */
+    private final AtomicLong validateFailCount = new AtomicLong(0);
+
+    /**
+     * 发送NOOP命令次数
+     */
+    private final AtomicLong keepAliveCount = new AtomicLong(0);
+
+    /**
+     * 创建连接到指定FTP服务器的连接池<br>
+     *
+     * @param host              主机地址
+     * @param port              端口号
+     * @param username          用户名
+     * @param password          密码
+     * @param poolConfig        连接池配置，参考 {@link #createPoolConfig}
+     * @param keepAliveInterval 空闲连接发送NOOP命令(心跳)的时间间隔(毫秒)
+     */
+    public FTPClientPool(String host, int port, String username, String password, GenericObjectPoolConfig poolConfig, long keepAliveInterval) {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.keepAliveInterval = keepAliveInterval;
+        this.pool = new GenericObjectPool<>(new FTPClientFactory(), poolConfig);
+    }
+
+    /**
+     * 从连接池借用连接，连接池用完时会等待<br>
+     * <b>注意：使用完毕一定要调用 {@link FTPClientTemplate#close()} 归还连接</b>
+     *
+     * @return 已经登录的FTP连接
+     * @throws IOException 连接FTP服务器失败或者等待超时
+     */
+    public FTPClientTemplate borrow() throws IOException {
+        long start = System.nanoTime();
+        FTPClientTemplate ftp;
+        try {
+            ftp = pool.borrowObject();
+        } catch (IOException e) {
+            borrowFailCount.incrementAndGet();
+            throw e;
+        } catch (Exception e) {
+            borrowFailCount.incrementAndGet();
+            throw new IOException("从FTP连接池借用连接失败, host=" + host + ", port=" + port, e);
+        }
+        long wait = System.nanoTime() - start;
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(wait);
+        while (true) {
+            long max = maxBorrowWaitNanos.get();
+            if (wait <= max || maxBorrowWaitNanos.compareAndSet(max, wait)) {
+                break;
+            }
+        }
+        ftp.setPool(this);
+        return ftp;
+    }
+
+    /**
+     * 归还连接，由 {@link FTPClientTemplate#close()} 调用
+     */
+    void returnObject(FTPClientTemplate ftp) {
+        pool.returnObject(ftp);
+    }
+
+    /**
+     * 销毁已经不可用的连接，由 {@link FTPClientTemplate#close()} 调用
+     */
+    void invalidateObject(FTPClientTemplate ftp) {
+        try {
+            pool.invalidateObject(ftp);
+        } catch (Exception e) {
+            logger.warn("销毁FTP连接失败", e);
+        }
+    }
+
+    /**
+     * 关闭连接池，并关闭所有空闲连接
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * 正在使用的连接数
+     */
+    public int getNumActive() {
+        return pool.getNumActive();
+    }
+
+    /**
+     * 空闲连接数
+     */
+    public int getNumIdle() {
+        return pool.getNumIdle();
+    }
+
+    /**
+     * 等待借用连接的线程数
+     */
+    public int getNumWaiters() {
+        return pool.getNumWaiters();
+    }
+
+    /**
+     * 借用连接次数
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * 借用连接失败次数
+     */
+    public long getBorrowFailCount() {
+        return borrowFailCount.get();
+    }
+
+    /**
+     * 借用连接平均等待时间(毫秒)
+     */
+    public double getMeanBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count <= 0 ? 0 : borrowWaitNanos.get() / 1000000.0 / count;
+    }
+
+    /**
+     * 借用连接最大等待时间(毫秒)
+     */
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1000000.0;
+    }
+
+    /**
+     * 创建连接数
+     */
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    /**
+     * 销毁连接数
+     */
+    public long getDestroyCount() {
+        return destroyCount.get();
+    }
+
+    /**
+     * 连接验证失败次数
+     */
+    public long getValidateFailCount() {
+        return validateFailCount.get();
+    }
+
+    /**
+     * 发送NOOP命令(心跳)次数
+     */
+    public long getKeepAliveCount() {
+        return keepAliveCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "FTPClientPool{" +
+                "host=" + host +
+                ", port=" + port +
+                ", active=" + getNumActive() +
+                ", idle=" + getNumIdle() +
+                ", waiters=" + getNumWaiters() +
+                ", borrowCount=" + getBorrowCount() +
+                ", borrowFailCount=" + getBorrowFailCount() +
+                ", meanBorrowWait=" + String.format("%.3f", getMeanBorrowWaitMillis()) + "ms" +
+                ", maxBorrowWait=" + String.format("%.3f", getMaxBorrowWaitMillis()) + "ms" +
+                ", createCount=" + getCreateCount() +
+                ", destroyCount=" + getDestroyCount() +
+                ", validateFailCount=" + getValidateFailCount() +
+                ", keepAliveCount=" + getKeepAliveCount() +
+                '}';
+    }
+}
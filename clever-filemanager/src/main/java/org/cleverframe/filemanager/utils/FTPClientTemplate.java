@@ -20,7 +20,8 @@ import java.net.SocketException;
 
 /**
  * FTP客户端工具，基于commons.net
- * <b>注意：使用完毕一定要关闭连接</b>
+ * <b>注意：使用完毕一定要关闭连接</b><br/>
+ * 使用 {@link #borrow()} 从连接池借用连接，关闭时归还到连接池，参考 {@link FTPClientPool}
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016/11/19 14:11 <br/>
@@ -49,15 +50,21 @@ public class FTPClientTemplate implements Closeable {
     public final static String FTP_PASSWORD;
 
     static {
+        // 没有Spring容器时(如：连接嵌入式FTP服务器测试)只能使用指定FTP服务器的构造方法
         IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
         if (config == null) {
-            throw new RuntimeException("Spring Bean注入失败, BeanName=" + SpringBeanNames.Config);
+            logger.warn("Spring Bean注入失败, BeanName=" + SpringBeanNames.Config + ", 不能连接配置文件中指定的FTP服务器");
+            FTP_HOST = null;
+            FTP_PORT = null;
+            FTP_USER_NAME = null;
+            FTP_PASSWORD = null;
+        } else {
+            FTP_HOST = config.getConfig(FilemanagerConfigNames.FTP_HOST);
+            FTP_PORT = config.getConfig(FilemanagerConfigNames.FTP_PORT);
+            FTP_USER_NAME = config.getConfig(FilemanagerConfigNames.FTP_USERNAME);
+            FTP_PASSWORD = config.getConfig(FilemanagerConfigNames.FTP_PASSWORD);
         }
-        FTP_HOST = config.getConfig(FilemanagerConfigNames.FTP_HOST);
-        FTP_PORT = config.getConfig(FilemanagerConfigNames.FTP_PORT);
-        FTP_USER_NAME = config.getConfig(FilemanagerConfigNames.FTP_USERNAME);
-        FTP_PASSWORD = config.getConfig(FilemanagerConfigNames.FTP_PASSWORD);
-        if (logger.isDebugEnabled()) {
+        if (config != null && logger.isDebugEnabled()) {
             String tmp = "\r\n" +
                     "#=======================================================================================================================#\r\n" +
                     "# 连接文件服务器FTP默认配置：\r\n" +
@@ -75,6 +82,34 @@ public class FTPClientTemplate implements Closeable {
      */
     private FTPClient ftpclient;
 
+    /**
+     * 连接所属的连接池，不是从连接池借用的连接为null
+     */
+    private FTPClientPool pool;
+
+    /**
+     * 当前工作目录缓存(Unix形式的绝对路径)，未知时为null
+     */
+    private String workingDirectory;
+
+    /**
+     * 是否已经设置了二进制传输模式
+     */
+    private boolean binaryFileType = false;
+
+    /**
+     * 是否有未完成的命令(调用了retrieveFileStream)，归还连接之前需要调用completePendingCommand
+     */
+    private boolean pendingCommand = false;
+
+    /**
+     * 从配置文件中指定的FTP服务器的连接池借用连接<br>
+     * <b>注意：使用完毕一定要调用 {@link #close()} 归还连接</b>
+     */
+    public static FTPClientTemplate borrow() throws IOException {
+        return FTPClientPool.getDefaultPool().borrow();
+    }
+
     /**
      * 连接到配置文件中指定的FTP服务器上<br>
      */
@@ -129,10 +164,16 @@ public class FTPClientTemplate implements Closeable {
             return false;
         }
         String[] pathArray = StringUtils.split(path, '/');
+        String directory = "/" + StringUtils.join(pathArray, '/');
+        // 目录已经存在，直接跳到目录下
+        if (directory.equals(workingDirectory) || cwd(directory)) {
+            return true;
+        }
         // 跳到根目录
-        if (!ftpclient.changeWorkingDirectory("/")) {
+        if (!cwd("/")) {
             return false;
         }
+        workingDirectory = null;
         for (int i = 0; i < pathArray.length; i++) {
             // 支持中文目录
             pathArray[i] = new String(pathArray[i].getBytes(), ftpclient.getControlEncoding());
@@ -145,6 +186,7 @@ public class FTPClientTemplate implements Closeable {
                 }
             }
         }
+        workingDirectory = directory;
         return true;
     }
 
@@ -162,18 +204,31 @@ public class FTPClientTemplate implements Closeable {
             return false;
         }
         String[] pathArray = StringUtils.split(path, '/');
-        // 跳到根目录
-        if (!ftpclient.changeWorkingDirectory("/")) {
-            return false;
+        String directory = "/" + StringUtils.join(pathArray, '/');
+        return directory.equals(workingDirectory) || cwd(directory);
+    }
+
+    /**
+     * 使用一个CWD命令跳到绝对路径目录下，并更新工作目录缓存<br>
+     *
+     * @param directory Unix形式的绝对路径
+     * @return 成功返回true，失败返回false
+     */
+    private boolean cwd(String directory) throws IOException {
+        if (ftpclient.changeWorkingDirectory(new String(directory.getBytes(), ftpclient.getControlEncoding()))) {
+            workingDirectory = directory;
+            return true;
         }
-        for (int i = 0; i < pathArray.length; i++) {
-            // 支持中文目录
-            pathArray[i] = new String(pathArray[i].getBytes(), ftpclient.getControlEncoding());
-            if (!ftpclient.changeWorkingDirectory(pathArray[i])) {
-                return false;
-            }
+        return false;
+    }
+
+    /**
+     * 设置二进制传输模式，同一个连接只设置一次
+     */
+    private void setBinaryFileType() throws IOException {
+        if (!binaryFileType) {
+            binaryFileType = ftpclient.setFileType(FTP.BINARY_FILE_TYPE);
         }
-        return true;
     }
 
     /**
@@ -185,7 +240,7 @@ public class FTPClientTemplate implements Closeable {
      * @return 成功返回true，失败返回false
      */
     public boolean uploadFile(String path, InputStream inputStream) throws IOException {
-        ftpclient.setFileType(FTP.BINARY_FILE_TYPE);
+        setBinaryFileType();
         // 得到文件名
         String fileName = FilenameUtils.getName(path);
         if (StringUtils.isBlank(fileName)) {
@@ -204,7 +259,7 @@ public class FTPClientTemplate implements Closeable {
      * @return 文件输出流(读取完毕后必须要关闭)，失败返回null
      */
     public InputStream downloadFile(String path) throws IOException {
-        ftpclient.setFileType(FTP.BINARY_FILE_TYPE);
+        setBinaryFileType();
         // 得到文件名
         String fileName = FilenameUtils.getName(path);
         if (StringUtils.isBlank(fileName)) {
@@ -215,7 +270,9 @@ public class FTPClientTemplate implements Closeable {
         if (!changeWorkingDirectory(pathStr)) {
             return null;
         }
-        return ftpclient.retrieveFileStream(new String(fileName.getBytes(), ftpclient.getControlEncoding()));
+        InputStream inputStream = ftpclient.retrieveFileStream(new String(fileName.getBytes(), ftpclient.getControlEncoding()));
+        pendingCommand = inputStream != null;
+        return inputStream;
     }
 
     /**
@@ -242,6 +299,18 @@ public class FTPClientTemplate implements Closeable {
         return ftpclient.deleteFile(new String(fileName.getBytes(), ftpclient.getControlEncoding()));
     }
 
+    /**
+     * 重命名(移动)文件<br>
+     *
+     * @param from 原文件全路径(支持中文目录)，如：/Work/Java/Web/Ftp.pdf.uploading
+     * @param to   新文件全路径(支持中文目录)，如：/Work/Java/Web/Ftp.pdf
+     * @return 成功返回true，失败返回false
+     */
+    public boolean rename(String from, String to) throws IOException {
+        String encoding = ftpclient.getControlEncoding();
+        return ftpclient.rename(new String(from.getBytes(), encoding), new String(to.getBytes(), encoding));
+    }
+
     /**
      * 判断文件是否存在
      *
@@ -254,14 +323,75 @@ public class FTPClientTemplate implements Closeable {
     }
 
     /**
-     * 关闭FTP连接
+     * 关闭FTP连接，从连接池借用的连接会归还到连接池<br>
+     * <b>注意：调用 {@link #downloadFile(String)} 之后需要先关闭文件输入流</b>
      */
     @Override
     public void close() throws IOException {
-        this.ftpclient.disconnect();
+        if (pool == null) {
+            this.ftpclient.disconnect();
+            return;
+        }
+        FTPClientPool ftpClientPool = pool;
+        pool = null;
+        boolean reusable = ftpclient.isConnected();
+        if (reusable && pendingCommand) {
+            pendingCommand = false;
+            try {
+                ftpclient.completePendingCommand();
+            } catch (IOException e) {
+                reusable = false;
+                logger.debug("FTP连接completePendingCommand失败", e);
+            }
+        }
+        if (reusable) {
+            ftpClientPool.returnObject(this);
+        } else {
+            ftpClientPool.invalidateObject(this);
+        }
+    }
+
+    /**
+     * 设置连接所属的连接池，由 {@link FTPClientPool#borrow()} 调用
+     */
+    void setPool(FTPClientPool pool) {
+        this.pool = pool;
     }
 
+    /**
+     * 连接是否可用(只检查Socket状态，不发送命令)，由连接池验证连接时调用
+     */
+    boolean isAvailable() {
+        return ftpclient.isConnected() && ftpclient.isAvailable();
+    }
+
+    /**
+     * 发送NOOP命令(心跳)，由连接池验证连接时调用
+     */
+    boolean sendNoOp() throws IOException {
+        return ftpclient.sendNoOp();
+    }
+
+    /**
+     * 退出登录并断开连接，由连接池销毁连接时调用
+     */
+    void destroy() throws IOException {
+        try {
+            if (ftpclient.isConnected()) {
+                ftpclient.logout();
+            }
+        } catch (IOException e) {
+            logger.debug("FTP连接退出登录失败", e);
+        } finally {
+            ftpclient.disconnect();
+        }
+    }
+
+    /**
+     * 获取FTPClient，直接使用FTPClient可能会改变工作目录，所以会清除工作目录缓存
+     */
     public FTPClient getFtpclient() {
+        workingDirectory = null;
         return ftpclient;
     }
 }
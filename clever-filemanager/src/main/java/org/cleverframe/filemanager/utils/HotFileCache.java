@@ -0,0 +1,380 @@
+package org.cleverframe.filemanager.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cleverframe.common.concurrent.OffHeapLfuCache;
+import org.cleverframe.common.configuration.FilemanagerConfigNames;
+import org.cleverframe.common.configuration.FilemanagerConfigValues;
+import org.cleverframe.common.configuration.IConfig;
+import org.cleverframe.common.spring.SpringBeanNames;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.vo.response.HotFileCacheStatusVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点文件缓存，减少下载小文件(头像、附件等)时对数据库和存储服务器的访问<br/>
+ * 1.文件内容使用 {@link OffHeapLfuCache} 缓存在堆外内存中，Key为文件签名(同一个签名的文件内容相同)，只缓存小文件<br/>
+ * 2.文件信息(FileInfo)按UUID缓存在堆内存中(LRU)，超过过期时间重新查询数据库<br/>
+ * 3.删除文件时必须调用 {@link #invalidate(FileInfo)} 清除缓存，在事务中删除时调用 {@link #invalidateAfterCommit(FileInfo)}<br/>
+ * <b>注意：缓存的FileInfo是共享的，只能读取不能修改</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 00:30 <br/>
+ */
+public class HotFileCache {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(HotFileCache.class);
+
+    private static volatile HotFileCache instance;
+
+    /**
+     * 获取使用配置文件中缓存配置的热点文件缓存(第一次使用时创建)
+     */
+    public static HotFileCache getInstance() {
+        if (instance == null) {
+            synchronized (HotFileCache.class) {
+                if (instance == null) {
+                    instance = createInstance();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 读取配置文件创建热点文件缓存
+     */
+    private static HotFileCache createInstance() {
+        IConfig config = SpringContextHolder.getBean(SpringBeanNames.Config);
+        if (config == null) {
+            throw new RuntimeException("Spring Bean注入失败, BeanName=" + SpringBeanNames.Config);
+        }
+        HotFileCache hotFileCache = new HotFileCache(
+                NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.HOT_CACHE_MAX_SIZE), NumberUtils.toLong(FilemanagerConfigValues.HOT_CACHE_MAX_SIZE)),
+                NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.HOT_CACHE_MAX_ENTRY_SIZE), NumberUtils.toInt(FilemanagerConfigValues.HOT_CACHE_MAX_ENTRY_SIZE)),
+                NumberUtils.toInt(config.getConfig(FilemanagerConfigNames.HOT_CACHE_META_MAX_SIZE), NumberUtils.toInt(FilemanagerConfigValues.HOT_CACHE_META_MAX_SIZE)),
+                TimeUnit.SECONDS.toMillis(NumberUtils.toLong(config.getConfig(FilemanagerConfigNames.HOT_CACHE_META_EXPIRE), NumberUtils.toLong(FilemanagerConfigValues.HOT_CACHE_META_EXPIRE))));
+        logger.info("### 热点文件缓存初始化完成, 文件内容缓存大小=[{}], 单个文件最大大小=[{}], 文件信息缓存数量=[{}]",
+                hotFileCache.contentCache == null ? 0 : hotFileCache.contentCache.getMaximumWeight(), hotFileCache.maxEntrySize, hotFileCache.metaMaxSize);
+        return hotFileCache;
+    }
+
+    /**
+     * 文件内容缓存，为null表示不缓存文件内容
+     */
+    private final OffHeapLfuCache contentCache;
+
+    /**
+     * 只缓存小于等于此大小的文件(字节)
+     */
+    private final int maxEntrySize;
+
+    /**
+     * 缓存文件信息的最大数量
+     */
+    private final int metaMaxSize;
+
+    /**
+     * 文件信息缓存过期时间(毫秒)
+     */
+    private final long metaExpireMillis;
+
+    /**
+     * 文件UUID -> 文件信息，访问顺序LRU，访问时需要加锁
+     */
+    private final LinkedHashMap<String, MetaEntry> metaCache;
+
+    /**
+     * 文件信息命中次数
+     */
+    private final AtomicLong metaHitCount = new AtomicLong(0L);
+
+    /**
+     * 文件信息未命中次数
+     */
+    private final AtomicLong metaMissCount = new AtomicLong(0L);
+
+    /**
+     * 从存储服务器读取并放入缓存的字节数
+     */
+    private final AtomicLong loadBytes = new AtomicLong(0L);
+
+    /**
+     * @param maxSize          缓存文件内容的堆外内存总大小(字节)，值小于等于0不缓存文件内容
+     * @param maxEntrySize     只缓存小于等于此大小的文件(字节)
+     * @param metaMaxSize      缓存文件信息的最大数量，值小于等于0不缓存文件信息
+     * @param metaExpireMillis 文件信息缓存过期时间(毫秒)
+     */
+    public HotFileCache(long maxSize, int maxEntrySize, final int metaMaxSize, long metaExpireMillis) {
+        this.maxEntrySize = (int) Math.min(maxEntrySize, Math.max(maxSize, 0));
+        this.contentCache = maxSize > 0 && this.maxEntrySize > 0 ? new OffHeapLfuCache(maxSize, this.maxEntrySize) : null;
+        this.metaMaxSize = metaMaxSize;
+        this.metaExpireMillis = metaExpireMillis;
+        this.metaCache = new LinkedHashMap<String, MetaEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MetaEntry> eldest) {
+                return size() > metaMaxSize;
+            }
+        };
+    }
+
+    /*--------------------------------------------------------------
+     *          文件信息缓存
+     * -------------------------------------------------------------*/
+
+    /**
+     * 读取缓存的文件信息
+     *
+     * @return 不存在或者已经过期返回null
+     */
+    public FileInfo getFileInfo(Serializable fileInfoUuid) {
+        if (metaMaxSize <= 0 || fileInfoUuid == null) {
+            return null;
+        }
+        String key = fileInfoUuid.toString();
+        MetaEntry entry;
+        synchronized (metaCache) {
+            entry = metaCache.get(key);
+            if (entry != null && entry.expireAt <= System.currentTimeMillis()) {
+                metaCache.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            metaMissCount.incrementAndGet();
+            return null;
+        }
+        metaHitCount.incrementAndGet();
+        return entry.fileInfo;
+    }
+
+    /**
+     * 缓存文件信息(从数据库查询之后调用)
+     */
+    public void putFileInfo(FileInfo fileInfo) {
+        if (metaMaxSize <= 0 || fileInfo == null || fileInfo.getUuid() == null) {
+            return;
+        }
+        MetaEntry entry = new MetaEntry(fileInfo, System.currentTimeMillis() + metaExpireMillis);
+        synchronized (metaCache) {
+            metaCache.put(fileInfo.getUuid(), entry);
+        }
+    }
+
+    /**
+     * 清除一个文件信息缓存
+     */
+    public void invalidateFileInfo(Serializable fileInfoUuid) {
+        if (fileInfoUuid == null) {
+            return;
+        }
+        synchronized (metaCache) {
+            metaCache.remove(fileInfoUuid.toString());
+        }
+    }
+
+    /**
+     * 删除文件时调用，清除引用同一个服务端文件的所有文件信息和文件内容缓存
+     */
+    public void invalidate(FileInfo fileInfo) {
+        synchronized (metaCache) {
+            Iterator<MetaEntry> iterator = metaCache.values().iterator();
+            while (iterator.hasNext()) {
+                FileInfo cached = iterator.next().fileInfo;
+                if (StringUtils.equals(cached.getFilePath(), fileInfo.getFilePath()) && StringUtils.equals(cached.getNewName(), fileInfo.getNewName())) {
+                    iterator.remove();
+                }
+            }
+            metaCache.remove(fileInfo.getUuid());
+        }
+        if (contentCache != null) {
+            contentCache.invalidate(getContentKey(fileInfo));
+        }
+    }
+
+    /**
+     * 在当前事务提交后清除缓存(参考 {@link #invalidate(FileInfo)})，没有事务时立即清除<br/>
+     * 事务提交之前清除的话，其他线程可能读取到还没有删除的文件信息重新放入缓存
+     */
+    public void invalidateAfterCommit(final FileInfo fileInfo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(fileInfo);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                invalidate(fileInfo);
+            }
+        });
+    }
+
+    /*--------------------------------------------------------------
+     *          文件内容缓存
+     * -------------------------------------------------------------*/
+
+    /**
+     * 文件内容缓存的Key，有文件签名时使用签名(同一个签名的文件内容相同)，否则使用UUID
+     */
+    private static String getContentKey(FileInfo fileInfo) {
+        if (StringUtils.isNotBlank(fileInfo.getDigest()) && fileInfo.getDigestType() != null) {
+            return fileInfo.getDigestType() + ":" + fileInfo.getDigest();
+        }
+        return "uuid:" + fileInfo.getUuid();
+    }
+
+    /**
+     * 文件是否可以缓存(文件大小已知且不超过单个文件最大大小)
+     */
+    public boolean isCacheable(FileInfo fileInfo) {
+        return contentCache != null && fileInfo.getFileSize() != null && fileInfo.getFileSize() <= maxEntrySize;
+    }
+
+    /**
+     * 读取缓存的文件内容，同时记录访问频率
+     *
+     * @return 文件不能缓存或者没有缓存返回null
+     */
+    public byte[] getContent(FileInfo fileInfo) {
+        if (!isCacheable(fileInfo)) {
+            return null;
+        }
+        byte[] content = contentCache.get(getContentKey(fileInfo));
+        if (content != null && content.length != fileInfo.getFileSize()) {
+            // 文件内容与文件信息不一致
+            contentCache.invalidate(getContentKey(fileInfo));
+            return null;
+        }
+        return content;
+    }
+
+    /**
+     * 缓存文件内容(从存储服务器读取之后调用)，是否能留在缓存中由访问频率决定
+     */
+    public void putContent(FileInfo fileInfo, byte[] content) {
+        if (!isCacheable(fileInfo) || content.length != fileInfo.getFileSize()) {
+            return;
+        }
+        loadBytes.addAndGet(content.length);
+        contentCache.put(getContentKey(fileInfo), content);
+    }
+
+    /**
+     * 文件内容是否已经缓存，不记录访问频率
+     */
+    public boolean containsContent(FileInfo fileInfo) {
+        return isCacheable(fileInfo) && contentCache.containsKey(getContentKey(fileInfo));
+    }
+
+    /**
+     * 输出缓存的文件内容<br>
+     * 限制速度时(使用带宽管理器)每次最多输出32KB<br>
+     *
+     * @param content      文件内容
+     * @param position     开始位置
+     * @param length       最多输出的字节数
+     * @param outputStream 输出流
+     * @param maxSpeed     最大速度(字节/秒)，值小于0不限制速度，值等于0使用配置的每个请求速度
+     * @return 输出的字节数
+     */
+    public static long writeContent(byte[] content, long position, long length, OutputStream outputStream, long maxSpeed) throws IOException {
+        if (position >= content.length) {
+            return 0;
+        }
+        int start = (int) position;
+        int end = (int) Math.min(content.length, position + Math.min(length, content.length));
+        if (maxSpeed < 0) {
+            outputStream.write(content, start, end - start);
+            outputStream.flush();
+            return end - start;
+        }
+        BandwidthLimiter rateLimiter = BandwidthManager.getInstance().open(BandwidthManager.Direction.DOWNLOAD, maxSpeed);
+        try {
+            int current = start;
+            int count;
+            while (current < end) {
+                count = Math.min(32 * 1024, end - current);
+                outputStream.write(content, current, count);
+                current += count;
+                rateLimiter.acquire(count);
+            }
+            outputStream.flush();
+            return end - start;
+        } finally {
+            rateLimiter.close();
+        }
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void clear() {
+        synchronized (metaCache) {
+            metaCache.clear();
+        }
+        if (contentCache != null) {
+            contentCache.clear();
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public HotFileCacheStatusVo getStatus() {
+        HotFileCacheStatusVo status = new HotFileCacheStatusVo();
+        status.setContentEnabled(contentCache != null);
+        status.setMaxEntrySize(maxEntrySize);
+        status.setLoadBytes(loadBytes.get());
+        if (contentCache != null) {
+            status.setMaxSize(contentCache.getMaximumWeight());
+            status.setContentCount(contentCache.size());
+            status.setContentSize(contentCache.getWeightedSize());
+            status.setAllocatedBytes(contentCache.getAllocatedBytes());
+            status.setHitCount(contentCache.getHitCount());
+            status.setMissCount(contentCache.getMissCount());
+            status.setHitRatio(contentCache.getHitRatio());
+            status.setHitBytes(contentCache.getHitBytes());
+            status.setEvictionCount(contentCache.getEvictionCount());
+            status.setRejectCount(contentCache.getRejectCount());
+        }
+        synchronized (metaCache) {
+            status.setMetaCount(metaCache.size());
+        }
+        long metaHit = metaHitCount.get();
+        long metaTotal = metaHit + metaMissCount.get();
+        status.setMetaHitCount(metaHit);
+        status.setMetaMissCount(metaTotal - metaHit);
+        status.setMetaHitRatio(metaTotal == 0 ? 0 : metaHit / (double) metaTotal);
+        return status;
+    }
+
+    /**
+     * 缓存的文件信息
+     */
+    private static class MetaEntry {
+        private final FileInfo fileInfo;
+        private final long expireAt;
+
+        MetaEntry(FileInfo fileInfo, long expireAt) {
+            this.fileInfo = fileInfo;
+            this.expireAt = expireAt;
+        }
+    }
+}
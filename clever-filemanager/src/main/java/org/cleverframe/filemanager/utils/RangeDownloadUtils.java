@@ -0,0 +1,301 @@
+package org.cleverframe.filemanager.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.service.IRandomAccessStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 支持HTTP Range请求的文件下载工具，用于断点续传、多线程分段下载<br/>
+ * 1.支持 Range、If-Range 请求头，返回206(Partial Content)，多个范围时返回 multipart/byteranges<br/>
+ * 2.使用文件签名生成ETag，支持 If-None-Match、If-Modified-Since 请求头，文件未修改时返回304<br/>
+ * 3.请求范围无效时返回416(Requested Range Not Satisfiable)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 21:20 <br/>
+ */
+public class RangeDownloadUtils {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(RangeDownloadUtils.class);
+
+    /**
+     * 一次请求最多支持的范围数量(合并之后)，超过就返回整个文件
+     */
+    private static final int MAX_RANGE_COUNT = 16;
+
+    /**
+     * multipart/byteranges 分隔符
+     */
+    private static final String MULTIPART_BOUNDARY = "CLEVER_FILEMANAGER_BYTERANGES";
+
+    /**
+     * 下载文件的ContentType
+     */
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    /**
+     * 请求的字节范围，包含开始位置和结束位置
+     */
+    public static class ByteRange {
+        private final long start;
+        private final long end;
+
+        public ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getLength() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * 根据文件签名生成ETag，没有文件签名时使用文件UUID和文件大小
+     */
+    public static String getETag(FileInfo fileInfo) {
+        if (StringUtils.isNotBlank(fileInfo.getDigest())) {
+            return "\"" + fileInfo.getDigest() + "\"";
+        }
+        return "\"" + fileInfo.getUuid() + "-" + fileInfo.getFileSize() + "\"";
+    }
+
+    /**
+     * 解析Range请求头，重叠或者相邻的范围会被合并<br>
+     *
+     * @param range    Range请求头，如：bytes=0-499,-500
+     * @param fileSize 文件大小
+     * @return 请求头不存在、格式错误或者范围太多返回null(返回整个文件)；所有范围都无效返回空集合(返回416)
+     */
+    public static List<ByteRange> parseRange(String range, long fileSize) {
+        if (StringUtils.isBlank(range) || !range.startsWith("bytes=")) {
+            return null;
+        }
+        List<ByteRange> rangeList = new ArrayList<>();
+        for (String part : range.substring("bytes=".length()).split(",")) {
+            part = part.trim();
+            int index = part.indexOf('-');
+            if (index < 0) {
+                return null;
+            }
+            String startStr = part.substring(0, index).trim();
+            String endStr = part.substring(index + 1).trim();
+            long start;
+            long end;
+            try {
+                if (startStr.length() <= 0) {
+                    // 最后N个字节
+                    if (endStr.length() <= 0) {
+                        return null;
+                    }
+                    long suffixLength = Long.parseLong(endStr);
+                    if (suffixLength < 0) {
+                        return null;
+                    }
+                    start = Math.max(0, fileSize - suffixLength);
+                    end = fileSize - 1;
+                    if (suffixLength == 0) {
+                        continue;
+                    }
+                } else {
+                    start = Long.parseLong(startStr);
+                    end = endStr.length() <= 0 ? Long.MAX_VALUE : Long.parseLong(endStr);
+                    if (end < start) {
+                        return null;
+                    }
+                    end = Math.min(end, fileSize - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < fileSize) {
+                rangeList.add(new ByteRange(start, end));
+            }
+        }
+        if (rangeList.size() <= 1) {
+            return rangeList;
+        }
+        // 合并重叠或者相邻的范围
+        Collections.sort(rangeList, new Comparator<ByteRange>() {
+            @Override
+            public int compare(ByteRange o1, ByteRange o2) {
+                return Long.compare(o1.getStart(), o2.getStart());
+            }
+        });
+        List<ByteRange> mergeList = new ArrayList<>();
+        ByteRange current = rangeList.get(0);
+        for (int i = 1; i < rangeList.size(); i++) {
+            ByteRange next = rangeList.get(i);
+            if (next.getStart() <= current.getEnd() + 1) {
+                current = new ByteRange(current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+            } else {
+                mergeList.add(current);
+                current = next;
+            }
+        }
+        mergeList.add(current);
+        if (mergeList.size() > MAX_RANGE_COUNT) {
+            return null;
+        }
+        return mergeList;
+    }
+
+    /**
+     * 判断If-Range请求头是否匹配，不匹配时忽略Range请求头返回整个文件
+     */
+    private static boolean isIfRangeMatch(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // 弱ETag不能用于If-Range
+            return ifRange.equals(eTag);
+        }
+        try {
+            long ifRangeTime = request.getDateHeader("If-Range");
+            return ifRangeTime >= 0 && ifRangeTime / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 判断文件是否未修改，未修改返回304
+     */
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if ("*".equals(tag) || tag.equals(eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 下载文件，支持Range请求<br>
+     * <b>注意：调用之前需要设置Content-Disposition响应头</b>
+     *
+     * @param request        请求对象
+     * @param response       响应对象
+     * @param fileInfo       文件信息
+     * @param storageService 文件存储服务
+     * @param maxSpeed       最大下载速度(字节/秒)，参考 {@link IRandomAccessStorageService#openFile(FileInfo, long, long, OutputStream, long)}
+     * @return 文件不存在返回false
+     */
+    public static boolean download(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FileInfo fileInfo,
+            IRandomAccessStorageService storageService,
+            long maxSpeed) throws Exception {
+        long lastModified = storageService.getLastModified(fileInfo);
+        if (lastModified < 0 || fileInfo.getFileSize() == null) {
+            return false;
+        }
+        long fileSize = fileInfo.getFileSize();
+        String eTag = getETag(fileInfo);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        boolean isHead = "HEAD".equalsIgnoreCase(request.getMethod());
+        List<ByteRange> rangeList = null;
+        if (isIfRangeMatch(request, eTag, lastModified)) {
+            rangeList = parseRange(request.getHeader("Range"), fileSize);
+        }
+        // 返回整个文件
+        if (rangeList == null) {
+            response.setContentType(CONTENT_TYPE);
+            response.setHeader("Content-Length", String.valueOf(fileSize));
+            if (!isHead) {
+                storageService.openFile(fileInfo, 0, fileSize, response.getOutputStream(), maxSpeed);
+            }
+            return true;
+        }
+        // 请求范围无效
+        if (rangeList.size() <= 0) {
+            response.setHeader("Content-Range", "bytes */" + fileSize);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        // 一个范围
+        if (rangeList.size() == 1) {
+            ByteRange range = rangeList.get(0);
+            response.setContentType(CONTENT_TYPE);
+            response.setHeader("Content-Range", "bytes " + range.getStart() + "-" + range.getEnd() + "/" + fileSize);
+            response.setHeader("Content-Length", String.valueOf(range.getLength()));
+            if (!isHead) {
+                storageService.openFile(fileInfo, range.getStart(), range.getLength(), response.getOutputStream(), maxSpeed);
+            }
+            logger.debug("文件分段下载, 文件UUID={}, Range={}-{}", fileInfo.getUuid(), range.getStart(), range.getEnd());
+            return true;
+        }
+        // 多个范围
+        List<byte[]> partHeaderList = new ArrayList<>(rangeList.size());
+        long contentLength = 0;
+        for (ByteRange range : rangeList) {
+            String partHeader = "\r\n--" + MULTIPART_BOUNDARY + "\r\n"
+                    + "Content-Type: " + CONTENT_TYPE + "\r\n"
+                    + "Content-Range: bytes " + range.getStart() + "-" + range.getEnd() + "/" + fileSize + "\r\n\r\n";
+            byte[] data = partHeader.getBytes(StandardCharsets.ISO_8859_1);
+            partHeaderList.add(data);
+            contentLength += data.length + range.getLength();
+        }
+        byte[] end = ("\r\n--" + MULTIPART_BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        contentLength += end.length;
+        response.setContentType("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
+        response.setHeader("Content-Length", String.valueOf(contentLength));
+        if (isHead) {
+            return true;
+        }
+        OutputStream outputStream = response.getOutputStream();
+        for (int i = 0; i < rangeList.size(); i++) {
+            ByteRange range = rangeList.get(i);
+            outputStream.write(partHeaderList.get(i));
+            storageService.openFile(fileInfo, range.getStart(), range.getLength(), outputStream, maxSpeed);
+        }
+        outputStream.write(end);
+        outputStream.flush();
+        logger.debug("文件分段下载, 文件UUID={}, 范围数量={}", fileInfo.getUuid(), rangeList.size());
+        return true;
+    }
+}
@@ -0,0 +1,196 @@
+package org.cleverframe.filemanager.utils;
+
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶，用于限制传输速度(字节/秒)，并统计传输速度<br/>
+ * 1.令牌按速度持续生成，最多积累1秒的令牌(允许短时间突发)<br/>
+ * 2.预约令牌时令牌可以透支，返回透支的令牌需要等待的时间，由调用者休眠<br/>
+ * 3.速度可以在运行时修改<br/>
+ * 4.时间从 {@link Ticker} 读取，测试时可以使用手动推进的时钟<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:40 <br/>
+ *
+ * @see BandwidthManager
+ */
+public class TokenBucket {
+    /**
+     * 统计传输速度的时间窗口(纳秒)
+     */
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 令牌桶名称
+     */
+    private final String name;
+
+    /**
+     * 时钟(纳秒)
+     */
+    private final Ticker ticker;
+
+    /**
+     * 最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    private long rate;
+
+    /**
+     * 当前令牌数，可以为负数(透支)
+     */
+    private double tokens = 0;
+
+    /**
+     * 最后一次生成令牌的时间(纳秒)
+     */
+    private long lastNanos;
+
+    /**
+     * 传输的总字节数
+     */
+    private long totalBytes = 0;
+
+    /**
+     * 当前统计窗口开始时间(纳秒)
+     */
+    private long windowStart;
+
+    /**
+     * 当前统计窗口传输的字节数
+     */
+    private long windowBytes = 0;
+
+    /**
+     * 上一个统计窗口的传输速度(字节/秒)
+     */
+    private double throughput = 0;
+
+    /**
+     * @param name 令牌桶名称
+     * @param rate 最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    public TokenBucket(String name, long rate) {
+        this(name, rate, Ticker.systemTicker());
+    }
+
+    /**
+     * @param name   令牌桶名称
+     * @param rate   最大速度(字节/秒)，值小于等于0不限制速度
+     * @param ticker 时钟
+     */
+    public TokenBucket(String name, long rate, Ticker ticker) {
+        this.name = name;
+        this.rate = rate;
+        this.ticker = ticker;
+        this.lastNanos = ticker.read();
+        this.windowStart = lastNanos;
+    }
+
+    /**
+     * 按时间生成令牌，最多积累1秒的令牌
+     */
+    private void refill(long now) {
+        if (rate > 0 && now > lastNanos) {
+            tokens = Math.min(rate, tokens + (now - lastNanos) * (double) rate / TimeUnit.SECONDS.toNanos(1));
+        }
+        lastNanos = Math.max(lastNanos, now);
+    }
+
+    /**
+     * 更新传输速度统计
+     */
+    private void record(long bytes, long now) {
+        totalBytes += bytes;
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            throughput = elapsed >= WINDOW_NANOS * 2 ? 0 : windowBytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            windowStart = now;
+            windowBytes = 0;
+        }
+        windowBytes += bytes;
+    }
+
+    /**
+     * 预约令牌，令牌不足时透支<br>
+     *
+     * @param bytes 字节数
+     * @param now   当前时间(纳秒，{@link Ticker#read()})
+     * @return 需要等待的时间(纳秒)，0表示不需要等待
+     */
+    public synchronized long reserve(long bytes, long now) {
+        record(bytes, now);
+        if (rate <= 0) {
+            tokens = 0;
+            return 0;
+        }
+        refill(now);
+        tokens -= bytes;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+
+    /**
+     * 修改最大速度<br>
+     *
+     * @param rate 最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    public synchronized void setRate(long rate) {
+        refill(ticker.read());
+        this.rate = rate;
+        if (rate <= 0) {
+            tokens = 0;
+        } else if (tokens > rate) {
+            tokens = rate;
+        }
+    }
+
+    /**
+     * 最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    public synchronized long getRate() {
+        return rate;
+    }
+
+    /**
+     * 最近1秒的传输速度(字节/秒)
+     */
+    public synchronized double getThroughput() {
+        long elapsed = ticker.read() - windowStart;
+        if (elapsed >= WINDOW_NANOS * 2) {
+            return 0;
+        }
+        if (elapsed >= WINDOW_NANOS) {
+            return windowBytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+        return throughput;
+    }
+
+    /**
+     * 传输的总字节数
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 最后一次预约令牌的时间(纳秒)
+     */
+    public synchronized long getLastNanos() {
+        return lastNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 时钟
+     */
+    public Ticker getTicker() {
+        return ticker;
+    }
+}
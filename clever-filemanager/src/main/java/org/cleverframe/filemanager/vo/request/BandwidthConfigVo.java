@@ -0,0 +1,72 @@
+package org.cleverframe.filemanager.vo.request;
+
+import org.cleverframe.common.vo.request.BaseRequestVo;
+import org.hibernate.validator.constraints.NotBlank;
+
+import javax.validation.constraints.Pattern;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:40 <br/>
+ */
+public class BandwidthConfigVo extends BaseRequestVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 传输方向
+     */
+    @NotBlank(message = "传输方向不能为空")
+    @Pattern(regexp = "UPLOAD|DOWNLOAD", message = "传输方向只能是“UPLOAD、DOWNLOAD”")
+    private String direction;
+
+    /**
+     * 总速度(字节/秒)，值小于等于0不限制速度，为空不修改
+     */
+    private Long globalRate;
+
+    /**
+     * 每个用户的总速度(字节/秒)，值小于等于0不限制速度，为空不修改
+     */
+    private Long userRate;
+
+    /**
+     * 每个请求的速度(字节/秒)，值小于等于0不限制速度，为空不修改
+     */
+    private Long requestRate;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public Long getGlobalRate() {
+        return globalRate;
+    }
+
+    public void setGlobalRate(Long globalRate) {
+        this.globalRate = globalRate;
+    }
+
+    public Long getUserRate() {
+        return userRate;
+    }
+
+    public void setUserRate(Long userRate) {
+        this.userRate = userRate;
+    }
+
+    public Long getRequestRate() {
+        return requestRate;
+    }
+
+    public void setRequestRate(Long requestRate) {
+        this.requestRate = requestRate;
+    }
+}
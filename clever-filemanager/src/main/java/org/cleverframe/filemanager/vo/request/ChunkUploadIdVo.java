@@ -0,0 +1,30 @@
+package org.cleverframe.filemanager.vo.request;
+
+import org.cleverframe.common.vo.request.BaseRequestVo;
+import org.hibernate.validator.constraints.NotBlank;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:00 <br/>
+ */
+public class ChunkUploadIdVo extends BaseRequestVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传会话ID
+     */
+    @NotBlank(message = "上传会话ID不能为空")
+    private String uploadId;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+}
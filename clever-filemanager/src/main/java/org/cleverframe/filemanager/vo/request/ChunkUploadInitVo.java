@@ -0,0 +1,77 @@
+package org.cleverframe.filemanager.vo.request;
+
+import org.cleverframe.common.vo.request.BaseRequestVo;
+import org.hibernate.validator.constraints.NotBlank;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:00 <br/>
+ */
+public class ChunkUploadInitVo extends BaseRequestVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传文件原名称
+     */
+    @NotBlank(message = "上传文件原名称不能为空")
+    private String fileName;
+
+    /**
+     * 文件大小(字节)
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Min(value = 1, message = "文件大小必须大于0")
+    private Long fileSize;
+
+    /**
+     * 分片大小(字节)，不传使用默认分片大小
+     */
+    @Min(value = 1, message = "分片大小必须大于0")
+    private Integer chunkSize;
+
+    /**
+     * 文件的MD5签名(可选)，服务器端存在相同文件时直接秒传；上传完成时会校验文件签名
+     */
+    @Pattern(regexp = "[0-9a-fA-F]{32}", message = "文件签名必须是32位Hex编码的MD5签名")
+    private String fileDigest;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getFileDigest() {
+        return fileDigest;
+    }
+
+    public void setFileDigest(String fileDigest) {
+        this.fileDigest = fileDigest;
+    }
+}
@@ -0,0 +1,63 @@
+package org.cleverframe.filemanager.vo.request;
+
+import org.cleverframe.common.vo.request.BaseRequestVo;
+import org.hibernate.validator.constraints.NotBlank;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:00 <br/>
+ */
+public class ChunkUploadVo extends BaseRequestVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传会话ID
+     */
+    @NotBlank(message = "上传会话ID不能为空")
+    private String uploadId;
+
+    /**
+     * 分片序号(从0开始)
+     */
+    @NotNull(message = "分片序号不能为空")
+    @Min(value = 0, message = "分片序号不能小于0")
+    private Integer index;
+
+    /**
+     * 分片的MD5签名(可选)，用于校验分片数据
+     */
+    @Pattern(regexp = "[0-9a-fA-F]{32}", message = "分片签名必须是32位Hex编码的MD5签名")
+    private String chunkDigest;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public String getChunkDigest() {
+        return chunkDigest;
+    }
+
+    public void setChunkDigest(String chunkDigest) {
+        this.chunkDigest = chunkDigest;
+    }
+}
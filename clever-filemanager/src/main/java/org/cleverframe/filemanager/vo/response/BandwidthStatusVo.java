@@ -0,0 +1,95 @@
+package org.cleverframe.filemanager.vo.response;
+
+import org.cleverframe.common.vo.response.BaseResponseVo;
+
+/**
+ * 带宽令牌桶状态<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 23:40 <br/>
+ */
+public class BandwidthStatusVo extends BaseResponseVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 传输方向(upload、download)
+     */
+    private String direction;
+
+    /**
+     * 令牌桶名称，如：global、user:admin
+     */
+    private String name;
+
+    /**
+     * 最大速度(字节/秒)，值小于等于0不限制速度
+     */
+    private Long rate;
+
+    /**
+     * 最近1秒的传输速度(字节/秒)
+     */
+    private Double throughput;
+
+    /**
+     * 传输的总字节数
+     */
+    private Long totalBytes;
+
+    /**
+     * 正在进行的请求数
+     */
+    private Integer activeCount;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getRate() {
+        return rate;
+    }
+
+    public void setRate(Long rate) {
+        this.rate = rate;
+    }
+
+    public Double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(Double throughput) {
+        this.throughput = throughput;
+    }
+
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(Long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public Integer getActiveCount() {
+        return activeCount;
+    }
+
+    public void setActiveCount(Integer activeCount) {
+        this.activeCount = activeCount;
+    }
+}
@@ -0,0 +1,137 @@
+package org.cleverframe.filemanager.vo.response;
+
+import org.cleverframe.common.vo.response.BaseResponseVo;
+import org.cleverframe.filemanager.entity.FileInfo;
+
+import java.util.List;
+
+/**
+ * 分片上传状态<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 22:00 <br/>
+ */
+public class ChunkUploadStatusVo extends BaseResponseVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传会话ID
+     */
+    private String uploadId;
+
+    /**
+     * 上传文件原名称
+     */
+    private String fileName;
+
+    /**
+     * 文件大小(字节)
+     */
+    private Long fileSize;
+
+    /**
+     * 分片大小(字节)，最后一个分片可能小于分片大小
+     */
+    private Integer chunkSize;
+
+    /**
+     * 分片数量
+     */
+    private Integer chunkCount;
+
+    /**
+     * 已经上传的分片数量
+     */
+    private Integer receivedCount;
+
+    /**
+     * 还未上传的分片序号(从0开始)
+     */
+    private List<Integer> missingChunks;
+
+    /**
+     * 是否已经上传完成
+     */
+    private boolean complete;
+
+    /**
+     * 上传完成后的文件信息
+     */
+    private FileInfo fileInfo;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Integer getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(Integer chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    public Integer getReceivedCount() {
+        return receivedCount;
+    }
+
+    public void setReceivedCount(Integer receivedCount) {
+        this.receivedCount = receivedCount;
+    }
+
+    public List<Integer> getMissingChunks() {
+        return missingChunks;
+    }
+
+    public void setMissingChunks(List<Integer> missingChunks) {
+        this.missingChunks = missingChunks;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public FileInfo getFileInfo() {
+        return fileInfo;
+    }
+
+    public void setFileInfo(FileInfo fileInfo) {
+        this.fileInfo = fileInfo;
+    }
+}
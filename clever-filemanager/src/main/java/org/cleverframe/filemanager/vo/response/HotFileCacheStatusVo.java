@@ -0,0 +1,238 @@
+package org.cleverframe.filemanager.vo.response;
+
+import org.cleverframe.common.vo.response.BaseResponseVo;
+
+/**
+ * 热点文件缓存统计信息<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 00:30 <br/>
+ */
+public class HotFileCacheStatusVo extends BaseResponseVo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否缓存文件内容
+     */
+    private Boolean contentEnabled;
+
+    /**
+     * 缓存文件内容的总大小上限(字节)
+     */
+    private Long maxSize;
+
+    /**
+     * 只缓存小于等于此大小的文件(字节)
+     */
+    private Integer maxEntrySize;
+
+    /**
+     * 缓存的文件数量
+     */
+    private Integer contentCount;
+
+    /**
+     * 缓存的文件内容总大小(字节)
+     */
+    private Long contentSize;
+
+    /**
+     * 已申请的堆外内存(字节)
+     */
+    private Long allocatedBytes;
+
+    /**
+     * 文件内容命中次数
+     */
+    private Long hitCount;
+
+    /**
+     * 文件内容未命中次数
+     */
+    private Long missCount;
+
+    /**
+     * 文件内容命中率
+     */
+    private Double hitRatio;
+
+    /**
+     * 从缓存输出的字节数
+     */
+    private Long hitBytes;
+
+    /**
+     * 从存储服务器读取并放入缓存的字节数
+     */
+    private Long loadBytes;
+
+    /**
+     * 被淘汰的文件数量
+     */
+    private Long evictionCount;
+
+    /**
+     * 没有缓存的文件数量(文件太大或者堆外内存不足)
+     */
+    private Long rejectCount;
+
+    /**
+     * 缓存的文件信息数量
+     */
+    private Integer metaCount;
+
+    /**
+     * 文件信息命中次数
+     */
+    private Long metaHitCount;
+
+    /**
+     * 文件信息未命中次数
+     */
+    private Long metaMissCount;
+
+    /**
+     * 文件信息命中率
+     */
+    private Double metaHitRatio;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public Boolean getContentEnabled() {
+        return contentEnabled;
+    }
+
+    public void setContentEnabled(Boolean contentEnabled) {
+        this.contentEnabled = contentEnabled;
+    }
+
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Integer getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(Integer maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Integer getContentCount() {
+        return contentCount;
+    }
+
+    public void setContentCount(Integer contentCount) {
+        this.contentCount = contentCount;
+    }
+
+    public Long getContentSize() {
+        return contentSize;
+    }
+
+    public void setContentSize(Long contentSize) {
+        this.contentSize = contentSize;
+    }
+
+    public Long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(Long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public Long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(Long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public Long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(Long missCount) {
+        this.missCount = missCount;
+    }
+
+    public Double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(Double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public Long getHitBytes() {
+        return hitBytes;
+    }
+
+    public void setHitBytes(Long hitBytes) {
+        this.hitBytes = hitBytes;
+    }
+
+    public Long getLoadBytes() {
+        return loadBytes;
+    }
+
+    public void setLoadBytes(Long loadBytes) {
+        this.loadBytes = loadBytes;
+    }
+
+    public Long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(Long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public Long getRejectCount() {
+        return rejectCount;
+    }
+
+    public void setRejectCount(Long rejectCount) {
+        this.rejectCount = rejectCount;
+    }
+
+    public Integer getMetaCount() {
+        return metaCount;
+    }
+
+    public void setMetaCount(Integer metaCount) {
+        this.metaCount = metaCount;
+    }
+
+    public Long getMetaHitCount() {
+        return metaHitCount;
+    }
+
+    public void setMetaHitCount(Long metaHitCount) {
+        this.metaHitCount = metaHitCount;
+    }
+
+    public Long getMetaMissCount() {
+        return metaMissCount;
+    }
+
+    public void setMetaMissCount(Long metaMissCount) {
+        this.metaMissCount = metaMissCount;
+    }
+
+    public Double getMetaHitRatio() {
+        return metaHitRatio;
+    }
+
+    public void setMetaHitRatio(Double metaHitRatio) {
+        this.metaHitRatio = metaHitRatio;
+    }
+}
@@ -0,0 +1,275 @@
+package service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.cleverframe.common.reflection.ReflectionsUtils;
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.service.ChunkUploadService;
+import org.cleverframe.filemanager.service.IStorageService;
+import org.cleverframe.filemanager.vo.response.ChunkUploadStatusVo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * 不启动Spring容器，直接设置ChunkUploadService的配置测试分片上传<br/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:50 <br/>
+ */
+public class ChunkUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private ChunkUploadService chunkUploadService;
+
+    private File tempDir;
+
+    /**
+     * 服务器端已经存在的文件签名(秒传)
+     */
+    private String existsDigest;
+
+    /**
+     * 最后一次秒传查询使用的文件签名
+     */
+    private String lazyDigest;
+
+    private final byte[] data = new byte[250];
+
+    @Before
+    public void init() throws Exception {
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        tempDir = Files.createTempDirectory("chunk-upload-test").toFile();
+        IStorageService localStorageService = (IStorageService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{IStorageService.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("lazySaveFile".equals(method.getName())) {
+                            lazyDigest = (String) args[1];
+                            if (!lazyDigest.equals(existsDigest)) {
+                                return null;
+                            }
+                            FileInfo fileInfo = new FileInfo();
+                            fileInfo.setFileName((String) args[0]);
+                            fileInfo.setDigest(lazyDigest);
+                            return fileInfo;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        chunkUploadService = new ChunkUploadService();
+        ReflectionsUtils.setFieldValue(chunkUploadService, "localStorageService", localStorageService);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "chunkSize", CHUNK_SIZE);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "maxChunkSize", 1000);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "sessionTimeout", 60 * 1000L);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "maxFileSize", 10000L);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "maxSessions", 3);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "maxUserSessions", 2);
+        ReflectionsUtils.setFieldValue(chunkUploadService, "tempDir", tempDir);
+        setCurrentUser("127.0.0.1");
+    }
+
+    @After
+    public void destroy() {
+        RequestContextHolder.resetRequestAttributes();
+        FileUtils.deleteQuietly(tempDir);
+    }
+
+    /**
+     * 无法获取登录用户时使用请求的IP地址作为用户标识
+     */
+    private static void setCurrentUser(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private ChunkUploadStatusVo upload(String uploadId, int index) throws Exception {
+        int from = index * CHUNK_SIZE;
+        byte[] chunk = Arrays.copyOfRange(data, from, Math.min(data.length, from + CHUNK_SIZE));
+        return chunkUploadService.uploadChunk(uploadId, index, new ByteArrayInputStream(chunk), DigestUtils.md5Hex(chunk));
+    }
+
+    private int getTempFileCount() {
+        String[] names = tempDir.list();
+        return names == null ? 0 : names.length;
+    }
+
+    @Test
+    public void testInitLimit() throws Exception {
+        try {
+            chunkUploadService.init("test.txt", 0, null, null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            chunkUploadService.init("test.txt", 10001, null, null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            chunkUploadService.init("test.txt", data.length, 1001, null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            chunkUploadService.init("test.txt", data.length, 0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        Assert.assertEquals(0, chunkUploadService.getSessionCount());
+    }
+
+    @Test
+    public void testUploadOutOfOrder() throws Exception {
+        ChunkUploadStatusVo status = chunkUploadService.init("test.txt", data.length, null, null);
+        Assert.assertEquals(Integer.valueOf(3), status.getChunkCount());
+        Assert.assertEquals(Arrays.asList(0, 1, 2), status.getMissingChunks());
+        String uploadId = status.getUploadId();
+        Assert.assertEquals(1, getTempFileCount());
+
+        status = upload(uploadId, 2);
+        Assert.assertEquals(Arrays.asList(0, 1), status.getMissingChunks());
+        status = upload(uploadId, 0);
+        Assert.assertEquals(Arrays.asList(1), status.getMissingChunks());
+        // 重复上传已经上传的分片
+        status = upload(uploadId, 0);
+        Assert.assertEquals(Integer.valueOf(2), status.getReceivedCount());
+        try {
+            chunkUploadService.complete(uploadId, "test");
+            Assert.fail();
+        } catch (IllegalStateException ignored) {
+        }
+        status = upload(uploadId, 1);
+        Assert.assertTrue(status.getMissingChunks().isEmpty());
+        Assert.assertEquals(DigestUtils.md5Hex(Arrays.copyOfRange(data, 200, 250)), chunkUploadService.getChunkDigests(uploadId)[2]);
+
+        // 服务器端存在相同文件，秒传
+        existsDigest = DigestUtils.md5Hex(data);
+        status = chunkUploadService.complete(uploadId, "test");
+        Assert.assertTrue(status.isComplete());
+        Assert.assertEquals(existsDigest, lazyDigest);
+        Assert.assertEquals(existsDigest, status.getFileInfo().getDigest());
+        Assert.assertEquals(0, chunkUploadService.getSessionCount());
+        Assert.assertEquals(0, getTempFileCount());
+    }
+
+    @Test
+    public void testChunkOffsetAndSize() throws Exception {
+        String uploadId = chunkUploadService.init("test.txt", data.length, null, null).getUploadId();
+        // 分片序号超出范围
+        for (int index : new int[]{-1, 3}) {
+            try {
+                chunkUploadService.uploadChunk(uploadId, index, new ByteArrayInputStream(new byte[CHUNK_SIZE]), null);
+                Assert.fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        // 分片数据太少、太多(最后一个分片只有50字节)
+        for (int length : new int[]{CHUNK_SIZE - 1, CHUNK_SIZE + 1}) {
+            try {
+                chunkUploadService.uploadChunk(uploadId, 0, new ByteArrayInputStream(new byte[length]), null);
+                Assert.fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        try {
+            chunkUploadService.uploadChunk(uploadId, 2, new ByteArrayInputStream(new byte[CHUNK_SIZE]), null);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 分片签名不正确
+        try {
+            chunkUploadService.uploadChunk(uploadId, 1, new ByteArrayInputStream(Arrays.copyOfRange(data, 100, 200)), DigestUtils.md5Hex("other"));
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 失败的分片可以重新上传
+        Assert.assertEquals(Arrays.asList(0, 1, 2), chunkUploadService.getStatus(uploadId).getMissingChunks());
+        upload(uploadId, 0);
+        upload(uploadId, 1);
+        upload(uploadId, 2);
+        Assert.assertTrue(chunkUploadService.getStatus(uploadId).getMissingChunks().isEmpty());
+    }
+
+    @Test
+    public void testExpectDigest() throws Exception {
+        String uploadId = chunkUploadService.init("test.txt", data.length, null, DigestUtils.md5Hex("other")).getUploadId();
+        Assert.assertEquals(DigestUtils.md5Hex("other"), lazyDigest);
+        upload(uploadId, 0);
+        upload(uploadId, 1);
+        upload(uploadId, 2);
+        try {
+            chunkUploadService.complete(uploadId, "test");
+            Assert.fail();
+        } catch (IllegalStateException ignored) {
+        }
+        Assert.assertEquals(0, chunkUploadService.getSessionCount());
+        Assert.assertEquals(0, getTempFileCount());
+    }
+
+    @Test
+    public void testSessionLimit() throws Exception {
+        String uploadId = chunkUploadService.init("a1.txt", data.length, null, null).getUploadId();
+        chunkUploadService.init("a2.txt", data.length, null, null);
+        // 超过每个用户的上传会话数量
+        try {
+            chunkUploadService.init("a3.txt", data.length, null, null);
+            Assert.fail();
+        } catch (IllegalStateException ignored) {
+        }
+        setCurrentUser("127.0.0.2");
+        chunkUploadService.init("b1.txt", data.length, null, null);
+        // 超过所有用户的上传会话数量
+        try {
+            chunkUploadService.init("b2.txt", data.length, null, null);
+            Assert.fail();
+        } catch (IllegalStateException ignored) {
+        }
+        Assert.assertEquals(3, chunkUploadService.getSessionCount());
+        Assert.assertEquals(3, getTempFileCount());
+
+        // 取消上传后释放上传会话数量
+        Assert.assertTrue(chunkUploadService.abort(uploadId));
+        Assert.assertFalse(chunkUploadService.abort(uploadId));
+        Assert.assertEquals(2, getTempFileCount());
+        chunkUploadService.init("b2.txt", data.length, null, null);
+        try {
+            chunkUploadService.getStatus(uploadId);
+            Assert.fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        String uploadId = chunkUploadService.init("test.txt", data.length, null, null).getUploadId();
+        upload(uploadId, 0);
+        Assert.assertEquals(0, chunkUploadService.sweep());
+        ReflectionsUtils.setFieldValue(chunkUploadService, "sessionTimeout", 0L);
+        Thread.sleep(5);
+        Assert.assertEquals(1, chunkUploadService.sweep());
+        Assert.assertEquals(0, chunkUploadService.getSessionCount());
+        Assert.assertEquals(0, getTempFileCount());
+        // 清除后释放上传会话数量
+        for (int i = 0; i < 2; i++) {
+            chunkUploadService.init("test.txt", data.length, null, null);
+        }
+    }
+}
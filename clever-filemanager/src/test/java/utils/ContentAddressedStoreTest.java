@@ -0,0 +1,213 @@
+package utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.cleverframe.filemanager.utils.ContentAddressedStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 使用临时目录测试内容寻址存储的索引日志和引用计数<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 08:00 <br/>
+ */
+public class ContentAddressedStoreTest {
+
+    private static final byte[] DATA_A = "aaaaaaaaaa".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DATA_B = "bbbbbbbbbbbbbbbbbbbb".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DATA_C = "cccccccccccccccccccccccccccccc".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File rootDir;
+
+    private ContentAddressedStore store;
+
+    @Before
+    public void init() throws IOException {
+        rootDir = temporaryFolder.newFolder("store");
+        store = new ContentAddressedStore(rootDir);
+    }
+
+    @After
+    public void destroy() throws IOException {
+        store.close();
+    }
+
+    private ContentAddressedStore.BlobInfo put(byte[] data) throws IOException {
+        return store.put(new ByteArrayInputStream(data));
+    }
+
+    private List<String> readIndex() throws IOException {
+        return FileUtils.readLines(new File(rootDir, "index.log"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 重新打开存储目录
+     *
+     * @param close 是否先关闭原来的对象，值为false时模拟异常退出(索引日志没有压缩)
+     */
+    private void restart(boolean close) throws IOException {
+        if (close) {
+            store.close();
+        }
+        store = new ContentAddressedStore(rootDir);
+    }
+
+    /**
+     * 相同内容只存储一份，引用计数增加和减少
+     */
+    @Test
+    public void testRefCount() throws IOException {
+        ContentAddressedStore.BlobInfo first = put(DATA_A);
+        Assert.assertEquals(DigestUtils.md5Hex(DATA_A), first.getMd5());
+        Assert.assertEquals(DigestUtils.sha1Hex(DATA_A), first.getSha1());
+        Assert.assertEquals(DATA_A.length, first.getSize());
+        Assert.assertEquals(1, first.getRefCount());
+        Assert.assertFalse(first.isDeduplicated());
+        Assert.assertArrayEquals(DATA_A, FileUtils.readFileToByteArray(store.getBlobFile(first.getMd5())));
+
+        ContentAddressedStore.BlobInfo second = put(DATA_A);
+        Assert.assertEquals(2, second.getRefCount());
+        Assert.assertTrue(second.isDeduplicated());
+
+        ContentAddressedStore.BlobInfo third = store.addReference(first.getMd5().toUpperCase());
+        Assert.assertNotNull(third);
+        Assert.assertEquals(3, third.getRefCount());
+        Assert.assertNull(store.addReference(DigestUtils.md5Hex(DATA_B)));
+        Assert.assertEquals(3, store.findBySha1(first.getSha1()).getRefCount());
+
+        Assert.assertEquals(2, store.removeReference(first.getMd5(), true));
+        Assert.assertEquals(1, store.removeReference(first.getMd5(), true));
+        Assert.assertEquals(0, store.removeReference(first.getMd5(), true));
+        // 引用计数变为0立即删除
+        Assert.assertFalse(store.getBlobFile(first.getMd5()).exists());
+        Assert.assertNull(store.findByMd5(first.getMd5()));
+        Assert.assertEquals(-1, store.removeReference(first.getMd5(), true));
+        Assert.assertEquals(0, store.size());
+        // 临时文件已经发布或删除
+        Assert.assertEquals(0, new File(rootDir, "tmp").list().length);
+    }
+
+    /**
+     * 异常退出之后重放索引日志恢复索引，忽略写了一半的最后一行
+     */
+    @Test
+    public void testReplay() throws IOException {
+        String md5A = put(DATA_A).getMd5();
+        put(DATA_A);
+        String md5B = put(DATA_B).getMd5();
+        String md5C = put(DATA_C).getMd5();
+        store.removeReference(md5A, false);
+        store.removeReference(md5B, false);
+        store.removeReference(md5C, true);
+        // 4条增加引用、3条减少引用、1条删除文件记录
+        Assert.assertEquals(8, readIndex().size());
+        FileUtils.writeStringToFile(new File(rootDir, "index.log"), "+ " + md5C + " 12", StandardCharsets.UTF_8, true);
+
+        ContentAddressedStore crashed = store;
+        restart(false);
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals(1, store.findByMd5(md5A).getRefCount());
+        Assert.assertEquals(0, store.findByMd5(md5B).getRefCount());
+        Assert.assertEquals(DATA_B.length, store.findBySha1(DigestUtils.sha1Hex(DATA_B)).getSize());
+        Assert.assertNull(store.findByMd5(md5C));
+        Assert.assertNull(store.findBySha1(DigestUtils.sha1Hex(DATA_C)));
+        crashed.close();
+    }
+
+    /**
+     * 打开和关闭时索引日志压缩为快照，重启之后索引不变
+     */
+    @Test
+    public void testRestart() throws IOException {
+        String md5A = put(DATA_A).getMd5();
+        put(DATA_A);
+        String md5B = put(DATA_B).getMd5();
+        store.removeReference(md5B, false);
+        restart(true);
+        List<String> lines = readIndex();
+        Assert.assertEquals(2, lines.size());
+        for (String line : lines) {
+            Assert.assertTrue(line.startsWith("= "));
+        }
+        Assert.assertEquals(2, store.findByMd5(md5A).getRefCount());
+        Assert.assertEquals(0, store.findByMd5(md5B).getRefCount());
+
+        // 重启之后引用计数为0的文件可以被秒传重新引用
+        Assert.assertEquals(1, store.addReference(md5B).getRefCount());
+        Assert.assertTrue(put(DATA_B).isDeduplicated());
+        restart(true);
+        Assert.assertEquals(2, store.findByMd5(md5B).getRefCount());
+        Assert.assertEquals(2, store.findByMd5(md5A).getRefCount());
+    }
+
+    /**
+     * 日志记录数超过阈值时自动压缩
+     */
+    @Test
+    public void testCompact() throws IOException {
+        String md5A = put(DATA_A).getMd5();
+        for (int i = 0; i < 6000; i++) {
+            store.addReference(md5A);
+            store.removeReference(md5A, false);
+        }
+        Assert.assertTrue(readIndex().size() < 10000);
+        Assert.assertEquals(1, store.findByMd5(md5A).getRefCount());
+        restart(false);
+        Assert.assertEquals(1, store.findByMd5(md5A).getRefCount());
+    }
+
+    /**
+     * gc只删除引用计数为0并且超过保留时间的文件
+     */
+    @Test
+    public void testGc() throws IOException, InterruptedException {
+        String md5A = put(DATA_A).getMd5();
+        String md5B = put(DATA_B).getMd5();
+        put(DATA_B);
+        String md5C = put(DATA_C).getMd5();
+        store.removeReference(md5A, false);
+        store.removeReference(md5B, false);
+        store.removeReference(md5C, false);
+        // 保留期间被重新引用
+        store.addReference(md5C);
+        File tempFile = new File(new File(rootDir, "tmp"), "orphan.uploading");
+        FileUtils.writeByteArrayToFile(tempFile, DATA_A);
+
+        // 没有超过保留时间
+        Assert.assertEquals(0, store.gc(60 * 60 * 1000));
+        Assert.assertTrue(store.getBlobFile(md5A).isFile());
+        Assert.assertTrue(tempFile.isFile());
+
+        Thread.sleep(10);
+        Assert.assertEquals(1, store.gc(0));
+        Assert.assertFalse(store.getBlobFile(md5A).exists());
+        Assert.assertFalse(tempFile.exists());
+        Assert.assertNull(store.findByMd5(md5A));
+        Assert.assertTrue(store.getBlobFile(md5B).isFile());
+        Assert.assertEquals(1, store.findByMd5(md5B).getRefCount());
+        Assert.assertTrue(store.getBlobFile(md5C).isFile());
+        Assert.assertEquals(1, store.findByMd5(md5C).getRefCount());
+
+        // 删除记录重启之后仍然有效
+        restart(false);
+        Assert.assertNull(store.findByMd5(md5A));
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals(0, store.gc(0));
+    }
+}
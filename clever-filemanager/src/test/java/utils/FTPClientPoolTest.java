@@ -0,0 +1,263 @@
+package utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.cleverframe.filemanager.utils.FTPClientPool;
+import org.cleverframe.filemanager.utils.FTPClientTemplate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.CwdCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 使用嵌入式FTP服务器测试FTP连接池和FTPClientTemplate<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:55 <br/>
+ */
+public class FTPClientPoolTest {
+
+    private static final String USERNAME = "test";
+
+    private static final String PASSWORD = "123456";
+
+    /**
+     * 服务器收到的CWD命令数
+     */
+    private final AtomicInteger cwdCount = new AtomicInteger(0);
+
+    private FakeFtpServer server;
+
+    private FTPClientPool pool;
+
+    @Before
+    public void init() throws InterruptedException {
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/"));
+        fileSystem.add(new DirectoryEntry("/data"));
+        server = new FakeFtpServer();
+        server.setServerControlPort(0);
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount(USERNAME, PASSWORD, "/"));
+        server.setCommandHandler("CWD", new CwdCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                cwdCount.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        server.start();
+        while (!server.isStarted()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @After
+    public void destroy() {
+        if (pool != null) {
+            pool.close();
+        }
+        server.stop();
+    }
+
+    private FTPClientPool createPool(int maxTotal, long maxWait, long idleTimeout, long evictionInterval, long keepAliveInterval) {
+        GenericObjectPoolConfig poolConfig = FTPClientPool.createPoolConfig(maxTotal, maxTotal, 0, maxWait, idleTimeout, keepAliveInterval);
+        poolConfig.setTimeBetweenEvictionRunsMillis(evictionInterval);
+        return new FTPClientPool("127.0.0.1", server.getServerControlPort(), USERNAME, PASSWORD, poolConfig, keepAliveInterval);
+    }
+
+    /**
+     * 借用和归还连接，归还的连接会被再次借用
+     */
+    @Test
+    public void testBorrowAndReturn() throws IOException {
+        pool = createPool(2, 1000, 60000, -1, 60000);
+        FTPClientTemplate ftp = pool.borrow();
+        Assert.assertEquals(1, pool.getNumActive());
+        Assert.assertEquals(0, pool.getNumIdle());
+        ftp.close();
+        Assert.assertEquals(0, pool.getNumActive());
+        Assert.assertEquals(1, pool.getNumIdle());
+
+        FTPClientTemplate again = pool.borrow();
+        Assert.assertSame(ftp, again);
+        again.close();
+        Assert.assertEquals(2, pool.getBorrowCount());
+        Assert.assertEquals(1, pool.getCreateCount());
+        Assert.assertEquals(0, pool.getDestroyCount());
+        // 刚归还的连接不发送NOOP命令
+        Assert.assertEquals(0, pool.getKeepAliveCount());
+    }
+
+    /**
+     * 空闲超过keepAliveInterval的连接借出前发送NOOP命令验证
+     */
+    @Test
+    public void testKeepAlive() throws IOException, InterruptedException {
+        pool = createPool(1, 1000, 60000, -1, 100);
+        pool.borrow().close();
+        pool.borrow().close();
+        Assert.assertEquals(0, pool.getKeepAliveCount());
+
+        Thread.sleep(200);
+        FTPClientTemplate ftp = pool.borrow();
+        Assert.assertEquals(1, pool.getKeepAliveCount());
+        Assert.assertEquals(0, pool.getValidateFailCount());
+        ftp.close();
+        Assert.assertEquals(1, pool.getCreateCount());
+    }
+
+    /**
+     * 服务器断开之后NOOP验证失败，连接被销毁
+     */
+    @Test
+    public void testKeepAliveFail() throws IOException, InterruptedException {
+        pool = createPool(1, 1000, 60000, -1, 100);
+        pool.borrow().close();
+        server.stop();
+        Thread.sleep(200);
+        try {
+            pool.borrow();
+            Assert.fail("服务器已经停止，借用连接应该失败");
+        } catch (IOException e) {
+            // 验证失败之后重新创建连接也失败
+        }
+        Assert.assertEquals(1, pool.getValidateFailCount());
+        Assert.assertEquals(1, pool.getDestroyCount());
+        Assert.assertEquals(1, pool.getBorrowFailCount());
+        Assert.assertEquals(0, pool.getNumIdle());
+    }
+
+    /**
+     * 空闲超时的连接被驱逐线程销毁
+     */
+    @Test
+    public void testIdleEviction() throws IOException, InterruptedException {
+        pool = createPool(2, 1000, 100, 50, 60000);
+        FTPClientTemplate ftp1 = pool.borrow();
+        FTPClientTemplate ftp2 = pool.borrow();
+        ftp1.close();
+        ftp2.close();
+        Assert.assertEquals(2, pool.getNumIdle());
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (pool.getNumIdle() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(0, pool.getNumIdle());
+        Assert.assertEquals(2, pool.getDestroyCount());
+
+        // 驱逐之后重新创建连接
+        pool.borrow().close();
+        Assert.assertEquals(3, pool.getCreateCount());
+    }
+
+    /**
+     * 目录已存在时使用一个CWD命令，目录不存在时从根目录逐级创建，工作目录相同时不发送CWD命令
+     */
+    @Test
+    public void testWorkingDirectory() throws IOException {
+        pool = createPool(1, 1000, 60000, -1, 60000);
+        FTPClientTemplate ftp = pool.borrow();
+
+        // 已存在的目录：一个CWD命令
+        cwdCount.set(0);
+        Assert.assertTrue(ftp.mkdir("/data"));
+        Assert.assertEquals(1, cwdCount.get());
+        // 工作目录缓存命中：不发送CWD命令
+        Assert.assertTrue(ftp.changeWorkingDirectory("data/"));
+        Assert.assertEquals(1, cwdCount.get());
+
+        // 不存在的目录：CWD失败之后回退到根目录逐级创建
+        Assert.assertFalse(ftp.changeWorkingDirectory("/data/2016/11"));
+        Assert.assertTrue(ftp.uploadFile("/data/2016/11/a.txt", new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8))));
+        Assert.assertTrue(server.getFileSystem().isDirectory("/data/2016/11"));
+        Assert.assertTrue(server.getFileSystem().exists("/data/2016/11/a.txt"));
+
+        // 同一目录下继续上传、下载不发送CWD命令
+        cwdCount.set(0);
+        Assert.assertTrue(ftp.uploadFile("/data/2016/11/b.txt", new ByteArrayInputStream("world".getBytes(StandardCharsets.UTF_8))));
+        InputStream inputStream = ftp.downloadFile("/data/2016/11/a.txt");
+        Assert.assertNotNull(inputStream);
+        Assert.assertEquals("hello", IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        inputStream.close();
+        Assert.assertEquals(0, cwdCount.get());
+
+        // 直接使用FTPClient会清除工作目录缓存
+        Assert.assertTrue(ftp.getFtpclient().changeWorkingDirectory("/"));
+        cwdCount.set(0);
+        Assert.assertTrue(ftp.changeWorkingDirectory("/data/2016/11"));
+        Assert.assertEquals(1, cwdCount.get());
+
+        // 下载之后归还连接(completePendingCommand)，连接可以继续使用
+        ftp.close();
+        Assert.assertEquals(1, pool.getNumIdle());
+        Assert.assertEquals(0, pool.getDestroyCount());
+        FTPClientTemplate again = pool.borrow();
+        Assert.assertSame(ftp, again);
+        Assert.assertTrue(again.existsFile("/data/2016/11/b.txt"));
+        again.close();
+    }
+
+    /**
+     * 连接池用完时借用连接等待，等待时间计入统计；等待超时借用失败
+     */
+    @Test
+    public void testBorrowWait() throws Exception {
+        pool = createPool(1, 2000, 60000, -1, 60000);
+        FTPClientTemplate ftp = pool.borrow();
+        final AtomicReference<FTPClientTemplate> borrowed = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    borrowed.set(pool.borrow());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pool.getNumWaiters() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, pool.getNumWaiters());
+        Thread.sleep(200);
+        ftp.close();
+        thread.join(2000);
+        Assert.assertSame(ftp, borrowed.get());
+        Assert.assertEquals(2, pool.getBorrowCount());
+        Assert.assertTrue(pool.getMaxBorrowWaitMillis() >= 200);
+        Assert.assertTrue(pool.getMeanBorrowWaitMillis() >= 100);
+        Assert.assertTrue(pool.getMeanBorrowWaitMillis() < pool.getMaxBorrowWaitMillis());
+
+        pool.close();
+        pool = createPool(1, 100, 60000, -1, 60000);
+        ftp = pool.borrow();
+        try {
+            pool.borrow();
+            Assert.fail("连接池已经用完，借用连接应该等待超时");
+        } catch (IOException e) {
+            // 等待超时
+        }
+        Assert.assertEquals(1, pool.getBorrowCount());
+        Assert.assertEquals(1, pool.getBorrowFailCount());
+        ftp.close();
+    }
+}
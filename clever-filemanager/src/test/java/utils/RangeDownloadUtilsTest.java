@@ -0,0 +1,205 @@
+package utils;
+
+import org.cleverframe.filemanager.entity.FileInfo;
+import org.cleverframe.filemanager.service.IRandomAccessStorageService;
+import org.cleverframe.filemanager.utils.RangeDownloadUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:40 <br/>
+ */
+public class RangeDownloadUtilsTest {
+
+    private static final long LAST_MODIFIED = 1479000000000L;
+
+    private final byte[] data = new byte[1000];
+
+    private FileInfo fileInfo;
+
+    private IRandomAccessStorageService storageService;
+
+    @Before
+    public void init() {
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+        fileInfo = new FileInfo();
+        fileInfo.setUuid("0c9b3f52-4f7e-4c3a-9d38-2a1b7b6f1e01");
+        fileInfo.setFileSize((long) data.length);
+        fileInfo.setDigest("e2fc714c4727ee9395f324cd2e7f331f");
+        // 只实现下载需要的方法，从内存数组读取文件
+        storageService = (IRandomAccessStorageService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{IRandomAccessStorageService.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getLastModified".equals(method.getName())) {
+                            return LAST_MODIFIED;
+                        }
+                        if ("openFile".equals(method.getName()) && args.length == 5) {
+                            int position = ((Long) args[1]).intValue();
+                            int length = ((Long) args[2]).intValue();
+                            ((OutputStream) args[3]).write(data, position, length);
+                            return (long) length;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Assert.assertTrue(RangeDownloadUtils.download(request, response, fileInfo, storageService, -1));
+        return response;
+    }
+
+    private static MockHttpServletRequest newRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/filemanager/manager/download.json");
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        return request;
+    }
+
+    private static void assertRanges(List<RangeDownloadUtils.ByteRange> rangeList, long... startEnd) {
+        Assert.assertNotNull(rangeList);
+        Assert.assertEquals(startEnd.length / 2, rangeList.size());
+        for (int i = 0; i < rangeList.size(); i++) {
+            Assert.assertEquals(startEnd[i * 2], rangeList.get(i).getStart());
+            Assert.assertEquals(startEnd[i * 2 + 1], rangeList.get(i).getEnd());
+        }
+    }
+
+    @Test
+    public void testParseSingleRange() {
+        assertRanges(RangeDownloadUtils.parseRange("bytes=0-499", 1000), 0, 499);
+        assertRanges(RangeDownloadUtils.parseRange("bytes=500-999", 1000), 500, 999);
+        // 结束位置超过文件大小
+        assertRanges(RangeDownloadUtils.parseRange("bytes=900-2000", 1000), 900, 999);
+    }
+
+    @Test
+    public void testParseSuffixAndOpenEndedRange() {
+        assertRanges(RangeDownloadUtils.parseRange("bytes=-100", 1000), 900, 999);
+        // 后缀长度超过文件大小时返回整个文件
+        assertRanges(RangeDownloadUtils.parseRange("bytes=-5000", 1000), 0, 999);
+        assertRanges(RangeDownloadUtils.parseRange("bytes=900-", 1000), 900, 999);
+        assertRanges(RangeDownloadUtils.parseRange("bytes=0-", 1000), 0, 999);
+    }
+
+    @Test
+    public void testParseMultipleRanges() {
+        assertRanges(RangeDownloadUtils.parseRange("bytes=500-599, 0-99", 1000), 0, 99, 500, 599);
+        // 重叠
+        assertRanges(RangeDownloadUtils.parseRange("bytes=0-199,100-299,-100", 1000), 0, 299, 900, 999);
+        // 相邻
+        assertRanges(RangeDownloadUtils.parseRange("bytes=0-99,100-199", 1000), 0, 199);
+        // 无效的范围被忽略
+        assertRanges(RangeDownloadUtils.parseRange("bytes=0-99,2000-3000", 1000), 0, 99);
+    }
+
+    @Test
+    public void testParseInvalidRange() {
+        // 返回整个文件
+        Assert.assertNull(RangeDownloadUtils.parseRange(null, 1000));
+        Assert.assertNull(RangeDownloadUtils.parseRange("items=0-99", 1000));
+        Assert.assertNull(RangeDownloadUtils.parseRange("bytes=abc-99", 1000));
+        Assert.assertNull(RangeDownloadUtils.parseRange("bytes=200-100", 1000));
+        Assert.assertNull(RangeDownloadUtils.parseRange("bytes=100", 1000));
+        Assert.assertNull(RangeDownloadUtils.parseRange("bytes=-", 1000));
+        StringBuilder tooMany = new StringBuilder("bytes=");
+        for (int i = 0; i < 17; i++) {
+            tooMany.append(i == 0 ? "" : ",").append(i * 10).append("-").append(i * 10 + 1);
+        }
+        Assert.assertNull(RangeDownloadUtils.parseRange(tooMany.toString(), 1000));
+        // 不能满足的范围(返回416)
+        Assert.assertTrue(RangeDownloadUtils.parseRange("bytes=1000-1999", 1000).isEmpty());
+        Assert.assertTrue(RangeDownloadUtils.parseRange("bytes=-0", 1000).isEmpty());
+    }
+
+    @Test
+    public void testDownloadSingleRange() throws Exception {
+        MockHttpServletResponse response = download(newRequest("bytes=10-19"));
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals("bytes 10-19/1000", response.getHeader("Content-Range"));
+        Assert.assertEquals("10", response.getHeader("Content-Length"));
+        Assert.assertEquals("klmnopqrst", response.getContentAsString());
+    }
+
+    @Test
+    public void testDownloadWholeFile() throws Exception {
+        MockHttpServletResponse response = download(newRequest(null));
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        Assert.assertArrayEquals(data, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testDownloadMultipleRanges() throws Exception {
+        MockHttpServletResponse response = download(newRequest("bytes=0-2,26-28"));
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String boundary = response.getContentType().substring("multipart/byteranges; boundary=".length());
+        String content = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+        Assert.assertEquals(String.valueOf(response.getContentAsByteArray().length), response.getHeader("Content-Length"));
+        Assert.assertTrue(content.contains("Content-Range: bytes 0-2/1000\r\n\r\nabc\r\n--" + boundary));
+        Assert.assertTrue(content.contains("Content-Range: bytes 26-28/1000\r\n\r\nabc\r\n--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    public void testDownloadUnsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = download(newRequest("bytes=1000-"));
+        Assert.assertEquals(416, response.getStatus());
+        Assert.assertEquals("bytes */1000", response.getHeader("Content-Range"));
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testIfRange() throws Exception {
+        // ETag匹配
+        MockHttpServletRequest request = newRequest("bytes=0-9");
+        request.addHeader("If-Range", RangeDownloadUtils.getETag(fileInfo));
+        Assert.assertEquals(206, download(request).getStatus());
+        // 最后修改时间匹配
+        request = newRequest("bytes=0-9");
+        request.addHeader("If-Range", LAST_MODIFIED);
+        Assert.assertEquals(206, download(request).getStatus());
+        // ETag不匹配，返回整个文件
+        request = newRequest("bytes=0-9");
+        request.addHeader("If-Range", "\"other-etag\"");
+        MockHttpServletResponse response = download(request);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertNull(response.getHeader("Content-Range"));
+        Assert.assertArrayEquals(data, response.getContentAsByteArray());
+        // 最后修改时间不匹配，返回整个文件
+        request = newRequest("bytes=0-9");
+        request.addHeader("If-Range", LAST_MODIFIED - 60 * 1000);
+        Assert.assertEquals(200, download(request).getStatus());
+        // 弱ETag不能用于If-Range
+        request = newRequest("bytes=0-9");
+        request.addHeader("If-Range", "W/" + RangeDownloadUtils.getETag(fileInfo));
+        Assert.assertEquals(200, download(request).getStatus());
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        MockHttpServletRequest request = newRequest("bytes=0-9");
+        request.addHeader("If-None-Match", RangeDownloadUtils.getETag(fileInfo));
+        MockHttpServletResponse response = download(request);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,181 @@
+package utils;
+
+import com.google.common.base.Ticker;
+import org.cleverframe.filemanager.utils.BandwidthLimiter;
+import org.cleverframe.filemanager.utils.BandwidthManager;
+import org.cleverframe.filemanager.utils.TokenBucket;
+import org.cleverframe.filemanager.vo.response.BandwidthStatusVo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 使用手动推进的时钟测试令牌桶和限速器(突发、匀速生成令牌、透支)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 08:05 <br/>
+ */
+public class TokenBucketTest {
+
+    /**
+     * 手动推进的时钟
+     */
+    private static class ManualTicker extends Ticker {
+        private long nanos = TimeUnit.SECONDS.toNanos(100);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+
+    private ManualTicker ticker;
+
+    @Before
+    public void init() {
+        ticker = new ManualTicker();
+    }
+
+    private long reserve(TokenBucket bucket, long bytes) {
+        return bucket.reserve(bytes, ticker.read());
+    }
+
+    private static BandwidthStatusVo findStatus(BandwidthManager manager, String name) {
+        List<BandwidthStatusVo> statusList = manager.getStatus();
+        for (BandwidthStatusVo status : statusList) {
+            if ("download".equals(status.getDirection()) && name.equals(status.getName())) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * 空闲时最多积累1秒的令牌
+     */
+    @Test
+    public void testBurst() {
+        TokenBucket bucket = new TokenBucket("test", 1000, ticker);
+        // 新建的令牌桶没有令牌
+        Assert.assertEquals(millis(100), reserve(bucket, 100));
+
+        ticker.advance(5000);
+        Assert.assertEquals(0, reserve(bucket, 1000));
+        Assert.assertEquals(millis(1), reserve(bucket, 1));
+        Assert.assertEquals(1101, bucket.getTotalBytes());
+    }
+
+    /**
+     * 令牌按速度匀速生成
+     */
+    @Test
+    public void testRefill() {
+        TokenBucket bucket = new TokenBucket("test", 1000, ticker);
+        ticker.advance(1000);
+        Assert.assertEquals(0, reserve(bucket, 1000));
+        for (int i = 0; i < 20; i++) {
+            ticker.advance(100);
+            Assert.assertEquals(0, reserve(bucket, 100));
+        }
+        Assert.assertEquals(millis(100), reserve(bucket, 100));
+        ticker.advance(50);
+        Assert.assertEquals(millis(150), reserve(bucket, 100));
+    }
+
+    /**
+     * 超过桶容量的预约透支令牌，后续预约要先还清透支
+     */
+    @Test
+    public void testDebt() {
+        TokenBucket bucket = new TokenBucket("test", 1000, ticker);
+        ticker.advance(1000);
+        Assert.assertEquals(millis(2000), reserve(bucket, 3000));
+
+        ticker.advance(1000);
+        Assert.assertEquals(millis(1100), reserve(bucket, 100));
+
+        ticker.advance(1100);
+        Assert.assertEquals(0, reserve(bucket, 0));
+        Assert.assertEquals(millis(1), reserve(bucket, 1));
+
+        // 还清透支之后重新积累，最多1秒
+        ticker.advance(10000);
+        Assert.assertEquals(0, reserve(bucket, 1000));
+        Assert.assertEquals(millis(500), reserve(bucket, 500));
+    }
+
+    /**
+     * 运行时修改速度，不限速时不需要等待
+     */
+    @Test
+    public void testSetRate() {
+        TokenBucket bucket = new TokenBucket("test", 0, ticker);
+        Assert.assertEquals(0, reserve(bucket, 1000000));
+
+        bucket.setRate(1000);
+        ticker.advance(1000);
+        bucket.setRate(500);
+        // 降低速度之后令牌不超过新的桶容量
+        Assert.assertEquals(0, reserve(bucket, 500));
+        Assert.assertEquals(millis(200), reserve(bucket, 100));
+        Assert.assertEquals(500, bucket.getRate());
+    }
+
+    /**
+     * 传输速度统计窗口
+     */
+    @Test
+    public void testThroughput() {
+        TokenBucket bucket = new TokenBucket("test", 0, ticker);
+        reserve(bucket, 300);
+        ticker.advance(500);
+        reserve(bucket, 200);
+        Assert.assertEquals(0, bucket.getThroughput(), 0.001);
+        ticker.advance(500);
+        Assert.assertEquals(500, bucket.getThroughput(), 0.001);
+        reserve(bucket, 100);
+        ticker.advance(1000);
+        Assert.assertEquals(100, bucket.getThroughput(), 0.001);
+        ticker.advance(1000);
+        Assert.assertEquals(0, bucket.getThroughput(), 0.001);
+        Assert.assertEquals(600, bucket.getTotalBytes());
+    }
+
+    /**
+     * 限速器同时受用户和请求令牌桶限制，同一个用户的请求共享用户令牌桶
+     */
+    @Test
+    public void testBandwidthLimiter() {
+        BandwidthManager manager = new BandwidthManager(0, 0, 0, 0, 1990000, 1000000, ticker);
+        BandwidthLimiter first = manager.open(BandwidthManager.Direction.DOWNLOAD, "user", 0);
+        BandwidthLimiter second = manager.open(BandwidthManager.Direction.DOWNLOAD, "user", 0);
+        Assert.assertEquals(1000000, first.getRate());
+        ticker.advance(1000);
+
+        Assert.assertEquals(0, first.acquire(1000000), 0);
+        // 请求令牌桶还有令牌，用户令牌桶透支10000字节
+        Assert.assertEquals(10000 / 1990000.0, second.acquire(1000000), 0.000001);
+        // 请求令牌桶透支1000字节，用户令牌桶透支累计到11000字节，等待时间取较长的
+        Assert.assertEquals(11000 / 1990000.0, first.acquire(1000), 0.000001);
+
+        BandwidthStatusVo userStatus = findStatus(manager, "user:user");
+        Assert.assertNotNull(userStatus);
+        Assert.assertEquals(2, userStatus.getActiveCount().intValue());
+        Assert.assertEquals(2001000, userStatus.getTotalBytes().longValue());
+        first.close();
+        first.close();
+        second.close();
+        Assert.assertEquals(0, findStatus(manager, "global").getActiveCount().intValue());
+    }
+}
@@ -18,6 +18,7 @@ public class MonitorBeanNames implements IBeanNames {
     public static final String ZookeeperMonitorService = "monitor_ZookeeperMonitorService";
     public static final String RedisMonitorService = "monitor_RedisMonitorService";
     public static final String MemcacheMonitorService = "monitor_MemcacheMonitorService";
+    public static final String HotFileCacheMonitorService = "monitor_HotFileCacheMonitorService";
 
 
     // -------------------------------------------------------------------------------------------//
@@ -0,0 +1,48 @@
+package org.cleverframe.monitor.controller;
+
+import org.cleverframe.common.controller.BaseController;
+import org.cleverframe.common.vo.response.AjaxMessage;
+import org.cleverframe.filemanager.vo.response.HotFileCacheStatusVo;
+import org.cleverframe.monitor.MonitorBeanNames;
+import org.cleverframe.monitor.service.HotFileCacheMonitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 00:30 <br/>
+ */
+@SuppressWarnings("MVCPathVariableInspection")
+@Controller
+@RequestMapping(value = "/${base.mvcPath}/monitor/hotfilecache")
+public class HotFileCacheMonitorController extends BaseController {
+
+    @Autowired
+    @Qualifier(MonitorBeanNames.HotFileCacheMonitorService)
+    private HotFileCacheMonitorService hotFileCacheMonitorService;
+
+    /**
+     * 获取热点文件缓存统计信息<br>
+     */
+    @ResponseBody
+    @RequestMapping("/getStatus")
+    public AjaxMessage<HotFileCacheStatusVo> getStatus(HttpServletRequest request, HttpServletResponse response) {
+        return new AjaxMessage<>(hotFileCacheMonitorService.getStatus(), "获取热点文件缓存统计信息成功");
+    }
+
+    /**
+     * 清除热点文件缓存<br>
+     */
+    @ResponseBody
+    @RequestMapping("/clear")
+    public AjaxMessage<String> clear(HttpServletRequest request, HttpServletResponse response) {
+        hotFileCacheMonitorService.clear();
+        return new AjaxMessage<>(true, "清除热点文件缓存成功", null);
+    }
+}
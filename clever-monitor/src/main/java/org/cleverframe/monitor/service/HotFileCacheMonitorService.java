@@ -0,0 +1,38 @@
+package org.cleverframe.monitor.service;
+
+import org.cleverframe.common.service.BaseService;
+import org.cleverframe.filemanager.utils.HotFileCache;
+import org.cleverframe.filemanager.vo.response.HotFileCacheStatusVo;
+import org.cleverframe.monitor.MonitorBeanNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热点文件缓存监控<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 00:30 <br/>
+ */
+@Component(MonitorBeanNames.HotFileCacheMonitorService)
+public class HotFileCacheMonitorService extends BaseService {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(HotFileCacheMonitorService.class);
+
+    /**
+     * 获取热点文件缓存统计信息(命中率、输出字节数等)
+     */
+    public HotFileCacheStatusVo getStatus() {
+        return HotFileCache.getInstance().getStatus();
+    }
+
+    /**
+     * 清除热点文件缓存
+     */
+    public void clear() {
+        HotFileCache.getInstance().clear();
+        logger.info("### 清除热点文件缓存");
+    }
+}
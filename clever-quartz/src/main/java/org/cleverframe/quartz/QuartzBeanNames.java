@@ -16,6 +16,7 @@ public class QuartzBeanNames implements IBeanNames {
     public static final String QrtzTriggerLogDao = "quartz_QrtzTriggerLogDao";
     public static final String QrtzJobLogDao = "quartz_QrtzJobLogDao";
     public static final String QrtzTriggersDao = "quartz_QrtzTriggersDao";
+    public static final String QrtzJobDetailsDao = "quartz_QrtzJobDetailsDao";
 
     // -------------------------------------------------------------------------------------------//
     // Service
@@ -31,6 +32,7 @@ public class QuartzBeanNames implements IBeanNames {
     // -------------------------------------------------------------------------------------------//
     // Other
     // -------------------------------------------------------------------------------------------//
+    public static final String LogPartitionManager = "quartz_LogPartitionManager";
 
 
 }
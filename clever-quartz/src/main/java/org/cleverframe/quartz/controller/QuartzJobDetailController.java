@@ -57,7 +57,7 @@ public class QuartzJobDetailController extends BaseController {
     @ResponseBody
     public AjaxMessage<List<QuartzJobDetails>> getAllJobDetail(HttpServletRequest request, HttpServletResponse response) {
         AjaxMessage<List<QuartzJobDetails>> ajaxMessage = new AjaxMessage<>(true, "获取所有的JobDetail成功", null);
-        List<QuartzJobDetails> jobDetailList = jobDetailService.getAllJobDetail();
+        List<QuartzJobDetails> jobDetailList = jobDetailService.getAllJobDetail(ajaxMessage);
         ajaxMessage.setResult(jobDetailList);
         return ajaxMessage;
     }
@@ -6,6 +6,7 @@ import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.QuartzJspUrlPath;
 import org.cleverframe.quartz.service.SchedulerService;
 import org.cleverframe.quartz.vo.model.QuartzJobDetails;
+import org.cleverframe.quartz.vo.model.SchedulerMetricsInfo;
 import org.cleverframe.quartz.vo.request.JobDetailKeyVo;
 import org.quartz.JobKey;
 import org.quartz.SchedulerMetaData;
@@ -110,4 +111,20 @@ public class QuartzSchedulerController extends BaseController {
         ajaxMessage.setResult(schedulerService.getContext(ajaxMessage));
         return ajaxMessage;
     }
+
+    @RequestMapping("/getMetrics")
+    @ResponseBody
+    public AjaxMessage<SchedulerMetricsInfo> getMetrics(HttpServletRequest request, HttpServletResponse response) {
+        AjaxMessage<SchedulerMetricsInfo> ajaxMessage = new AjaxMessage<>(true, "获取调度器运行指标成功", null);
+        ajaxMessage.setResult(schedulerService.getMetrics());
+        return ajaxMessage;
+    }
+
+    @RequestMapping("/resetMetrics")
+    @ResponseBody
+    public AjaxMessage<String> resetMetrics(HttpServletRequest request, HttpServletResponse response) {
+        AjaxMessage<String> ajaxMessage = new AjaxMessage<>(true, "清空调度器运行指标成功", null);
+        schedulerService.resetMetrics();
+        return ajaxMessage;
+    }
 }
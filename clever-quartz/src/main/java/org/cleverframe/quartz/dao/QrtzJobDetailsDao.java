@@ -0,0 +1,39 @@
+package org.cleverframe.quartz.dao;
+
+import org.cleverframe.common.persistence.Parameter;
+import org.cleverframe.core.persistence.dao.BaseDao;
+import org.cleverframe.core.utils.QLScriptUtils;
+import org.cleverframe.quartz.QuartzBeanNames;
+import org.cleverframe.quartz.vo.model.QuartzJobDetails;
+import org.hibernate.SQLQuery;
+import org.hibernate.transform.Transformers;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 直接查询QRTZ_JOB_DETAILS表(只使用SQL查询，QuartzJobDetails不是Hibernate实体)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 06:10 <br/>
+ */
+@Repository(QuartzBeanNames.QrtzJobDetailsDao)
+public class QrtzJobDetailsDao extends BaseDao<QuartzJobDetails> {
+
+    /**
+     * 查询Scheduler的所有JobDetail数据(一次查询，直接查询QRTZ_JOB_DETAILS表)
+     *
+     * @param schedName Scheduler名称
+     * @return 返回字段 job_name,job_group,description,job_class_name,is_durable,is_nonconcurrent,is_update_data,requests_recovery,job_data
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> findAllQrtzJobDetails(String schedName) {
+        Parameter param = new Parameter();
+        param.put("schedName", schedName);
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzJobDetailsDao.findAllQrtzJobDetails");
+        SQLQuery sqlQuery = hibernateDao.createSqlQuery(sql, param);
+        sqlQuery.setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+        return (List<Map<String, Object>>) sqlQuery.list();
+    }
+}
@@ -3,12 +3,17 @@ package org.cleverframe.quartz.dao;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.common.persistence.Parameter;
 import org.cleverframe.core.persistence.dao.BaseDao;
+import org.cleverframe.core.retention.LogPartitionManager;
 import org.cleverframe.core.utils.QLScriptUtils;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzJobLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -17,6 +22,13 @@ import java.util.Date;
 @Repository(QuartzBeanNames.QrtzJobLogDao)
 public class QrtzJobLogDao extends BaseDao<QrtzJobLog> {
 
+    /**
+     * 日志表分区维护，用于把查询路由到时间范围内的分区(未配置时查询整个表)
+     */
+    @Autowired(required = false)
+    @Qualifier(QuartzBeanNames.LogPartitionManager)
+    private LogPartitionManager logPartitionManager;
+
     /**
      * 分页查询所有的定时任务日志
      *
@@ -53,7 +65,9 @@ public class QrtzJobLogDao extends BaseDao<QrtzJobLog> {
         param.put("startTimeByEnd", startTimeByEnd);
         param.put("processTimeByMin", processTimeByMin);
         param.put("processTimeByMax", processTimeByMax);
-        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzJobLogDao.findByPage");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("partition", logPartitionManager == null ? "" : logPartitionManager.getPartitionClause("qrtz_job_log", startTimeByStart, startTimeByEnd));
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzJobLogDao.findByPage", dataModel);
         return hibernateDao.findBySql(page, sql, param);
     }
 }
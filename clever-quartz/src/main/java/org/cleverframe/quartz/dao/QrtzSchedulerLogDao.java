@@ -3,12 +3,17 @@ package org.cleverframe.quartz.dao;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.common.persistence.Parameter;
 import org.cleverframe.core.persistence.dao.BaseDao;
+import org.cleverframe.core.retention.LogPartitionManager;
 import org.cleverframe.core.utils.QLScriptUtils;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzSchedulerLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -16,6 +21,14 @@ import java.util.Date;
  */
 @Repository(QuartzBeanNames.QrtzSchedulerLogDao)
 public class QrtzSchedulerLogDao extends BaseDao<QrtzSchedulerLog> {
+
+    /**
+     * 日志表分区维护，用于把查询路由到时间范围内的分区(未配置时查询整个表)
+     */
+    @Autowired(required = false)
+    @Qualifier(QuartzBeanNames.LogPartitionManager)
+    private LogPartitionManager logPartitionManager;
+
     /**
      * 分页查询调度器日志
      *
@@ -34,7 +47,9 @@ public class QrtzSchedulerLogDao extends BaseDao<QrtzSchedulerLog> {
         param.put("methodName", methodName);
         param.put("logTimeStart", logTimeStart);
         param.put("logTimeEnd", logTimeEnd);
-        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzSchedulerLogDao.findByPage");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("partition", logPartitionManager == null ? "" : logPartitionManager.getPartitionClause("qrtz_scheduler_log", logTimeStart, logTimeEnd));
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzSchedulerLogDao.findByPage", dataModel);
         return hibernateDao.findBySql(page, sql, param);
     }
 }
@@ -3,12 +3,17 @@ package org.cleverframe.quartz.dao;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.common.persistence.Parameter;
 import org.cleverframe.core.persistence.dao.BaseDao;
+import org.cleverframe.core.retention.LogPartitionManager;
 import org.cleverframe.core.utils.QLScriptUtils;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzTriggerLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -17,6 +22,13 @@ import java.util.Date;
 @Repository(QuartzBeanNames.QrtzTriggerLogDao)
 public class QrtzTriggerLogDao extends BaseDao<QrtzTriggerLog> {
 
+    /**
+     * 日志表分区维护，用于把查询路由到时间范围内的分区(未配置时查询整个表)
+     */
+    @Autowired(required = false)
+    @Qualifier(QuartzBeanNames.LogPartitionManager)
+    private LogPartitionManager logPartitionManager;
+
     /**
      * 分页查询所有的触发器日志
      *
@@ -59,7 +71,9 @@ public class QrtzTriggerLogDao extends BaseDao<QrtzTriggerLog> {
         param.put("startTimeByEnd", startTimeByEnd);
         param.put("processTimeByMin", processTimeByMin);
         param.put("processTimeByMax", processTimeByMax);
-        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzTriggerLogDao.findByPage");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("partition", logPartitionManager == null ? "" : logPartitionManager.getPartitionClause("qrtz_trigger_log", startTimeByStart, startTimeByEnd));
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzTriggerLogDao.findByPage", dataModel);
         return hibernateDao.findBySql(page, sql, param);
     }
 }
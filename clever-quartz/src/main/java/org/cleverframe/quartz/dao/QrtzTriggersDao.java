@@ -5,8 +5,13 @@ import org.cleverframe.core.persistence.dao.BaseDao;
 import org.cleverframe.core.utils.QLScriptUtils;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzTriggers;
+import org.hibernate.SQLQuery;
+import org.hibernate.transform.Transformers;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 作者：LiZW <br/>
  * 创建时间：2016-8-13 12:54 <br/>
@@ -30,4 +35,26 @@ public class QrtzTriggersDao extends BaseDao<QrtzTriggers> {
         String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzTriggersDao.getQrtzTriggers");
         return hibernateDao.getBySql(sql, param);
     }
+
+    /**
+     * 查询一个Job的所有触发器数据(一次查询，包含SimpleTrigger、CronTrigger的属性)
+     *
+     * @param schedName Scheduler名称
+     * @param jobGroup  Job group名称
+     * @param jobName   Job key
+     * @return 返回字段 trigger_name,trigger_group,job_name,job_group,description,next_fire_time,prev_fire_time,priority,
+     * trigger_state,trigger_type,start_time,end_time,calendar_name,misfire_instr,job_data,
+     * repeat_count,repeat_interval,times_triggered,cron_expression,time_zone_id
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> findQrtzTriggersByJob(String schedName, String jobGroup, String jobName) {
+        Parameter param = new Parameter();
+        param.put("schedName", schedName);
+        param.put("jobGroup", jobGroup);
+        param.put("jobName", jobName);
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.quartz.dao.QrtzTriggersDao.findQrtzTriggersByJob");
+        SQLQuery sqlQuery = hibernateDao.createSqlQuery(sql, param);
+        sqlQuery.setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+        return (List<Map<String, Object>>) sqlQuery.list();
+    }
 }
@@ -1,23 +1,30 @@
 package org.cleverframe.quartz.plugins;
 
+import org.cleverframe.common.concurrent.OverflowPolicy;
 import org.cleverframe.common.exception.ExceptionUtils;
 import org.cleverframe.common.mapper.JacksonMapper;
+import org.cleverframe.common.spring.SpringBeanNames;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.common.utils.IPAddressUtils;
-import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzJobLog;
-import org.cleverframe.quartz.service.QrtzJobLogService;
 import org.quartz.*;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.SchedulerPlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 记录Job执行日志的插件,日志数据存到数据库<br/>
- * 参考{@link org.quartz.plugins.history.LoggingJobHistoryPlugin}
+ * 参考{@link org.quartz.plugins.history.LoggingJobHistoryPlugin}<br/>
+ * 1.Job开始执行时日志只保存在内存中(按fireInstanceId关联)，执行结束后生成一条完整的日志<br/>
+ * 2.日志由{@link QrtzJobLogBatchWriter}异步批量写入数据库，不占用Quartz工作线程，也不修改持久化的JobDataMap<br/>
+ * 3.可以配置是否记录JobDataMap数据、队列满时的处理策略，配置方式：org.quartz.plugin.NAME.propName = propValue<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-7-31 23:09 <br/>
@@ -29,16 +36,36 @@ public class DataBaseLogJobPlugin implements SchedulerPlugin, JobListener {
     private final static Logger logger = LoggerFactory.getLogger(DataBaseLogJobPlugin.class);
 
     /**
-     * jobDataMap中特殊的Key
+     * 监听器名称
      */
-    private String jobDataMapKey = "_jobDataMap中特殊的Key";
+    private String name;
 
     /**
-     * 监听器名称
+     * 当前节点IP地址
      */
-    private String name;
+    private String ipAddress;
 
-    private QrtzJobLogService qrtzJobLogService;
+    /**
+     * 记录JobDataMap数据的方式
+     */
+    private JobDataCapture jobDataCapture = JobDataCapture.BOTH;
+
+    /**
+     * 正在执行的Job日志最大数量，超过后新的执行不记录日志
+     */
+    private int maxPending = 10000;
+
+    /**
+     * fireInstanceId -> 正在执行的Job日志
+     */
+    private final Map<String, QrtzJobLog> pendingLogs = new ConcurrentHashMap<>();
+
+    /**
+     * 因为正在执行的Job日志太多没有记录的日志数量
+     */
+    private final AtomicLong pendingDroppedCount = new AtomicLong(0L);
+
+    private final QrtzJobLogBatchWriter qrtzJobLogBatchWriter = new QrtzJobLogBatchWriter();
 
     /**
      * 方法返回一个字符串用以说明 JobListener 的名称
@@ -54,28 +81,26 @@ public class DataBaseLogJobPlugin implements SchedulerPlugin, JobListener {
      */
     @Override
     public void initialize(String name, Scheduler scheduler, ClassLoadHelper loadHelper) throws SchedulerException {
-        qrtzJobLogService = SpringContextHolder.getBean(QuartzBeanNames.QrtzJobLogService);
-        if (qrtzJobLogService != null) {
-            logger.debug("### QrtzJobLogService注入成功");
+        DataSource dataSource = SpringContextHolder.getBean(SpringBeanNames.DataSource);
+        if (dataSource != null) {
+            logger.debug("### DataSource注入成功");
         } else {
-            RuntimeException exception = new RuntimeException("Quartz插件DataBaseLogJobPlugin初始化失败，QrtzJobLogService注入失败");
+            RuntimeException exception = new RuntimeException("Quartz插件DataBaseLogJobPlugin初始化失败，DataSource注入失败");
             logger.info(exception.getMessage(), exception);
             throw exception;
         }
         this.name = name;
-        this.jobDataMapKey = name + this.jobDataMapKey;
+        this.ipAddress = IPAddressUtils.getInet4AddressStr();
+        qrtzJobLogBatchWriter.setDataSource(dataSource);
         scheduler.getListenerManager().addJobListener(this);
-        logger.info("### Quartz插件DataBaseLogJobPlugin初始化成功");
+        logger.info("### Quartz插件DataBaseLogJobPlugin初始化成功, jobDataCapture={}", jobDataCapture);
     }
 
     /**
-     * Scheduler 在 JobDetail 将要被执行时调用这个方法<br/>
-     * 增加日志信息
+     * 创建Job日志(还没有执行结束)
      */
-    @Override
-    public void jobToBeExecuted(JobExecutionContext context) {
+    private QrtzJobLog createQrtzJobLog(JobExecutionContext context) {
         JobDetail jobDetail = context.getJobDetail();
-        Job job = context.getJobInstance();
         Trigger trigger = context.getTrigger();
         String schedName = "未知";
         String instanceName = "未知";
@@ -92,69 +117,71 @@ public class DataBaseLogJobPlugin implements SchedulerPlugin, JobListener {
         qrtzJobLog.setInstanceName(instanceName);
         qrtzJobLog.setJobName(jobDetail.getKey().getName());
         qrtzJobLog.setJobGroup(jobDetail.getKey().getGroup());
-        qrtzJobLog.setJobClassName(job.getClass().getName());
+        qrtzJobLog.setJobClassName(context.getJobInstance() == null ? jobDetail.getJobClass().getName() : context.getJobInstance().getClass().getName());
         qrtzJobLog.setTriggerName(trigger.getKey().getName());
         qrtzJobLog.setTriggerGroup(trigger.getKey().getGroup());
         qrtzJobLog.setStartTime(new Date());
-        // qrtzJobLog.setEndTime();
-        // qrtzJobLog.setProcessTime();
         qrtzJobLog.setPreRunTime(context.getPreviousFireTime());
         qrtzJobLog.setNextRunTime(context.getNextFireTime());
         qrtzJobLog.setRunCount(context.getRefireCount());
-        qrtzJobLog.setIpAddress(IPAddressUtils.getInet4AddressStr());
-        // qrtzJobLog.setExceptionInfo("");
+        qrtzJobLog.setIpAddress(ipAddress);
         // 是否被否决（0：否；1：是）
         qrtzJobLog.setIsVeto('0');
-        qrtzJobLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(jobDetail.getJobDataMap()));
-        // qrtzJobLog.setAfterJobData();
-        qrtzJobLog = qrtzJobLogService.addQrtzJobLog(qrtzJobLog);
-        jobDetail.getJobDataMap().put(jobDataMapKey, qrtzJobLog.getId());
+        if (jobDataCapture.isCaptureBefore()) {
+            qrtzJobLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(jobDetail.getJobDataMap()));
+        }
+        return qrtzJobLog;
+    }
+
+    /**
+     * Scheduler 在 JobDetail 将要被执行时调用这个方法<br/>
+     * 日志只保存在内存中
+     */
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        if (pendingLogs.size() >= maxPending) {
+            pendingDroppedCount.incrementAndGet();
+            return;
+        }
+        pendingLogs.put(context.getFireInstanceId(), createQrtzJobLog(context));
     }
 
     /**
      * Scheduler 在 JobDetail 即将被执行，但又被 TriggerListener 否决了时调用这个方法<br/>
-     * 更新日志信息
+     * 被否决时不会调用jobToBeExecuted，直接写入一条否决日志
      */
     @Override
     public void jobExecutionVetoed(JobExecutionContext context) {
-        JobDetail jobDetail = context.getJobDetail();
-        Long id = (Long) jobDetail.getJobDataMap().get(jobDataMapKey);
-        jobDetail.getJobDataMap().remove(jobDataMapKey);
-        if (id == null) {
-            logger.warn("### jobDetail.getJobDataMap().get(ListenerName) 返回空值-jobExecutionVetoed");
-            return;
+        QrtzJobLog qrtzJobLog = pendingLogs.remove(context.getFireInstanceId());
+        if (qrtzJobLog == null) {
+            qrtzJobLog = createQrtzJobLog(context);
         }
-        QrtzJobLog qrtzJobLog = new QrtzJobLog();
-        qrtzJobLog.setId(id);
         // 是否被否决（0：否；1：是）
         qrtzJobLog.setIsVeto('1');
-        qrtzJobLogService.updateQrtzJobLog(qrtzJobLog);
-
+        qrtzJobLogBatchWriter.offer(qrtzJobLog);
     }
 
     /**
      * Scheduler 在 JobDetail 被执行之后调用这个方法<br/>
-     * 更新日志信息
+     * 补全日志信息，放入异步写入队列
      */
     @Override
     public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
-        JobDetail jobDetail = context.getJobDetail();
-        Long id = (Long) jobDetail.getJobDataMap().get(jobDataMapKey);
-        jobDetail.getJobDataMap().remove(jobDataMapKey);
-        if (id == null) {
-            logger.warn("### jobDetail.getJobDataMap().get(ListenerName) 返回空值-jobWasExecuted");
+        QrtzJobLog qrtzJobLog = pendingLogs.remove(context.getFireInstanceId());
+        if (qrtzJobLog == null) {
+            logger.debug("### 没有找到Job开始执行的日志-jobWasExecuted, fireInstanceId={}", context.getFireInstanceId());
             return;
         }
-        QrtzJobLog qrtzJobLog = new QrtzJobLog();
-        qrtzJobLog.setId(id);
         qrtzJobLog.setEndTime(new Date());
         qrtzJobLog.setProcessTime(context.getJobRunTime());
         if (jobException != null) {
-            logger.error("任务执行出现异常", jobDetail);
+            logger.error("任务执行出现异常", jobException);
             qrtzJobLog.setExceptionInfo(ExceptionUtils.getStackTraceAsString(jobException));
         }
-        qrtzJobLog.setAfterJobData(JacksonMapper.nonEmptyMapper().toJson(jobDetail.getJobDataMap()));
-        qrtzJobLogService.updateQrtzJobLog(qrtzJobLog);
+        if (jobDataCapture.isCaptureAfter()) {
+            qrtzJobLog.setAfterJobData(JacksonMapper.nonEmptyMapper().toJson(context.getJobDetail().getJobDataMap()));
+        }
+        qrtzJobLogBatchWriter.offer(qrtzJobLog);
     }
 
     /**
@@ -162,15 +189,81 @@ public class DataBaseLogJobPlugin implements SchedulerPlugin, JobListener {
      */
     @Override
     public void start() {
-
+        qrtzJobLogBatchWriter.start();
     }
 
     /**
      * shutdown() 方法被调用来通知插件 Scheduler 将要关闭了<br/>
      * 这是给插件的一个机会去清理任何打开的资源<br/>
+     * 把队列中剩余的日志写完
      */
     @Override
     public void shutdown() {
+        qrtzJobLogBatchWriter.stop();
+        pendingLogs.clear();
+    }
+
+    /*--------------------------------------------------------------
+     *          插件配置(org.quartz.plugin.NAME.propName)
+     * -------------------------------------------------------------*/
+
+    /**
+     * 记录JobDataMap数据的方式：NONE、BEFORE、AFTER、BOTH
+     */
+    public void setJobDataCapture(String jobDataCapture) {
+        this.jobDataCapture = JobDataCapture.valueOf(jobDataCapture.trim().toUpperCase());
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        qrtzJobLogBatchWriter.setBufferSize(bufferSize);
+    }
+
+    public void setBatchSize(int batchSize) {
+        qrtzJobLogBatchWriter.setBatchSize(batchSize);
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        qrtzJobLogBatchWriter.setFlushInterval(flushInterval);
+    }
 
+    /**
+     * 队列满时的处理策略：DROP(丢弃)、SAMPLE(采样)、BLOCK(阻塞)
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        qrtzJobLogBatchWriter.setOverflowPolicy(OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase()));
+    }
+
+    public void setSampleRate(int sampleRate) {
+        qrtzJobLogBatchWriter.setSampleRate(sampleRate);
+    }
+
+    public void setOfferTimeout(long offerTimeout) {
+        qrtzJobLogBatchWriter.setOfferTimeout(offerTimeout);
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public QrtzJobLogBatchWriter getQrtzJobLogBatchWriter() {
+        return qrtzJobLogBatchWriter;
+    }
+
+    /**
+     * 正在执行的Job日志数量
+     */
+    public int getPendingCount() {
+        return pendingLogs.size();
+    }
+
+    /**
+     * 因为正在执行的Job日志太多没有记录的日志数量
+     */
+    public long getPendingDroppedCount() {
+        return pendingDroppedCount.get();
     }
 }
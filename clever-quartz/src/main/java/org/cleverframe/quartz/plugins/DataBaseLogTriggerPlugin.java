@@ -1,22 +1,29 @@
 package org.cleverframe.quartz.plugins;
 
+import org.cleverframe.common.concurrent.OverflowPolicy;
 import org.cleverframe.common.mapper.JacksonMapper;
+import org.cleverframe.common.spring.SpringBeanNames;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.common.utils.IPAddressUtils;
-import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.entity.QrtzTriggerLog;
-import org.cleverframe.quartz.service.QrtzTriggerLogService;
 import org.quartz.*;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.SchedulerPlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 记录Trigger触发的日志的插件,日志数据存到数据库<br/>
- * 参考{@link org.quartz.plugins.history.LoggingTriggerHistoryPlugin}
+ * 参考{@link org.quartz.plugins.history.LoggingTriggerHistoryPlugin}<br/>
+ * 1.Trigger触发时日志只保存在内存中(按fireInstanceId关联)，触发完成后生成一条完整的日志<br/>
+ * 2.日志由{@link QrtzTriggerLogBatchWriter}异步批量写入数据库，不占用Quartz工作线程，也不修改持久化的JobDataMap<br/>
+ * 3.可以配置是否记录JobDataMap数据、队列满时的处理策略，配置方式：org.quartz.plugin.NAME.propName = propValue<br/>
  * <p/>
  * 作者：LiZW <br/>
  * 创建时间：2016-7-31 23:12 <br/>
@@ -27,11 +34,6 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
      */
     private final static Logger logger = LoggerFactory.getLogger(DataBaseLogTriggerPlugin.class);
 
-    /**
-     * jobDataMap中特殊的Key
-     */
-    private String jobDataMapKey = "_jobDataMap中特殊的Key";
-
     /**
      * 监听器名称
      */
@@ -42,7 +44,32 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
      */
     private Scheduler scheduler;
 
-    private QrtzTriggerLogService qrtzTriggerLogService;
+    /**
+     * 当前节点IP地址
+     */
+    private String ipAddress;
+
+    /**
+     * 记录JobDataMap数据的方式
+     */
+    private JobDataCapture jobDataCapture = JobDataCapture.BOTH;
+
+    /**
+     * 正在执行的触发日志最大数量，超过后新的触发不记录日志
+     */
+    private int maxPending = 10000;
+
+    /**
+     * fireInstanceId -> 正在执行的触发日志
+     */
+    private final Map<String, QrtzTriggerLog> pendingLogs = new ConcurrentHashMap<>();
+
+    /**
+     * 因为正在执行的触发日志太多没有记录的日志数量
+     */
+    private final AtomicLong pendingDroppedCount = new AtomicLong(0L);
+
+    private final QrtzTriggerLogBatchWriter qrtzTriggerLogBatchWriter = new QrtzTriggerLogBatchWriter();
 
     /**
      * 返回一个字符串用以说明监听器的名称
@@ -58,27 +85,33 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
      */
     @Override
     public void initialize(String name, Scheduler scheduler, ClassLoadHelper loadHelper) throws SchedulerException {
-        qrtzTriggerLogService = SpringContextHolder.getBean(QuartzBeanNames.QrtzTriggerLogService);
-        if (qrtzTriggerLogService != null) {
-            logger.info("### QrtzTriggerLogService注入成功");
+        DataSource dataSource = SpringContextHolder.getBean(SpringBeanNames.DataSource);
+        if (dataSource != null) {
+            logger.info("### DataSource注入成功");
         } else {
-            RuntimeException exception = new RuntimeException("Quartz插件DataBaseLogTriggerPlugin初始化失败，QrtzTriggerLogService注入失败");
+            RuntimeException exception = new RuntimeException("Quartz插件DataBaseLogTriggerPlugin初始化失败，DataSource注入失败");
             logger.info(exception.getMessage(), exception);
             throw exception;
         }
         this.name = name;
-        this.jobDataMapKey = name + this.jobDataMapKey;
         this.scheduler = scheduler;
+        this.ipAddress = IPAddressUtils.getInet4AddressStr();
+        qrtzTriggerLogBatchWriter.setDataSource(dataSource);
         scheduler.getListenerManager().addTriggerListener(this);
-        logger.info("### Quartz插件DataBaseLogTriggerPlugin初始化成功");
+        logger.info("### Quartz插件DataBaseLogTriggerPlugin初始化成功, jobDataCapture={}", jobDataCapture);
     }
 
     /**
      * 当与监听器相关联的 Trigger 被触发，Job 上的 execute() 方法将要被执行时，Scheduler 就调用这个方法<br/>
      * 在全局 TriggerListener 情况下，这个方法为所有 Trigger 被调用<br/>
+     * 日志只保存在内存中
      */
     @Override
     public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        if (pendingLogs.size() >= maxPending) {
+            pendingDroppedCount.incrementAndGet();
+            return;
+        }
         JobDetail jobDetail = context.getJobDetail();
         Job job = context.getJobInstance();
         String schedName = "未知";
@@ -99,20 +132,16 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
         qrtzTriggerLog.setTriggerName(trigger.getKey().getName());
         qrtzTriggerLog.setTriggerGroup(trigger.getKey().getGroup());
         qrtzTriggerLog.setStartTime(new Date());
-        // qrtzTriggerLog.setEndTime();
-        // qrtzTriggerLog.setProcessTime();
         qrtzTriggerLog.setPreRunTime(context.getPreviousFireTime());
         qrtzTriggerLog.setNextRunTime(context.getNextFireTime());
         qrtzTriggerLog.setRunCount(context.getRefireCount());
-        qrtzTriggerLog.setIpAddress(IPAddressUtils.getInet4AddressStr());
+        qrtzTriggerLog.setIpAddress(ipAddress);
         // 是否错过了触发（0：否；1：是）
         qrtzTriggerLog.setMisFired('0');
-        qrtzTriggerLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
-        // qrtzTriggerLog.setAfterJobData();
-        // qrtzTriggerLog.setTriggerInstructionCode();
-        // qrtzTriggerLog.setInstrCode();
-        qrtzTriggerLog = qrtzTriggerLogService.addQrtzTriggerLog(qrtzTriggerLog);
-        trigger.getJobDataMap().put(jobDataMapKey, qrtzTriggerLog.getId());
+        if (jobDataCapture.isCaptureBefore()) {
+            qrtzTriggerLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
+        }
+        pendingLogs.put(context.getFireInstanceId(), qrtzTriggerLog);
     }
 
     /**
@@ -162,35 +191,33 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
         qrtzTriggerLog.setPreRunTime(trigger.getPreviousFireTime());
         qrtzTriggerLog.setNextRunTime(trigger.getNextFireTime());
         qrtzTriggerLog.setRunCount(-1);
-        qrtzTriggerLog.setIpAddress(IPAddressUtils.getInet4AddressStr());
+        qrtzTriggerLog.setIpAddress(ipAddress);
         // 是否错过了触发（0：否；1：是）
         qrtzTriggerLog.setMisFired('1');
-        qrtzTriggerLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
-        // qrtzTriggerLog.setAfterJobData();
-        // qrtzTriggerLog.setTriggerInstructionCode();
-        // qrtzTriggerLog.setInstrCode();
-        qrtzTriggerLogService.addQrtzTriggerLog(qrtzTriggerLog);
+        if (jobDataCapture.isCaptureBefore()) {
+            qrtzTriggerLog.setBeforeJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
+        }
+        qrtzTriggerLogBatchWriter.offer(qrtzTriggerLog);
     }
 
     /**
      * Trigger 被触发并且完成了 Job 的执行时，Scheduler 调用这个方法<br/>
      * 这不是说这个 Trigger 将不再触发了，而仅仅是当前 Trigger 的触发(并且紧接着的 Job 执行) 结束时<br/>
      * 这个 Trigger 也许还要在将来触发多次的<br/>
+     * 补全日志信息，放入异步写入队列
      */
     @Override
     public void triggerComplete(Trigger trigger, JobExecutionContext context, Trigger.CompletedExecutionInstruction triggerInstructionCode) {
-        Long id = (Long) trigger.getJobDataMap().get(jobDataMapKey);
-        trigger.getJobDataMap().remove(jobDataMapKey);
-        if (id == null) {
-            logger.warn("### trigger.getJobDataMap().get(jobDataMapKey) 返回空值-triggerComplete");
+        QrtzTriggerLog qrtzTriggerLog = pendingLogs.remove(context.getFireInstanceId());
+        if (qrtzTriggerLog == null) {
+            logger.debug("### 没有找到Trigger触发的日志-triggerComplete, fireInstanceId={}", context.getFireInstanceId());
             return;
         }
-        QrtzTriggerLog qrtzTriggerLog = new QrtzTriggerLog();
-        qrtzTriggerLog.setId(id);
         qrtzTriggerLog.setEndTime(new Date());
         qrtzTriggerLog.setProcessTime(context.getJobRunTime());
-        qrtzTriggerLog.setAfterJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
-        qrtzTriggerLogService.updateQrtzTriggerLog(qrtzTriggerLog);
+        if (jobDataCapture.isCaptureAfter()) {
+            qrtzTriggerLog.setAfterJobData(JacksonMapper.nonEmptyMapper().toJson(trigger.getJobDataMap()));
+        }
 
         String instrCode = "UNKNOWN";
         if (triggerInstructionCode == Trigger.CompletedExecutionInstruction.DELETE_TRIGGER) {
@@ -206,7 +233,7 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
         }
         qrtzTriggerLog.setTriggerInstructionCode(triggerInstructionCode.name());
         qrtzTriggerLog.setInstrCode(instrCode);
-        qrtzTriggerLogService.updateQrtzTriggerLog(qrtzTriggerLog);
+        qrtzTriggerLogBatchWriter.offer(qrtzTriggerLog);
     }
 
     /**
@@ -214,15 +241,81 @@ public class DataBaseLogTriggerPlugin implements SchedulerPlugin, TriggerListene
      */
     @Override
     public void start() {
-
+        qrtzTriggerLogBatchWriter.start();
     }
 
     /**
      * shutdown() 方法被调用来通知插件 Scheduler 将要关闭了<br/>
      * 这是给插件的一个机会去清理任何打开的资源<br/>
+     * 把队列中剩余的日志写完
      */
     @Override
     public void shutdown() {
+        qrtzTriggerLogBatchWriter.stop();
+        pendingLogs.clear();
+    }
+
+    /*--------------------------------------------------------------
+     *          插件配置(org.quartz.plugin.NAME.propName)
+     * -------------------------------------------------------------*/
 
+    /**
+     * 记录JobDataMap数据的方式：NONE、BEFORE、AFTER、BOTH
+     */
+    public void setJobDataCapture(String jobDataCapture) {
+        this.jobDataCapture = JobDataCapture.valueOf(jobDataCapture.trim().toUpperCase());
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        qrtzTriggerLogBatchWriter.setBufferSize(bufferSize);
+    }
+
+    public void setBatchSize(int batchSize) {
+        qrtzTriggerLogBatchWriter.setBatchSize(batchSize);
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        qrtzTriggerLogBatchWriter.setFlushInterval(flushInterval);
+    }
+
+    /**
+     * 队列满时的处理策略：DROP(丢弃)、SAMPLE(采样)、BLOCK(阻塞)
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        qrtzTriggerLogBatchWriter.setOverflowPolicy(OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase()));
+    }
+
+    public void setSampleRate(int sampleRate) {
+        qrtzTriggerLogBatchWriter.setSampleRate(sampleRate);
+    }
+
+    public void setOfferTimeout(long offerTimeout) {
+        qrtzTriggerLogBatchWriter.setOfferTimeout(offerTimeout);
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public QrtzTriggerLogBatchWriter getQrtzTriggerLogBatchWriter() {
+        return qrtzTriggerLogBatchWriter;
+    }
+
+    /**
+     * 正在执行的触发日志数量
+     */
+    public int getPendingCount() {
+        return pendingLogs.size();
+    }
+
+    /**
+     * 因为正在执行的触发日志太多没有记录的日志数量
+     */
+    public long getPendingDroppedCount() {
+        return pendingDroppedCount.get();
     }
 }
@@ -0,0 +1,38 @@
+package org.cleverframe.quartz.plugins;
+
+/**
+ * 执行日志记录JobDataMap数据的方式<br/>
+ * JobDataMap转换成JSON需要在Quartz工作线程中执行，不需要时应该关闭<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:10 <br/>
+ */
+public enum JobDataCapture {
+    /**
+     * 不记录
+     */
+    NONE,
+
+    /**
+     * 只记录执行前的数据
+     */
+    BEFORE,
+
+    /**
+     * 只记录执行后的数据
+     */
+    AFTER,
+
+    /**
+     * 记录执行前和执行后的数据
+     */
+    BOTH;
+
+    public boolean isCaptureBefore() {
+        return this == BEFORE || this == BOTH;
+    }
+
+    public boolean isCaptureAfter() {
+        return this == AFTER || this == BOTH;
+    }
+}
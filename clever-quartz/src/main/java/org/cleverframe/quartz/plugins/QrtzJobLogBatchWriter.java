@@ -0,0 +1,57 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.quartz.entity.QrtzJobLog;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Job执行日志异步批量写入器，批量插入qrtz_job_log表<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:10 <br/>
+ *
+ * @see DataBaseLogJobPlugin
+ */
+public class QrtzJobLogBatchWriter extends QrtzLogBatchWriter<QrtzJobLog> {
+
+    /**
+     * 批量插入SQL，字段与QrtzJobLog实体类一致
+     */
+    private static final String INSERT_SQL = "INSERT INTO qrtz_job_log " +
+            "(listener_name, sched_name, instance_name, job_name, job_group, job_class_name, trigger_name, trigger_group, " +
+            "start_time, end_time, process_time, pre_run_time, next_run_time, run_count, ip_address, exception_info, is_veto, before_job_data, after_job_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public QrtzJobLogBatchWriter() {
+        setThreadName("QrtzJobLogBatchWriter");
+    }
+
+    @Override
+    protected String getInsertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void setValues(PreparedStatement ps, QrtzJobLog log) throws SQLException {
+        setString(ps, 1, log.getListenerName());
+        setString(ps, 2, log.getSchedName());
+        setString(ps, 3, log.getInstanceName());
+        setString(ps, 4, log.getJobName());
+        setString(ps, 5, log.getJobGroup());
+        setString(ps, 6, log.getJobClassName());
+        setString(ps, 7, log.getTriggerName());
+        setString(ps, 8, log.getTriggerGroup());
+        setDate(ps, 9, log.getStartTime());
+        setDate(ps, 10, log.getEndTime());
+        setLong(ps, 11, log.getProcessTime());
+        setDate(ps, 12, log.getPreRunTime());
+        setDate(ps, 13, log.getNextRunTime());
+        setInt(ps, 14, log.getRunCount());
+        setString(ps, 15, log.getIpAddress());
+        setString(ps, 16, log.getExceptionInfo());
+        setChar(ps, 17, log.getIsVeto());
+        setString(ps, 18, log.getBeforeJobData());
+        setString(ps, 19, log.getAfterJobData());
+    }
+}
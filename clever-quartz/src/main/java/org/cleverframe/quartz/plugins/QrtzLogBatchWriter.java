@@ -0,0 +1,99 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.common.concurrent.AsyncBatchWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Quartz执行日志异步批量写入器<br/>
+ * Quartz工作线程只把已经完成的日志放入环形队列，后台线程使用JDBC批量插入日志表<br/>
+ * 替代每次触发一次插入加一次更新(两个事务)的同步写入方式<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:10 <br/>
+ *
+ * @param <E> 日志实体类型
+ */
+public abstract class QrtzLogBatchWriter<E> extends AsyncBatchWriter<E> {
+
+    /**
+     * 执行批量插入
+     */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入SQL
+     */
+    protected abstract String getInsertSql();
+
+    /**
+     * 设置一条日志的插入参数
+     */
+    protected abstract void setValues(PreparedStatement ps, E log) throws SQLException;
+
+    @Override
+    protected void flush(final List<E> batch) throws Exception {
+        jdbcTemplate.batchUpdate(getInsertSql(), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                QrtzLogBatchWriter.this.setValues(ps, batch.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    /**
+     * 设置数据源
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    protected static void setString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    protected static void setChar(PreparedStatement ps, int index, Character value) throws SQLException {
+        setString(ps, index, value == null ? null : String.valueOf(value));
+    }
+
+    protected static void setDate(PreparedStatement ps, int index, Date value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, new Timestamp(value.getTime()));
+        }
+    }
+
+    protected static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    protected static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
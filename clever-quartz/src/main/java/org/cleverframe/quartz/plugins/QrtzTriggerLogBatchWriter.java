@@ -0,0 +1,59 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.quartz.entity.QrtzTriggerLog;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Trigger触发日志异步批量写入器，批量插入qrtz_trigger_log表<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:10 <br/>
+ *
+ * @see DataBaseLogTriggerPlugin
+ */
+public class QrtzTriggerLogBatchWriter extends QrtzLogBatchWriter<QrtzTriggerLog> {
+
+    /**
+     * 批量插入SQL，字段与QrtzTriggerLog实体类一致
+     */
+    private static final String INSERT_SQL = "INSERT INTO qrtz_trigger_log " +
+            "(listener_name, sched_name, instance_name, job_name, job_group, job_class_name, trigger_name, trigger_group, " +
+            "start_time, end_time, process_time, pre_run_time, next_run_time, run_count, ip_address, mis_fired, before_job_data, after_job_data, " +
+            "trigger_instruction_code, instr_code) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public QrtzTriggerLogBatchWriter() {
+        setThreadName("QrtzTriggerLogBatchWriter");
+    }
+
+    @Override
+    protected String getInsertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    protected void setValues(PreparedStatement ps, QrtzTriggerLog log) throws SQLException {
+        setString(ps, 1, log.getListenerName());
+        setString(ps, 2, log.getSchedName());
+        setString(ps, 3, log.getInstanceName());
+        setString(ps, 4, log.getJobName());
+        setString(ps, 5, log.getJobGroup());
+        setString(ps, 6, log.getJobClassName());
+        setString(ps, 7, log.getTriggerName());
+        setString(ps, 8, log.getTriggerGroup());
+        setDate(ps, 9, log.getStartTime());
+        setDate(ps, 10, log.getEndTime());
+        setLong(ps, 11, log.getProcessTime());
+        setDate(ps, 12, log.getPreRunTime());
+        setDate(ps, 13, log.getNextRunTime());
+        setInt(ps, 14, log.getRunCount());
+        setString(ps, 15, log.getIpAddress());
+        setChar(ps, 16, log.getMisFired());
+        setString(ps, 17, log.getBeforeJobData());
+        setString(ps, 18, log.getAfterJobData());
+        setString(ps, 19, log.getTriggerInstructionCode());
+        setString(ps, 20, log.getInstrCode());
+    }
+}
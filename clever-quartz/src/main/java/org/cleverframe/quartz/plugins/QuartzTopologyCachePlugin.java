@@ -0,0 +1,122 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.quartz.utils.QuartzTopologyCache;
+import org.quartz.*;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.SchedulerPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 当前节点的Job、Trigger发生变化时清除{@link QuartzTopologyCache}的插件<br/>
+ * 配置缓存过期时间：org.quartz.plugin.NAME.timeToLive = 毫秒数<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 02:40 <br/>
+ */
+public class QuartzTopologyCachePlugin extends SchedulerListenerSupport implements SchedulerPlugin {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(QuartzTopologyCachePlugin.class);
+
+    private final QuartzTopologyCache quartzTopologyCache = QuartzTopologyCache.getInstance();
+
+    @Override
+    public void initialize(String name, Scheduler scheduler, ClassLoadHelper loadHelper) throws SchedulerException {
+        scheduler.getListenerManager().addSchedulerListener(this);
+        logger.info("### Quartz插件QuartzTopologyCachePlugin初始化成功, timeToLive={}", quartzTopologyCache.getTimeToLive());
+    }
+
+    @Override
+    public void start() {
+        quartzTopologyCache.invalidateAll();
+    }
+
+    @Override
+    public void shutdown() {
+        quartzTopologyCache.invalidateAll();
+    }
+
+    /**
+     * 缓存过期时间(毫秒)，小于等于0表示不使用缓存
+     */
+    public void setTimeToLive(long timeToLive) {
+        quartzTopologyCache.setTimeToLive(timeToLive);
+    }
+
+    /*--------------------------------------------------------------
+     *          SchedulerListener
+     * -------------------------------------------------------------*/
+
+    @Override
+    public void jobScheduled(Trigger trigger) {
+        quartzTopologyCache.invalidateTriggers(trigger.getJobKey());
+    }
+
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void triggerFinalized(Trigger trigger) {
+        quartzTopologyCache.invalidateTriggers(trigger.getJobKey());
+    }
+
+    @Override
+    public void triggerPaused(TriggerKey triggerKey) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void triggersPaused(String triggerGroup) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void triggerResumed(TriggerKey triggerKey) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void triggersResumed(String triggerGroup) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void jobAdded(JobDetail jobDetail) {
+        quartzTopologyCache.invalidateAll();
+    }
+
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        quartzTopologyCache.invalidateAll();
+    }
+
+    @Override
+    public void jobPaused(JobKey jobKey) {
+        quartzTopologyCache.invalidateTriggers(jobKey);
+    }
+
+    @Override
+    public void jobsPaused(String jobGroup) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void jobResumed(JobKey jobKey) {
+        quartzTopologyCache.invalidateTriggers(jobKey);
+    }
+
+    @Override
+    public void jobsResumed(String jobGroup) {
+        quartzTopologyCache.invalidateAllTriggers();
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+        quartzTopologyCache.invalidateAll();
+    }
+}
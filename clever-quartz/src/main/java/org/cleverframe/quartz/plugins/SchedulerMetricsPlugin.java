@@ -0,0 +1,103 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.quartz.utils.SchedulerMetrics;
+import org.quartz.*;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.SchedulerPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+
+/**
+ * 统计调度器运行指标的插件，指标保存在{@link SchedulerMetrics}中(只在内存中，不访问数据库)<br/>
+ * 1.Trigger触发时记录触发延迟(实际触发时间 - 计划触发时间)<br/>
+ * 2.记录Trigger错过触发、Job被否决执行的次数<br/>
+ * 3.Job执行完成时按Job记录执行时间<br/>
+ * 数据库锁等待时间由{@link TimedRowLockSemaphore}记录<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:50 <br/>
+ */
+public class SchedulerMetricsPlugin implements SchedulerPlugin, TriggerListener, JobListener {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(SchedulerMetricsPlugin.class);
+
+    /**
+     * 监听器名称
+     */
+    private String name;
+
+    private final SchedulerMetrics schedulerMetrics = SchedulerMetrics.getInstance();
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void initialize(String name, Scheduler scheduler, ClassLoadHelper loadHelper) throws SchedulerException {
+        this.name = name;
+        scheduler.getListenerManager().addTriggerListener(this);
+        scheduler.getListenerManager().addJobListener(this);
+        logger.info("### Quartz插件SchedulerMetricsPlugin初始化成功");
+    }
+
+    @Override
+    public void start() {
+        schedulerMetrics.reset();
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    /*--------------------------------------------------------------
+     *          TriggerListener
+     * -------------------------------------------------------------*/
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        Date scheduledFireTime = context.getScheduledFireTime();
+        Date fireTime = context.getFireTime();
+        long lag = 0;
+        if (scheduledFireTime != null && fireTime != null) {
+            lag = fireTime.getTime() - scheduledFireTime.getTime();
+        }
+        schedulerMetrics.recordFired(lag);
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        schedulerMetrics.recordMisfired();
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context, Trigger.CompletedExecutionInstruction triggerInstructionCode) {
+    }
+
+    /*--------------------------------------------------------------
+     *          JobListener
+     * -------------------------------------------------------------*/
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+        schedulerMetrics.recordVetoed();
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        schedulerMetrics.recordExecuted(context.getJobDetail().getKey().toString(), context.getJobRunTime(), jobException != null);
+    }
+}
@@ -0,0 +1,29 @@
+package org.cleverframe.quartz.plugins;
+
+import org.cleverframe.quartz.utils.SchedulerMetrics;
+import org.quartz.impl.jdbcjobstore.LockException;
+import org.quartz.impl.jdbcjobstore.StdRowLockSemaphore;
+
+import java.sql.Connection;
+
+/**
+ * 记录获取数据库行锁(QRTZ_LOCKS)等待时间的锁处理器，等待时间保存在{@link SchedulerMetrics}中<br/>
+ * 行为与Quartz默认的{@link StdRowLockSemaphore}完全一致，同一线程重入获取锁时不记录<br/>
+ * 配置方式：org.quartz.jobStore.lockHandler.class = org.cleverframe.quartz.plugins.TimedRowLockSemaphore<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:50 <br/>
+ */
+public class TimedRowLockSemaphore extends StdRowLockSemaphore {
+
+    @Override
+    public boolean obtainLock(Connection conn, String lockName) throws LockException {
+        if (isLockOwner(lockName)) {
+            return super.obtainLock(conn, lockName);
+        }
+        long start = System.nanoTime();
+        boolean result = super.obtainLock(conn, lockName);
+        SchedulerMetrics.getInstance().recordLockWait(lockName, System.nanoTime() - start);
+        return result;
+    }
+}
@@ -4,11 +4,16 @@ import org.cleverframe.common.exception.ExceptionUtils;
 import org.cleverframe.common.service.BaseService;
 import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.quartz.QuartzBeanNames;
+import org.cleverframe.quartz.dao.QrtzJobDetailsDao;
 import org.cleverframe.quartz.utils.QuartzManager;
+import org.cleverframe.quartz.utils.QuartzRowUtils;
+import org.cleverframe.quartz.utils.QuartzTopologyCache;
 import org.cleverframe.quartz.vo.model.QuartzJobDetails;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +32,10 @@ public class JobDetailService extends BaseService {
      */
     private final static Logger logger = LoggerFactory.getLogger(JobDetailService.class);
 
+    @Autowired
+    @Qualifier(QuartzBeanNames.QrtzJobDetailsDao)
+    private QrtzJobDetailsDao qrtzJobDetailsDao;
+
     /**
      * 获取所有的JobKey
      */
@@ -40,34 +49,46 @@ public class JobDetailService extends BaseService {
     }
 
     /**
-     * 获取所有的 JobDetail
+     * 获取所有的 JobDetail<br/>
+     * 一次查询QRTZ_JOB_DETAILS，结果短时缓存在{@link QuartzTopologyCache}
+     *
+     * @return 失败返回null
      */
-    public List<QuartzJobDetails> getAllJobDetail() {
-        List<QuartzJobDetails> qrtzJobDetailsList = new ArrayList<>();
-        List<JobDetail> jobDetailList = QuartzManager.getAllJobDetail();
-        assert jobDetailList != null;
-        String schedName = null;
+    public List<QuartzJobDetails> getAllJobDetail(AjaxMessage ajaxMessage) {
+        QuartzTopologyCache quartzTopologyCache = QuartzTopologyCache.getInstance();
+        List<QuartzJobDetails> qrtzJobDetailsList = quartzTopologyCache.getAllJobDetails();
+        if (qrtzJobDetailsList != null) {
+            return qrtzJobDetailsList;
+        }
+        List<Map<String, Object>> rows;
+        String schedName;
         try {
             schedName = QuartzManager.getScheduler().getSchedulerName();
+            rows = qrtzJobDetailsDao.findAllQrtzJobDetails(schedName);
         } catch (Throwable e) {
-            logger.error("获取SchedulerName失败", e);
+            logger.error("获取所有的JobDetail失败", e);
+            ajaxMessage.setSuccess(false);
+            ajaxMessage.setFailMessage("获取所有的JobDetail失败");
+            return null;
         }
-        for (JobDetail jobDetail : jobDetailList) {
+        qrtzJobDetailsList = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
             QuartzJobDetails qrtzJobDetails = new QuartzJobDetails();
             qrtzJobDetails.setSchedName(schedName);
-            qrtzJobDetails.setJobGroup(jobDetail.getKey().getGroup());
-            qrtzJobDetails.setJobName(jobDetail.getKey().getName());
-            qrtzJobDetails.setIsDurable(jobDetail.isDurable());
-            qrtzJobDetails.setDescription(jobDetail.getDescription());
-            qrtzJobDetails.setJobClassName(jobDetail.getJobClass().getName());
-            qrtzJobDetails.setJobData(jobDetail.getJobDataMap());
-            qrtzJobDetails.setRequestsRecovery(jobDetail.requestsRecovery());
+            qrtzJobDetails.setJobGroup(QuartzRowUtils.getString(row.get("job_group")));
+            qrtzJobDetails.setJobName(QuartzRowUtils.getString(row.get("job_name")));
+            qrtzJobDetails.setIsDurable(QuartzRowUtils.getBoolean(row.get("is_durable")));
+            qrtzJobDetails.setDescription(QuartzRowUtils.getString(row.get("description")));
+            qrtzJobDetails.setJobClassName(QuartzRowUtils.getString(row.get("job_class_name")));
+            qrtzJobDetails.setJobData(QuartzManager.deserializeJobData(row.get("job_data")));
+            qrtzJobDetails.setRequestsRecovery(QuartzRowUtils.getBoolean(row.get("requests_recovery")));
             // @DisallowConcurrentExecution 对应 isNonconcurrent
             // @PersistJobDataAfterExecution 对应 isUpdateData
-            qrtzJobDetails.setIsNonconcurrent(jobDetail.isConcurrentExectionDisallowed());
-            qrtzJobDetails.setIsUpdateData(jobDetail.isPersistJobDataAfterExecution());
+            qrtzJobDetails.setIsNonconcurrent(QuartzRowUtils.getBoolean(row.get("is_nonconcurrent")));
+            qrtzJobDetails.setIsUpdateData(QuartzRowUtils.getBoolean(row.get("is_update_data")));
             qrtzJobDetailsList.add(qrtzJobDetails);
         }
+        quartzTopologyCache.putAllJobDetails(qrtzJobDetailsList);
         return qrtzJobDetailsList;
     }
 
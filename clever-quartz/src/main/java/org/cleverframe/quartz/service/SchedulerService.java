@@ -4,7 +4,9 @@ import org.cleverframe.common.service.BaseService;
 import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.utils.QuartzManager;
+import org.cleverframe.quartz.utils.SchedulerMetrics;
 import org.cleverframe.quartz.vo.model.QuartzJobDetails;
+import org.cleverframe.quartz.vo.model.SchedulerMetricsInfo;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -205,4 +207,18 @@ public class SchedulerService extends BaseService {
         }
         return result;
     }
+
+    /**
+     * 获取当前节点的调度器运行指标(触发延迟、Job执行时间、数据库锁等待时间)
+     */
+    public SchedulerMetricsInfo getMetrics() {
+        return SchedulerMetrics.getInstance().getMetricsInfo();
+    }
+
+    /**
+     * 清空当前节点的调度器运行指标
+     */
+    public void resetMetrics() {
+        SchedulerMetrics.getInstance().reset();
+    }
 }
@@ -6,10 +6,12 @@ import org.cleverframe.common.time.DateTimeUtils;
 import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.quartz.QuartzBeanNames;
 import org.cleverframe.quartz.dao.QrtzTriggersDao;
-import org.cleverframe.quartz.entity.QrtzTriggers;
 import org.cleverframe.quartz.utils.QuartzManager;
+import org.cleverframe.quartz.utils.QuartzRowUtils;
+import org.cleverframe.quartz.utils.QuartzTopologyCache;
 import org.cleverframe.quartz.vo.model.QuartzTriggers;
 import org.quartz.*;
+import org.quartz.impl.jdbcjobstore.Constants;
 import org.quartz.impl.triggers.CalendarIntervalTriggerImpl;
 import org.quartz.impl.triggers.CronTriggerImpl;
 import org.quartz.impl.triggers.DailyTimeIntervalTriggerImpl;
@@ -313,79 +315,79 @@ public class TriggerService extends BaseService {
     }
 
     /**
-     * 获取一个Job的所有 Trigger
+     * 获取一个Job的所有 Trigger<br/>
+     * 一次查询QRTZ_TRIGGERS(关联QRTZ_SIMPLE_TRIGGERS、QRTZ_CRON_TRIGGERS)，结果短时缓存在{@link QuartzTopologyCache}
      *
      * @param jobName  job名称
      * @param jobGroup job组名称
      * @return 失败返回null
      */
     public List<QuartzTriggers> getTriggerByJob(String jobName, String jobGroup, AjaxMessage ajaxMessage) {
-        List<QuartzTriggers> qrtzTriggersList = new ArrayList<>();
-        List<? extends Trigger> triggerList = QuartzManager.getTriggerByJob(jobName, jobGroup);
-        if (triggerList == null) {
-            ajaxMessage.setSuccess(false);
-            ajaxMessage.setFailMessage("获取JobDetail的所有Trigger失败");
-            return null;
+        JobKey jobKey = JobKey.jobKey(jobName, jobGroup);
+        QuartzTopologyCache quartzTopologyCache = QuartzTopologyCache.getInstance();
+        List<QuartzTriggers> qrtzTriggersList = quartzTopologyCache.getTriggersByJob(jobKey);
+        if (qrtzTriggersList != null) {
+            return qrtzTriggersList;
         }
-        Scheduler scheduler = QuartzManager.getScheduler();
-        String schedName = null;
+        List<Map<String, Object>> rows;
+        String schedName;
         try {
-            schedName = scheduler.getSchedulerName();
+            schedName = QuartzManager.getScheduler().getSchedulerName();
+            rows = qrtzTriggersDao.findQrtzTriggersByJob(schedName, jobGroup, jobName);
         } catch (Throwable e) {
-            logger.error("获取SchedulerName失败", e);
+            logger.error("获取JobDetail的所有Trigger失败", e);
+            ajaxMessage.setSuccess(false);
+            ajaxMessage.setFailMessage("获取JobDetail的所有Trigger失败");
+            return null;
         }
-        for (Trigger trigger : triggerList) {
+        qrtzTriggersList = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
             QuartzTriggers qrtzTriggers = new QuartzTriggers();
             qrtzTriggers.setSchedName(schedName);
-            qrtzTriggers.setTriggerName(trigger.getKey().getName());
-            qrtzTriggers.setTriggerGroup(trigger.getKey().getGroup());
-            qrtzTriggers.setJobName(trigger.getJobKey().getName());
-            qrtzTriggers.setJobGroup(trigger.getJobKey().getGroup());
-            qrtzTriggers.setDescription(trigger.getDescription());
-            qrtzTriggers.setNextFireTime(trigger.getNextFireTime());
-            qrtzTriggers.setPrevFireTime(trigger.getPreviousFireTime());
-            qrtzTriggers.setPriority(trigger.getPriority());
-            try {
-                QrtzTriggers qrtzTriggersTmp = qrtzTriggersDao.getQrtzTriggers(schedName, qrtzTriggers.getTriggerGroup(), qrtzTriggers.getTriggerName());
-                if(qrtzTriggersTmp == null){
-                    qrtzTriggers.setTriggerState(scheduler.getTriggerState(trigger.getKey()).name());
-                } else {
-                    qrtzTriggers.setTriggerState(qrtzTriggersTmp.getTriggerState());
-                }
-            } catch (Throwable e) {
-                logger.error("获取Trigger状态失败", e);
-            }
-            qrtzTriggers.setTriggerType(trigger.getClass().getName());
-            qrtzTriggers.setStartTime(trigger.getStartTime());
-            qrtzTriggers.setEndTime(trigger.getEndTime());
-            qrtzTriggers.setCalendarName(trigger.getCalendarName());
-            qrtzTriggers.setMisfireInstr(trigger.getMisfireInstruction());
-            qrtzTriggers.setJobData(trigger.getJobDataMap());
-            if (trigger instanceof SimpleTriggerImpl) {
-                SimpleTriggerImpl simpleTrigger = (SimpleTriggerImpl) trigger;
-                qrtzTriggers.setRepeatCount(simpleTrigger.getRepeatCount());
-                qrtzTriggers.setRepeatInterval(simpleTrigger.getRepeatInterval());
-                qrtzTriggers.setTimesTriggered(simpleTrigger.getTimesTriggered());
-            }
-            if (trigger instanceof CronTriggerImpl) {
-                CronTriggerImpl cronTrigger = (CronTriggerImpl) trigger;
-                qrtzTriggers.setCronEx(cronTrigger.getCronExpression());
-                qrtzTriggers.setTimeZoneId(cronTrigger.getTimeZone() == null ? null : cronTrigger.getTimeZone().getID());
-            }
-            //noinspection StatementWithEmptyBody
-            if (trigger instanceof CalendarIntervalTriggerImpl) {
-                // TODO CalendarIntervalTriggerImpl
-
-            }
-            //noinspection StatementWithEmptyBody
-            if (trigger instanceof DailyTimeIntervalTriggerImpl) {
-                // TODO CalendarIntervalTriggerImpl
-            }
+            qrtzTriggers.setTriggerName(QuartzRowUtils.getString(row.get("trigger_name")));
+            qrtzTriggers.setTriggerGroup(QuartzRowUtils.getString(row.get("trigger_group")));
+            qrtzTriggers.setJobName(QuartzRowUtils.getString(row.get("job_name")));
+            qrtzTriggers.setJobGroup(QuartzRowUtils.getString(row.get("job_group")));
+            qrtzTriggers.setDescription(QuartzRowUtils.getString(row.get("description")));
+            qrtzTriggers.setNextFireTime(QuartzRowUtils.getDate(row.get("next_fire_time")));
+            qrtzTriggers.setPrevFireTime(QuartzRowUtils.getDate(row.get("prev_fire_time")));
+            qrtzTriggers.setPriority(QuartzRowUtils.getInteger(row.get("priority")));
+            qrtzTriggers.setTriggerState(QuartzRowUtils.getString(row.get("trigger_state")));
+            qrtzTriggers.setTriggerType(toTriggerClassName(QuartzRowUtils.getString(row.get("trigger_type"))));
+            qrtzTriggers.setStartTime(QuartzRowUtils.getDate(row.get("start_time")));
+            qrtzTriggers.setEndTime(QuartzRowUtils.getDate(row.get("end_time")));
+            qrtzTriggers.setCalendarName(QuartzRowUtils.getString(row.get("calendar_name")));
+            qrtzTriggers.setMisfireInstr(QuartzRowUtils.getInteger(row.get("misfire_instr")));
+            qrtzTriggers.setJobData(QuartzManager.deserializeJobData(row.get("job_data")));
+            // SimpleTrigger
+            qrtzTriggers.setRepeatCount(QuartzRowUtils.getInteger(row.get("repeat_count")));
+            qrtzTriggers.setRepeatInterval(QuartzRowUtils.getLong(row.get("repeat_interval")));
+            qrtzTriggers.setTimesTriggered(QuartzRowUtils.getInteger(row.get("times_triggered")));
+            // CronTrigger
+            qrtzTriggers.setCronEx(QuartzRowUtils.getString(row.get("cron_expression")));
+            qrtzTriggers.setTimeZoneId(QuartzRowUtils.getString(row.get("time_zone_id")));
             qrtzTriggersList.add(qrtzTriggers);
         }
+        quartzTopologyCache.putTriggersByJob(jobKey, qrtzTriggersList);
         return qrtzTriggersList;
     }
 
+    /**
+     * 数据库中的Trigger类型转换成Trigger实现类的类名
+     */
+    private static String toTriggerClassName(String triggerType) {
+        if (Constants.TTYPE_SIMPLE.equals(triggerType)) {
+            return SimpleTriggerImpl.class.getName();
+        } else if (Constants.TTYPE_CRON.equals(triggerType)) {
+            return CronTriggerImpl.class.getName();
+        } else if (Constants.TTYPE_CAL_INT.equals(triggerType)) {
+            return CalendarIntervalTriggerImpl.class.getName();
+        } else if (Constants.TTYPE_DAILY_TIME_INT.equals(triggerType)) {
+            return DailyTimeIntervalTriggerImpl.class.getName();
+        }
+        return triggerType;
+    }
+
     /**
      * 获取所有的TriggerGroupName
      *
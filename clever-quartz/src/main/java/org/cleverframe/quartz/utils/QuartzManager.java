@@ -10,9 +10,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.sql.Blob;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -286,4 +293,43 @@ public class QuartzManager {
         }
         return dateList;
     }
+
+    /**
+     * 反序列化数据库中保存的JobDataMap(QRTZ_JOB_DETAILS.JOB_DATA、QRTZ_TRIGGERS.JOB_DATA)<br/>
+     * 支持Java序列化(useProperties=false)和Properties格式(useProperties=true)
+     *
+     * @param jobData 数据库查询结果，byte[]或者Blob
+     * @return 没有数据或者反序列化失败返回空Map
+     */
+    public static Map<String, Object> deserializeJobData(Object jobData) {
+        Map<String, Object> result = new HashMap<>();
+        byte[] bytes = null;
+        try {
+            if (jobData instanceof byte[]) {
+                bytes = (byte[]) jobData;
+            } else if (jobData instanceof Blob) {
+                Blob blob = (Blob) jobData;
+                bytes = blob.getBytes(1, (int) blob.length());
+            }
+            if (bytes == null || bytes.length <= 0) {
+                return result;
+            }
+            Object object;
+            try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                object = inputStream.readObject();
+            } catch (StreamCorruptedException e) {
+                Properties properties = new Properties();
+                properties.load(new ByteArrayInputStream(bytes));
+                object = properties;
+            }
+            if (object instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    result.put(String.valueOf(entry.getKey()), entry.getValue());
+                }
+            }
+        } catch (Throwable e) {
+            logger.error("### 反序列化JobDataMap失败", e);
+        }
+        return result;
+    }
 }
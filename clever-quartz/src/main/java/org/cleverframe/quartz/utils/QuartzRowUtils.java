@@ -0,0 +1,46 @@
+package org.cleverframe.quartz.utils;
+
+import java.util.Date;
+
+/**
+ * 直接查询Quartz表(QRTZ_*)时，把查询结果(Map)中的字段值转换成Java类型的工具类<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 06:10 <br/>
+ */
+public class QuartzRowUtils {
+
+    public static String getString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 数据库中的布尔值，MySQL中保存为 '1'、'0'
+     */
+    public static boolean getBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        String str = getString(value);
+        return "1".equals(str) || "true".equalsIgnoreCase(str);
+    }
+
+    public static Integer getInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    public static Long getLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * 数据库中的时间(毫秒数)，小于等于0表示没有值
+     */
+    public static Date getDate(Object value) {
+        Long time = getLong(value);
+        return time == null || time <= 0 ? null : new Date(time);
+    }
+}
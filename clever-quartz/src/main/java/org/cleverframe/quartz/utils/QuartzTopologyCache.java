@@ -0,0 +1,135 @@
+package org.cleverframe.quartz.utils;
+
+import org.cleverframe.quartz.vo.model.QuartzJobDetails;
+import org.cleverframe.quartz.vo.model.QuartzTriggers;
+import org.quartz.JobKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 调度器Job、Trigger结构的短时缓存，供管理页面使用<br/>
+ * 1.缓存所有JobDetail和每个Job的Trigger列表，过期时间很短(默认5秒)<br/>
+ * 2.当前节点修改Job、Trigger时由{@link org.cleverframe.quartz.plugins.QuartzTopologyCachePlugin}立即清除缓存<br/>
+ * 3.集群中其他节点的修改、Trigger触发后状态的变化只能等缓存过期，所以过期时间不能太长<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 02:40 <br/>
+ */
+public class QuartzTopologyCache {
+
+    private static final QuartzTopologyCache INSTANCE = new QuartzTopologyCache();
+
+    /**
+     * 缓存过期时间(毫秒)，小于等于0表示不使用缓存
+     */
+    private volatile long timeToLive = 5000;
+
+    /**
+     * 所有的JobDetail
+     */
+    private volatile Entry<QuartzJobDetails> allJobDetails;
+
+    /**
+     * JobKey -> Job的所有Trigger
+     */
+    private final ConcurrentMap<JobKey, Entry<QuartzTriggers>> triggersByJob = new ConcurrentHashMap<>();
+
+    private QuartzTopologyCache() {
+    }
+
+    public static QuartzTopologyCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return 不存在或者已过期返回null
+     */
+    public List<QuartzJobDetails> getAllJobDetails() {
+        Entry<QuartzJobDetails> entry = allJobDetails;
+        return entry == null ? null : entry.get();
+    }
+
+    public void putAllJobDetails(List<QuartzJobDetails> jobDetailsList) {
+        if (timeToLive > 0) {
+            allJobDetails = new Entry<>(jobDetailsList, timeToLive);
+        }
+    }
+
+    /**
+     * @return 不存在或者已过期返回null
+     */
+    public List<QuartzTriggers> getTriggersByJob(JobKey jobKey) {
+        Entry<QuartzTriggers> entry = triggersByJob.get(jobKey);
+        if (entry == null) {
+            return null;
+        }
+        List<QuartzTriggers> triggersList = entry.get();
+        if (triggersList == null) {
+            triggersByJob.remove(jobKey, entry);
+        }
+        return triggersList;
+    }
+
+    public void putTriggersByJob(JobKey jobKey, List<QuartzTriggers> triggersList) {
+        if (timeToLive > 0) {
+            triggersByJob.put(jobKey, new Entry<>(triggersList, timeToLive));
+        }
+    }
+
+    /**
+     * 清除一个Job的Trigger缓存
+     */
+    public void invalidateTriggers(JobKey jobKey) {
+        triggersByJob.remove(jobKey);
+    }
+
+    /**
+     * 清除所有Job的Trigger缓存
+     */
+    public void invalidateAllTriggers() {
+        triggersByJob.clear();
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void invalidateAll() {
+        allJobDetails = null;
+        triggersByJob.clear();
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+        invalidateAll();
+    }
+
+    /**
+     * 缓存数据，读取时返回副本
+     */
+    private static class Entry<T> {
+        private final List<T> value;
+        private final long expireTime;
+
+        Entry(List<T> value, long timeToLive) {
+            this.value = new ArrayList<>(value);
+            this.expireTime = System.currentTimeMillis() + timeToLive;
+        }
+
+        /**
+         * @return 已过期返回null
+         */
+        List<T> get() {
+            if (System.currentTimeMillis() >= expireTime) {
+                return null;
+            }
+            return new ArrayList<>(value);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.cleverframe.quartz.utils;
+
+import org.cleverframe.common.concurrent.LatencyHistogram;
+import org.cleverframe.quartz.vo.model.LatencyStats;
+import org.cleverframe.quartz.vo.model.SchedulerMetricsInfo;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 调度器运行指标(当前节点)，由{@link org.cleverframe.quartz.plugins.SchedulerMetricsPlugin}
+ * 和{@link org.cleverframe.quartz.plugins.TimedRowLockSemaphore}记录<br/>
+ * 1.触发延迟：实际触发时间与计划触发时间的差值，反映Trigger获取是否及时<br/>
+ * 2.Job执行时间：按Job分别统计百分位数<br/>
+ * 3.数据库锁等待时间：集群模式下获取QRTZ_LOCKS行锁的耗时，反映节点之间的锁竞争<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:50 <br/>
+ */
+public class SchedulerMetrics {
+
+    /**
+     * 分别统计执行时间的Job最大数量，超过后合并统计
+     */
+    private static final int MAX_TRACKED_JOBS = 1000;
+
+    /**
+     * 超过最大数量后Job执行时间合并统计使用的Key
+     */
+    private static final String OTHER_JOBS = "_other";
+
+    private static final SchedulerMetrics INSTANCE = new SchedulerMetrics();
+
+    private volatile long startTime = System.currentTimeMillis();
+
+    private final AtomicLong firedCount = new AtomicLong(0L);
+
+    private final AtomicLong misfiredCount = new AtomicLong(0L);
+
+    private final AtomicLong vetoedCount = new AtomicLong(0L);
+
+    private final AtomicLong executedCount = new AtomicLong(0L);
+
+    private final AtomicLong failedCount = new AtomicLong(0L);
+
+    /**
+     * 触发延迟(毫秒)
+     */
+    private final LatencyHistogram fireLag = new LatencyHistogram();
+
+    /**
+     * lockName -> 锁等待时间(微秒)
+     */
+    private final ConcurrentMap<String, LatencyHistogram> lockWait = new ConcurrentHashMap<>();
+
+    /**
+     * jobGroup.jobName -> 执行时间(毫秒)
+     */
+    private final ConcurrentMap<String, LatencyHistogram> jobRunTime = new ConcurrentHashMap<>();
+
+    private SchedulerMetrics() {
+    }
+
+    public static SchedulerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 记录Trigger触发
+     *
+     * @param lagMillis 实际触发时间 - 计划触发时间(毫秒)
+     */
+    public void recordFired(long lagMillis) {
+        firedCount.incrementAndGet();
+        fireLag.record(lagMillis);
+    }
+
+    /**
+     * 记录Trigger错过触发
+     */
+    public void recordMisfired() {
+        misfiredCount.incrementAndGet();
+    }
+
+    /**
+     * 记录Job被否决执行
+     */
+    public void recordVetoed() {
+        vetoedCount.incrementAndGet();
+    }
+
+    /**
+     * 记录Job执行完成
+     *
+     * @param jobKey  jobGroup.jobName
+     * @param runTime 执行时间(毫秒)
+     * @param failed  是否抛出了异常
+     */
+    public void recordExecuted(String jobKey, long runTime, boolean failed) {
+        executedCount.incrementAndGet();
+        if (failed) {
+            failedCount.incrementAndGet();
+        }
+        getHistogram(jobRunTime, jobKey).record(runTime);
+    }
+
+    /**
+     * 记录数据库锁等待时间
+     *
+     * @param lockName  锁名称，如：TRIGGER_ACCESS、STATE_ACCESS
+     * @param waitNanos 等待时间(纳秒)
+     */
+    public void recordLockWait(String lockName, long waitNanos) {
+        getHistogram(lockWait, lockName).record(waitNanos / 1000);
+    }
+
+    private static LatencyHistogram getHistogram(ConcurrentMap<String, LatencyHistogram> histograms, String key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= MAX_TRACKED_JOBS) {
+            key = OTHER_JOBS;
+        }
+        histogram = new LatencyHistogram();
+        LatencyHistogram exists = histograms.putIfAbsent(key, histogram);
+        return exists != null ? exists : histogram;
+    }
+
+    /**
+     * 读取当前的统计数据
+     */
+    public SchedulerMetricsInfo getMetricsInfo() {
+        SchedulerMetricsInfo metricsInfo = new SchedulerMetricsInfo();
+        metricsInfo.setStartTime(new Date(startTime));
+        long fired = firedCount.get();
+        long misfired = misfiredCount.get();
+        metricsInfo.setFiredCount(fired);
+        metricsInfo.setMisfiredCount(misfired);
+        metricsInfo.setMisfireRate(fired + misfired == 0 ? 0 : misfired / (double) (fired + misfired));
+        metricsInfo.setVetoedCount(vetoedCount.get());
+        metricsInfo.setExecutedCount(executedCount.get());
+        metricsInfo.setFailedCount(failedCount.get());
+        metricsInfo.setFireLag(LatencyStats.of(fireLag));
+        metricsInfo.setLockWait(toStats(lockWait));
+        metricsInfo.setJobRunTime(toStats(jobRunTime));
+        return metricsInfo;
+    }
+
+    private static Map<String, LatencyStats> toStats(ConcurrentMap<String, LatencyHistogram> histograms) {
+        Map<String, LatencyStats> result = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            result.put(entry.getKey(), LatencyStats.of(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 清空统计数据，重新开始统计
+     */
+    public void reset() {
+        startTime = System.currentTimeMillis();
+        firedCount.set(0);
+        misfiredCount.set(0);
+        vetoedCount.set(0);
+        executedCount.set(0);
+        failedCount.set(0);
+        fireLag.reset();
+        lockWait.clear();
+        jobRunTime.clear();
+    }
+}
@@ -0,0 +1,124 @@
+package org.cleverframe.quartz.vo.model;
+
+import org.cleverframe.common.concurrent.LatencyHistogram;
+
+import java.io.Serializable;
+
+/**
+ * 耗时分布统计(百分位数)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:50 <br/>
+ */
+public class LatencyStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** 统计次数 */
+    private long count;
+
+    /** 平均值 */
+    private double mean;
+
+    /** 最小值 */
+    private long min;
+
+    /** 最大值 */
+    private long max;
+
+    /** 50%分位数 */
+    private long p50;
+
+    /** 90%分位数 */
+    private long p90;
+
+    /** 99%分位数 */
+    private long p99;
+
+    /** 99.9%分位数 */
+    private long p999;
+
+    /**
+     * 读取直方图的统计数据
+     */
+    public static LatencyStats of(LatencyHistogram histogram) {
+        LatencyStats latencyStats = new LatencyStats();
+        latencyStats.setP50(histogram.getValueAtPercentile(50));
+        latencyStats.setP90(histogram.getValueAtPercentile(90));
+        latencyStats.setP99(histogram.getValueAtPercentile(99));
+        latencyStats.setP999(histogram.getValueAtPercentile(99.9));
+        // 最后读取最大值，并发写入时最大值不会小于百分位数
+        latencyStats.setCount(histogram.getCount());
+        latencyStats.setMean(histogram.getMean());
+        latencyStats.setMin(histogram.getMin());
+        latencyStats.setMax(histogram.getMax());
+        return latencyStats;
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public void setMin(long min) {
+        this.min = min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public void setP90(long p90) {
+        this.p90 = p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public void setP999(long p999) {
+        this.p999 = p999;
+    }
+}
@@ -0,0 +1,129 @@
+package org.cleverframe.quartz.vo.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 调度器运行指标<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 01:50 <br/>
+ */
+public class SchedulerMetricsInfo implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** 开始统计的时间 */
+    private Date startTime;
+
+    /** Trigger触发次数 */
+    private long firedCount;
+
+    /** Trigger错过触发的次数 */
+    private long misfiredCount;
+
+    /** 错过触发的比例 misfiredCount / (firedCount + misfiredCount) */
+    private double misfireRate;
+
+    /** Job被否决执行的次数 */
+    private long vetoedCount;
+
+    /** Job执行完成的次数 */
+    private long executedCount;
+
+    /** Job执行抛出异常的次数 */
+    private long failedCount;
+
+    /** 触发延迟(实际触发时间 - 计划触发时间)，单位：毫秒 */
+    private LatencyStats fireLag;
+
+    /** 数据库锁(QRTZ_LOCKS)等待时间，lockName -> 统计，单位：微秒 */
+    private Map<String, LatencyStats> lockWait;
+
+    /** Job执行时间，jobGroup.jobName -> 统计，单位：毫秒 */
+    private Map<String, LatencyStats> jobRunTime;
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getFiredCount() {
+        return firedCount;
+    }
+
+    public void setFiredCount(long firedCount) {
+        this.firedCount = firedCount;
+    }
+
+    public long getMisfiredCount() {
+        return misfiredCount;
+    }
+
+    public void setMisfiredCount(long misfiredCount) {
+        this.misfiredCount = misfiredCount;
+    }
+
+    public double getMisfireRate() {
+        return misfireRate;
+    }
+
+    public void setMisfireRate(double misfireRate) {
+        this.misfireRate = misfireRate;
+    }
+
+    public long getVetoedCount() {
+        return vetoedCount;
+    }
+
+    public void setVetoedCount(long vetoedCount) {
+        this.vetoedCount = vetoedCount;
+    }
+
+    public long getExecutedCount() {
+        return executedCount;
+    }
+
+    public void setExecutedCount(long executedCount) {
+        this.executedCount = executedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public LatencyStats getFireLag() {
+        return fireLag;
+    }
+
+    public void setFireLag(LatencyStats fireLag) {
+        this.fireLag = fireLag;
+    }
+
+    public Map<String, LatencyStats> getLockWait() {
+        return lockWait;
+    }
+
+    public void setLockWait(Map<String, LatencyStats> lockWait) {
+        this.lockWait = lockWait;
+    }
+
+    public Map<String, LatencyStats> getJobRunTime() {
+        return jobRunTime;
+    }
+
+    public void setJobRunTime(Map<String, LatencyStats> jobRunTime) {
+        this.jobRunTime = jobRunTime;
+    }
+}
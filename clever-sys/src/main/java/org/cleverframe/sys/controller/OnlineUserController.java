@@ -1,12 +1,15 @@
 package org.cleverframe.sys.controller;
 
 import org.apache.shiro.session.Session;
+import org.apache.shiro.session.mgt.eis.SessionDAO;
 import org.cleverframe.common.controller.BaseController;
 import org.cleverframe.common.persistence.Page;
 import org.cleverframe.common.vo.response.AjaxMessage;
 import org.cleverframe.sys.SysBeanNames;
 import org.cleverframe.sys.entity.LoginSession;
 import org.cleverframe.sys.service.OnlineUserService;
+import org.cleverframe.sys.shiro.DataBaseSessionDao;
+import org.cleverframe.sys.utils.ShiroSessionUtils;
 import org.cleverframe.sys.vo.request.KickOutUserVo;
 import org.cleverframe.sys.vo.request.LoginSessionQueryVo;
 import org.cleverframe.sys.vo.request.SessionGetVo;
@@ -23,6 +26,8 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 作者：LiZW <br/>
@@ -97,4 +102,28 @@ public class OnlineUserController extends BaseController {
         }
         return message;
     }
+
+    /**
+     * 获取Session延迟写入的统计数据
+     *
+     * @return 更新次数、合并的更新次数、写入所有数据次数、只写入访问时间次数、写入失败次数
+     */
+    @RequestMapping("/getSessionWriteStatus")
+    @ResponseBody
+    public AjaxMessage<Map<String, Object>> getSessionWriteStatus(HttpServletRequest request, HttpServletResponse response) {
+        SessionDAO sessionDAO = ShiroSessionUtils.getSessionDAO();
+        if (!(sessionDAO instanceof DataBaseSessionDao)) {
+            return new AjaxMessage<>(false, null, "当前SessionDAO不支持延迟写入统计: " + sessionDAO.getClass().getName());
+        }
+        DataBaseSessionDao dataBaseSessionDao = (DataBaseSessionDao) sessionDAO;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("writeDelay", dataBaseSessionDao.getWriteDelay());
+        status.put("pendingCount", dataBaseSessionDao.getPendingCount());
+        status.put("updateCount", dataBaseSessionDao.getUpdateCount());
+        status.put("coalescedCount", dataBaseSessionDao.getCoalescedCount());
+        status.put("fullWriteCount", dataBaseSessionDao.getFullWriteCount());
+        status.put("timeWriteCount", dataBaseSessionDao.getTimeWriteCount());
+        status.put("failedCount", dataBaseSessionDao.getFailedCount());
+        return new AjaxMessage<>(status, "获取Session写入统计成功");
+    }
 }
@@ -7,10 +7,12 @@ import org.cleverframe.core.utils.QLScriptUtils;
 import org.cleverframe.sys.SysBeanNames;
 import org.cleverframe.sys.entity.Role;
 import org.hibernate.SQLQuery;
+import org.hibernate.transform.Transformers;
 import org.springframework.stereotype.Repository;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO，对应表sys_role(角色表)<br/>
@@ -79,4 +81,36 @@ public class RoleDao extends BaseDao<Role> {
         String sql = QLScriptUtils.getSQLScript("org.cleverframe.sys.dao.RoleDao.findRoleByUser");
         return hibernateDao.findBySql(sql, param);
     }
-}
\ No newline at end of file
+
+    /**
+     * 一次查询所有角色(不含软删除数据)的资源权限，每个角色、资源一行，没有资源的角色资源字段为null
+     *
+     * @return 字段：role_id、role_name、resources_id、permission
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> findAllRolePermissions() {
+        Parameter param = new Parameter();
+        param.put("delFlag", Role.DEL_FLAG_NORMAL);
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.sys.dao.RoleDao.findAllRolePermissions");
+        SQLQuery sqlQuery = hibernateDao.createSqlQuery(sql, param);
+        sqlQuery.setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+        return (List<Map<String, Object>>) sqlQuery.list();
+    }
+
+    /**
+     * 查询一个角色(不含软删除数据)的资源权限，没有资源时资源字段为null，角色不存在返回空集合
+     *
+     * @param roleId 角色ID
+     * @return 字段：role_id、role_name、resources_id、permission
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> findRolePermissionsByRole(Serializable roleId) {
+        Parameter param = new Parameter();
+        param.put("delFlag", Role.DEL_FLAG_NORMAL);
+        param.put("roleId", roleId);
+        String sql = QLScriptUtils.getSQLScript("org.cleverframe.sys.dao.RoleDao.findRolePermissionsByRole");
+        SQLQuery sqlQuery = hibernateDao.createSqlQuery(sql, param);
+        sqlQuery.setResultTransformer(Transformers.ALIAS_TO_ENTITY_MAP);
+        return (List<Map<String, Object>>) sqlQuery.list();
+    }
+}
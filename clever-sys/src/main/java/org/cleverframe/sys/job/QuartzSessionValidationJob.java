@@ -1,12 +1,20 @@
 package org.cleverframe.sys.job;
 
+import org.apache.shiro.session.InvalidSessionException;
+import org.apache.shiro.session.mgt.DefaultSessionKey;
 import org.apache.shiro.session.mgt.ValidatingSessionManager;
+import org.apache.shiro.session.mgt.eis.SessionDAO;
+import org.cleverframe.sys.shiro.ExpiringSessionDAO;
+import org.cleverframe.sys.utils.ShiroSessionUtils;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Serializable;
+import java.util.List;
+
 /**
  * 验证Shiro会话(Session)的定时任务<br/>
  * 由于shiro-quartz不支持最新版本的quartz所以自己实现，参考 org.apache.shiro.session.mgt.quartz.QuartzSessionValidationJob
@@ -18,6 +26,10 @@ public class QuartzSessionValidationJob implements Job {
    /*--------------------------------------------
     |             C O N S T A N T S             |
     ============================================*/
+    /**
+     * 每次查询过期Session的数量
+     */
+    private static final int EXPIRED_BATCH_SIZE = 1000;
 
     /*--------------------------------------------
     |    I N S T A N C E   V A R I A B L E S    |
@@ -49,10 +61,40 @@ public class QuartzSessionValidationJob implements Job {
      */
     public void execute(JobExecutionContext context) throws JobExecutionException {
         log.debug("开始验证会话是否有效...");
-        sessionManager.validateSessions();
+        SessionDAO sessionDAO = ShiroSessionUtils.getSessionDAO();
+        if (sessionDAO instanceof ExpiringSessionDAO) {
+            validateExpiredSessions((ExpiringSessionDAO) sessionDAO);
+        } else {
+            sessionManager.validateSessions();
+        }
         log.debug("验证会话是否有效执行完成");
     }
 
+    /**
+     * 只验证已经过期的Session，不扫描所有Session<br/>
+     * 通过SessionManager读取过期的Session，SessionManager会通知SessionListener并删除Session
+     */
+    private void validateExpiredSessions(ExpiringSessionDAO sessionDAO) {
+        int invalidCount = 0;
+        int batchInvalidCount;
+        List<Serializable> sessionIds;
+        do {
+            batchInvalidCount = 0;
+            sessionIds = sessionDAO.getExpiredSessionIds(EXPIRED_BATCH_SIZE);
+            for (Serializable sessionId : sessionIds) {
+                try {
+                    sessionManager.getSession(new DefaultSessionKey(sessionId));
+                } catch (InvalidSessionException e) {
+                    batchInvalidCount++;
+                }
+            }
+            invalidCount += batchInvalidCount;
+            // 本批次没有失效的Session时停止，避免重复验证同一批数据
+        } while (sessionIds.size() >= EXPIRED_BATCH_SIZE && batchInvalidCount > 0);
+        int evictCount = sessionDAO.evictExpiredSessions();
+        log.info("验证过期会话完成，失效会话 {} 个，直接清除 {} 个", invalidCount, evictCount);
+    }
+
     public static ValidatingSessionManager getSessionManager() {
         return sessionManager;
     }
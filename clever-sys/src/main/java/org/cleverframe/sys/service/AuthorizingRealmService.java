@@ -1,23 +1,31 @@
 package org.cleverframe.sys.service;
 
+import org.apache.commons.lang3.StringUtils;
 import org.cleverframe.common.service.BaseService;
 import org.cleverframe.sys.SysBeanNames;
 import org.cleverframe.sys.dao.OrganizationDao;
-import org.cleverframe.sys.dao.ResourcesDao;
 import org.cleverframe.sys.dao.RoleDao;
 import org.cleverframe.sys.dao.UserDao;
 import org.cleverframe.sys.entity.Organization;
-import org.cleverframe.sys.entity.Resources;
 import org.cleverframe.sys.entity.Role;
 import org.cleverframe.sys.entity.User;
+import org.cleverframe.sys.shiro.RolePermissions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 授权和认证的Service 用于到数据库查询用户、角色、权限等信息<br>
@@ -40,9 +48,37 @@ public class AuthorizingRealmService extends BaseService {
     @Qualifier(SysBeanNames.RoleDao)
     private RoleDao roleDao;
 
-    @Autowired
-    @Qualifier(SysBeanNames.ResourcesDao)
-    private ResourcesDao resourcesDao;
+    /**
+     * 角色ID -> 角色的所有权限
+     */
+    private final ConcurrentMap<Long, RolePermissions> rolePermissions = new ConcurrentHashMap<>();
+
+    /**
+     * 是否已经一次加载了所有角色的权限
+     */
+    private volatile boolean rolePermissionsLoaded = false;
+
+    /**
+     * 用户ID -> 用户的所有角色ID
+     */
+    private final ConcurrentMap<Long, long[]> userRoleIds = new ConcurrentHashMap<>();
+
+    /**
+     * 授权数据的修改序号，任何角色、用户的授权数据被清除时递增<br/>
+     * 1.用于判断查询期间缓存数据是否被修改<br/>
+     * 2.用于生成角色、用户的授权数据版本号(单调递增)
+     */
+    private final AtomicLong authorizationVersion = new AtomicLong(0L);
+
+    /**
+     * 角色ID -> 角色权限最后一次被清除时的版本号
+     */
+    private final ConcurrentMap<Long, Long> roleVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 用户ID -> 用户角色最后一次被清除时的版本号
+     */
+    private final ConcurrentMap<Long, Long> userVersions = new ConcurrentHashMap<>();
 
     /**
      * 根据用户登录名查询用户信息（包括软删除的用户）
@@ -100,33 +136,219 @@ public class AuthorizingRealmService extends BaseService {
         return result;
     }
 
+    /*--------------------------------------------------------------
+     *          角色权限索引
+     * -------------------------------------------------------------*/
+
     /**
-     * 获取用户所有的资源信息（不含软删除数据）
+     * 返回用户的所有角色ID(不含软删除数据)，第一次查询后缓存，用户角色变化后由{@link #invalidateUser}清除
      *
-     * @param user 用户
-     * @return 不存在返回空集合
+     * @param userId 用户ID
+     * @return 不存在返回空数组
      */
-    public List<Resources> findResourcesByUser(User user) {
-        List<Resources> result = new ArrayList<>();
-        if (user == null) {
-            return result;
+    public long[] getUserRoleIds(Long userId) {
+        long[] roleIds = userRoleIds.get(userId);
+        if (roleIds != null) {
+            return roleIds;
+        }
+        long version = authorizationVersion.get();
+        User user = new User();
+        user.setId(userId);
+        List<Role> roleList = findRoleByUser(user);
+        roleIds = new long[roleList.size()];
+        for (int i = 0; i < roleIds.length; i++) {
+            roleIds[i] = roleList.get(i).getId();
         }
-        // 数据量大时 性能低下
-//        result = resourcesDao.getResourcesByUser(user.getLoginName());
+        cacheIfUnchanged(userRoleIds, userId, roleIds, version);
+        return roleIds;
+    }
 
-        // 大数据量使用
-        Map<Long, Resources> map = new HashMap<>();
-        List<Role> roleList = roleDao.findRoleByUser(user.getId());
-        for (Role role : roleList) {
-            if (!Role.DEL_FLAG_NORMAL.equals(role.getDelFlag())) {
-                continue;
+    /**
+     * 返回角色的所有权限，所有用户共享同一个对象<br/>
+     * 第一次调用时一次查询加载所有角色的权限，之后被清除的角色单独重新加载
+     *
+     * @param roleId 角色ID
+     * @return 角色不存在时返回的对象{@link RolePermissions#isExists()}为false
+     */
+    public RolePermissions getRolePermissions(Long roleId) {
+        if (!rolePermissionsLoaded) {
+            loadAllRolePermissions();
+        }
+        RolePermissions permissions = rolePermissions.get(roleId);
+        if (permissions != null) {
+            return permissions;
+        }
+        long version = authorizationVersion.get();
+        Map<Long, RolePermissions> loaded = toRolePermissions(roleDao.findRolePermissionsByRole(roleId));
+        permissions = loaded.get(roleId);
+        if (permissions == null) {
+            permissions = new RolePermissions(roleId, null, Collections.<Long>emptyList(), Collections.<String>emptyList());
+        }
+        cacheIfUnchanged(rolePermissions, roleId, permissions, version);
+        return permissions;
+    }
+
+    /**
+     * 一次查询加载所有角色的权限
+     */
+    private synchronized void loadAllRolePermissions() {
+        if (rolePermissionsLoaded) {
+            return;
+        }
+        long version = authorizationVersion.get();
+        Map<Long, RolePermissions> loaded = toRolePermissions(roleDao.findAllRolePermissions());
+        rolePermissions.putAll(loaded);
+        if (authorizationVersion.get() == version) {
+            rolePermissionsLoaded = true;
+        } else {
+            // 加载期间有数据被修改，丢弃本次加载的数据
+            for (Map.Entry<Long, RolePermissions> entry : loaded.entrySet()) {
+                rolePermissions.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 把查询结果(role_id、role_name、resources_id、permission)按角色分组
+     */
+    private static Map<Long, RolePermissions> toRolePermissions(List<Map<String, Object>> rows) {
+        Map<Long, String> roleNames = new LinkedHashMap<>();
+        Map<Long, List<Long>> resourcesIds = new HashMap<>();
+        Map<Long, List<String>> stringPermissions = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Long roleId = ((Number) row.get("role_id")).longValue();
+            if (!roleNames.containsKey(roleId)) {
+                roleNames.put(roleId, String.valueOf(row.get("role_name")));
+                resourcesIds.put(roleId, new ArrayList<Long>());
+                stringPermissions.put(roleId, new ArrayList<String>());
             }
-            List<Resources> resourcesList = resourcesDao.findResourcesByRole(role.getId());
-            for (Resources resources : resourcesList) {
-                map.put(resources.getId(), resources);
+            Object resourcesId = row.get("resources_id");
+            if (resourcesId != null) {
+                resourcesIds.get(roleId).add(((Number) resourcesId).longValue());
             }
+            Object permission = row.get("permission");
+            if (permission != null && StringUtils.isNotBlank(permission.toString())) {
+                stringPermissions.get(roleId).add(permission.toString());
+            }
+        }
+        Map<Long, RolePermissions> result = new HashMap<>();
+        for (Map.Entry<Long, String> entry : roleNames.entrySet()) {
+            Long roleId = entry.getKey();
+            result.put(roleId, new RolePermissions(roleId, entry.getValue(), resourcesIds.get(roleId), stringPermissions.get(roleId)));
         }
-        result.addAll(map.values());
         return result;
     }
+
+    /**
+     * 缓存查询结果，查询期间有数据被修改(版本号变化)时撤销缓存
+     */
+    private <K, V> void cacheIfUnchanged(ConcurrentMap<K, V> cache, K key, V value, long version) {
+        if (authorizationVersion.get() != version) {
+            return;
+        }
+        cache.put(key, value);
+        // 先放入缓存再检查版本号，避免检查之后、放入之前数据被修改
+        if (authorizationVersion.get() != version) {
+            cache.remove(key, value);
+        }
+    }
+
+    /**
+     * 用户授权数据的版本号，用于判断用户已计算的权限结果是否过期<br/>
+     * 取用户和用户所有角色最后一次被清除时版本号的最大值，只有用户本身或者用户拥有的角色被清除时才会变化
+     *
+     * @param userId 用户ID
+     */
+    public long getAuthorizationVersion(Long userId) {
+        long version = getVersion(userVersions, userId);
+        for (long roleId : getUserRoleIds(userId)) {
+            version = Math.max(version, getVersion(roleVersions, roleId));
+        }
+        return version;
+    }
+
+    private static long getVersion(ConcurrentMap<Long, Long> versions, Long id) {
+        Long version = versions.get(id);
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * 清除缓存之后更新版本号，保证读取到新版本号的线程使用的是重新加载的数据
+     */
+    private void updateVersion(ConcurrentMap<Long, Long> versions, Long id) {
+        versions.put(id, authorizationVersion.incrementAndGet());
+    }
+
+    /**
+     * 清除角色的权限(角色修改、删除，角色添加、移除资源后调用)，在当前事务结束后执行
+     */
+    public void invalidateRole(Serializable roleId) {
+        final Long id = toLong(roleId);
+        //noinspection Convert2Lambda
+        afterTransaction(new Runnable() {
+            @Override
+            public void run() {
+                authorizationVersion.incrementAndGet();
+                rolePermissions.remove(id);
+                updateVersion(roleVersions, id);
+            }
+        });
+    }
+
+    /**
+     * 清除包含资源的所有角色的权限(资源修改、删除后调用)，在当前事务结束后执行
+     */
+    public void invalidateResources(Serializable resourcesId) {
+        final Long id = toLong(resourcesId);
+        //noinspection Convert2Lambda
+        afterTransaction(new Runnable() {
+            @Override
+            public void run() {
+                authorizationVersion.incrementAndGet();
+                for (RolePermissions permissions : rolePermissions.values()) {
+                    if (permissions.containsResources(id)) {
+                        rolePermissions.remove(permissions.getRoleId(), permissions);
+                        updateVersion(roleVersions, permissions.getRoleId());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 清除用户的角色(用户添加、移除角色，用户删除后调用)，在当前事务结束后执行
+     */
+    public void invalidateUser(Serializable userId) {
+        final Long id = toLong(userId);
+        //noinspection Convert2Lambda
+        afterTransaction(new Runnable() {
+            @Override
+            public void run() {
+                authorizationVersion.incrementAndGet();
+                userRoleIds.remove(id);
+                updateVersion(userVersions, id);
+            }
+        });
+    }
+
+    private static Long toLong(Serializable id) {
+        return id instanceof Number ? ((Number) id).longValue() : Long.valueOf(id.toString());
+    }
+
+    /**
+     * 在当前事务结束(提交或回滚)后执行，没有事务时立即执行<br/>
+     * 事务提交之前清除的话，其他线程可能读取到旧数据重新放入缓存
+     */
+    private static void afterTransaction(final Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
 }
@@ -20,13 +20,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 作者：LiZW <br/>
@@ -45,6 +48,10 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
     @Qualifier(SysBeanNames.ResourcesDao)
     private ResourcesDao resourcesDao;
 
+    @Autowired
+    @Qualifier(SysBeanNames.AuthorizingRealmService)
+    private AuthorizingRealmService authorizingRealmService;
+
     /**
      * 静态资源基路径：static
      */
@@ -71,6 +78,11 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
      */
     private Cache resourcesCache = EhCacheUtils.createCache(EhCacheNames.ResourcesCache);
 
+    /**
+     * 资源版本，缓存中的资源变化后加1，用于判断权限路由表是否需要重建
+     */
+    private final AtomicLong resourcesVersion = new AtomicLong(0L);
+
     @SuppressWarnings("Duplicates")
     @PostConstruct
     private void init() {
@@ -118,6 +130,7 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
             Element element = new Element(resources.getControllerMethod(), resources);
             resourcesCache.put(element);
         }
+        resourcesVersion.incrementAndGet();
         return resourcesList;
     }
 
@@ -137,6 +150,15 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
         return element == null ? null : (Resources) element.getObjectValue();
     }
 
+    /**
+     * 每次请求授权时都会调用，不需要事务
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Override
+    public long getResourcesVersion() {
+        return resourcesVersion.get();
+    }
+
     /**
      * 保存资源信息
      *
@@ -148,6 +170,7 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
         resourcesDao.getHibernateDao().save(resources);
         Element element = new Element(resources.getControllerMethod(), resources);
         resourcesCache.put(element);
+        resourcesVersion.incrementAndGet();
         return true;
     }
 
@@ -164,6 +187,9 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
         resources = resourcesDao.getHibernateDao().update(resources, false, true);
         Element element = new Element(resources.getControllerMethod(), resources);
         resourcesCache.put(element);
+        resourcesVersion.incrementAndGet();
+        // 资源的权限字符串可能被修改，重新加载包含该资源的角色
+        authorizingRealmService.invalidateResources(resources.getId());
         return true;
     }
 
@@ -178,6 +204,8 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
         // TODO 验证当前资源有没有被其他资源所依赖，若有则不能删除
         Resources oldResources1 = resourcesDao.getHibernateDao().get(resourcesId);
         resourcesCache.remove(oldResources1.getControllerMethod());
+        resourcesVersion.incrementAndGet();
+        authorizingRealmService.invalidateResources(resourcesId);
         return resourcesDao.getHibernateDao().deleteById(resourcesId) >= 1;
     }
 
@@ -241,30 +269,47 @@ public class EhCacheResourcesService extends BaseService implements IUserPermiss
                 tree.add(resourcesTreeNodeVo);
             }
         }
+        // 资源ID索引
+        Map<String, Resources> resourcesMap = new HashMap<>(resourcesList.size() * 2);
+        for (Resources resources : resourcesList) {
+            if (resources.getId() != null && !resourcesMap.containsKey(resources.getId().toString())) {
+                resourcesMap.put(resources.getId().toString(), resources);
+            }
+        }
+        // 资源依赖关系索引，资源ID -> 依赖的资源ID
         List<Map<String, Object>> relationList = resourcesDao.findAllResourcesRelation();
+        Map<String, List<Object>> relationMap = new HashMap<>();
+        for (Map<String, Object> map : relationList) {
+            if (map.get("resources_id") == null) {
+                continue;
+            }
+            String resourcesId = map.get("resources_id").toString();
+            List<Object> dependenceResourcesIdList = relationMap.get(resourcesId);
+            if (dependenceResourcesIdList == null) {
+                dependenceResourcesIdList = new ArrayList<>();
+                relationMap.put(resourcesId, dependenceResourcesIdList);
+            }
+            dependenceResourcesIdList.add(map.get("dependence_resources_id"));
+        }
         // 构建树
         for (ResourcesTreeNodeVo resourcesTreeNodeVo : tree) {
-            List<Object> dependenceResourcesIdList = new ArrayList<>();
-            for (Map<String, Object> map : relationList) {
-                if (resourcesTreeNodeVo.getId() != null
-                        && map.get("resources_id") != null
-                        && resourcesTreeNodeVo.getId().toString().equals(map.get("resources_id").toString())) {
-                    dependenceResourcesIdList.add(map.get("dependence_resources_id"));
-                }
+            List<Object> dependenceResourcesIdList = resourcesTreeNodeVo.getId() == null ? null : relationMap.get(resourcesTreeNodeVo.getId().toString());
+            if (dependenceResourcesIdList == null) {
+                continue;
             }
             // 增加子节点
             for (Object object : dependenceResourcesIdList) {
-                for (Resources resources : resourcesList) {
-                    if (object != null && resources.getId() != null && object.toString().equals(resources.getId().toString())) {
-                        // 增加依赖资源信息
-                        if (resourcesTreeNodeVo.getChildren() == null) {
-                            resourcesTreeNodeVo.setChildren(new ArrayList<>());
-                        }
-                        ResourcesTreeNodeVo children = BeanMapper.mapper(resources, ResourcesTreeNodeVo.class);
-                        children.setParentId(resourcesTreeNodeVo.getId());
-                        resourcesTreeNodeVo.getChildren().add(children);
-                    }
+                Resources resources = object == null ? null : resourcesMap.get(object.toString());
+                if (resources == null) {
+                    continue;
+                }
+                // 增加依赖资源信息
+                if (resourcesTreeNodeVo.getChildren() == null) {
+                    resourcesTreeNodeVo.setChildren(new ArrayList<>());
                 }
+                ResourcesTreeNodeVo children = BeanMapper.mapper(resources, ResourcesTreeNodeVo.class);
+                children.setParentId(resourcesTreeNodeVo.getId());
+                resourcesTreeNodeVo.getChildren().add(children);
             }
         }
         return tree;
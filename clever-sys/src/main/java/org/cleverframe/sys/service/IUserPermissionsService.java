@@ -43,6 +43,13 @@ public interface IUserPermissionsService {
      */
     Resources getResourcesByMethod(String controllerMethod);
 
+    /**
+     * 获取资源版本，资源重新加载、新增、更新、删除后版本都会变化
+     *
+     * @return 资源版本
+     */
+    long getResourcesVersion();
+
     /**
      * 保存资源信息,顺便保存到缓存中
      *
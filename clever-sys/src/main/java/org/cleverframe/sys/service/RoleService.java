@@ -32,6 +32,10 @@ public class RoleService extends BaseService {
     @Qualifier(SysBeanNames.ResourcesDao)
     private ResourcesDao resourcesDao;
 
+    @Autowired
+    @Qualifier(SysBeanNames.AuthorizingRealmService)
+    private AuthorizingRealmService authorizingRealmService;
+
     /**
      * 分页查询角色数据
      *
@@ -62,6 +66,7 @@ public class RoleService extends BaseService {
     @Transactional(readOnly = false)
     public boolean updateRole(Role role) {
         roleDao.getHibernateDao().update(role, false, true);
+        authorizingRealmService.invalidateRole(role.getId());
         return true;
     }
 
@@ -74,6 +79,7 @@ public class RoleService extends BaseService {
     @Transactional(readOnly = false)
     public boolean deleteRole(Role role) {
         roleDao.getHibernateDao().deleteForSoft(role);
+        authorizingRealmService.invalidateRole(role.getId());
         return true;
     }
 
@@ -95,6 +101,7 @@ public class RoleService extends BaseService {
      */
     @Transactional(readOnly = false)
     public boolean addRoleResources(Long roleId, Long resourcesId) {
+        authorizingRealmService.invalidateRole(roleId);
         return roleDao.addRoleResources(roleId, resourcesId);
     }
 
@@ -107,6 +114,7 @@ public class RoleService extends BaseService {
      */
     @Transactional(readOnly = false)
     public boolean deleteRoleResources(Long roleId, Long resourcesId) {
+        authorizingRealmService.invalidateRole(roleId);
         return roleDao.deleteRoleResources(roleId, resourcesId);
     }
 }
@@ -33,6 +33,10 @@ public class UserService extends BaseService {
     @Qualifier(SysBeanNames.RoleDao)
     private RoleDao roleDao;
 
+    @Autowired
+    @Qualifier(SysBeanNames.AuthorizingRealmService)
+    private AuthorizingRealmService authorizingRealmService;
+
     /**
      * 分页查询
      */
@@ -73,6 +77,7 @@ public class UserService extends BaseService {
     @Transactional(readOnly = false)
     public boolean deleteUser(User user) {
         userDao.getHibernateDao().deleteForSoft(user);
+        authorizingRealmService.invalidateUser(user.getId());
         return true;
     }
 
@@ -94,6 +99,7 @@ public class UserService extends BaseService {
      */
     @Transactional(readOnly = false)
     public boolean addUserRole(Serializable userId, Serializable roleId) {
+        authorizingRealmService.invalidateUser(userId);
         return userDao.addUserRole(userId, roleId);
     }
 
@@ -106,6 +112,7 @@ public class UserService extends BaseService {
      */
     @Transactional(readOnly = false)
     public boolean deleteUserRole(Serializable userId, Serializable roleId) {
+        authorizingRealmService.invalidateUser(userId);
         return userDao.deleteUserRole(userId, roleId);
     }
 }
@@ -11,17 +11,32 @@ import org.cleverframe.sys.service.LoginSessionService;
 import org.cleverframe.sys.utils.ShiroSessionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import javax.sql.DataSource;
 import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 使用数据库存储Shiro用户登录Session信息,方便计算和查询(分页)在线人数等信息<br/>
  * 参考 EnterpriseCacheSessionDAO<br/>
- * <b>注意：使用数据库存储Session信息性能不高，建议使用Redis缓存</b>
+ * <b>注意：使用数据库存储Session信息性能不高，建议使用Redis缓存</b><br/>
+ * 设置了dataSource时使用延迟批量写入(write-behind)：<br/>
+ * 1.同一个Session在writeDelay时间内的多次更新合并成一次写入<br/>
+ * 2.只有访问时间变化时只更新update_date字段，不重新序列化Session<br/>
+ * 3.Session使用紧凑二进制编码 {@link ShiroSessionCodec}<br/>
  * 作者：LiZW <br/>
  * 创建时间：2016/11/13 22:54 <br/>
  *
@@ -33,8 +48,64 @@ public class DataBaseSessionDao extends CachingSessionDAO {
      */
     private final static Logger logger = LoggerFactory.getLogger(DataBaseSessionDao.class);
 
+    /**
+     * 更新Session所有数据
+     */
+    private static final String UPDATE_SQL = "UPDATE sys_login_session " +
+            "SET update_date=?, login_name=?, session_object=?, on_line=?, host_ip=? WHERE session_id=?";
+
+    /**
+     * 只更新Session访问时间
+     */
+    private static final String UPDATE_TIME_SQL = "UPDATE sys_login_session SET update_date=? WHERE session_id=?";
+
     private LoginSessionService loginSessionService;
 
+    /**
+     * 执行批量更新，为null时不使用延迟批量写入
+     */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 延迟写入的时间窗口(毫秒)，小于等于0 表示立即写入
+     */
+    private long writeDelay = 5000L;
+
+    /**
+     * 等待写入的Session，SessionId -> PendingWrite
+     */
+    private final ConcurrentHashMap<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * 延迟写入线程
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Session更新请求次数
+     */
+    private final AtomicLong updateCount = new AtomicLong(0L);
+
+    /**
+     * 合并到等待写入中的更新次数(节省的写入次数)
+     */
+    private final AtomicLong coalescedCount = new AtomicLong(0L);
+
+    /**
+     * 写入Session所有数据的次数
+     */
+    private final AtomicLong fullWriteCount = new AtomicLong(0L);
+
+    /**
+     * 只写入访问时间的次数(节省的Session序列化次数)
+     */
+    private final AtomicLong timeWriteCount = new AtomicLong(0L);
+
+    /**
+     * 写入失败的次数
+     */
+    private final AtomicLong failedCount = new AtomicLong(0L);
+
     public DataBaseSessionDao(LoginSessionService loginSessionService) {
         this.loginSessionService = loginSessionService;
     }
@@ -122,15 +193,76 @@ public class DataBaseSessionDao extends CachingSessionDAO {
             logger.debug("Session未修改，不需要更新, SessionId=[{}]", sessionId);
             return;
         }
-        // 更新Session到存储
+        boolean isDataChanged = shiroSession.isDataChanged();
+        updateCount.incrementAndGet();
+        if (jdbcTemplate == null) {
+            updateBySession(shiroSession);
+            return;
+        }
+        shiroSession.setChanged(false);
+        if (writeDelay <= 0) {
+            List<PendingWrite> writes = new ArrayList<>(1);
+            writes.add(new PendingWrite(shiroSession, isDataChanged));
+            flush(writes);
+            return;
+        }
+        if (executor == null) {
+            init();
+        }
+        // 合并到等待写入的Session中
+        if (enqueue(sessionId, shiroSession, isDataChanged)) {
+            coalescedCount.incrementAndGet();
+            return;
+        }
+        logger.debug("Session延迟更新, SessionId=[{}]", sessionId);
+    }
+
+    /**
+     * 加入等待写入的Session，已经在等待写入中的合并成一次写入
+     *
+     * @return 合并到已经在等待写入中的Session返回true
+     */
+    private boolean enqueue(String sessionId, ShiroSession shiroSession, boolean isDataChanged) {
+        PendingWrite pendingWrite = new PendingWrite(shiroSession, isDataChanged);
+        while (true) {
+            PendingWrite old = pendingWrites.putIfAbsent(sessionId, pendingWrite);
+            if (old == null) {
+                return false;
+            }
+            synchronized (old) {
+                if (!old.isFlushed) {
+                    old.isDataChanged = old.isDataChanged || isDataChanged;
+                    return true;
+                }
+            }
+            pendingWrites.remove(sessionId, old);
+        }
+    }
+
+    /**
+     * 写入失败的Session重新写入所有数据：使用延迟写入时重新加入等待写入的Session，否则等下次更新时写入
+     */
+    private void retryLater(ShiroSession session) {
+        if (executor != null && session.getId() != null) {
+            enqueue((String) session.getId(), session, true);
+        } else {
+            session.setChanged(true);
+        }
+    }
+
+    /**
+     * 同步读取并更新Session(未设置dataSource时使用)
+     */
+    private void updateBySession(ShiroSession shiroSession) {
+        String sessionId = (String) shiroSession.getId();
         LoginSession loginSession = loginSessionService.getBySessionId(sessionId);
         if (loginSession == null) {
-            doCreate(session);
+            doCreate(shiroSession);
             return;
         }
         try {
             shiroSession.setChanged(false);
-            loginSession = getLoginSessionBySession(session, loginSession);
+            loginSession = getLoginSessionBySession(shiroSession, loginSession);
             loginSessionService.update(loginSession);
         } catch (Throwable e) {
             shiroSession.setChanged(true);
@@ -139,6 +271,150 @@ public class DataBaseSessionDao extends CachingSessionDAO {
         logger.debug("Session更新成功, SessionId=[{}]", sessionId);
     }
 
+    /**
+     * 启动延迟写入线程
+     */
+    public synchronized void init() {
+        if (executor != null || jdbcTemplate == null || writeDelay <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "DataBaseSessionDao-WriteBehind");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flushPending();
+                } catch (Throwable e) {
+                    logger.error("Session延迟写入失败", e);
+                }
+            }
+        }, writeDelay, writeDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止延迟写入线程，并写入所有等待中的Session
+     */
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(writeDelay, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flushPending();
+    }
+
+    /**
+     * 写入所有等待中的Session
+     */
+    public void flushPending() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        List<PendingWrite> writes = new ArrayList<>(pendingWrites.size());
+        for (String sessionId : pendingWrites.keySet()) {
+            PendingWrite pendingWrite = pendingWrites.remove(sessionId);
+            if (pendingWrite == null) {
+                continue;
+            }
+            synchronized (pendingWrite) {
+                pendingWrite.isFlushed = true;
+            }
+            writes.add(pendingWrite);
+        }
+        flush(writes);
+    }
+
+    /**
+     * 使用JDBC批量写入Session，Session数据变化的写入所有字段，只有访问时间变化的只写入update_date
+     */
+    private void flush(List<PendingWrite> writes) {
+        final List<Object[]> fullArgs = new ArrayList<>();
+        final List<ShiroSession> fullSessions = new ArrayList<>();
+        final List<Object[]> timeArgs = new ArrayList<>();
+        for (PendingWrite pendingWrite : writes) {
+            ShiroSession session = pendingWrite.session;
+            // 已经失效的Session会被删除，不需要再写入
+            if (!session.isValid()) {
+                continue;
+            }
+            Timestamp updateDate = new Timestamp(session.getLastAccessTime() == null ? System.currentTimeMillis() : session.getLastAccessTime().getTime());
+            if (pendingWrite.isDataChanged) {
+                // 请求线程可能同时在修改Session属性，编码失败只影响当前Session，不影响同一批的其它Session
+                Object[] args;
+                try {
+                    User user = ShiroSessionUtils.getUserBySession(session);
+                    args = new Object[]{
+                            updateDate,
+                            user == null ? null : user.getLoginName(),
+                            ShiroSessionUtils.serialize(session),
+                            String.valueOf(ShiroSessionUtils.getIsOnLineBySession(session)),
+                            session.getHost(),
+                            session.getId()};
+                } catch (Throwable e) {
+                    failedCount.incrementAndGet();
+                    retryLater(session);
+                    logger.error("Session序列化失败, SessionId=[" + session.getId() + "]", e);
+                    continue;
+                }
+                fullArgs.add(args);
+                fullSessions.add(session);
+            } else {
+                timeArgs.add(new Object[]{updateDate, session.getId()});
+            }
+        }
+        try {
+            if (fullArgs.size() > 0) {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, fullArgs);
+                fullWriteCount.addAndGet(fullArgs.size());
+                for (int i = 0; i < counts.length; i++) {
+                    // 数据库中不存在(如：表数据被清空)，重新新增
+                    if (counts[i] == 0) {
+                        loginSessionService.save(getLoginSessionBySession(fullSessions.get(i), null));
+                    }
+                }
+            }
+            if (timeArgs.size() > 0) {
+                jdbcTemplate.batchUpdate(UPDATE_TIME_SQL, timeArgs);
+                timeWriteCount.addAndGet(timeArgs.size());
+            }
+        } catch (Throwable e) {
+            failedCount.addAndGet(fullArgs.size() + timeArgs.size());
+            // 重新写入所有数据
+            for (ShiroSession session : fullSessions) {
+                retryLater(session);
+            }
+            logger.error("Session批量写入失败", e);
+        }
+    }
+
+    /**
+     * 数据库中的Session数据转换成Session，访问时间使用update_date与Session中的较大值
+     */
+    private Session toSession(LoginSession loginSession) {
+        Session session = ShiroSessionUtils.deserialize(loginSession.getSessionObject());
+        if (session instanceof ShiroSession && loginSession.getUpdateDate() != null) {
+            ShiroSession shiroSession = (ShiroSession) session;
+            if (shiroSession.getLastAccessTime() == null || shiroSession.getLastAccessTime().before(loginSession.getUpdateDate())) {
+                Date changeTime = shiroSession.getChangeTime();
+                shiroSession.setLastAccessTime(new Date(loginSession.getUpdateDate().getTime()));
+                shiroSession.setChangeTime(changeTime);
+                shiroSession.setChanged(false);
+            }
+        }
+        return session;
+    }
+
 //    @Override
 //    public Session readSession(Serializable sessionId) throws UnknownSessionException {
 //        return super.readSession(sessionId);
@@ -156,7 +432,7 @@ public class DataBaseSessionDao extends CachingSessionDAO {
         LoginSession loginSession = loginSessionService.getBySessionId(strId);
         Session session = null;
         if (loginSession != null && loginSession.getSessionObject() != null) {
-            session = ShiroSessionUtils.deserialize(loginSession.getSessionObject());
+            session = toSession(loginSession);
             logger.debug("Session读取成功, SessionId=[{}]", strId);
             cache(session, session.getId());
         }
@@ -173,6 +449,7 @@ public class DataBaseSessionDao extends CachingSessionDAO {
             logger.error("Shiro Session ID 不能为空 - doDelete");
             return;
         }
+        pendingWrites.remove(sessionId);
         boolean flag = loginSessionService.deleteBySessionId(sessionId);
         if (!flag) {
             RuntimeException exception = new RuntimeException("Shiro Session 删除失败");
@@ -206,7 +483,7 @@ public class DataBaseSessionDao extends CachingSessionDAO {
                     continue;
                 }
                 try {
-                    map.put(loginSession.getSessionId(), ShiroSessionUtils.deserialize(loginSession.getSessionObject()));
+                    map.put(loginSession.getSessionId(), toSession(loginSession));
                 } catch (Throwable e) {
                     logger.error("Session序列化失败", e);
                 }
@@ -214,4 +491,69 @@ public class DataBaseSessionDao extends CachingSessionDAO {
         }
         return map.values();
     }
+
+    /**
+     * 等待写入的Session
+     */
+    private static class PendingWrite {
+        private final ShiroSession session;
+
+        /**
+         * 除访问时间以外的数据是否变化
+         */
+        private boolean isDataChanged;
+
+        /**
+         * 是否已经从等待队列中取出
+         */
+        private boolean isFlushed = false;
+
+        PendingWrite(ShiroSession session, boolean isDataChanged) {
+            this.session = session;
+            this.isDataChanged = isDataChanged;
+        }
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    /**
+     * 设置数据源，启用JDBC批量写入
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public long getWriteDelay() {
+        return writeDelay;
+    }
+
+    public void setWriteDelay(long writeDelay) {
+        this.writeDelay = writeDelay;
+    }
+
+    public int getPendingCount() {
+        return pendingWrites.size();
+    }
+
+    public long getUpdateCount() {
+        return updateCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getFullWriteCount() {
+        return fullWriteCount.get();
+    }
+
+    public long getTimeWriteCount() {
+        return timeWriteCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
 }
@@ -0,0 +1,32 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.shiro.session.mgt.eis.SessionDAO;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 按过期时间索引Session的SessionDAO<br/>
+ * 会话验证定时任务发现SessionDAO实现了此接口时，只验证已经过期的Session，不再扫描所有Session<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 19:45 <br/>
+ *
+ * @see org.cleverframe.sys.job.QuartzSessionValidationJob
+ */
+public interface ExpiringSessionDAO extends SessionDAO {
+
+    /**
+     * 获取已经过期的SessionId
+     *
+     * @param maxCount 最多返回的数量
+     */
+    List<Serializable> getExpiredSessionIds(int maxCount);
+
+    /**
+     * 直接清除已经过期的Session(验证后仍然残留的数据)
+     *
+     * @return 清除的数量
+     */
+    int evictExpiredSessions();
+}
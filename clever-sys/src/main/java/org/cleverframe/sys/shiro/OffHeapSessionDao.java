@@ -0,0 +1,318 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.mgt.ValidatingSession;
+import org.apache.shiro.session.mgt.eis.CachingSessionDAO;
+import org.cleverframe.common.concurrent.OffHeapExpiringMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 使用堆外内存存储Shiro Session，Session按过期时间索引<br/>
+ * 1.Session使用紧凑二进制编码 {@link ShiroSessionCodec} 存储在堆外内存，不占用Java堆内存<br/>
+ * 2.只有访问时间变化时只更新过期时间，不重新编码Session<br/>
+ * 3.实现了ExpiringSessionDAO，会话验证定时任务只验证已经过期的Session，不需要扫描所有Session<br/>
+ * <b>注意：Session只存储在当前JVM中，不支持集群，系统重启后所有用户需要重新登录；在线用户列表(sys_login_session表)不会更新</b><br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 19:50 <br/>
+ *
+ * @see DataBaseSessionDao
+ * @see OffHeapExpiringMap
+ */
+public class OffHeapSessionDao extends CachingSessionDAO implements ExpiringSessionDAO {
+    /**
+     * 日志对象
+     */
+    private final static Logger logger = LoggerFactory.getLogger(OffHeapSessionDao.class);
+
+    /**
+     * 每页堆外内存大小(字节)
+     */
+    private int pageSize = 4 * 1024 * 1024;
+
+    /**
+     * 最多使用的堆外内存(字节)
+     */
+    private long maxMemory = 256L * 1024 * 1024;
+
+    /**
+     * Session存储，第一次使用时创建
+     */
+    private volatile OffHeapExpiringMap store;
+
+    /**
+     * 写入Session所有数据的次数
+     */
+    private final AtomicLong fullWriteCount = new AtomicLong(0L);
+
+    /**
+     * 只更新过期时间的次数(节省的Session编码次数)
+     */
+    private final AtomicLong timeWriteCount = new AtomicLong(0L);
+
+    /**
+     * 获取Session存储
+     */
+    private OffHeapExpiringMap getStore() {
+        OffHeapExpiringMap tmp = store;
+        if (tmp == null) {
+            synchronized (this) {
+                tmp = store;
+                if (tmp == null) {
+                    tmp = new OffHeapExpiringMap(pageSize, maxMemory);
+                    store = tmp;
+                    logger.info("### 创建Session堆外存储, pageSize={}, maxMemory={}", pageSize, maxMemory);
+                }
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * 计算Session的过期时间
+     *
+     * @return 永不过期返回0
+     */
+    private static long getExpireAt(Session session) {
+        long timeout = session.getTimeout();
+        if (timeout <= 0) {
+            return 0L;
+        }
+        Date lastAccessTime = session.getLastAccessTime() == null ? session.getStartTimestamp() : session.getLastAccessTime();
+        return (lastAccessTime == null ? System.currentTimeMillis() : lastAccessTime.getTime()) + timeout;
+    }
+
+    /**
+     * 写入Session所有数据
+     */
+    private void write(ShiroSession shiroSession) {
+        getStore().put((String) shiroSession.getId(), ShiroSessionCodec.encode(shiroSession), getExpireAt(shiroSession));
+        fullWriteCount.incrementAndGet();
+    }
+
+    /**
+     * 调用create时，先调用doCreate获取sessionId，再缓存Session
+     */
+    @Override
+    protected Serializable doCreate(Session session) {
+        if (!(session instanceof ShiroSession)) {
+            throw new RuntimeException("必须使用ShiroSession，当前Session类型:" + session.getClass().getName());
+        }
+        ShiroSession shiroSession = (ShiroSession) session;
+        Serializable sessionId = this.generateSessionId(session);
+        assignSessionId(session, sessionId);
+        if (StringUtils.isBlank((String) session.getId())) {
+            throw new RuntimeException("Shiro Session ID 不能为空");
+        }
+        shiroSession.setChanged(false);
+        write(shiroSession);
+        logger.debug("Session新增成功, SessionId=[{}]", sessionId);
+        return sessionId;
+    }
+
+    /**
+     * 调用update时，先调用doUpdate，再验证Session是否失效，失效就从缓存中移除
+     */
+    @Override
+    protected void doUpdate(Session session) {
+        // 如果会话过期/停止 没必要再更新了
+        if (session instanceof ValidatingSession && !((ValidatingSession) session).isValid()) {
+            return;
+        }
+        if (!(session instanceof ShiroSession)) {
+            throw new RuntimeException("必须使用ShiroSession，当前Session类型:" + session.getClass().getName());
+        }
+        String sessionId = (String) session.getId();
+        if (StringUtils.isBlank(sessionId)) {
+            logger.error("Shiro Session ID 不能为空 - doUpdate");
+            return;
+        }
+        ShiroSession shiroSession = (ShiroSession) session;
+        if (!shiroSession.isChanged()) {
+            return;
+        }
+        boolean isDataChanged = shiroSession.isDataChanged();
+        shiroSession.setChanged(false);
+        // 只有访问时间变化时只更新过期时间
+        if (!isDataChanged && getStore().setExpireAt(sessionId, getExpireAt(shiroSession))) {
+            timeWriteCount.incrementAndGet();
+            return;
+        }
+        write(shiroSession);
+    }
+
+    /**
+     * 调用readSession读取Session信息时，先从缓存中查询，缓存中查询不到才调用doReadSession方法
+     */
+    @Override
+    protected Session doReadSession(Serializable sessionId) {
+        String strId = (String) sessionId;
+        if (StringUtils.isBlank(strId)) {
+            throw new RuntimeException("Shiro Session ID 不能为空");
+        }
+        ShiroSession session = readFromStore(strId);
+        if (session != null) {
+            cache(session, session.getId());
+        }
+        return session;
+    }
+
+    /**
+     * 从堆外存储中读取Session，访问时间使用过期时间推算的值与Session中的较大值
+     */
+    private ShiroSession readFromStore(String sessionId) {
+        OffHeapExpiringMap tmp = getStore();
+        byte[] data = tmp.get(sessionId);
+        if (data == null) {
+            return null;
+        }
+        ShiroSession session = ShiroSessionCodec.decode(data);
+        long expireAt = tmp.getExpireAt(sessionId);
+        if (expireAt > 0 && session.getTimeout() > 0) {
+            Date lastAccessTime = new Date(expireAt - session.getTimeout());
+            if (session.getLastAccessTime() == null || session.getLastAccessTime().before(lastAccessTime)) {
+                Date changeTime = session.getChangeTime();
+                session.setLastAccessTime(lastAccessTime);
+                session.setChangeTime(changeTime);
+                session.setChanged(false);
+            }
+        }
+        return session;
+    }
+
+    /**
+     * 调用delete时，先从缓存中移除Session，再调用doDelete
+     */
+    @Override
+    protected void doDelete(Session session) {
+        String sessionId = (String) session.getId();
+        if (StringUtils.isBlank(sessionId)) {
+            logger.error("Shiro Session ID 不能为空 - doDelete");
+            return;
+        }
+        getStore().remove(sessionId);
+        logger.debug("Session删除成功, SessionId=[{}]", sessionId);
+    }
+
+    /**
+     * 返回堆外存储中的所有Session(缓存中存在的优先使用缓存)
+     */
+    @Override
+    public Collection<Session> getActiveSessions() {
+        List<Session> sessions = new ArrayList<>();
+        for (String sessionId : getStore().keySet()) {
+            Session session = getCachedSession(sessionId);
+            if (session == null) {
+                session = readFromStore(sessionId);
+            }
+            if (session != null) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * 获取已经过期的SessionId，缓存中的Session访问时间更新过的重新计算过期时间
+     */
+    @Override
+    public List<Serializable> getExpiredSessionIds(int maxCount) {
+        long now = System.currentTimeMillis();
+        List<Serializable> sessionIds = new ArrayList<>();
+        for (String sessionId : getStore().getExpiredKeys(now, maxCount)) {
+            Session session = getCachedSession(sessionId);
+            if (session != null) {
+                long expireAt = getExpireAt(session);
+                if (expireAt <= 0 || expireAt > now) {
+                    getStore().setExpireAt(sessionId, expireAt);
+                    continue;
+                }
+            }
+            sessionIds.add(sessionId);
+        }
+        return sessionIds;
+    }
+
+    /**
+     * 清除过期时间超过 {@link ShiroSession#CHANGE_INTERVAL} 的Session(访问时间最多延迟CHANGE_INTERVAL更新)
+     */
+    @Override
+    public int evictExpiredSessions() {
+        List<String> sessionIds = getStore().evictExpired(System.currentTimeMillis() - ShiroSession.CHANGE_INTERVAL);
+        for (String sessionId : sessionIds) {
+            Session session = getCachedSession(sessionId);
+            if (session != null) {
+                uncache(session);
+            }
+        }
+        if (sessionIds.size() > 0) {
+            logger.info("### 清除过期Session {} 个", sessionIds.size());
+        }
+        return sessionIds.size();
+    }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * 存储的Session数量
+     */
+    public int getSessionCount() {
+        return getStore().size();
+    }
+
+    /**
+     * 已申请的堆外内存(字节)
+     */
+    public long getAllocatedBytes() {
+        return getStore().getAllocatedBytes();
+    }
+
+    /**
+     * 已使用的堆外内存(字节)
+     */
+    public long getUsedBytes() {
+        return getStore().getUsedBytes();
+    }
+
+    /**
+     * 因过期被清除的Session数量
+     */
+    public long getEvictedCount() {
+        return getStore().getEvictedCount();
+    }
+
+    public long getFullWriteCount() {
+        return fullWriteCount.get();
+    }
+
+    public long getTimeWriteCount() {
+        return timeWriteCount.get();
+    }
+}
@@ -0,0 +1,105 @@
+package org.cleverframe.sys.shiro;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用户已授权的权限位图，与PermissionRouteTable的权限序号一一对应<br/>
+ * 1.每个权限使用两个位：是否已经计算过、是否拥有该权限<br/>
+ * 2.第一次访问某个权限时调用Subject.isPermitted计算，之后只需要一次位运算<br/>
+ * 3.只对创建时的路由表和用户的授权数据版本有效，路由表重建、用户或者用户的角色权限变化、超过有效期后需要重新创建<br/>
+ * 4.多线程安全(同一用户的并发请求)，不加锁<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 18:25 <br/>
+ *
+ * @see PermissionRouteTable
+ */
+public class PermissionBitSet {
+
+    /**
+     * 对应的路由表
+     */
+    private final PermissionRouteTable routeTable;
+
+    /**
+     * 创建时用户的授权数据版本号
+     */
+    private final long authorizationVersion;
+
+    /**
+     * 过期时间(毫秒)
+     */
+    private final long expireTime;
+
+    /**
+     * 已经计算过的权限
+     */
+    private final AtomicLongArray evaluated;
+
+    /**
+     * 拥有的权限
+     */
+    private final AtomicLongArray granted;
+
+    /**
+     * @param routeTable           对应的路由表
+     * @param authorizationVersion 用户的授权数据版本号
+     * @param expireSeconds        有效时间(秒)
+     * @see org.cleverframe.sys.service.AuthorizingRealmService#getAuthorizationVersion(Long)
+     */
+    public PermissionBitSet(PermissionRouteTable routeTable, long authorizationVersion, long expireSeconds) {
+        this.routeTable = routeTable;
+        this.authorizationVersion = authorizationVersion;
+        this.expireTime = System.currentTimeMillis() + expireSeconds * 1000L;
+        int words = (routeTable.getPermissionCount() + 63) >>> 6;
+        this.evaluated = new AtomicLongArray(words);
+        this.granted = new AtomicLongArray(words);
+    }
+
+    /**
+     * 是否可以用于判断指定路由表的权限
+     */
+    public boolean isValid(PermissionRouteTable routeTable, long authorizationVersion) {
+        return this.routeTable == routeTable && this.authorizationVersion == authorizationVersion && System.currentTimeMillis() < expireTime;
+    }
+
+    /**
+     * 权限是否已经计算过
+     */
+    public boolean isEvaluated(int index) {
+        return (evaluated.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * 是否拥有权限(需要先判断isEvaluated)
+     */
+    public boolean isGranted(int index) {
+        return (granted.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * 设置权限的计算结果
+     *
+     * @param index     权限序号
+     * @param isGranted 是否拥有权限
+     */
+    public void set(int index, boolean isGranted) {
+        // 先设置拥有的权限再设置已计算的标识，保证其他线程看到已计算时结果也已经可见
+        if (isGranted) {
+            setBit(granted, index);
+        }
+        setBit(evaluated, index);
+    }
+
+    private static void setBit(AtomicLongArray words, int index) {
+        int wordIndex = index >>> 6;
+        long mask = 1L << index;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+    }
+}
@@ -0,0 +1,286 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.commons.lang3.StringUtils;
+import org.cleverframe.sys.entity.Resources;
+import org.cleverframe.sys.service.IUserPermissionsService;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求地址到资源权限的路由表(不可变对象，资源变化后整体重建)<br/>
+ * 1.根据RequestMappingHandlerMapping的所有映射和资源表预先计算: Url模式 -> Controller方法 -> 资源 -> 权限序号<br/>
+ * 2.无变量的Url使用HashMap直接查找，含有通配符或者Url模板变量(如：/sys/user/{id})的Url模式匹配一次后缓存匹配结果<br/>
+ * 3.每个权限字符串对应一个序号，配合用户的PermissionBitSet可以O(1)判断是否有权访问<br/>
+ * 4.未匹配到路由，或者同一个Url模式映射了多个Controller方法时(如：GET、POST映射到不同方法)路由表无法确定，返回null由调用者回退到HandlerMapping解析<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 18:10 <br/>
+ *
+ * @see UserPermissionsAuthorizationFilter
+ * @see PermissionBitSet
+ */
+public class PermissionRouteTable {
+
+    /**
+     * 未匹配到任何Url模式，需要回退到HandlerMapping解析
+     */
+    private static final Route NOT_FOUND = new Route(null, null, null, -1);
+
+    /**
+     * 匹配到多个Controller方法，需要回退到HandlerMapping解析
+     */
+    private static final Route AMBIGUOUS = new Route(null, null, null, -1);
+
+    /**
+     * 模式匹配结果缓存的最大数量，防止大量随机的404请求撑爆内存
+     */
+    private static final int MAX_PATTERN_CACHE_SIZE = 10000;
+
+    /**
+     * 构建路由表时的资源版本
+     */
+    private final long version;
+
+    /**
+     * 无变量的Url -> 路由
+     */
+    private final Map<String, Route> exactRoutes;
+
+    /**
+     * 含有变量的Url模式路由
+     */
+    private final List<Route> patternRoutes;
+
+    /**
+     * 请求地址 -> 模式匹配的结果
+     */
+    private final ConcurrentHashMap<String, Route> patternCache = new ConcurrentHashMap<>();
+
+    /**
+     * 权限序号 -> 权限字符串
+     */
+    private final String[] permissions;
+
+    /**
+     * Url模式匹配器，与Spring MVC默认的一致
+     */
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private PermissionRouteTable(long version, Map<String, Route> exactRoutes, List<Route> patternRoutes, String[] permissions) {
+        this.version = version;
+        this.exactRoutes = exactRoutes;
+        this.patternRoutes = patternRoutes;
+        this.permissions = permissions;
+    }
+
+    /**
+     * 构建路由表
+     *
+     * @param version                资源版本
+     * @param handlerMethods         RequestMappingHandlerMapping的所有映射
+     * @param userPermissionsService 资源服务
+     */
+    public static PermissionRouteTable build(long version, Map<RequestMappingInfo, HandlerMethod> handlerMethods, IUserPermissionsService userPermissionsService) {
+        // Url模式 -> Controller方法(多个方法时为null)
+        Map<String, String> patternMethods = new LinkedHashMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMethods.entrySet()) {
+            HandlerMethod handlerMethod = entry.getValue();
+            String controllerMethod = handlerMethod.getBeanType().getName() + "#" + handlerMethod.getMethod().getName();
+            for (String pattern : entry.getKey().getPatternsCondition().getPatterns()) {
+                if (patternMethods.containsKey(pattern) && !controllerMethod.equals(patternMethods.get(pattern))) {
+                    patternMethods.put(pattern, null);
+                } else {
+                    patternMethods.put(pattern, controllerMethod);
+                }
+            }
+        }
+
+        PathMatcher pathMatcher = new AntPathMatcher();
+        Map<String, Route> exactRoutes = new HashMap<>();
+        List<Route> patternRoutes = new ArrayList<>();
+        Map<String, Integer> permissionIndex = new HashMap<>();
+        List<String> permissions = new ArrayList<>();
+        for (Map.Entry<String, String> entry : patternMethods.entrySet()) {
+            String pattern = entry.getKey();
+            String controllerMethod = entry.getValue();
+            Route route;
+            if (controllerMethod == null) {
+                route = new Route(pattern, null, null, -1);
+            } else {
+                Resources resources = userPermissionsService.getResourcesByMethod(controllerMethod);
+                int index = -1;
+                if (resources != null && StringUtils.isNotBlank(resources.getPermission())) {
+                    Integer tmp = permissionIndex.get(resources.getPermission());
+                    if (tmp == null) {
+                        tmp = permissions.size();
+                        permissions.add(resources.getPermission());
+                        permissionIndex.put(resources.getPermission(), tmp);
+                    }
+                    index = tmp;
+                }
+                route = new Route(pattern, controllerMethod, resources, index);
+            }
+            if (isPattern(pathMatcher, pattern)) {
+                patternRoutes.add(route);
+            } else {
+                exactRoutes.put(pattern, route);
+            }
+        }
+        return new PermissionRouteTable(version, exactRoutes, patternRoutes, permissions.toArray(new String[permissions.size()]));
+    }
+
+    /**
+     * 判断Url是否是需要模式匹配的Url，AntPathMatcher.isPattern只识别“*”、“?”，Url模板变量“{var}”也需要模式匹配
+     */
+    private static boolean isPattern(PathMatcher pathMatcher, String pattern) {
+        return pathMatcher.isPattern(pattern) || pattern.indexOf('{') >= 0;
+    }
+
+    /**
+     * 根据请求地址获取路由
+     *
+     * @param url         请求地址(UrlPathHelper.getLookupPathForRequest解析后的地址)
+     * @param urlNoSuffix 请求地址(无后缀)
+     * @return 未匹配到或者路由表无法确定时返回null
+     */
+    public Route getRoute(String url, String urlNoSuffix) {
+        Route route = exactRoutes.get(url);
+        if (route == null && urlNoSuffix != null) {
+            route = exactRoutes.get(urlNoSuffix);
+            if (route == null && urlNoSuffix.length() > 1 && urlNoSuffix.endsWith("/")) {
+                route = exactRoutes.get(urlNoSuffix.substring(0, urlNoSuffix.length() - 1));
+            }
+        }
+        if (route == null) {
+            route = getPatternRoute(urlNoSuffix == null ? url : urlNoSuffix);
+        }
+        if (route == NOT_FOUND || route == AMBIGUOUS || route.getControllerMethod() == null) {
+            return null;
+        }
+        return route;
+    }
+
+    /**
+     * 模式匹配请求地址，匹配结果会被缓存
+     */
+    private Route getPatternRoute(String path) {
+        if (path == null) {
+            return NOT_FOUND;
+        }
+        Route route = patternCache.get(path);
+        if (route != null) {
+            return route;
+        }
+        List<Route> matches = new ArrayList<>();
+        for (Route tmp : patternRoutes) {
+            if (pathMatcher.match(tmp.getPattern(), path)) {
+                matches.add(tmp);
+            }
+        }
+        if (matches.isEmpty()) {
+            route = NOT_FOUND;
+        } else if (matches.size() == 1) {
+            route = matches.get(0);
+        } else {
+            final Comparator<String> comparator = pathMatcher.getPatternComparator(path);
+            Collections.sort(matches, new Comparator<Route>() {
+                @Override
+                public int compare(Route o1, Route o2) {
+                    return comparator.compare(o1.getPattern(), o2.getPattern());
+                }
+            });
+            route = matches.get(0);
+            if (comparator.compare(route.getPattern(), matches.get(1).getPattern()) == 0) {
+                route = AMBIGUOUS;
+            }
+        }
+        if (patternCache.size() < MAX_PATTERN_CACHE_SIZE) {
+            patternCache.put(path, route);
+        }
+        return route;
+    }
+
+    /**
+     * 根据权限序号获取权限字符串
+     */
+    public String getPermission(int index) {
+        return permissions[index];
+    }
+
+    /**
+     * 权限字符串的数量
+     */
+    public int getPermissionCount() {
+        return permissions.length;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 路由数量
+     */
+    public int getRouteCount() {
+        return exactRoutes.size() + patternRoutes.size();
+    }
+
+    /**
+     * 路由信息：Url模式 -> Controller方法 -> 资源 -> 权限序号
+     */
+    public static class Route {
+        /**
+         * Url模式
+         */
+        private final String pattern;
+
+        /**
+         * Controller方法名称，格式：类名#方法名
+         */
+        private final String controllerMethod;
+
+        /**
+         * 资源表里配置的资源，未配置为null
+         */
+        private final Resources resources;
+
+        /**
+         * 权限序号，资源未配置或者权限字符串为空时为-1
+         */
+        private final int permissionIndex;
+
+        Route(String pattern, String controllerMethod, Resources resources, int permissionIndex) {
+            this.pattern = pattern;
+            this.controllerMethod = controllerMethod;
+            this.resources = resources;
+            this.permissionIndex = permissionIndex;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public String getControllerMethod() {
+            return controllerMethod;
+        }
+
+        public Resources getResources() {
+            return resources;
+        }
+
+        public int getPermissionIndex() {
+            return permissionIndex;
+        }
+    }
+}
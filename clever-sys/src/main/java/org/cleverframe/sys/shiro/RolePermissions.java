@@ -0,0 +1,112 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.WildcardPermission;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 一个角色的所有权限(不可变对象)，拥有该角色的所有用户共享同一个对象<br/>
+ * 1.权限字符串在创建时编译成Permission对象(与{@link UserPermissionResolver}一致使用WildcardPermission)，授权时不再解析<br/>
+ * 2.记录角色拥有的资源ID，资源修改后只需要重新加载包含该资源的角色<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:30 <br/>
+ *
+ * @see org.cleverframe.sys.service.AuthorizingRealmService#getRolePermissions(Long)
+ */
+public class RolePermissions {
+
+    /**
+     * 角色ID
+     */
+    private final Long roleId;
+
+    /**
+     * 角色名称，角色不存在(或已软删除)时为null
+     */
+    private final String roleName;
+
+    /**
+     * 角色拥有的资源ID
+     */
+    private final Set<Long> resourcesIds;
+
+    /**
+     * 角色拥有的权限字符串
+     */
+    private final Set<String> stringPermissions;
+
+    /**
+     * 编译后的权限
+     */
+    private final Permission[] permissions;
+
+    /**
+     * @param roleId            角色ID
+     * @param roleName          角色名称，角色不存在时为null
+     * @param resourcesIds      角色拥有的资源ID
+     * @param stringPermissions 角色拥有的权限字符串
+     */
+    public RolePermissions(Long roleId, String roleName, Collection<Long> resourcesIds, Collection<String> stringPermissions) {
+        this.roleId = roleId;
+        this.roleName = roleName;
+        this.resourcesIds = Collections.unmodifiableSet(new LinkedHashSet<>(resourcesIds));
+        this.stringPermissions = Collections.unmodifiableSet(new LinkedHashSet<>(stringPermissions));
+        this.permissions = new Permission[this.stringPermissions.size()];
+        int index = 0;
+        for (String permission : this.stringPermissions) {
+            permissions[index++] = new WildcardPermission(permission);
+        }
+    }
+
+    /**
+     * 角色是否存在(没有被软删除)
+     */
+    public boolean isExists() {
+        return roleName != null;
+    }
+
+    /**
+     * 角色是否包含资源
+     */
+    public boolean containsResources(Long resourcesId) {
+        return resourcesIds.contains(resourcesId);
+    }
+
+    /**
+     * 角色是否拥有权限
+     */
+    public boolean implies(Permission permission) {
+        for (Permission p : permissions) {
+            if (p.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*--------------------------------------------------------------
+     *          getter
+     * -------------------------------------------------------------*/
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public Set<String> getStringPermissions() {
+        return stringPermissions;
+    }
+
+    public Collection<Permission> getPermissions() {
+        return Collections.unmodifiableList(Arrays.asList(permissions));
+    }
+}
@@ -40,10 +40,15 @@ public class ShiroSession extends SimpleSession implements Serializable {
     }
 
     /**
-     * 除lastAccessTime以外其他字段发生改变时为true
+     * Session需要更新到存储时为true(包括lastAccessTime更新间隔超过 {@link #CHANGE_INTERVAL})
      */
     private boolean isChanged = false;
 
+    /**
+     * 除lastAccessTime以外其他字段发生改变时为true，为false时只需要更新访问时间
+     */
+    private boolean isDataChanged = false;
+
     /**
      * 最后修改时间，记录由于 {@link #CHANGE_INTERVAL} 值而设置isChanged=true的时间
      */
@@ -53,15 +58,23 @@ public class ShiroSession extends SimpleSession implements Serializable {
         return isChanged;
     }
 
+    /**
+     * 设置Session是否需要更新，同时设置isDataChanged
+     */
     public void setChanged(boolean changed) {
         isChanged = changed;
+        isDataChanged = changed;
+    }
+
+    public boolean isDataChanged() {
+        return isDataChanged;
     }
 
     public Date getChangeTime() {
         return changeTime;
     }
 
-    private void setChangeTime(Date changeTime) {
+    void setChangeTime(Date changeTime) {
         this.changeTime = changeTime;
     }
 
@@ -73,7 +86,7 @@ public class ShiroSession extends SimpleSession implements Serializable {
     private void updateChangeTime() {
         if (changeTime == null) {
             changeTime = new Date();
-            setChanged(true);
+            isChanged = true;
             logger.debug("当前用户是第一次访问，SessionID={}", getId());
         } else {
             long now = getLastAccessTime().getTime();
@@ -81,7 +94,7 @@ public class ShiroSession extends SimpleSession implements Serializable {
             long interval = now - last;
             if (interval >= CHANGE_INTERVAL) {
                 changeTime = new Date();
-                setChanged(true);
+                isChanged = true;
             }
             logger.debug("当前用户两次访问时间间隔： {}ms， SessionID={}", interval, getId());
         }
@@ -0,0 +1,215 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ShiroSession紧凑二进制编码<br/>
+ * 1.Session的基本字段(ID、时间戳、超时时间、Host)直接按二进制写入，不使用ObjectOutputStream<br/>
+ * 2.属性值是String、Boolean、Integer、Long、Character、Date类型时直接写入，其它类型才使用Java序列化<br/>
+ * 3.数据以MAGIC开头，与Java序列化数据(0xACED开头)区分，兼容数据库中已经存在的旧数据<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 18:50 <br/>
+ *
+ * @see org.cleverframe.sys.utils.ShiroSessionUtils
+ */
+public class ShiroSessionCodec {
+
+    /**
+     * 数据头
+     */
+    private static final byte[] MAGIC = new byte[]{'C', 'S'};
+
+    /**
+     * 编码版本
+     */
+    private static final byte VERSION = 1;
+
+    /*--------------------------------------------------------------
+     *          属性值类型
+     * -------------------------------------------------------------*/
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_CHARACTER = 5;
+    private static final byte TYPE_DATE = 6;
+    private static final byte TYPE_SERIALIZABLE = 9;
+
+    /**
+     * 判断数据是否是当前编码格式
+     */
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length > MAGIC.length && data[0] == MAGIC[0] && data[1] == MAGIC[1];
+    }
+
+    /**
+     * 编码ShiroSession
+     */
+    public static byte[] encode(ShiroSession session) {
+        ByteArrayOutputStream byteArray = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(byteArray);
+        try {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, session.getId() == null ? null : session.getId().toString());
+            writeDate(out, session.getStartTimestamp());
+            writeDate(out, session.getStopTimestamp());
+            writeDate(out, session.getLastAccessTime());
+            writeDate(out, session.getChangeTime());
+            out.writeLong(session.getTimeout());
+            out.writeBoolean(session.isExpired());
+            writeString(out, session.getHost());
+            Map<Object, Object> attributes = session.getAttributes();
+            if (attributes == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(attributes.size());
+                for (Map.Entry<Object, Object> entry : attributes.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("ShiroSession编码失败，SessionId=" + session.getId(), e);
+        }
+        return byteArray.toByteArray();
+    }
+
+    /**
+     * 解码ShiroSession，解码后的Session isChanged=false
+     */
+    public static ShiroSession decode(byte[] data) {
+        if (!isEncoded(data)) {
+            throw new IllegalArgumentException("不是ShiroSession紧凑编码数据");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, MAGIC.length, data.length - MAGIC.length));
+        ShiroSession session = new ShiroSession();
+        try {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("不支持的ShiroSession编码版本: " + version);
+            }
+            session.setId(readString(in));
+            session.setStartTimestamp(readDate(in));
+            session.setStopTimestamp(readDate(in));
+            session.setLastAccessTime(readDate(in));
+            session.setChangeTime(readDate(in));
+            session.setTimeout(in.readLong());
+            session.setExpired(in.readBoolean());
+            session.setHost(readString(in));
+            int size = in.readInt();
+            if (size >= 0) {
+                Map<Object, Object> attributes = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in);
+                    attributes.put(key, readValue(in));
+                }
+                session.setAttributes(attributes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("ShiroSession解码失败", e);
+        }
+        session.setChanged(false);
+        return session;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? -1L : date.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time < 0 ? null : new Date(time);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Character) {
+            out.writeByte(TYPE_CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Serializable) {
+            byte[] bytes = SerializationUtils.serialize((Serializable) value);
+            out.writeByte(TYPE_SERIALIZABLE);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            throw new IllegalArgumentException("Session属性值没有实现Serializable接口，Class=" + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_CHARACTER:
+                return in.readChar();
+            case TYPE_DATE:
+                return new Date(in.readLong());
+            case TYPE_SERIALIZABLE:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return SerializationUtils.deserialize(bytes);
+            default:
+                throw new IllegalArgumentException("未知的Session属性值类型: " + type);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.cleverframe.sys.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
+import org.cleverframe.common.spring.SpringContextHolder;
+import org.cleverframe.sys.SysBeanNames;
+import org.cleverframe.sys.service.AuthorizingRealmService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户授权信息，只保存用户ID，角色和权限每次都从{@link AuthorizingRealmService}的角色权限索引读取<br/>
+ * 1.Shiro授权缓存(shiroAuthorizationCache)中只缓存该对象，角色、用户的授权数据变化后不需要清除Shiro缓存<br/>
+ * 2.角色的权限已经编译成Permission对象并由所有用户共享，判断权限时不需要解析权限字符串<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 03:30 <br/>
+ */
+public class UserAuthorizationInfo implements AuthorizationInfo {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 角色权限索引，反序列化后重新从Spring容器获取
+     */
+    private transient AuthorizingRealmService authorizingRealmService;
+
+    public UserAuthorizationInfo(Long userId, AuthorizingRealmService authorizingRealmService) {
+        this.userId = userId;
+        this.authorizingRealmService = authorizingRealmService;
+    }
+
+    private AuthorizingRealmService getAuthorizingRealmService() {
+        if (authorizingRealmService == null) {
+            authorizingRealmService = SpringContextHolder.getBean(SysBeanNames.AuthorizingRealmService);
+        }
+        return authorizingRealmService;
+    }
+
+    /**
+     * 返回用户所有存在的角色的权限
+     */
+    private List<RolePermissions> getRolePermissionsList() {
+        AuthorizingRealmService service = getAuthorizingRealmService();
+        long[] roleIds = service.getUserRoleIds(userId);
+        List<RolePermissions> result = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds) {
+            RolePermissions rolePermissions = service.getRolePermissions(roleId);
+            if (rolePermissions.isExists()) {
+                result.add(rolePermissions);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用户是否拥有权限(任意一个角色拥有该权限)
+     */
+    public boolean isPermitted(Permission permission) {
+        AuthorizingRealmService service = getAuthorizingRealmService();
+        for (long roleId : service.getUserRoleIds(userId)) {
+            RolePermissions rolePermissions = service.getRolePermissions(roleId);
+            if (rolePermissions.isExists() && rolePermissions.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        Set<String> roles = new LinkedHashSet<>();
+        for (RolePermissions rolePermissions : getRolePermissionsList()) {
+            roles.add(rolePermissions.getRoleName());
+        }
+        return roles;
+    }
+
+    @Override
+    public Collection<String> getStringPermissions() {
+        Set<String> stringPermissions = new LinkedHashSet<>();
+        for (RolePermissions rolePermissions : getRolePermissionsList()) {
+            stringPermissions.addAll(rolePermissions.getStringPermissions());
+        }
+        return stringPermissions;
+    }
+
+    @Override
+    public Collection<Permission> getObjectPermissions() {
+        List<Permission> permissions = new ArrayList<>();
+        for (RolePermissions rolePermissions : getRolePermissionsList()) {
+            permissions.addAll(rolePermissions.getPermissions());
+        }
+        return permissions;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -6,14 +6,12 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.SimpleAuthenticationInfo;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.cleverframe.common.codec.EncodeDecodeUtils;
 import org.cleverframe.sys.SysBeanNames;
 import org.cleverframe.sys.entity.Organization;
-import org.cleverframe.sys.entity.Resources;
-import org.cleverframe.sys.entity.Role;
 import org.cleverframe.sys.entity.User;
 import org.cleverframe.sys.service.AuthorizingRealmService;
 import org.slf4j.Logger;
@@ -21,8 +19,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
-import java.util.List;
-
 /**
  * 作者：LiZW <br/>
  * 创建时间：2016/11/8 22:52 <br/>
@@ -111,21 +107,26 @@ public class UserAuthorizingRealm extends AuthorizingRealm {
             return null;
         }
 
-        // 创建授权信息对象
-        SimpleAuthorizationInfo authorizationInfo = new SimpleAuthorizationInfo();
+        // 授权信息只保存用户ID，角色和权限从角色权限索引读取(不需要每次授权都查询数据库)
         User user = principal.getUser();
-        List<Role> roleList = authorizingRealmService.findRoleByUser(user);
-        for (Role role : roleList) {
-            authorizationInfo.addRole(role.getName());
-        }
-        List<Resources> resourcesList = authorizingRealmService.findResourcesByUser(user);
-        for (Resources resources : resourcesList) {
-            authorizationInfo.addStringPermission(resources.getPermission());
-        }
-        logger.info("用户[{}]，授权成功，用户角色 {} 个，系统资源 {} 个", user.getLoginName(), roleList.size(), resourcesList.size());
+        UserAuthorizationInfo authorizationInfo = new UserAuthorizationInfo(user.getId(), authorizingRealmService);
+        // 授权信息重新加载后，清除已计算的权限位图
+        principal.setPermissionBitSet(null);
+        logger.info("用户[{}]，授权成功", user.getLoginName());
         return authorizationInfo;
     }
 
+    /**
+     * 判断是否拥有权限，UserAuthorizationInfo直接使用角色中编译好的权限判断
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if (info instanceof UserAuthorizationInfo) {
+            return ((UserAuthorizationInfo) info).isPermitted(permission);
+        }
+        return super.isPermitted(permission, info);
+    }
+
 //    clearCachedAuthenticationInfo - 清除缓存 认证信息
 
 //    clearCachedAuthorizationInfo - 清除缓存 授权信息
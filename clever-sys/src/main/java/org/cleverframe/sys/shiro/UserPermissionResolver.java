@@ -4,6 +4,9 @@ import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.permission.PermissionResolver;
 import org.apache.shiro.authz.permission.WildcardPermission;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * 实现Shiro权限解析器，把权限字符串解析成Permission对象<br/>
  * 1.可参考org.apache.shiro.authz.permission.WildcardPermission<br/>
@@ -14,14 +17,34 @@ import org.apache.shiro.authz.permission.WildcardPermission;
  */
 public class UserPermissionResolver implements PermissionResolver {
 
+    /**
+     * 最多缓存的权限数量，超过后清空重新缓存
+     */
+    private static final int MAX_CACHED_PERMISSIONS = 10000;
+
+    /**
+     * 权限字符串 -> 解析后的Permission对象(WildcardPermission创建后不会再修改，可以共享)
+     */
+    private final ConcurrentMap<String, Permission> permissionCache = new ConcurrentHashMap<>();
+
     /**
      * 当Shiro调用isPermitted("user:view")认证权限信息时，调用此方法<br>
      * 1.若Shiro使用了缓存，并不是每次认证权限信息时都调用此方法<br>
+     * 2.解析结果按权限字符串缓存，同一个权限字符串只解析一次<br>
      */
     @Override
     public Permission resolvePermission(String permissionString) {
+        Permission permission = permissionCache.get(permissionString);
+        if (permission != null) {
+            return permission;
+        }
         // TODO 把权限字符串解析成Permission对象，暂时参考WildcardPermissionResolver
-        return new WildcardPermission(permissionString);
+        permission = new WildcardPermission(permissionString);
+        if (permissionCache.size() >= MAX_CACHED_PERMISSIONS) {
+            permissionCache.clear();
+        }
+        permissionCache.put(permissionString, permission);
+        return permission;
     }
 
 }
\ No newline at end of file
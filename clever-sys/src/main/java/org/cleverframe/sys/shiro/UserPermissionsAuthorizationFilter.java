@@ -8,6 +8,7 @@ import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.sys.SysBeanNames;
 import org.cleverframe.sys.entity.Resources;
 import org.cleverframe.sys.entity.User;
+import org.cleverframe.sys.service.AuthorizingRealmService;
 import org.cleverframe.sys.service.IUserPermissionsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -38,6 +40,25 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
     @Qualifier(SysBeanNames.EhCacheResourcesService)
     private IUserPermissionsService userPermissionsService;
 
+    @Autowired
+    @Qualifier(SysBeanNames.AuthorizingRealmService)
+    private AuthorizingRealmService authorizingRealmService;
+
+    /**
+     * 请求地址到资源权限的路由表，资源版本变化后重建
+     */
+    private volatile PermissionRouteTable routeTable;
+
+    /**
+     * 用户权限位图的有效时间(秒)，过期后重新调用Subject.isPermitted计算
+     */
+    private long permissionCacheSeconds = 300L;
+
+    /**
+     * 解析请求地址，与Spring MVC的HandlerMapping一致(解码、去掉;jsessionid、合并多余的“/”)
+     */
+    private UrlPathHelper urlPathHelper = new UrlPathHelper();
+
     /**
      * 移除Url后缀(如：.css、.js、.html、.json、.xml等)
      *
@@ -79,6 +100,57 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
         return handlerMethod.getBeanType().getName() + "#" + handlerMethod.getMethod().getName();
     }
 
+    /**
+     * 获取路由表，资源版本变化后重建
+     *
+     * @return 获取RequestMappingHandlerMapping失败返回null
+     */
+    private PermissionRouteTable getRouteTable() {
+        long version = userPermissionsService.getResourcesVersion();
+        PermissionRouteTable table = routeTable;
+        if (table != null && table.getVersion() == version) {
+            return table;
+        }
+        synchronized (this) {
+            table = routeTable;
+            if (table != null && table.getVersion() == version) {
+                return table;
+            }
+            RequestMappingHandlerMapping handlerMapping = SpringContextHolder.getWebBean(RequestMappingHandlerMapping.class);
+            if (handlerMapping == null) {
+                return null;
+            }
+            // 构建时资源缓存为空会重新加载，以构建完成后的版本为准
+            table = PermissionRouteTable.build(version, handlerMapping.getHandlerMethods(), userPermissionsService);
+            long newVersion = userPermissionsService.getResourcesVersion();
+            if (newVersion != version) {
+                table = PermissionRouteTable.build(newVersion, handlerMapping.getHandlerMethods(), userPermissionsService);
+            }
+            routeTable = table;
+            logger.info("### 权限路由表构建完成，资源版本[{}]，路由{}个，权限{}个", table.getVersion(), table.getRouteCount(), table.getPermissionCount());
+            return table;
+        }
+    }
+
+    /**
+     * 使用用户的权限位图判断是否拥有路由所需的权限
+     */
+    private boolean isPermitted(Subject subject, UserPrincipal userPrincipal, PermissionRouteTable table, int permissionIndex) {
+        // 只有当前用户或者当前用户的角色被修改时版本号才会变化，其他用户的权限位图不受影响
+        long authorizationVersion = authorizingRealmService.getAuthorizationVersion(userPrincipal.getUser().getId());
+        PermissionBitSet permissionBitSet = userPrincipal.getPermissionBitSet();
+        if (permissionBitSet == null || !permissionBitSet.isValid(table, authorizationVersion)) {
+            permissionBitSet = new PermissionBitSet(table, authorizationVersion, permissionCacheSeconds);
+            userPrincipal.setPermissionBitSet(permissionBitSet);
+        }
+        if (permissionBitSet.isEvaluated(permissionIndex)) {
+            return permissionBitSet.isGranted(permissionIndex);
+        }
+        boolean isPermitted = subject.isPermitted(table.getPermission(permissionIndex));
+        permissionBitSet.set(permissionIndex, isPermitted);
+        return isPermitted;
+    }
+
     /**
      * 输出授权结构日志信息
      *
@@ -140,12 +212,14 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
         }
         // 解析当前请求url地址
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        String contextPath = httpRequest.getContextPath();
-        String url = httpRequest.getRequestURI();
-        url = StringUtils.removeStart(url, contextPath);
+        String url = urlPathHelper.getLookupPathForRequest(httpRequest);
         String urlNoSuffix = removeUrlSuffix(url);
-        String fullMethodName = getHandlerMethod(httpRequest);
+        // 优先使用路由表，路由表未匹配到或者无法确定时使用HandlerMapping解析
+        PermissionRouteTable table = getRouteTable();
+        PermissionRouteTable.Route route = table == null ? null : table.getRoute(url, urlNoSuffix);
+        String fullMethodName = route == null ? getHandlerMethod(httpRequest) : route.getControllerMethod();
         if (fullMethodName == null) {
+            // 没有对应的Controller方法(如：/druid/*、静态资源、404)不验证权限，只有匹配到Controller方法且资源表里没有配置时才不允许访问
             // TODO 此处应该抛出: 404资源不存在 405不支持的请求
             printLog(false, "未匹配到映射Controller的方法", url, urlNoSuffix, null, null);
             return true;
@@ -165,7 +239,7 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
         }
 
         // 获取当前url在数据库里配置的授权信息 - 验证授权
-        Resources resources = userPermissionsService.getResourcesByMethod(fullMethodName);
+        Resources resources = route == null ? userPermissionsService.getResourcesByMethod(fullMethodName) : route.getResources();
         if (resources == null) {
             printLog(false, "资源未配置在资源表里", url, urlNoSuffix, user, null);
             return false;
@@ -195,7 +269,11 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
         }
 
         // 验证权限 - 自定义Url权限字符串
-        isPermitted = subject.isPermitted(resources.getPermission());
+        if (route != null && route.getPermissionIndex() >= 0) {
+            isPermitted = isPermitted(subject, userPrincipal, table, route.getPermissionIndex());
+        } else {
+            isPermitted = subject.isPermitted(resources.getPermission());
+        }
         if (isPermitted) {
             printLog(true, "授权成功=" + ArrayUtils.toString(mappedValue), url, urlNoSuffix, user, resources);
         } else {
@@ -203,4 +281,24 @@ public class UserPermissionsAuthorizationFilter extends AuthorizationFilter {
         }
         return isPermitted;
     }
+
+    /*--------------------------------------------------------------
+     *          getter、setter
+     * -------------------------------------------------------------*/
+
+    public long getPermissionCacheSeconds() {
+        return permissionCacheSeconds;
+    }
+
+    public void setPermissionCacheSeconds(long permissionCacheSeconds) {
+        this.permissionCacheSeconds = permissionCacheSeconds;
+    }
+
+    public UrlPathHelper getUrlPathHelper() {
+        return urlPathHelper;
+    }
+
+    public void setUrlPathHelper(UrlPathHelper urlPathHelper) {
+        this.urlPathHelper = urlPathHelper;
+    }
 }
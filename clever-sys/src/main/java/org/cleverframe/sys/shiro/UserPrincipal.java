@@ -30,6 +30,11 @@ public class UserPrincipal implements Serializable {
      */
     private Organization homeOrg;
 
+    /**
+     * 用户已授权的权限位图，不需要序列化(反序列化后重新计算)
+     */
+    private transient volatile PermissionBitSet permissionBitSet;
+
     /**
      * @param homeCompany 所属公司
      * @param homeOrg     所属机构
@@ -105,4 +110,12 @@ public class UserPrincipal implements Serializable {
     public Organization getHomeOrg() {
         return homeOrg;
     }
+
+    public PermissionBitSet getPermissionBitSet() {
+        return permissionBitSet;
+    }
+
+    public void setPermissionBitSet(PermissionBitSet permissionBitSet) {
+        this.permissionBitSet = permissionBitSet;
+    }
 }
\ No newline at end of file
@@ -47,7 +47,7 @@ public class UserSessionListener implements SessionListener {
         logger.debug("Shiro Session[退出/过期]，ID={}", session.getId());
 
         User user = ShiroSessionUtils.getUserBySession(session);
-        // 移除ShiroKickOutCache缓存中失效的Session(Session过期或者用户已经登出)
+        // 从KickOutCacheUtils中移除失效的Session(Session过期或者用户已经登出)
         if (user != null && user.getLoginName() != null) {
             KickOutCacheUtils.removeInvalidSessionId(user.getLoginName(), session.getId());
         }
@@ -74,5 +74,11 @@ public class UserSessionListener implements SessionListener {
     @Override
     public void onExpiration(Session session) {
         logger.debug("Shiro Session过期，ID={}", session.getId());
+
+        // Session过期时不会触发onStop，同样需要从KickOutCacheUtils中移除
+        User user = ShiroSessionUtils.getUserBySession(session);
+        if (user != null && user.getLoginName() != null) {
+            KickOutCacheUtils.removeInvalidSessionId(user.getLoginName(), session.getId());
+        }
     }
 }
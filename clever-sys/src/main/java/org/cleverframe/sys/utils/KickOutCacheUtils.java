@@ -1,20 +1,22 @@
 package org.cleverframe.sys.utils;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.Element;
 import org.apache.shiro.session.Session;
-import org.cleverframe.common.ehcache.EhCacheNames;
-import org.cleverframe.common.ehcache.EhCacheUtils;
 import org.cleverframe.sys.entity.User;
 
 import java.io.Serializable;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 维护登录的用户和其SessionID关系结构数据，用于实现限制一个用户并发登录数量<br/>
+ * 1.每个登录名对应一个按登录顺序排列的SessionID数组，使用CAS整体替换(写时复制)，不使用锁<br/>
+ * 2.Session退出/过期时由{@link org.cleverframe.sys.shiro.UserSessionListener}移除SessionID，
+ * 正常请求只需要在数组中查找当前SessionID，不读取其他Session也不创建对象<br/>
+ * 3.只有登录数量超过限制时才读取其他Session检查是否有效(可能读取数据库)，再决定踢出哪些Session<br/>
  * <p>
  * 作者：LiZW <br/>
  * 创建时间：2016/11/15 14:42 <br/>
@@ -22,115 +24,158 @@ import java.util.List;
 public class KickOutCacheUtils {
 
     /**
-     * 数据存储缓存(Ehcache实现)<br/>
+     * 登录名对应的SessionID已全部移除，数组不能再使用(需要重新创建LoginSessions)
      */
-    private static Cache KickOutCache;
+    private static final Serializable[] REMOVED = new Serializable[0];
 
     /**
-     * 返回数据存储的缓存
+     * 登录名 -> 登录的SessionID(按登录顺序)
      */
-    private static Cache getKickOutCache() {
-        if (KickOutCache == null) {
-            KickOutCache = EhCacheUtils.createCache(EhCacheNames.ShiroKickOutCache);
-        }
-        return KickOutCache;
-    }
+    private static final ConcurrentMap<String, LoginSessions> LOGIN_SESSIONS = new ConcurrentHashMap<>();
 
     /**
-     * 返回需要踢出的人的
+     * 返回需要踢出的人的SessionID
      * <p>
-     * 根据登入名称获取所有登录的SessionID集合,如果集合中不包含当前SessionID或集合为空,就把当前SessionID存入集合 并保存到缓存中<br/>
-     * 移除无效的SessionID 和 未登录的SessionID<br/>
-     * <b>注意:此方法是同步方法 保证线程安全</b>
+     * 根据登入名称获取所有登录的SessionID集合,如果集合中不包含当前SessionID就把当前SessionID加入集合<br/>
+     * 登录数量超过限制时移除无效的SessionID 和 未登录的SessionID，再踢出多余的SessionID<br/>
+     * <b>注意:此方法不使用锁，并发调用时通过CAS重试保证线程安全</b>
      *
      * @param loginName     当前登录用户的名称
      * @param sessionId     当前登录用户的SessionID
      * @param maxLoginCount 同一个用户最多同时登录次数
-     * @return 返回需要踢出的人SessionID, 不需要踢出返回null
+     * @param kickOutBefore true:踢出先登录的Session; false:踢出后登录的Session
+     * @return 返回需要踢出的人SessionID, 不需要踢出返回空集合
      */
-    @SuppressWarnings("unchecked")
-    public static synchronized List<Serializable> getKickOutSessionId(String loginName, Serializable sessionId, int maxLoginCount, boolean kickOutBefore) {
-        Deque<Serializable> loginSessionDeque;
-        Cache cache = getKickOutCache();
-        Element element = cache.get(loginName);
-        if (element == null) {
-            loginSessionDeque = new ArrayDeque<>();
-            element = new Element(loginName, loginSessionDeque);
-        } else {
-            Object object = element.getObjectValue();
-            if ((object == null) || !(object instanceof Deque)) {
-                cache.remove(loginName);
-                loginSessionDeque = new ArrayDeque<>();
-            } else {
-                loginSessionDeque = (Deque<Serializable>) object;
-            }
-        }
-        boolean isSave = false;
-        // 如果不包含当前Session ID，添加当前Session ID再保存
-        if (!loginSessionDeque.contains(sessionId)) {
-            loginSessionDeque.push(sessionId);
-            isSave = true;
-        }
-        // 验证所有的 SessionID 有效(Session没有过期而且登录用户已经登录)
-        List<Serializable> invalidSessionId = new ArrayList<>();
-        for (Serializable sId : loginSessionDeque) {
-            if (sessionId.equals(sId)) {
-                //不用检查当前的 SessionId
+    public static List<Serializable> getKickOutSessionId(String loginName, Serializable sessionId, int maxLoginCount, boolean kickOutBefore) {
+        while (true) {
+            LoginSessions loginSessions = getLoginSessions(loginName);
+            Serializable[] current = loginSessions.sessionIds.get();
+            if (current == REMOVED) {
+                LOGIN_SESSIONS.remove(loginName, loginSessions);
                 continue;
             }
-            Session s = ShiroSessionUtils.getSession(sId);
-            if (s == null) {
-                invalidSessionId.add(sId);
+            int index = indexOf(current, sessionId);
+            if (index >= 0 && current.length <= maxLoginCount) {
+                return Collections.emptyList();
+            }
+            Serializable[] next = index >= 0 ? current : append(current, sessionId);
+            if (next.length <= maxLoginCount) {
+                if (loginSessions.sessionIds.compareAndSet(current, next)) {
+                    return Collections.emptyList();
+                }
                 continue;
             }
-            User u = ShiroSessionUtils.getUserBySession(s);
-            if (u == null || !loginName.equals(u.getLoginName())) {
-                invalidSessionId.add(sId);
+            // 超过登录数量限制，先移除无效的SessionID
+            List<Serializable> validSessionIds = new ArrayList<>(next.length);
+            for (Serializable sId : next) {
+                if (sessionId.equals(sId) || isValidSession(loginName, sId)) {
+                    validSessionIds.add(sId);
+                }
+            }
+            // 踢出用户
+            List<Serializable> kickOutSessionIdList = new ArrayList<>();
+            while (validSessionIds.size() > maxLoginCount) {
+                if (kickOutBefore) {
+                    //移除最先登录的Session
+                    kickOutSessionIdList.add(validSessionIds.remove(0));
+                } else {
+                    //移除最后登录的Session
+                    kickOutSessionIdList.add(validSessionIds.remove(validSessionIds.size() - 1));
+                }
+            }
+            Serializable[] remaining = validSessionIds.isEmpty() ? REMOVED : validSessionIds.toArray(new Serializable[validSessionIds.size()]);
+            if (loginSessions.sessionIds.compareAndSet(current, remaining)) {
+                if (remaining == REMOVED) {
+                    LOGIN_SESSIONS.remove(loginName, loginSessions);
+                }
+                return kickOutSessionIdList;
             }
         }
-        // 移除失效的Session
-        for (Serializable sId : invalidSessionId) {
-            loginSessionDeque.remove(sId);
-            isSave = true;
+    }
+
+    /**
+     * 移除失效的Session(Session过期或者用户已经登出)
+     */
+    public static void removeInvalidSessionId(String loginName, Serializable sessionId) {
+        LoginSessions loginSessions = LOGIN_SESSIONS.get(loginName);
+        if (loginSessions == null) {
+            return;
         }
-        // 踢出用户
-        List<Serializable> kickOutSessionIdList = new ArrayList<>();
-        while (loginSessionDeque.size() > maxLoginCount) {
-            Serializable kickOutSessionId;
-            if (kickOutBefore) {
-                //移除最先push的元素
-                kickOutSessionId = loginSessionDeque.removeLast();
+        while (true) {
+            Serializable[] current = loginSessions.sessionIds.get();
+            int index = indexOf(current, sessionId);
+            if (index < 0) {
+                return;
+            }
+            Serializable[] next;
+            if (current.length == 1) {
+                next = REMOVED;
             } else {
-                //移除最后push的元素
-                kickOutSessionId = loginSessionDeque.removeFirst();
+                next = new Serializable[current.length - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            }
+            if (loginSessions.sessionIds.compareAndSet(current, next)) {
+                if (next == REMOVED) {
+                    LOGIN_SESSIONS.remove(loginName, loginSessions);
+                }
+                return;
             }
-            kickOutSessionIdList.add(kickOutSessionId);
-            isSave = true;
         }
-        // 更新缓存
-        if (isSave) {
-            cache.put(element);
+    }
+
+    /**
+     * 返回用户当前登录的Session数量
+     */
+    public static int getLoginCount(String loginName) {
+        LoginSessions loginSessions = LOGIN_SESSIONS.get(loginName);
+        return loginSessions == null ? 0 : loginSessions.sessionIds.get().length;
+    }
+
+    private static LoginSessions getLoginSessions(String loginName) {
+        LoginSessions loginSessions = LOGIN_SESSIONS.get(loginName);
+        if (loginSessions == null) {
+            loginSessions = new LoginSessions();
+            LoginSessions exists = LOGIN_SESSIONS.putIfAbsent(loginName, loginSessions);
+            if (exists != null) {
+                loginSessions = exists;
+            }
         }
-        return kickOutSessionIdList;
+        return loginSessions;
     }
 
     /**
-     * 移除ShiroKickOutCache缓存中失效的Session(Session过期或者用户已经登出)
+     * 验证Session有效(Session没有过期而且登录用户已经登录)
      */
-    @SuppressWarnings("unchecked")
-    public static void removeInvalidSessionId(String loginName, Serializable sessionId) {
-        Cache cache = getKickOutCache();
-        Element element = cache.get(loginName);
-        if (element == null) {
-            return;
+    private static boolean isValidSession(String loginName, Serializable sessionId) {
+        Session session = ShiroSessionUtils.getSession(sessionId);
+        if (session == null) {
+            return false;
         }
-        Object object = element.getObjectValue();
-        if ((object == null) || !(object instanceof Deque)) {
-            cache.remove(loginName);
-            return;
+        User user = ShiroSessionUtils.getUserBySession(session);
+        return user != null && loginName.equals(user.getLoginName());
+    }
+
+    private static int indexOf(Serializable[] sessionIds, Serializable sessionId) {
+        for (int i = 0; i < sessionIds.length; i++) {
+            if (sessionId.equals(sessionIds[i])) {
+                return i;
+            }
         }
-        Deque<Serializable> loginSessionDeque = (Deque<Serializable>) object;
-        loginSessionDeque.remove(sessionId);
-        cache.put(element);
+        return -1;
+    }
+
+    private static Serializable[] append(Serializable[] sessionIds, Serializable sessionId) {
+        Serializable[] result = new Serializable[sessionIds.length + 1];
+        System.arraycopy(sessionIds, 0, result, 0, sessionIds.length);
+        result[sessionIds.length] = sessionId;
+        return result;
+    }
+
+    /**
+     * 一个登录名的所有SessionID
+     */
+    private static class LoginSessions {
+        private final AtomicReference<Serializable[]> sessionIds = new AtomicReference<>(new Serializable[0]);
     }
 }
@@ -8,6 +8,8 @@ import org.cleverframe.common.spring.SpringBeanNames;
 import org.cleverframe.common.spring.SpringContextHolder;
 import org.cleverframe.sys.attributes.SysSessionAttributes;
 import org.cleverframe.sys.entity.User;
+import org.cleverframe.sys.shiro.ShiroSession;
+import org.cleverframe.sys.shiro.ShiroSessionCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,12 +130,15 @@ public class ShiroSessionUtils {
     }
 
     /**
-     * 序列化Shiro Session
+     * 序列化Shiro Session，ShiroSession使用紧凑二进制编码 {@link ShiroSessionCodec}
      */
     public static byte[] serialize(Session session) {
         if (session == null) {
             return null;
         }
+        if (session instanceof ShiroSession) {
+            return ShiroSessionCodec.encode((ShiroSession) session);
+        }
         if (!(session instanceof Serializable)) {
             throw new RuntimeException("Session没有实现Serializable接口，Session Class=" + session.getClass().getName());
         }
@@ -141,12 +146,15 @@ public class ShiroSessionUtils {
     }
 
     /**
-     * 反序列化Shiro Session
+     * 反序列化Shiro Session，兼容紧凑二进制编码和Java序列化数据
      */
     public static Session deserialize(byte[] data) {
         if (data == null) {
             return null;
         }
+        if (ShiroSessionCodec.isEncoded(data)) {
+            return ShiroSessionCodec.decode(data);
+        }
         return SerializationUtils.deserialize(data);
     }
 }
@@ -1886,7 +1886,7 @@ CREATE TABLE `core_qlscript` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `name` (`name`),
   KEY `core_qlscript_name` (`name`)
-) ENGINE=InnoDB AUTO_INCREMENT=55 DEFAULT CHARSET=utf8 COMMENT='数据库脚本';
+) ENGINE=InnoDB AUTO_INCREMENT=63 DEFAULT CHARSET=utf8 COMMENT='数据库脚本';
 
 -- ----------------------------
 -- Records of core_qlscript
@@ -1910,7 +1910,7 @@ INSERT INTO `core_qlscript` VALUES ('16', 'Root', 'Root', 'Root', '2016-06-19 21
 INSERT INTO `core_qlscript` VALUES ('17', 'Root', 'Root', 'Root', '2016-06-19 21:50:21', 'Root', '2016-06-19 21:50:21', '', '1', '71297a64-6292-4b97-949c-3dc01ad75f33', 'SQL', 'delete from core_mdict where del_flag=:delFlag and full_path like :fullPath\r\n', 'org.cleverframe.core.dao.MDictDao.deleteMDict', '根据全路径删除多级字典(同时删除所有子节点)');
 INSERT INTO `core_qlscript` VALUES ('18', 'Root', 'Root', 'Root', '2016-07-10 10:39:36', 'Root', '2016-07-10 10:39:36', '', '1', '646c103e-cdac-4318-9e60-ddee2202112b', 'SQL', 'select * from core_dict where del_flag = :delFlag and dict_type = :dictType', 'org.cleverframe.core.dao.DictDao.findByType', '根据字典类型查询所有的字典');
 INSERT INTO `core_qlscript` VALUES ('19', 'Root', 'Root', 'Root', '2016-07-11 20:29:28', 'Root', '2016-07-15 23:27:31', '', '1', '31fc978e-ce10-44af-9a38-ab2645530611', 'SQL', 'select count(1) from generator_code_template where name=:name', 'org.cleverframe.generator.dao.CodeTemplateDao.codeTemplateNameExists', '代码模版名称是否存在');
-INSERT INTO `core_qlscript` VALUES ('21', 'Root', 'Root', 'Root', '2016-07-11 20:31:35', 'Root', '2016-07-16 19:08:45', '', '1', 'e7744a6e-73c7-44e3-ab56-7caba4635cf4', 'SQL', 'select \r\n	* \r\nfrom \r\n	core_access_log \r\nwhere \r\n	(login_name=:loginName or :loginName=\'\' or :loginName is null)\r\n    and (request_time>=:requestStartTime or :requestStartTime is null)\r\n    and (request_time<=:requestEndTime or :requestEndTime is null)\r\n    and (request_uri like :requestUri or :requestUri=\'\' or :requestUri is null)\r\n    and (`METHOD`=:method or :method=\'\' or :method is null)\r\n    and (process_time>=:processMinTime or :processMinTime is null)\r\n    and (process_time<=:processMaxTime or :processMaxTime is null)\r\n    and (remote_addr like :remoteAddr or :remoteAddr=\'\' or :remoteAddr is null)\r\n    and (user_agent like :userAgent or :userAgent=\'\' or :userAgent is null)\r\n	and (has_exception=:hasException or :hasException=\'\' or :hasException is null)\r\norder by request_time desc', 'org.cleverframe.core.dao.AccessLogDao.findByPage', '分页查询访问日志');
+INSERT INTO `core_qlscript` VALUES ('21', 'Root', 'Root', 'Root', '2016-07-11 20:31:35', 'Root', '2016-11-13 15:30:00', '', '1', 'e7744a6e-73c7-44e3-ab56-7caba4635cf4', 'SQL', 'select \r\n	* \r\nfrom \r\n	core_access_log ${partition}\r\nwhere \r\n	(login_name=:loginName or :loginName=\'\' or :loginName is null)\r\n    and (request_time>=:requestStartTime or :requestStartTime is null)\r\n    and (request_time<=:requestEndTime or :requestEndTime is null)\r\n    and (request_uri like :requestUri or :requestUri=\'\' or :requestUri is null)\r\n    and (`METHOD`=:method or :method=\'\' or :method is null)\r\n    and (process_time>=:processMinTime or :processMinTime is null)\r\n    and (process_time<=:processMaxTime or :processMaxTime is null)\r\n    and (remote_addr like :remoteAddr or :remoteAddr=\'\' or :remoteAddr is null)\r\n    and (user_agent like :userAgent or :userAgent=\'\' or :userAgent is null)\r\n	and (has_exception=:hasException or :hasException=\'\' or :hasException is null)\r\norder by request_time desc', 'org.cleverframe.core.dao.AccessLogDao.findByPage', '分页查询访问日志');
 INSERT INTO `core_qlscript` VALUES ('22', 'Root', 'Root', 'Root', '2016-07-11 20:32:05', 'Root', '2016-07-16 13:15:26', '', '1', 'e36067ca-80e1-4bca-befc-31dbbfda9533', 'SQL', 'select count(1) from core_template where name=:name', 'org.cleverframe.core.dao.TemplateDao.templateNameExists', '模版名称是否存在');
 INSERT INTO `core_qlscript` VALUES ('23', 'Root', 'Root', 'Root', '2016-07-16 13:56:01', 'Root', '2016-07-16 15:23:56', '', '1', 'a81c6947-53d8-4872-abdc-50ae8bd6c6f2', 'SQL', 'select * from generator_code_template where del_flag=:delFlag order by node_type, name', 'org.cleverframe.generator.dao.CodeTemplateDao.findAllCodeTemplate', '查询所有的代码模版');
 INSERT INTO `core_qlscript` VALUES ('24', 'Root', 'Root', 'Root', '2016-07-18 11:06:01', 'Root', '2016-07-18 11:06:01', '', '1', '8716c4c6-a1d2-46cb-9914-7fa10c4d28d4', 'SQL', 'select COUNT(1) from generator_code_template where del_flag=:delFlag and full_path like :fullPath', 'org.cleverframe.generator.dao.CodeTemplateDao.countByChildNode', '查询一个节点下的子节点数量(不包含自己)');
@@ -1918,9 +1918,9 @@ INSERT INTO `core_qlscript` VALUES ('25', 'Root', 'Root', 'Root', '2016-07-18 11
 INSERT INTO `core_qlscript` VALUES ('26', 'Root', 'Root', 'Root', '2016-07-18 11:09:57', 'Root', '2016-07-18 11:09:57', '', '1', '49d18b3d-c738-4a38-801c-3559b7053bd4', 'SQL', 'delete from generator_code_template where name=:name', 'org.cleverframe.generator.dao.CodeTemplateDao.delByName', '根据模版名称，直接从数据库删除模版');
 INSERT INTO `core_qlscript` VALUES ('27', 'Root', 'Root', 'Root', '2016-07-18 18:22:54', 'Root', '2016-08-24 20:47:26', '-- 参数excludeCodeNode==true时,就排除“代码模版”\r\n-- 节点类型(0:模版分类; 1:代码模版)', '1', '37aedece-c8d5-4fb3-a9e0-54e84c3d3db0', 'SQL', 'select\r\n	*\r\nfrom\r\n	generator_code_template\r\nwhere\r\n	del_flag=:delFlag\r\n	and full_path like :fullPath\r\n	and full_path not like :excludePath\r\n	and (:excludeCodeNode<>\'true\' or node_type<>\'1\')\r\norder by node_type, name', 'org.cleverframe.generator.dao.CodeTemplateDao.findChildNode', '查询节点的所有子节点，可以排除某个节点和其所有子节点\r\n参数excludeCodeNode==true时,就排除“代码模版”');
 INSERT INTO `core_qlscript` VALUES ('28', 'Root', 'Root', 'Root', '2016-08-13 14:00:19', 'Root', '2016-08-25 22:46:13', '', '1', 'b14be1c7-2072-4245-9d74-4da90417b304', 'SQL', 'select * from QRTZ_TRIGGERS where SCHED_NAME=:schedName and TRIGGER_GROUP=:triggerGroup and TRIGGER_NAME=:triggerName', 'org.cleverframe.quartz.dao.QrtzTriggersDao.getQrtzTriggers', '查询触发器数据');
-INSERT INTO `core_qlscript` VALUES ('29', 'Root', 'Root', 'Root', '2016-08-15 15:39:44', 'Root', '2016-08-15 15:44:59', '', '1', '785cd894-b037-4137-8671-301f46a2f6d4', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_trigger_log\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:triggerGroup is null or :triggerGroup=\'\' or trigger_group=:triggerGroup)\r\n	and (:triggerName is null or :triggerName=\'\' or trigger_name=:triggerName)\r\n	and (:jobGroup is null or :jobGroup=\'\' or job_group=:jobGroup)\r\n	and (:jobName is null or :jobName=\'\' or job_name=:jobName)\r\n	and (:jobClassName is null or :jobClassName=\'\' or job_class_name=:jobClassName)\r\n	and (:startTimeByStart is null or start_time>=:startTimeByStart)\r\n	and (:startTimeByEnd is null or start_time<=:startTimeByEnd)\r\n	and (:processTimeByMin is null or :processTimeByMin=-1 or process_time>=:processTimeByMin)\r\n	and (:processTimeByMax is null or :processTimeByMax=-1 or process_time<=:processTimeByMax)\r\norder by start_time desc', 'org.cleverframe.quartz.dao.QrtzTriggerLogDao.findByPage', '分页查询所有的触发器日志');
-INSERT INTO `core_qlscript` VALUES ('30', 'Root', 'Root', 'Root', '2016-08-16 15:59:53', 'Root', '2016-08-16 16:00:22', '', '1', 'f2d4745d-e140-4927-a52e-0da67edbea30', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_job_log\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:jobGroup is null or :jobGroup=\'\' or job_group=:jobGroup)\r\n	and (:jobName is null or :jobName=\'\' or job_name=:jobName)\r\n	and (:jobClassName is null or :jobClassName=\'\' or job_class_name=:jobClassName)\r\n	and (:startTimeByStart is null or start_time>=:startTimeByStart)\r\n	and (:startTimeByEnd is null or start_time<=:startTimeByEnd)\r\n	and (:processTimeByMin is null or :processTimeByMin=-1 or process_time>=:processTimeByMin)\r\n	and (:processTimeByMax is null or :processTimeByMax=-1 or process_time<=:processTimeByMax)\r\norder by start_time desc', 'org.cleverframe.quartz.dao.QrtzJobLogDao.findByPage', '分页查询所有定时任务日志');
-INSERT INTO `core_qlscript` VALUES ('31', 'Root', 'Root', 'Root', '2016-08-16 20:21:22', 'Root', '2016-08-17 09:56:05', '', '1', 'f09adf78-632b-48db-b385-b8231eb17ec0', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_scheduler_log\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:methodName is null or :methodName=\'\' or method_name=:methodName)\r\n	and (:logTimeStart is null or log_time>=:logTimeStart)\r\n	and (:logTimeEnd is null or log_time<=:logTimeEnd)\r\norder by log_time desc', 'org.cleverframe.quartz.dao.QrtzSchedulerLogDao.findByPage', '分页查询调度器日志');
+INSERT INTO `core_qlscript` VALUES ('29', 'Root', 'Root', 'Root', '2016-08-15 15:39:44', 'Root', '2016-11-13 15:30:00', '', '1', '785cd894-b037-4137-8671-301f46a2f6d4', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_trigger_log ${partition}\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:triggerGroup is null or :triggerGroup=\'\' or trigger_group=:triggerGroup)\r\n	and (:triggerName is null or :triggerName=\'\' or trigger_name=:triggerName)\r\n	and (:jobGroup is null or :jobGroup=\'\' or job_group=:jobGroup)\r\n	and (:jobName is null or :jobName=\'\' or job_name=:jobName)\r\n	and (:jobClassName is null or :jobClassName=\'\' or job_class_name=:jobClassName)\r\n	and (:startTimeByStart is null or start_time>=:startTimeByStart)\r\n	and (:startTimeByEnd is null or start_time<=:startTimeByEnd)\r\n	and (:processTimeByMin is null or :processTimeByMin=-1 or process_time>=:processTimeByMin)\r\n	and (:processTimeByMax is null or :processTimeByMax=-1 or process_time<=:processTimeByMax)\r\norder by start_time desc', 'org.cleverframe.quartz.dao.QrtzTriggerLogDao.findByPage', '分页查询所有的触发器日志');
+INSERT INTO `core_qlscript` VALUES ('30', 'Root', 'Root', 'Root', '2016-08-16 15:59:53', 'Root', '2016-11-13 15:30:00', '', '1', 'f2d4745d-e140-4927-a52e-0da67edbea30', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_job_log ${partition}\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:jobGroup is null or :jobGroup=\'\' or job_group=:jobGroup)\r\n	and (:jobName is null or :jobName=\'\' or job_name=:jobName)\r\n	and (:jobClassName is null or :jobClassName=\'\' or job_class_name=:jobClassName)\r\n	and (:startTimeByStart is null or start_time>=:startTimeByStart)\r\n	and (:startTimeByEnd is null or start_time<=:startTimeByEnd)\r\n	and (:processTimeByMin is null or :processTimeByMin=-1 or process_time>=:processTimeByMin)\r\n	and (:processTimeByMax is null or :processTimeByMax=-1 or process_time<=:processTimeByMax)\r\norder by start_time desc', 'org.cleverframe.quartz.dao.QrtzJobLogDao.findByPage', '分页查询所有定时任务日志');
+INSERT INTO `core_qlscript` VALUES ('31', 'Root', 'Root', 'Root', '2016-08-16 20:21:22', 'Root', '2016-11-13 15:30:00', '', '1', 'f09adf78-632b-48db-b385-b8231eb17ec0', 'SQL', 'select\r\n	*\r\nfrom\r\n	qrtz_scheduler_log ${partition}\r\nwhere\r\n	(:schedulerName is null or :schedulerName=\'\' or sched_name=:schedulerName)\r\n	and (:instanceName is null or :instanceName=\'\' or instance_name=:instanceName)\r\n	and (:methodName is null or :methodName=\'\' or method_name=:methodName)\r\n	and (:logTimeStart is null or log_time>=:logTimeStart)\r\n	and (:logTimeEnd is null or log_time<=:logTimeEnd)\r\norder by log_time desc', 'org.cleverframe.quartz.dao.QrtzSchedulerLogDao.findByPage', '分页查询调度器日志');
 INSERT INTO `core_qlscript` VALUES ('32', 'Root', 'Root', 'Root', '2016-10-21 19:05:52', 'Root', '2016-10-30 01:40:21', '', '1', '019c5513-e38a-468b-b01a-f7d43af5ccbc', 'SQL', 'select\r\n	*\r\nfrom\r\n	sys_resources\r\nwhere (:title =\'\' or title like :title)\r\n	and (:resourcesUrl=\'\' or resources_url like :resourcesUrl)\r\n	and (:permission=\'\' or permission=:permission)\r\n<#if resourcesType?? && resourcesType!=\"\">\r\n    and resources_type in ${resourcesType}\r\n</#if>', 'org.cleverframe.sys.dao.ResourcesDao.findByPage', '分页查询资源信息');
 INSERT INTO `core_qlscript` VALUES ('33', 'Root', 'Root', 'Root', '2016-10-23 00:16:05', 'Root', '2016-10-23 00:16:05', '', '1', 'eb1e024d-348e-43fd-b29c-0fe7120f9ee5', 'SQL', 'select a.* from\r\n	sys_resources a left join sys_resources_relation b on(a.id = b.dependence_resources_id)\r\nwhere\r\n	b.resources_id=:resourcesId', 'org.cleverframe.sys.dao.ResourcesDao.findDependenceResources', '查询一个页面资源的所有依赖资源');
 INSERT INTO `core_qlscript` VALUES ('34', 'Root', 'Root', 'Root', '2016-10-23 00:17:20', 'Root', '2016-10-23 00:17:20', '', '1', '271be7f6-1c21-4894-b931-0c0e54b376ff', 'SQL', 'INSERT INTO sys_resources_relation\r\n(resources_id, dependence_resources_id)\r\nVALUES(:resourcesId, :dependenceResourcesId)', 'org.cleverframe.sys.dao.ResourcesDao.addDependenceResources', '为页面资源增加一个依赖资源');
@@ -1943,6 +1943,39 @@ INSERT INTO `core_qlscript` VALUES ('51', 'Root', 'Root', 'Root', '2016-11-09 00
 INSERT INTO `core_qlscript` VALUES ('52', 'Root', 'Root', 'Root', '2016-11-12 22:29:20', 'Root', '2016-11-12 22:46:12', '', '1', 'ccaf9986-844e-4415-b255-2a24a0396b36', 'SQL', 'SELECT * FROM sys_resources where resources_url=:resourcesUrl', 'org.cleverframe.sys.dao.ResourcesDao.getResources', '根据资源路径(含有变量)查询资源');
 INSERT INTO `core_qlscript` VALUES ('53', 'Root', 'Root', 'Root', '2016-11-13 13:42:31', 'Root', '2016-11-13 13:42:31', '', '1', '4e92da3a-6c4d-42f5-8977-2cdbb7425116', 'SQL', 'select * from sys_organization where del_flag=:delFlag and code=:code', 'org.cleverframe.sys.dao.OrganizationDao.getOrganizationByCode', '根据机构编码查询机构（不含软删除的数据）');
 INSERT INTO `core_qlscript` VALUES ('54', 'Root', 'Root', 'Root', '2016-11-13 14:56:07', 'Root', '2016-11-13 14:56:07', '注意：数据量大时性能低下(5张表关联查询)', '1', 'a9a0d439-d118-4d23-a6e1-be0bf708defd', 'SQL', 'select\r\n	a.*\r\nfrom\r\n	sys_resources a \r\n	left join sys_role_resources b on (a.id = b.resources_id) \r\n	left join sys_role c on (b.role_id = c.id and c.del_flag=:delFlag)\r\n	left join sys_user_role d on (c.id=d.role_id)\r\n	left join sys_user e on (d.user_id=e.id and e.del_flag=:delFlag)\r\nwhere e.login_name=:loginName', 'org.cleverframe.sys.dao.ResourcesDao.getResourcesByUser', '返回用户所有的资源信息(不包含软删除数据)');
+INSERT INTO `core_qlscript` VALUES ('55', 'Root', 'Root', 'Root', '2016-11-13 15:20:00', 'Root', '2016-11-13 15:20:00', '', '1', '582ecce3-6964-4d70-aa67-ae1cd04d4cc9', 'SQL', 'select\r\n	a.trigger_name as trigger_name, a.trigger_group as trigger_group, a.job_name as job_name, a.job_group as job_group, a.description as description,\r\n	a.next_fire_time as next_fire_time, a.prev_fire_time as prev_fire_time, a.priority as priority, a.trigger_state as trigger_state, a.trigger_type as trigger_type,\r\n	a.start_time as start_time, a.end_time as end_time, a.calendar_name as calendar_name, a.misfire_instr as misfire_instr, a.job_data as job_data,\r\n	b.repeat_count as repeat_count, b.repeat_interval as repeat_interval, b.times_triggered as times_triggered,\r\n	c.cron_expression as cron_expression, c.time_zone_id as time_zone_id\r\nfrom\r\n	QRTZ_TRIGGERS a\r\n	left join QRTZ_SIMPLE_TRIGGERS b on (a.sched_name = b.sched_name and a.trigger_name = b.trigger_name and a.trigger_group = b.trigger_group)\r\n	left join QRTZ_CRON_TRIGGERS c on (a.sched_name = c.sched_name and a.trigger_name = c.trigger_name and a.trigger_group = c.trigger_group)\r\nwhere a.sched_name=:schedName and a.job_group=:jobGroup and a.job_name=:jobName', 'org.cleverframe.quartz.dao.QrtzTriggersDao.findQrtzTriggersByJob', '查询一个Job的所有触发器数据(含SimpleTrigger、CronTrigger属性)');
+INSERT INTO `core_qlscript` VALUES ('56', 'Root', 'Root', 'Root', '2016-11-13 15:20:00', 'Root', '2016-11-13 15:20:00', '', '1', '27065db7-813f-4790-ad6b-c69341474af0', 'SQL', 'select\r\n	job_name as job_name, job_group as job_group, description as description, job_class_name as job_class_name,\r\n	is_durable as is_durable, is_nonconcurrent as is_nonconcurrent, is_update_data as is_update_data, requests_recovery as requests_recovery, job_data as job_data\r\nfrom QRTZ_JOB_DETAILS where sched_name=:schedName', 'org.cleverframe.quartz.dao.QrtzJobDetailsDao.findAllQrtzJobDetails', '查询Scheduler的所有JobDetail数据');
+INSERT INTO `core_qlscript` VALUES ('57', 'Root', 'Root', 'Root', '2016-11-13 15:30:00', 'Root', '2016-11-13 15:30:00', '', '1', 'cec8979c-8040-4fb5-bb0a-2af5921bfd21', 'SQL', 'insert into core_access_log_hourly\r\n	(hour_time, request_uri, method, request_count, error_count, total_process_time, max_process_time)\r\nselect\r\n	:hourStart, request_uri, method, count(1), sum(case when has_exception=\'1\' then 1 else 0 end), sum(process_time), max(process_time)\r\nfrom\r\n	core_access_log\r\nwhere\r\n	request_time>=:hourStart and request_time<:hourEnd\r\ngroup by request_uri, method\r\non duplicate key update\r\n	request_count=values(request_count), error_count=values(error_count),\r\n	total_process_time=values(total_process_time), max_process_time=values(max_process_time)', 'org.cleverframe.core.retention.LogPartitionManager.rollup.core_access_log', '按小时汇总系统访问日志(core_access_log_hourly)');
+INSERT INTO `core_qlscript` VALUES ('58', 'Root', 'Root', 'Root', '2016-11-13 15:30:00', 'Root', '2016-11-13 15:30:00', '', '1', 'a3b7391d-c61f-4674-b65b-8b3f35de18de', 'SQL', 'insert into qrtz_job_log_hourly\r\n	(hour_time, sched_name, job_group, job_name, run_count, veto_count, fail_count, total_process_time, max_process_time)\r\nselect\r\n	:hourStart, sched_name, job_group, job_name, count(1), sum(case when is_veto=\'1\' then 1 else 0 end),\r\n	sum(case when exception_info is null then 0 else 1 end), ifnull(sum(process_time), 0), ifnull(max(process_time), 0)\r\nfrom\r\n	qrtz_job_log\r\nwhere\r\n	start_time>=:hourStart and start_time<:hourEnd\r\ngroup by sched_name, job_group, job_name\r\non duplicate key update\r\n	run_count=values(run_count), veto_count=values(veto_count), fail_count=values(fail_count),\r\n	total_process_time=values(total_process_time), max_process_time=values(max_process_time)', 'org.cleverframe.core.retention.LogPartitionManager.rollup.qrtz_job_log', '按小时汇总Job执行日志(qrtz_job_log_hourly)');
+INSERT INTO `core_qlscript` VALUES ('59', 'Root', 'Root', 'Root', '2016-11-13 15:30:00', 'Root', '2016-11-13 15:30:00', '', '1', 'c743fb30-f3a2-4282-9543-f3b52329bc8a', 'SQL', 'insert into qrtz_trigger_log_hourly\r\n	(hour_time, sched_name, trigger_group, trigger_name, fire_count, misfire_count, total_process_time, max_process_time)\r\nselect\r\n	:hourStart, sched_name, trigger_group, trigger_name, count(1), sum(case when mis_fired=\'1\' then 1 else 0 end),\r\n	ifnull(sum(process_time), 0), ifnull(max(process_time), 0)\r\nfrom\r\n	qrtz_trigger_log\r\nwhere\r\n	start_time>=:hourStart and start_time<:hourEnd\r\ngroup by sched_name, trigger_group, trigger_name\r\non duplicate key update\r\n	fire_count=values(fire_count), misfire_count=values(misfire_count),\r\n	total_process_time=values(total_process_time), max_process_time=values(max_process_time)', 'org.cleverframe.core.retention.LogPartitionManager.rollup.qrtz_trigger_log', '按小时汇总Trigger触发日志(qrtz_trigger_log_hourly)');
+INSERT INTO `core_qlscript` VALUES ('60', 'Root', 'Root', 'Root', '2016-11-13 15:30:00', 'Root', '2016-11-13 15:30:00', '', '1', '1e02c8fa-1177-4073-a101-2df0bec1a039', 'SQL', 'insert into qrtz_scheduler_log_hourly\r\n	(hour_time, sched_name, method_name, log_count)\r\nselect\r\n	:hourStart, sched_name, method_name, count(1)\r\nfrom\r\n	qrtz_scheduler_log\r\nwhere\r\n	log_time>=:hourStart and log_time<:hourEnd\r\ngroup by sched_name, method_name\r\non duplicate key update\r\n	log_count=values(log_count)', 'org.cleverframe.core.retention.LogPartitionManager.rollup.qrtz_scheduler_log', '按小时汇总调度器日志(qrtz_scheduler_log_hourly)');
+INSERT INTO `core_qlscript` VALUES ('61', 'Root', 'Root', 'Root', '2016-11-13 15:40:00', 'Root', '2016-11-13 15:40:00', '', '1', '7cdd4269-944d-4566-abbb-9e497eb0e782', 'SQL', 'select\r\n	a.id as role_id, a.name as role_name, c.id as resources_id, c.permission as permission\r\nfrom\r\n	sys_role a\r\n	left join sys_role_resources b on (a.id = b.role_id)\r\n	left join sys_resources c on (b.resources_id = c.id)\r\nwhere\r\n	a.del_flag=:delFlag', 'org.cleverframe.sys.dao.RoleDao.findAllRolePermissions', '一次查询所有角色的资源权限');
+INSERT INTO `core_qlscript` VALUES ('62', 'Root', 'Root', 'Root', '2016-11-13 15:40:00', 'Root', '2016-11-13 15:40:00', '', '1', 'f677ec1c-372a-4eb7-b6fb-14ddf4d3330d', 'SQL', 'select\r\n	a.id as role_id, a.name as role_name, c.id as resources_id, c.permission as permission\r\nfrom\r\n	sys_role a\r\n	left join sys_role_resources b on (a.id = b.role_id)\r\n	left join sys_resources c on (b.resources_id = c.id)\r\nwhere\r\n	a.del_flag=:delFlag and a.id=:roleId', 'org.cleverframe.sys.dao.RoleDao.findRolePermissionsByRole', '查询一个角色的资源权限');
+
+-- ----------------------------
+-- Table structure for core_qlscript_version
+-- ----------------------------
+DROP TABLE IF EXISTS `core_qlscript_version`;
+CREATE TABLE `core_qlscript_version` (
+  `id` int(11) NOT NULL COMMENT '编号(只有一条数据，id=1)',
+  `version` bigint(20) NOT NULL DEFAULT '0' COMMENT '版本号(单调递增)',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='数据库脚本版本号';
+
+-- ----------------------------
+-- Records of core_qlscript_version
+-- ----------------------------
+INSERT INTO `core_qlscript_version` VALUES ('1', '0');
+
+-- ----------------------------
+-- Triggers of core_qlscript (core_qlscript表的数据新增、修改、删除时版本号加1)
+-- ----------------------------
+DROP TRIGGER IF EXISTS `core_qlscript_version_insert`;
+CREATE TRIGGER `core_qlscript_version_insert` AFTER INSERT ON `core_qlscript` FOR EACH ROW UPDATE `core_qlscript_version` SET `version` = `version` + 1 WHERE `id` = 1;
+DROP TRIGGER IF EXISTS `core_qlscript_version_update`;
+CREATE TRIGGER `core_qlscript_version_update` AFTER UPDATE ON `core_qlscript` FOR EACH ROW UPDATE `core_qlscript_version` SET `version` = `version` + 1 WHERE `id` = 1;
+DROP TRIGGER IF EXISTS `core_qlscript_version_delete`;
+CREATE TRIGGER `core_qlscript_version_delete` AFTER DELETE ON `core_qlscript` FOR EACH ROW UPDATE `core_qlscript_version` SET `version` = `version` + 1 WHERE `id` = 1;
 
 -- ----------------------------
 -- Table structure for core_template
@@ -43,6 +43,18 @@ CREATE TABLE core_qlscript
     PRIMARY KEY (id)
 ) COMMENT = '数据库脚本';
 CREATE INDEX core_qlscript_name         ON  core_qlscript (name ASC);
+
+/* core_qlscript_version -- 数据库脚本版本号，core_qlscript表的数据新增、修改、删除时由触发器加1，用于集群中各节点发现脚本变化 */
+CREATE TABLE core_qlscript_version
+(
+    id              int             NOT NULL                            COMMENT '编号(只有一条数据，id=1)',
+    version         bigint          NOT NULL    DEFAULT 0               COMMENT '版本号(单调递增)',
+    PRIMARY KEY (id)
+) COMMENT = '数据库脚本版本号';
+INSERT INTO core_qlscript_version (id, version) VALUES (1, 0);
+CREATE TRIGGER core_qlscript_version_insert AFTER INSERT ON core_qlscript FOR EACH ROW UPDATE core_qlscript_version SET version = version + 1 WHERE id = 1;
+CREATE TRIGGER core_qlscript_version_update AFTER UPDATE ON core_qlscript FOR EACH ROW UPDATE core_qlscript_version SET version = version + 1 WHERE id = 1;
+CREATE TRIGGER core_qlscript_version_delete AFTER DELETE ON core_qlscript FOR EACH ROW UPDATE core_qlscript_version SET version = version + 1 WHERE id = 1;
 /*------------------------------------------------------------------------------------------------------------------------
 
 --------------------------------------------------------------------------------------------------------------------------*/
@@ -0,0 +1,126 @@
+/*
+日志表按时间分区(MySQL 5.6+，RANGE COLUMNS)，由 org.cleverframe.core.retention.LogPartitionManager 维护：
+1.初始只有一个MAXVALUE分区(pmax)，LogPartitionManager启动后按配置的时间粒度(天/月)拆分出当前和未来的分区
+2.超过保留期限的分区使用 ALTER TABLE ... DROP PARTITION 删除
+3.*_hourly 表保存按小时汇总的数据，汇总脚本见 core_qlscript 表(org.cleverframe.core.retention.LogPartitionManager.rollup.*)
+分区表的主键必须包含分区字段，所以主键改为(id, 时间字段)
+在 core_MySql.sql、quartz_MySql.sql (或者 cleverframe_2016-11-13.sql)之后执行，已有数据会全部进入pmax分区，第一次拆分时移动一次数据
+*/
+
+/* ====================================================================================================================
+    core_access_log -- 系统访问日志表(按request_time分区)
+==================================================================================================================== */
+ALTER TABLE core_access_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, request_time);
+ALTER TABLE core_access_log PARTITION BY RANGE COLUMNS (request_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_job_log -- Job执行日志表(按start_time分区)
+==================================================================================================================== */
+ALTER TABLE qrtz_job_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, start_time);
+ALTER TABLE qrtz_job_log PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_trigger_log -- Trigger触发日志表(按start_time分区)
+==================================================================================================================== */
+ALTER TABLE qrtz_trigger_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, start_time);
+ALTER TABLE qrtz_trigger_log PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_scheduler_log -- Scheduler调度日志表(按log_time分区)
+==================================================================================================================== */
+ALTER TABLE qrtz_scheduler_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, log_time);
+ALTER TABLE qrtz_scheduler_log PARTITION BY RANGE COLUMNS (log_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    core_access_log_hourly -- 系统访问日志小时汇总表
+==================================================================================================================== */
+CREATE TABLE core_access_log_hourly
+(
+    hour_time               datetime        NOT NULL                            COMMENT '统计的小时(整点)',
+    request_uri             varchar(255)    NOT NULL                            COMMENT '请求URI',
+    method                  varchar(20)     NOT NULL                            COMMENT '操作方式',
+    request_count           bigint          NOT NULL                            COMMENT '请求次数',
+    error_count             bigint          NOT NULL                            COMMENT '有异常的请求次数',
+    total_process_time      bigint          NOT NULL                            COMMENT '请求处理时间总和(ms)',
+    max_process_time        bigint          NOT NULL                            COMMENT '最大请求处理时间(ms)',
+    PRIMARY KEY (hour_time, request_uri, method)
+) COMMENT = '系统访问日志小时汇总表'
+PARTITION BY RANGE COLUMNS (hour_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_job_log_hourly -- Job执行日志小时汇总表
+==================================================================================================================== */
+CREATE TABLE qrtz_job_log_hourly
+(
+    hour_time               datetime        NOT NULL                            COMMENT '统计的小时(整点)',
+    sched_name              varchar(120)    NOT NULL                            COMMENT 'Scheduler名称',
+    job_group               varchar(200)    NOT NULL                            COMMENT 'Job group 名称',
+    job_name                varchar(200)    NOT NULL                            COMMENT 'Job key',
+    run_count               bigint          NOT NULL                            COMMENT '执行次数',
+    veto_count              bigint          NOT NULL                            COMMENT '被否决次数',
+    fail_count              bigint          NOT NULL                            COMMENT '执行异常次数',
+    total_process_time      bigint          NOT NULL                            COMMENT '执行用时总和(ms)',
+    max_process_time        bigint          NOT NULL                            COMMENT '最大执行用时(ms)',
+    PRIMARY KEY (hour_time, sched_name, job_group, job_name)
+) COMMENT = 'Job执行日志小时汇总表'
+PARTITION BY RANGE COLUMNS (hour_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_trigger_log_hourly -- Trigger触发日志小时汇总表
+==================================================================================================================== */
+CREATE TABLE qrtz_trigger_log_hourly
+(
+    hour_time               datetime        NOT NULL                            COMMENT '统计的小时(整点)',
+    sched_name              varchar(120)    NOT NULL                            COMMENT 'Scheduler名称',
+    trigger_group           varchar(200)    NOT NULL                            COMMENT 'Trigger group名称',
+    trigger_name            varchar(200)    NOT NULL                            COMMENT 'Trigger key',
+    fire_count              bigint          NOT NULL                            COMMENT '触发次数',
+    misfire_count           bigint          NOT NULL                            COMMENT '错过触发次数',
+    total_process_time      bigint          NOT NULL                            COMMENT '用时总和(ms)',
+    max_process_time        bigint          NOT NULL                            COMMENT '最大用时(ms)',
+    PRIMARY KEY (hour_time, sched_name, trigger_group, trigger_name)
+) COMMENT = 'Trigger触发日志小时汇总表'
+PARTITION BY RANGE COLUMNS (hour_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+
+
+/* ====================================================================================================================
+    qrtz_scheduler_log_hourly -- Scheduler调度日志小时汇总表
+==================================================================================================================== */
+CREATE TABLE qrtz_scheduler_log_hourly
+(
+    hour_time               datetime        NOT NULL                            COMMENT '统计的小时(整点)',
+    sched_name              varchar(120)    NOT NULL                            COMMENT 'Scheduler名称',
+    method_name             varchar(120)    NOT NULL                            COMMENT '触发事件调用的方法',
+    log_count               bigint          NOT NULL                            COMMENT '日志条数',
+    PRIMARY KEY (hour_time, sched_name, method_name)
+) COMMENT = 'Scheduler调度日志小时汇总表'
+PARTITION BY RANGE COLUMNS (hour_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,74 @@
+package core.utils;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.cleverframe.core.utils.QLScriptPlan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 16:55 <br/>
+ */
+public class QLScriptPlanTest {
+
+    private static final String SCRIPT = "select * from sys_resources where (:title ='' or title like :title)\n" +
+            "<#-- 资源类型 -->" +
+            "<#if resourcesType?? && resourcesType!=\"\">\n" +
+            "    and resources_type in ${resourcesType}\n" +
+            "<#elseif permission?? >\n" +
+            "    and permission = :permission\n" +
+            "<#else>\n" +
+            "    and 1 = 1\n" +
+            "</#if> and name != 'a:b'";
+
+    private final Configuration configuration = new Configuration(Configuration.VERSION_2_3_23);
+
+    @Test
+    public void testCompiled() throws Exception {
+        QLScriptPlan plan = QLScriptPlan.compile("test", SCRIPT, 0L, configuration);
+        Assert.assertTrue(plan.isCompiled());
+
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("resourcesType", "('2', '3')");
+        assertSameAsFreeMarker(plan, dataModel);
+        Assert.assertEquals(Arrays.asList("title"), plan.render(dataModel).getParameterNames());
+
+        dataModel.put("resourcesType", "");
+        dataModel.put("permission", "sys");
+        assertSameAsFreeMarker(plan, dataModel);
+        Assert.assertEquals(Arrays.asList("title", "permission"), plan.render(dataModel).getParameterNames());
+
+        dataModel.clear();
+        assertSameAsFreeMarker(plan, dataModel);
+    }
+
+    @Test
+    public void testFallback() {
+        QLScriptPlan plan = QLScriptPlan.compile("test", "select * from t where <#list ids as id>${id}</#list> = :id", 0L, configuration);
+        Assert.assertFalse(plan.isCompiled());
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("ids", Arrays.asList("a", "b"));
+        QLScriptPlan.BoundScript boundScript = plan.render(dataModel);
+        Assert.assertEquals("select * from t where ab = :id", boundScript.getScript());
+        Assert.assertEquals(Arrays.asList("id"), boundScript.getParameterNames());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingVariable() {
+        QLScriptPlan.compile("test", "select ${columns} from t", 0L, configuration).render(new HashMap<String, Object>());
+    }
+
+    private void assertSameAsFreeMarker(QLScriptPlan plan, Map<String, Object> dataModel) throws Exception {
+        Template template = new Template("test", new StringReader(SCRIPT), configuration);
+        StringWriter writer = new StringWriter();
+        template.process(dataModel, writer);
+        Assert.assertEquals(writer.toString(), plan.render(dataModel).getScript());
+    }
+}
@@ -0,0 +1,200 @@
+package quartz;
+
+import org.cleverframe.quartz.plugins.SchedulerMetricsPlugin;
+import org.cleverframe.quartz.plugins.TimedRowLockSemaphore;
+import org.cleverframe.quartz.utils.SchedulerMetrics;
+import org.cleverframe.quartz.vo.model.LatencyStats;
+import org.cleverframe.quartz.vo.model.SchedulerMetricsInfo;
+import org.quartz.*;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 比较不同Trigger批量获取配置下集群调度器的触发延迟、数据库锁等待时间<br/>
+ * 1.使用H2内存数据库和JobStoreTX(集群模式)，每种配置使用一个新的数据库<br/>
+ * 2.部署大量短间隔的SimpleTrigger，运行固定时间后输出{@link SchedulerMetrics}的统计数据<br/>
+ * 3.比较的配置：batchTriggerAcquisitionMaxCount、batchTriggerAcquisitionFireAheadTimeWindow、acquireTriggersWithinLock<br/>
+ * 运行方式：直接运行main方法，参数(可选)：Trigger数量 触发间隔(毫秒) 每种配置运行时间(秒)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 02:10 <br/>
+ */
+public class QuartzTriggerAcquisitionBenchmark {
+
+    /**
+     * 工作线程数量
+     */
+    private static final int THREAD_COUNT = 25;
+
+    /**
+     * 比较的配置：{batchTriggerAcquisitionMaxCount, batchTriggerAcquisitionFireAheadTimeWindow}<br/>
+     * batchTriggerAcquisitionMaxCount > 1 时acquireTriggersWithinLock必须为true
+     */
+    private static final int[][] SETTINGS = {
+            {1, 0},
+            {5, 0},
+            {THREAD_COUNT, 0},
+            {THREAD_COUNT, 100},
+    };
+
+    /**
+     * 测试使用的Job，模拟很短的任务
+     */
+    public static class BenchmarkJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int triggerCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        long repeatInterval = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        System.out.println(String.format("triggerCount=%d, repeatInterval=%dms, duration=%ds, threadCount=%d",
+                triggerCount, repeatInterval, seconds, THREAD_COUNT));
+        System.out.println(String.format("%-10s %-8s %-8s %10s %10s %8s %8s %8s %8s %16s %16s",
+                "maxCount", "window", "inLock", "fired", "misfired", "lag-p50", "lag-p99", "lag-max", "run-p99",
+                "TRIGGER_ACCESS", "STATE_ACCESS"));
+        for (int i = 0; i < SETTINGS.length; i++) {
+            int maxCount = SETTINGS[i][0];
+            int window = SETTINGS[i][1];
+            SchedulerMetricsInfo metricsInfo = run(i, maxCount, window, maxCount > 1, triggerCount, repeatInterval, seconds);
+            LatencyStats fireLag = metricsInfo.getFireLag();
+            // 所有Job中执行时间p99的最大值
+            long runTimeP99 = 0;
+            for (LatencyStats stats : metricsInfo.getJobRunTime().values()) {
+                runTimeP99 = Math.max(runTimeP99, stats.getP99());
+            }
+            System.out.println(String.format("%-10d %-8d %-8s %10d %10d %8d %8d %8d %8d %16s %16s",
+                    maxCount, window, maxCount > 1, metricsInfo.getFiredCount(), metricsInfo.getMisfiredCount(),
+                    fireLag.getP50(), fireLag.getP99(), fireLag.getMax(), runTimeP99,
+                    lockWait(metricsInfo.getLockWait(), "TRIGGER_ACCESS"), lockWait(metricsInfo.getLockWait(), "STATE_ACCESS")));
+        }
+        System.out.println("lag单位：毫秒；锁等待时间单位：微秒(p50/p99)");
+    }
+
+    private static String lockWait(Map<String, LatencyStats> lockWait, String lockName) {
+        LatencyStats stats = lockWait.get(lockName);
+        return stats == null ? "-" : stats.getP50() + "/" + stats.getP99();
+    }
+
+    /**
+     * 使用一种配置运行调度器，返回统计数据
+     */
+    private static SchedulerMetricsInfo run(int index, int maxCount, int window, boolean withinLock,
+                                            int triggerCount, long repeatInterval, int seconds) throws Exception {
+        String url = "jdbc:h2:mem:quartz_benchmark_" + index + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+        createTables(url);
+
+        Properties properties = new Properties();
+        properties.setProperty("org.quartz.scheduler.instanceName", "QuartzBenchmark" + index);
+        properties.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        properties.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        properties.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", String.valueOf(maxCount));
+        properties.setProperty("org.quartz.scheduler.batchTriggerAcquisitionFireAheadTimeWindow", String.valueOf(window));
+        properties.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(THREAD_COUNT));
+        properties.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+        properties.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
+        properties.setProperty("org.quartz.jobStore.isClustered", "true");
+        properties.setProperty("org.quartz.jobStore.clusterCheckinInterval", "15000");
+        properties.setProperty("org.quartz.jobStore.misfireThreshold", "60000");
+        properties.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", String.valueOf(withinLock));
+        properties.setProperty("org.quartz.jobStore.lockHandler.class", TimedRowLockSemaphore.class.getName());
+        properties.setProperty("org.quartz.jobStore.dataSource", "benchmark");
+        properties.setProperty("org.quartz.dataSource.benchmark.driver", "org.h2.Driver");
+        properties.setProperty("org.quartz.dataSource.benchmark.URL", url);
+        properties.setProperty("org.quartz.dataSource.benchmark.user", "sa");
+        properties.setProperty("org.quartz.dataSource.benchmark.password", "");
+        properties.setProperty("org.quartz.dataSource.benchmark.maxConnections", String.valueOf(THREAD_COUNT + 5));
+        properties.setProperty("org.quartz.plugin.SchedulerMetricsPlugin.class", SchedulerMetricsPlugin.class.getName());
+
+        Scheduler scheduler = new StdSchedulerFactory(properties).getScheduler();
+        try {
+            long startTime = System.currentTimeMillis() + 2000;
+            for (int i = 0; i < triggerCount; i++) {
+                JobDetail jobDetail = JobBuilder.newJob(BenchmarkJob.class)
+                        .withIdentity("job-" + i, "benchmark")
+                        .build();
+                Trigger trigger = TriggerBuilder.newTrigger()
+                        .withIdentity("trigger-" + i, "benchmark")
+                        .startAt(new Date(startTime + i % repeatInterval))
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                                .withIntervalInMilliseconds(repeatInterval)
+                                .repeatForever())
+                        .build();
+                scheduler.scheduleJob(jobDetail, trigger);
+            }
+            // 插件在start时清空统计数据
+            scheduler.start();
+            Thread.sleep(seconds * 1000L);
+            scheduler.standby();
+            return SchedulerMetrics.getInstance().getMetricsInfo();
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    /**
+     * 创建Quartz的数据库表(H2)
+     */
+    private static void createTables(String url) throws SQLException {
+        String[] sqls = {
+                "CREATE TABLE QRTZ_JOB_DETAILS (SCHED_NAME VARCHAR(120) NOT NULL, JOB_NAME VARCHAR(200) NOT NULL, JOB_GROUP VARCHAR(200) NOT NULL, "
+                        + "DESCRIPTION VARCHAR(250), JOB_CLASS_NAME VARCHAR(250) NOT NULL, IS_DURABLE BOOLEAN NOT NULL, IS_NONCONCURRENT BOOLEAN NOT NULL, "
+                        + "IS_UPDATE_DATA BOOLEAN NOT NULL, REQUESTS_RECOVERY BOOLEAN NOT NULL, JOB_DATA BLOB, "
+                        + "PRIMARY KEY (SCHED_NAME, JOB_NAME, JOB_GROUP))",
+                "CREATE TABLE QRTZ_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_NAME VARCHAR(200) NOT NULL, TRIGGER_GROUP VARCHAR(200) NOT NULL, "
+                        + "JOB_NAME VARCHAR(200) NOT NULL, JOB_GROUP VARCHAR(200) NOT NULL, DESCRIPTION VARCHAR(250), NEXT_FIRE_TIME BIGINT, "
+                        + "PREV_FIRE_TIME BIGINT, PRIORITY INTEGER, TRIGGER_STATE VARCHAR(16) NOT NULL, TRIGGER_TYPE VARCHAR(8) NOT NULL, "
+                        + "START_TIME BIGINT NOT NULL, END_TIME BIGINT, CALENDAR_NAME VARCHAR(200), MISFIRE_INSTR SMALLINT, JOB_DATA BLOB, "
+                        + "PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP))",
+                "CREATE INDEX IDX_QRTZ_T_NFT_ST ON QRTZ_TRIGGERS (SCHED_NAME, TRIGGER_STATE, NEXT_FIRE_TIME)",
+                "CREATE TABLE QRTZ_SIMPLE_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_NAME VARCHAR(200) NOT NULL, "
+                        + "TRIGGER_GROUP VARCHAR(200) NOT NULL, REPEAT_COUNT BIGINT NOT NULL, REPEAT_INTERVAL BIGINT NOT NULL, "
+                        + "TIMES_TRIGGERED BIGINT NOT NULL, PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP))",
+                "CREATE TABLE QRTZ_CRON_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_NAME VARCHAR(200) NOT NULL, "
+                        + "TRIGGER_GROUP VARCHAR(200) NOT NULL, CRON_EXPRESSION VARCHAR(120) NOT NULL, TIME_ZONE_ID VARCHAR(80), "
+                        + "PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP))",
+                "CREATE TABLE QRTZ_SIMPROP_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_NAME VARCHAR(200) NOT NULL, "
+                        + "TRIGGER_GROUP VARCHAR(200) NOT NULL, STR_PROP_1 VARCHAR(512), STR_PROP_2 VARCHAR(512), STR_PROP_3 VARCHAR(512), "
+                        + "INT_PROP_1 INTEGER, INT_PROP_2 INTEGER, LONG_PROP_1 BIGINT, LONG_PROP_2 BIGINT, DEC_PROP_1 NUMERIC(13,4), "
+                        + "DEC_PROP_2 NUMERIC(13,4), BOOL_PROP_1 BOOLEAN, BOOL_PROP_2 BOOLEAN, "
+                        + "PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP))",
+                "CREATE TABLE QRTZ_BLOB_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_NAME VARCHAR(200) NOT NULL, "
+                        + "TRIGGER_GROUP VARCHAR(200) NOT NULL, BLOB_DATA BLOB, PRIMARY KEY (SCHED_NAME, TRIGGER_NAME, TRIGGER_GROUP))",
+                "CREATE TABLE QRTZ_CALENDARS (SCHED_NAME VARCHAR(120) NOT NULL, CALENDAR_NAME VARCHAR(200) NOT NULL, CALENDAR BLOB NOT NULL, "
+                        + "PRIMARY KEY (SCHED_NAME, CALENDAR_NAME))",
+                "CREATE TABLE QRTZ_PAUSED_TRIGGER_GRPS (SCHED_NAME VARCHAR(120) NOT NULL, TRIGGER_GROUP VARCHAR(200) NOT NULL, "
+                        + "PRIMARY KEY (SCHED_NAME, TRIGGER_GROUP))",
+                "CREATE TABLE QRTZ_FIRED_TRIGGERS (SCHED_NAME VARCHAR(120) NOT NULL, ENTRY_ID VARCHAR(95) NOT NULL, "
+                        + "TRIGGER_NAME VARCHAR(200) NOT NULL, TRIGGER_GROUP VARCHAR(200) NOT NULL, INSTANCE_NAME VARCHAR(200) NOT NULL, "
+                        + "FIRED_TIME BIGINT NOT NULL, SCHED_TIME BIGINT NOT NULL, PRIORITY INTEGER NOT NULL, STATE VARCHAR(16) NOT NULL, "
+                        + "JOB_NAME VARCHAR(200), JOB_GROUP VARCHAR(200), IS_NONCONCURRENT BOOLEAN, REQUESTS_RECOVERY BOOLEAN, "
+                        + "PRIMARY KEY (SCHED_NAME, ENTRY_ID))",
+                "CREATE TABLE QRTZ_SCHEDULER_STATE (SCHED_NAME VARCHAR(120) NOT NULL, INSTANCE_NAME VARCHAR(200) NOT NULL, "
+                        + "LAST_CHECKIN_TIME BIGINT NOT NULL, CHECKIN_INTERVAL BIGINT NOT NULL, PRIMARY KEY (SCHED_NAME, INSTANCE_NAME))",
+                "CREATE TABLE QRTZ_LOCKS (SCHED_NAME VARCHAR(120) NOT NULL, LOCK_NAME VARCHAR(40) NOT NULL, "
+                        + "PRIMARY KEY (SCHED_NAME, LOCK_NAME))",
+        };
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package sys.shiro;
+
+import org.cleverframe.sys.shiro.DataBaseSessionDao;
+import org.cleverframe.sys.shiro.ShiroSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Date;
+
+/**
+ * 使用H2内存数据库测试DataBaseSessionDao的延迟批量写入<br/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:30 <br/>
+ */
+public class DataBaseSessionDaoTest {
+
+    private DataBaseSessionDao sessionDao;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void init() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:session_dao;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE sys_login_session (session_id varchar(36) PRIMARY KEY, update_date timestamp, " +
+                "login_name varchar(255), session_object blob, on_line char(1), host_ip varchar(255))");
+        sessionDao = new DataBaseSessionDao(null);
+        sessionDao.setDataSource(dataSource);
+        sessionDao.setWriteDelay(60 * 1000L);
+    }
+
+    @After
+    public void destroy() {
+        sessionDao.destroy();
+        jdbcTemplate.execute("DROP TABLE sys_login_session");
+    }
+
+    private ShiroSession newSession(String sessionId) {
+        ShiroSession session = new ShiroSession("127.0.0.1");
+        session.setId(sessionId);
+        session.setTimeout(30 * 60 * 1000L);
+        session.setChanged(false);
+        jdbcTemplate.update("INSERT INTO sys_login_session (session_id, update_date, on_line) VALUES (?, ?, '0')", sessionId, new Date());
+        return session;
+    }
+
+    private boolean isWritten(String sessionId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sys_login_session WHERE session_id=? AND session_object IS NOT NULL",
+                Integer.class, sessionId) == 1;
+    }
+
+    @Test
+    public void testCoalesce() {
+        ShiroSession session = newSession("session-1");
+        session.setAttribute("name", "lizw");
+        sessionDao.update(session);
+        session.setAttribute("age", 18);
+        sessionDao.update(session);
+        Assert.assertEquals(1, sessionDao.getPendingCount());
+        Assert.assertEquals(1, sessionDao.getCoalescedCount());
+        Assert.assertFalse(isWritten("session-1"));
+
+        sessionDao.flushPending();
+        Assert.assertEquals(0, sessionDao.getPendingCount());
+        Assert.assertEquals(1, sessionDao.getFullWriteCount());
+        Assert.assertTrue(isWritten("session-1"));
+    }
+
+    /**
+     * 一个Session编码失败不影响同一批的其它Session，编码失败的Session重新等待写入
+     */
+    @Test
+    public void testEncodeFailure() {
+        ShiroSession good = newSession("session-good");
+        good.setAttribute("name", "lizw");
+        sessionDao.update(good);
+        ShiroSession bad = newSession("session-bad");
+        bad.setAttribute("object", new Object());
+        sessionDao.update(bad);
+        Assert.assertEquals(2, sessionDao.getPendingCount());
+
+        sessionDao.flushPending();
+        Assert.assertTrue(isWritten("session-good"));
+        Assert.assertFalse(isWritten("session-bad"));
+        Assert.assertEquals(1, sessionDao.getFailedCount());
+        Assert.assertEquals(1, sessionDao.getPendingCount());
+
+        // 属性修复后下次写入成功
+        bad.removeAttribute("object");
+        sessionDao.flushPending();
+        Assert.assertTrue(isWritten("session-bad"));
+        Assert.assertEquals(0, sessionDao.getPendingCount());
+    }
+}
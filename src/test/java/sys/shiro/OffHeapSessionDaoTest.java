@@ -0,0 +1,55 @@
+package sys.shiro;
+
+import org.apache.shiro.session.Session;
+import org.cleverframe.sys.shiro.OffHeapSessionDao;
+import org.cleverframe.sys.shiro.ShiroSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:10 <br/>
+ *
+ * @see SessionDaoBenchmark
+ */
+public class OffHeapSessionDaoTest {
+
+    private static ShiroSession newSession() {
+        ShiroSession session = new ShiroSession("127.0.0.1");
+        session.setTimeout(30 * 60 * 1000L);
+        session.setAttribute("test-name", "lizw");
+        return session;
+    }
+
+    @Test
+    public void testCreateReadDelete() {
+        OffHeapSessionDao sessionDAO = new OffHeapSessionDao();
+        ShiroSession session = newSession();
+        Serializable sessionId = sessionDAO.create(session);
+        Assert.assertNotNull(sessionId);
+        Assert.assertEquals(1, sessionDAO.getSessionCount());
+
+        Session read = sessionDAO.readSession(sessionId);
+        Assert.assertNotNull(read);
+        Assert.assertEquals("lizw", read.getAttribute("test-name"));
+        Assert.assertEquals(1, sessionDAO.getActiveSessions().size());
+        Assert.assertTrue(sessionDAO.getExpiredSessionIds(1000).isEmpty());
+
+        sessionDAO.delete(session);
+        Assert.assertEquals(0, sessionDAO.getSessionCount());
+        Assert.assertTrue(sessionDAO.getActiveSessions().isEmpty());
+    }
+
+    @Test
+    public void testExpiredSession() {
+        OffHeapSessionDao sessionDAO = new OffHeapSessionDao();
+        ShiroSession session = newSession();
+        session.setLastAccessTime(new Date(System.currentTimeMillis() - 60 * 60 * 1000L));
+        Serializable sessionId = sessionDAO.create(session);
+        Assert.assertEquals(1, sessionDAO.getExpiredSessionIds(1000).size());
+        Assert.assertEquals(sessionId, sessionDAO.getExpiredSessionIds(1000).get(0));
+    }
+}
@@ -0,0 +1,133 @@
+package sys.shiro;
+
+import org.cleverframe.sys.entity.Resources;
+import org.cleverframe.sys.service.IUserPermissionsService;
+import org.cleverframe.sys.shiro.PermissionRouteTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 05:00 <br/>
+ */
+public class PermissionRouteTableTest {
+
+    private PermissionRouteTable table;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @SuppressWarnings("unused")
+    public static class UserController {
+        public void findByPage() {
+        }
+
+        public void getUser() {
+        }
+
+        public void saveModel() {
+        }
+    }
+
+    private static Resources newResources(String controllerMethod, String permission) {
+        Resources resources = new Resources();
+        resources.setControllerMethod(controllerMethod);
+        resources.setPermission(permission);
+        return resources;
+    }
+
+    private static void addMapping(Map<RequestMappingInfo, HandlerMethod> handlerMethods, String pattern, String methodName) throws Exception {
+        RequestMappingInfo info = new RequestMappingInfo(new PatternsRequestCondition(pattern), null, null, null, null, null, null);
+        UserController controller = new UserController();
+        handlerMethods.put(info, new HandlerMethod(controller, UserController.class.getMethod(methodName)));
+    }
+
+    private static String controllerMethod(String methodName) {
+        return UserController.class.getName() + "#" + methodName;
+    }
+
+    @Before
+    public void init() throws Exception {
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        addMapping(handlerMethods, "/mvc/sys/user/findByPage", "findByPage");
+        addMapping(handlerMethods, "/mvc/sys/user/{id}", "getUser");
+        addMapping(handlerMethods, "/model/{modelId}/save", "saveModel");
+
+        final Map<String, Resources> resourcesMap = new HashMap<>();
+        for (String methodName : new String[]{"findByPage", "getUser", "saveModel"}) {
+            resourcesMap.put(controllerMethod(methodName), newResources(controllerMethod(methodName), "sys:user:" + methodName));
+        }
+        // 只需要getResourcesByMethod方法
+        //noinspection Convert2Lambda
+        IUserPermissionsService userPermissionsService = (IUserPermissionsService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{IUserPermissionsService.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("getResourcesByMethod".equals(method.getName())) {
+                            return resourcesMap.get(args[0]);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        table = PermissionRouteTable.build(1L, handlerMethods, userPermissionsService);
+    }
+
+    private PermissionRouteTable.Route getRoute(String url) {
+        return table.getRoute(url, url);
+    }
+
+    @Test
+    public void testTemplateVariable() {
+        PermissionRouteTable.Route route = getRoute("/mvc/sys/user/7");
+        Assert.assertNotNull(route);
+        Assert.assertEquals(controllerMethod("getUser"), route.getControllerMethod());
+        Assert.assertEquals("sys:user:getUser", table.getPermission(route.getPermissionIndex()));
+
+        route = getRoute("/model/12/save");
+        Assert.assertNotNull(route);
+        Assert.assertEquals(controllerMethod("saveModel"), route.getControllerMethod());
+
+        // 无变量的Url优先
+        route = getRoute("/mvc/sys/user/findByPage");
+        Assert.assertNotNull(route);
+        Assert.assertEquals(controllerMethod("findByPage"), route.getControllerMethod());
+
+        // 未匹配到路由返回null，由调用者回退到HandlerMapping
+        Assert.assertNull(getRoute("/mvc/sys/user/7/other"));
+    }
+
+    @Test
+    public void testLookupPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cleverframe/mvc/sys/user/findByPage;jsessionid=0123456789ABCDEF");
+        request.setContextPath("/cleverframe");
+        request.setServletPath("/mvc/sys/user/findByPage");
+        String url = urlPathHelper.getLookupPathForRequest(request);
+        Assert.assertEquals("/mvc/sys/user/findByPage", url);
+        PermissionRouteTable.Route route = getRoute(url);
+        Assert.assertNotNull(route);
+        Assert.assertEquals(controllerMethod("findByPage"), route.getControllerMethod());
+
+        request = new MockHttpServletRequest("GET", "/cleverframe/mvc/sys/user/%37;jsessionid=0123456789ABCDEF");
+        request.setContextPath("/cleverframe");
+        request.setServletPath("/mvc/sys/user/7");
+        url = urlPathHelper.getLookupPathForRequest(request);
+        Assert.assertEquals("/mvc/sys/user/7", url);
+        route = getRoute(url);
+        Assert.assertNotNull(route);
+        Assert.assertEquals(controllerMethod("getUser"), route.getControllerMethod());
+    }
+}
@@ -0,0 +1,122 @@
+package sys.shiro;
+
+import org.apache.shiro.session.Session;
+import org.apache.shiro.session.mgt.eis.CachingSessionDAO;
+import org.cleverframe.sys.service.LoginSessionService;
+import org.cleverframe.sys.shiro.DataBaseSessionDao;
+import org.cleverframe.sys.shiro.OffHeapSessionDao;
+import org.cleverframe.sys.shiro.ShiroSession;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DataBaseSessionDao与OffHeapSessionDao性能对比<br/>
+ * 不设置缓存，直接测试Session存储的新增、读取、只更新访问时间、更新数据、扫描过期Session、删除<br/>
+ * 运行方式：直接运行main方法(需要能连接数据库)，参数(可选)：Session数量(逗号分隔，默认：10000,100000,1000000)<br/>
+ * <p/>
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-17 20:10 <br/>
+ */
+public class SessionDaoBenchmark {
+
+    private static List<ShiroSession> newSessions(int count) {
+        List<ShiroSession> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ShiroSession session = new ShiroSession("127.0.0.1");
+            session.setTimeout(30 * 60 * 1000L);
+            session.setAttribute("benchmark-index", i);
+            session.setAttribute("benchmark-name", "session-" + i);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private static void benchmark(String name, CachingSessionDAO sessionDAO, int count) {
+        List<ShiroSession> sessions = newSessions(count);
+        List<Serializable> sessionIds = new ArrayList<>(count);
+
+        long start = System.currentTimeMillis();
+        for (ShiroSession session : sessions) {
+            sessionIds.add(sessionDAO.create(session));
+        }
+        long createTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        for (Serializable sessionId : sessionIds) {
+            sessionDAO.readSession(sessionId);
+        }
+        long readTime = System.currentTimeMillis() - start;
+
+        // 只更新访问时间
+        start = System.currentTimeMillis();
+        for (ShiroSession session : sessions) {
+            session.setLastAccessTime(new Date(System.currentTimeMillis() + ShiroSession.CHANGE_INTERVAL));
+            sessionDAO.update(session);
+        }
+        if (sessionDAO instanceof DataBaseSessionDao) {
+            ((DataBaseSessionDao) sessionDAO).flushPending();
+        }
+        long touchTime = System.currentTimeMillis() - start;
+
+        // 更新数据
+        start = System.currentTimeMillis();
+        for (ShiroSession session : sessions) {
+            session.setAttribute("benchmark-update", Boolean.TRUE);
+            sessionDAO.update(session);
+        }
+        if (sessionDAO instanceof DataBaseSessionDao) {
+            ((DataBaseSessionDao) sessionDAO).flushPending();
+        }
+        long updateTime = System.currentTimeMillis() - start;
+
+        // 扫描过期Session: 全量扫描 与 只查询过期索引
+        start = System.currentTimeMillis();
+        int activeCount = sessionDAO.getActiveSessions().size();
+        long scanTime = System.currentTimeMillis() - start;
+        long expiredTime = -1;
+        if (sessionDAO instanceof OffHeapSessionDao) {
+            start = System.currentTimeMillis();
+            ((OffHeapSessionDao) sessionDAO).getExpiredSessionIds(1000);
+            expiredTime = System.currentTimeMillis() - start;
+        }
+
+        start = System.currentTimeMillis();
+        for (Session session : sessions) {
+            sessionDAO.delete(session);
+        }
+        long deleteTime = System.currentTimeMillis() - start;
+
+        System.out.println(String.format("%-20s count=%-8d create=%-7dms read=%-7dms touch=%-7dms update=%-7dms scan(%d)=%-7dms expired=%-5dms delete=%-7dms",
+                name, count, createTime, readTime, touchTime, updateTime, activeCount, scanTime, expiredTime, deleteTime));
+    }
+
+    public static void main(String[] args) {
+        String sessionCounts = args.length > 0 ? args[0] : "10000,100000,1000000";
+        ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext("classpath:/spring/spring-context-all.xml");
+        try {
+            LoginSessionService loginSessionService = applicationContext.getBean(LoginSessionService.class);
+            DataSource dataSource = applicationContext.getBean(DataSource.class);
+            for (String tmp : sessionCounts.split(",")) {
+                int count = Integer.parseInt(tmp.trim());
+
+                OffHeapSessionDao offHeapSessionDao = new OffHeapSessionDao();
+                offHeapSessionDao.setMaxMemory(2L * 1024 * 1024 * 1024);
+                benchmark("OffHeapSessionDao", offHeapSessionDao, count);
+                System.out.println("OffHeapSessionDao 已申请堆外内存=" + offHeapSessionDao.getAllocatedBytes());
+
+                DataBaseSessionDao dataBaseSessionDao = new DataBaseSessionDao(loginSessionService);
+                dataBaseSessionDao.setDataSource(dataSource);
+                dataBaseSessionDao.setWriteDelay(60 * 1000L);
+                benchmark("DataBaseSessionDao", dataBaseSessionDao, count);
+                dataBaseSessionDao.destroy();
+            }
+        } finally {
+            applicationContext.close();
+        }
+    }
+}
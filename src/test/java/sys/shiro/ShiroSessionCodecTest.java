@@ -0,0 +1,126 @@
+package sys.shiro;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.shiro.session.Session;
+import org.cleverframe.sys.shiro.ShiroSession;
+import org.cleverframe.sys.shiro.ShiroSessionCodec;
+import org.cleverframe.sys.utils.ShiroSessionUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 作者：LiZW <br/>
+ * 创建时间：2026-10-18 07:20 <br/>
+ */
+public class ShiroSessionCodecTest {
+
+    @SuppressWarnings("unused")
+    public static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int x;
+
+        private int y;
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Point && ((Point) obj).x == x && ((Point) obj).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return x * 31 + y;
+        }
+    }
+
+    private static ShiroSession newSession() {
+        ShiroSession session = new ShiroSession("127.0.0.1");
+        session.setId("6f1c1c3e-7c1b-4f0e-9f0a-3d2a6c1d9b11");
+        session.setTimeout(30 * 60 * 1000L);
+        session.setLastAccessTime(new Date(System.currentTimeMillis() + 1000));
+        session.setAttribute("string", "李志伟");
+        session.setAttribute("boolean", Boolean.TRUE);
+        session.setAttribute("integer", 123);
+        session.setAttribute("long", 1234567890123L);
+        session.setAttribute("character", 'c');
+        session.setAttribute("date", new Date(1479000000000L));
+        session.setAttribute("null", null);
+        return session;
+    }
+
+    private static void assertSessionEquals(ShiroSession expected, Session actual) {
+        Assert.assertTrue(actual instanceof ShiroSession);
+        ShiroSession session = (ShiroSession) actual;
+        Assert.assertEquals(expected.getId(), session.getId());
+        Assert.assertEquals(expected.getHost(), session.getHost());
+        Assert.assertEquals(expected.getTimeout(), session.getTimeout());
+        Assert.assertEquals(expected.getStartTimestamp(), session.getStartTimestamp());
+        Assert.assertEquals(expected.getLastAccessTime(), session.getLastAccessTime());
+        Assert.assertEquals(expected.getAttributeKeys(), session.getAttributeKeys());
+        for (Object key : expected.getAttributeKeys()) {
+            Assert.assertEquals(expected.getAttribute(key), session.getAttribute(key));
+        }
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        ShiroSession session = newSession();
+        byte[] data = ShiroSessionCodec.encode(session);
+        Assert.assertTrue(ShiroSessionCodec.isEncoded(data));
+        ShiroSession decoded = ShiroSessionCodec.decode(data);
+        assertSessionEquals(session, decoded);
+        Assert.assertFalse(decoded.isChanged());
+        Assert.assertEquals(String.class, decoded.getAttribute("string").getClass());
+        Assert.assertEquals(Date.class, decoded.getAttribute("date").getClass());
+    }
+
+    /**
+     * 其它类型的属性值使用Java序列化
+     */
+    @Test
+    public void testSerializableAttribute() {
+        ShiroSession session = newSession();
+        List<String> list = new ArrayList<>();
+        list.add("a");
+        list.add("b");
+        session.setAttribute("list", list);
+        session.setAttribute("point", new Point(1, 2));
+        session.setAttribute("timestamp", new Timestamp(1479000000123L));
+        ShiroSession decoded = ShiroSessionCodec.decode(ShiroSessionCodec.encode(session));
+        assertSessionEquals(session, decoded);
+        Assert.assertEquals(Timestamp.class, decoded.getAttribute("timestamp").getClass());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotSerializableAttribute() {
+        ShiroSession session = newSession();
+        session.setAttribute("object", new Object());
+        ShiroSessionCodec.encode(session);
+    }
+
+    /**
+     * 数据库中已经存在的Java序列化数据仍然可以读取
+     */
+    @Test
+    public void testJavaSerializationData() {
+        ShiroSession session = newSession();
+        byte[] data = SerializationUtils.serialize(session);
+        Assert.assertFalse(ShiroSessionCodec.isEncoded(data));
+        assertSessionEquals(session, ShiroSessionUtils.deserialize(data));
+
+        data = ShiroSessionUtils.serialize(session);
+        Assert.assertTrue(ShiroSessionCodec.isEncoded(data));
+        assertSessionEquals(session, ShiroSessionUtils.deserialize(data));
+    }
+}